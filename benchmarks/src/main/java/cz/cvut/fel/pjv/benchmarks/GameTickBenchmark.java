@@ -0,0 +1,156 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 Zdenek.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package cz.cvut.fel.pjv.benchmarks;
+
+import cz.cvut.fel.pjv.Game;
+import cz.cvut.fel.pjv.NpcScheduler;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Time of one tick of the simulation of the world from mapConfig.JSON, without drawing.
+ * Average numbers of NPCs in tiers of {@link NpcScheduler} are reported next to the time.
+ *
+ * @author Zdenek
+ * @version 1.2
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class GameTickBenchmark {
+    
+    /**
+     * Number of threads deciding NPC moves.
+     */
+    @Param({"1", "4"})
+    public int npcThreads;
+    
+    private Game game;
+
+    /**
+     * Create the game with the player at the spawn.
+     *
+     * @throws IOException if the map configuration could not be read
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        game = new Game(1280, 720);
+        game.getWorld().setNpcThreads(npcThreads);
+    }
+    
+    /**
+     * Release files of the game and threads deciding NPC moves.
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        game.close();
+    }
+
+    /**
+     * Run one tick, the killed player is respawned so the world keeps running around him.
+     *
+     * @param tiers counters of NPCs in tiers
+     */
+    @Benchmark
+    public void tick(NpcTiers tiers) {
+        if (game.getPlayer().isKilled()) { game.respawnPlayer(); }
+        game.tick();
+        tiers.count(game.getWorld().getNpcScheduler());
+    }
+    
+    /**
+     * Average numbers of NPCs in tiers per tick in the iteration.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class NpcTiers {
+        
+        private long ticks;
+        private long full;
+        private long reduced;
+        private long frozen;
+        
+        /**
+         * Reset the counters before the iteration.
+         */
+        @Setup(Level.Iteration)
+        public void reset() {
+            ticks = 0;
+            full = 0;
+            reduced = 0;
+            frozen = 0;
+        }
+        
+        void count(NpcScheduler scheduler) {
+            ticks++;
+            full += scheduler.getTierCount(NpcScheduler.FULL);
+            reduced += scheduler.getTierCount(NpcScheduler.REDUCED);
+            frozen += scheduler.getTierCount(NpcScheduler.FROZEN);
+        }
+        
+        /**
+         * @return average number of NPCs updated every tick
+         */
+        public double fullNpcs() {
+            return average(full);
+        }
+        
+        /**
+         * @return average number of NPCs updated once in a few ticks
+         */
+        public double reducedNpcs() {
+            return average(reduced);
+        }
+        
+        /**
+         * @return average number of frozen NPCs
+         */
+        public double frozenNpcs() {
+            return average(frozen);
+        }
+        
+        private double average(long count) {
+            return ticks == 0 ? 0 : (double) count / ticks;
+        }
+        
+    }
+    
+}
@@ -0,0 +1,382 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 Zdenek.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package cz.cvut.fel.pjv;
+
+import cz.cvut.fel.pjv.blocks.BlockType;
+import cz.cvut.fel.pjv.blocks.Chunk;
+import cz.cvut.fel.pjv.blocks.TileQuery;
+import cz.cvut.fel.pjv.creatures.CreatureType;
+import cz.cvut.fel.pjv.creatures.NPC;
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Behaviour of blocks over time. Tiles get two kinds of ticks:
+ * <ul>
+ * <li>scheduled ticks, asked for a tile with a delay in ticks, they are kept in a timing wheel
+ * of {@link #WHEEL_SIZE} slots, so scheduling and cancelling costs constant time and one tick visits only
+ * the tiles due in it. Longer delays wait for more rounds of the wheel in their slot.</li>
+ * <li>random ticks, a few random tiles of every loaded chunk near the player get one in each tick.</li>
+ * </ul>
+ * At most a given number of scheduled ticks run in one tick, the rest waits for the next one.
+ * Grass spreads onto dirt with air above it and turns back to dirt when it is covered, liquid
+ * left unsettled wakes up and spawners bring back their NPCs after they were killed.
+ *
+ * @author Zdenek
+ * @version 1.2
+ */
+public class BlockTicks implements Serializable {
+    
+    /**
+     * Number of slots of the timing wheel.
+     */
+    public static final int WHEEL_SIZE = 256;
+    private static final int WHEEL_MASK = WHEEL_SIZE - 1;
+    
+    /**
+     * Number of ticks after which covered grass turns to dirt.
+     */
+    public static final int GRASS_DECAY_TICKS = 100;
+    
+    /**
+     * Minimal distance in tiles of the player from a spawner bringing back its NPC.
+     */
+    public static final int SPAWN_DISTANCE = 32;
+    
+    private final World world;
+    private final int HEIGHT;
+    private final int ticksPerUpdate;
+    private final int randomTicksPerChunk;
+    private final int randomTickRadius;
+    private final int spawnerPeriod;
+    private final Random random;
+    
+    private final Slot[] wheel = new Slot[WHEEL_SIZE];
+    
+    /**
+     * Due tick of every scheduled tile stored as X*HEIGHT+Y, X inside the world.
+     * Checks of spawners are stored as -1-(X*HEIGHT+Y), so cancelling a tick of the tile does not stop the spawner.
+     * Entries of the wheel not matching it were cancelled.
+     */
+    private final Map<Integer, Long> scheduled = new HashMap<>();
+    
+    /**
+     * Spawners by their tiles and NPCs they spawned.
+     */
+    private final Map<Integer, CreatureType> spawnerTypes = new HashMap<>();
+    private final Map<Integer, NPC> spawnerNpcs = new HashMap<>();
+    
+    private long ticks = 0;
+    private int playerTileX = 0;
+    private int scheduledCount = 0;
+    private int randomCount = 0;
+    private long spawnedCount = 0;
+
+    /**
+     * Create new block ticks.
+     *
+     * @param world instance of the world
+     * @param ticksPerUpdate maximal number of scheduled ticks run in one tick
+     * @param randomTicksPerChunk number of random ticks of every chunk in one tick
+     * @param randomTickRadius distance in chunks from the player up to which chunks get random ticks
+     * @param spawnerPeriod number of ticks between two checks of a spawner
+     * @param seed seed of the random ticks
+     * @since 1.0
+     */
+    public BlockTicks(World world, int ticksPerUpdate, int randomTicksPerChunk, int randomTickRadius, int spawnerPeriod, long seed) {
+        this.world = world;
+        this.HEIGHT = world.getWorldMap().getHEIGHT();
+        this.ticksPerUpdate = ticksPerUpdate;
+        this.randomTicksPerChunk = randomTicksPerChunk;
+        this.randomTickRadius = randomTickRadius;
+        this.spawnerPeriod = Math.max(spawnerPeriod, 1);
+        this.random = new Random(seed);
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            wheel[i] = new Slot();
+        }
+    }
+    
+    /**
+     * Tiles due in one slot of the wheel.
+     */
+    private static class Slot implements Serializable {
+        
+        private int[] cells = new int[4];
+        private long[] dueTicks = new long[4];
+        private int size = 0;
+        
+        void add(int cell, long dueTick) {
+            if (size == cells.length) {
+                int[] newCells = new int[size*2];
+                long[] newDueTicks = new long[size*2];
+                System.arraycopy(cells, 0, newCells, 0, size);
+                System.arraycopy(dueTicks, 0, newDueTicks, 0, size);
+                cells = newCells;
+                dueTicks = newDueTicks;
+            }
+            cells[size] = cell;
+            dueTicks[size] = dueTick;
+            size++;
+        }
+        
+    }
+    
+    /**
+     * Schedule a tick of the tile. A tile has at most one scheduled tick,
+     * if it already has one, the earlier of them is kept.
+     *
+     * @param tileX X coordinate of the tile, the world is looping so any value is valid
+     * @param tileY Y coordinate of the tile
+     * @param delay number of ticks until the tick, at least 1
+     * @return true if the tick was scheduled, false if the tile is outside of the world or has an earlier tick
+     * @since 1.0
+     */
+    public boolean schedule(int tileX, int tileY, int delay) {
+        if (tileY < 0 || tileY >= HEIGHT) { return false; }
+        return add(world.wrapTileX(tileX)*HEIGHT + tileY, delay);
+    }
+    
+    private boolean add(int key, int delay) {
+        long dueTick = ticks + Math.max(delay, 1);
+        Long current = scheduled.get(key);
+        if (current != null && current <= dueTick) { return false; }
+        scheduled.put(key, dueTick);
+        wheel[(int) (dueTick & WHEEL_MASK)].add(key, dueTick);
+        return true;
+    }
+    
+    /**
+     * Cancel the scheduled tick of the tile.
+     *
+     * @param tileX X coordinate of the tile, the world is looping so any value is valid
+     * @param tileY Y coordinate of the tile
+     * @return true if the tile had a scheduled tick, false otherwise
+     * @since 1.0
+     */
+    public boolean cancel(int tileX, int tileY) {
+        if (tileY < 0 || tileY >= HEIGHT) { return false; }
+        //the entry stays in the wheel, it is dropped when its slot comes
+        return scheduled.remove(world.wrapTileX(tileX)*HEIGHT + tileY) != null;
+    }
+    
+    /**
+     * @param tileX X coordinate of the tile, the world is looping so any value is valid
+     * @param tileY Y coordinate of the tile
+     * @return true if the tile has a scheduled tick, false otherwise
+     * @since 1.0
+     */
+    public boolean isScheduled(int tileX, int tileY) {
+        if (tileY < 0 || tileY >= HEIGHT) { return false; }
+        return scheduled.containsKey(world.wrapTileX(tileX)*HEIGHT + tileY);
+    }
+    
+    /**
+     * Add a spawner bringing back its NPC after it was killed, it is checked once in the spawner period.
+     *
+     * @param tileX X coordinate of the spawner tile
+     * @param tileY Y coordinate of the spawner tile, the NPC appears on it
+     * @param type type of the spawned NPC
+     * @param npc NPC spawned by the spawner, null if there is none yet
+     * @since 1.0
+     */
+    public void addSpawner(int tileX, int tileY, CreatureType type, NPC npc) {
+        if (tileY < 0 || tileY >= HEIGHT) { return; }
+        int cell = world.wrapTileX(tileX)*HEIGHT + tileY;
+        spawnerTypes.put(cell, type);
+        spawnerNpcs.put(cell, npc);
+        add(-1 - cell, spawnerPeriod);
+    }
+    
+    /**
+     * Called when the tile changes, grass below a solid block turns to dirt after {@link #GRASS_DECAY_TICKS}.
+     *
+     * @param tileX X coordinate of the tile, the world is looping so any value is valid
+     * @param tileY Y coordinate of the tile
+     * @param type new type of the block on the tile, null for air
+     * @since 1.0
+     */
+    public void tileChanged(int tileX, int tileY, BlockType type) {
+        if (tileY + 1 >= HEIGHT || world.getTile(tileX, tileY + 1) != BlockType.DIRT_WITH_GRASS) { return; }
+        if (TileQuery.matches(type, TileQuery.SOLID)) {
+            schedule(tileX, tileY + 1, GRASS_DECAY_TICKS);
+        } else {
+            cancel(tileX, tileY + 1);
+        }
+    }
+    
+    /**
+     * Run one tick, scheduled ticks due in it and random ticks of the chunks around the player.
+     *
+     * @param playerTileX X coordinate of the tile of the player
+     * @since 1.0
+     */
+    public void tick(int playerTileX) {
+        this.playerTileX = playerTileX;
+        ticks++;
+        runScheduled();
+        runRandom();
+    }
+    
+    private void runScheduled() {
+        Slot slot = wheel[(int) (ticks & WHEEL_MASK)];
+        Slot nextSlot = wheel[(int) ((ticks + 1) & WHEEL_MASK)];
+        //ticks scheduled by the ticks run now are added behind the visited entries
+        int count = slot.size;
+        int kept = 0;
+        scheduledCount = 0;
+        for (int i = 0; i < count; i++) {
+            int key = slot.cells[i];
+            long dueTick = slot.dueTicks[i];
+            if (dueTick > ticks) {
+                //waits for another round of the wheel
+                slot.cells[kept] = key;
+                slot.dueTicks[kept] = dueTick;
+                kept++;
+                continue;
+            }
+            Long current = scheduled.get(key);
+            //cancelled or scheduled again to another tick
+            if (current == null || current != dueTick) { continue; }
+            if (scheduledCount >= ticksPerUpdate) {
+                nextSlot.add(key, dueTick);
+                continue;
+            }
+            scheduled.remove(key);
+            scheduledCount++;
+            if (key < 0) {
+                spawn(-1 - key);
+            } else {
+                scheduledTick(key / HEIGHT, key % HEIGHT);
+            }
+        }
+        for (int i = count; i < slot.size; i++) {
+            slot.cells[kept] = slot.cells[i];
+            slot.dueTicks[kept] = slot.dueTicks[i];
+            kept++;
+        }
+        slot.size = kept;
+    }
+    
+    private void runRandom() {
+        randomCount = 0;
+        if (randomTicksPerChunk <= 0) { return; }
+        int chunkX = world.wrapTileX(playerTileX) / Chunk.SIZE;
+        int chunksY = (HEIGHT + Chunk.SIZE - 1) / Chunk.SIZE;
+        for (int i = chunkX - randomTickRadius; i <= chunkX + randomTickRadius; i++) {
+            int x0 = i*Chunk.SIZE;
+            if (!world.isColumnLoaded(x0)) { continue; }
+            for (int j = 0; j < chunksY; j++) {
+                int y0 = j*Chunk.SIZE;
+                //chunks of air have nothing to tick
+                if (!world.getTiles().hasTilesInChunk(world.wrapTileX(x0), y0, TileQuery.ANY)) { continue; }
+                for (int k = 0; k < randomTicksPerChunk; k++) {
+                    int y = y0 + random.nextInt(Chunk.SIZE);
+                    if (y >= HEIGHT) { continue; }
+                    randomTick(x0 + random.nextInt(Chunk.SIZE), y);
+                    randomCount++;
+                }
+            }
+        }
+    }
+    
+    private void scheduledTick(int tileX, int tileY) {
+        if (world.getTile(tileX, tileY) == BlockType.DIRT_WITH_GRASS && isCovered(tileX, tileY)) {
+            world.setTile(tileX, tileY, BlockType.DIRT);
+        }
+    }
+    
+    private void randomTick(int tileX, int tileY) {
+        BlockType type = world.getTile(tileX, tileY);
+        if (type == null) { return; }
+        if (type.isLiquid()) {
+            //liquid left unsettled in a column that was not loaded flows again
+            world.getLiquids().activate(tileX, tileY);
+        } else if (type == BlockType.DIRT_WITH_GRASS) {
+            if (isCovered(tileX, tileY)) {
+                //grass covered while its column was not loaded decays as if it was covered now
+                if (!isScheduled(tileX, tileY)) { schedule(tileX, tileY, GRASS_DECAY_TICKS); }
+                return;
+            }
+            //grass spreads to one of the tiles around it, one tile up or down
+            int x = tileX + random.nextInt(3) - 1;
+            int y = tileY + random.nextInt(3) - 1;
+            if (y < 0 || y >= HEIGHT || !world.isColumnLoaded(x)) { return; }
+            if (world.getTile(x, y) == BlockType.DIRT && !isCovered(x, y)) { world.setTile(x, y, BlockType.DIRT_WITH_GRASS); }
+        }
+    }
+    
+    //grass needs air above it
+    private boolean isCovered(int tileX, int tileY) {
+        return tileY > 0 && world.getTile(tileX, tileY - 1) != null;
+    }
+    
+    private void spawn(int cell) {
+        add(-1 - cell, spawnerPeriod);
+        int tileX = cell / HEIGHT;
+        int tileY = cell % HEIGHT;
+        NPC npc = spawnerNpcs.get(cell);
+        if (npc != null && !npc.isKilled()) { return; }
+        if (!world.isColumnLoaded(tileX)) { return; }
+        //NPC does not appear in front of the player
+        int distance = Math.abs(world.wrapTileX(tileX - playerTileX + world.getWIDTH()/2) - world.getWIDTH()/2);
+        if (distance < SPAWN_DISTANCE) { return; }
+        spawnerNpcs.put(cell, world.spawnNPC(tileX, tileY, spawnerTypes.get(cell)));
+        spawnedCount++;
+    }
+    
+    /**
+     * @return number of scheduled ticks of tiles and spawners
+     * @since 1.0
+     */
+    public int getScheduledCount() {
+        return scheduled.size();
+    }
+    
+    /**
+     * @return number of scheduled ticks run in the last tick
+     * @since 1.0
+     */
+    public int getRunCount() {
+        return scheduledCount;
+    }
+    
+    /**
+     * @return number of random ticks in the last tick
+     * @since 1.0
+     */
+    public int getRandomCount() {
+        return randomCount;
+    }
+    
+    /**
+     * @return number of NPCs brought back by spawners
+     * @since 1.0
+     */
+    public long getSpawnedCount() {
+        return spawnedCount;
+    }
+    
+}
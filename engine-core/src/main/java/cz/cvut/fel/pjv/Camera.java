@@ -0,0 +1,200 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 Michal-jr.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package cz.cvut.fel.pjv;
+
+import cz.cvut.fel.pjv.blocks.Block;
+import cz.cvut.fel.pjv.creatures.Creature;
+import java.io.Serializable;
+
+/**
+ * View of the world on the canvas. Entities keep their world coordinates,
+ * the camera maps them to the canvas only when drawing and back when handling the input.
+ *
+ * @author Michal-jr
+ * @version 1.3
+ */
+public class Camera implements Serializable {
+    
+    private final double WIDTH;
+    private final double HEIGHT;
+    private final int MAP_WIDTH;
+    private final double MARGIN = 90;
+    private double offsetX = 0;
+    private double offsetY = 0;
+    private double scale = 1;
+
+    /**
+     * Create new camera looking at the origin of the world.
+     *
+     * @param WIDTH width of the canvas in pixels
+     * @param HEIGHT height of the canvas in pixels
+     * @param MAP_WIDTH width of the world in blocks
+     * @since 1.0
+     */
+    public Camera(double WIDTH, double HEIGHT, int MAP_WIDTH) {
+        this.WIDTH = WIDTH;
+        this.HEIGHT = HEIGHT;
+        this.MAP_WIDTH = MAP_WIDTH;
+    }
+    
+    /**
+     * If player is moving outside from canvas, move the camera,
+     * so player stays in the canvas.
+     *
+     * @param player instance of the followed creature
+     * @since 1.0
+     */
+    public void follow(Creature player) {
+        follow(player, 1);
+    }
+    
+    /**
+     * If player is moving outside from canvas, move the camera,
+     * so player drawn between his last two positions stays in the canvas.
+     *
+     * @param player instance of the followed creature
+     * @param alpha part of the tick passed since the player's last position, from 0 to 1
+     * @since 1.2
+     */
+    public void follow(Creature player, double alpha) {
+        follow(player.getInterpolatedX(alpha), player.getInterpolatedY(alpha), player.getWidth(), player.getHeight());
+    }
+    
+    /**
+     * If the followed entity is moving outside from canvas, move the camera,
+     * so the entity stays in the canvas.
+     *
+     * @param playerX pixel X coordinate of the followed entity
+     * @param playerY pixel Y coordinate of the followed entity
+     * @param width width of the followed entity in pixels
+     * @param height height of the followed entity in pixels
+     * @since 1.3
+     */
+    public void follow(double playerX, double playerY, double width, double height) {
+        double x = toScreenX(playerX);
+        double y = toScreenY(playerY);
+        x = Math.max(MARGIN, Math.min(x, WIDTH - MARGIN - width*scale));
+        y = Math.max(MARGIN, Math.min(y, HEIGHT - MARGIN - height*scale));
+        //derive the offset from the player, so the camera is in the same loop of the world as the player
+        offsetX = playerX - x/scale;
+        offsetY = playerY - y/scale;
+    }
+    
+    /**
+     * Move the camera, so the creature is in the middle of the canvas.
+     *
+     * @param player instance of the creature
+     * @since 1.0
+     */
+    public void centerOn(Creature player) {
+        centerOn(player.getX(), player.getY());
+    }
+    
+    /**
+     * Move the camera, so the given point is in the middle of the canvas.
+     *
+     * @param x pixel X coordinate in the world
+     * @param y pixel Y coordinate in the world
+     * @since 1.3
+     */
+    public void centerOn(double x, double y) {
+        offsetX = x - WIDTH/2/scale;
+        offsetY = y - HEIGHT/2/scale;
+    }
+    
+    /**
+     * @param x pixel X coordinate in the world
+     * @return pixel X coordinate on the canvas
+     * @since 1.0
+     */
+    public double toScreenX(double x) {
+        double worldWidth = MAP_WIDTH * Block.block_width;
+        double dx = x - offsetX;
+        //the world is looping, take the copy of the position closest to the canvas
+        dx -= Math.floor((dx + (worldWidth - WIDTH/scale)/2) / worldWidth) * worldWidth;
+        return dx*scale;
+    }
+    
+    /**
+     * @param y pixel Y coordinate in the world
+     * @return pixel Y coordinate on the canvas
+     * @since 1.0
+     */
+    public double toScreenY(double y) {
+        return (y - offsetY)*scale;
+    }
+    
+    /**
+     * @param x pixel X coordinate on the canvas
+     * @return pixel X coordinate in the world
+     * @since 1.0
+     */
+    public double toWorldX(double x) {
+        return offsetX + x/scale;
+    }
+    
+    /**
+     * @param y pixel Y coordinate on the canvas
+     * @return pixel Y coordinate in the world
+     * @since 1.0
+     */
+    public double toWorldY(double y) {
+        return offsetY + y/scale;
+    }
+
+    /**
+     * @return X coordinate of the top left corner of the canvas in the world
+     * @since 1.0
+     */
+    public double getOffsetX() {
+        return offsetX;
+    }
+
+    /**
+     * @return Y coordinate of the top left corner of the canvas in the world
+     * @since 1.0
+     */
+    public double getOffsetY() {
+        return offsetY;
+    }
+
+    /**
+     * @return scale of the view
+     * @since 1.0
+     */
+    public double getScale() {
+        return scale;
+    }
+
+    /**
+     * Set new scale of the view, the world is not changed.
+     *
+     * @param scale
+     * @since 1.1
+     */
+    public void setScale(double scale) {
+        this.scale = scale;
+    }
+    
+}
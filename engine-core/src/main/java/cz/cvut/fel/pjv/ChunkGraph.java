@@ -0,0 +1,555 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 Zdenek.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package cz.cvut.fel.pjv;
+
+import cz.cvut.fel.pjv.blocks.Chunk;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Graph of chunks for long paths of NPCs. Every chunk is a cluster of tiles, nodes of the graph are tiles
+ * on the borders of the clusters where NPCs move from one cluster to another, the moves are decided
+ * by {@link Pathfinder}. Nodes of one cluster are connected by the costs of the shortest ways between them
+ * inside the cluster. A route is searched over the nodes only and it is refined into tiles later,
+ * one part at a time, by searches of {@link Pathfinder} between its waypoints.
+ * <p>
+ * Clusters are built when a route goes through them for the first time and a cluster is thrown away when
+ * a solid block near it is dug or placed, so only the clusters around the change are built again.
+ * The number of clusters built in one tick is limited, clusters in columns that are not loaded are not built
+ * and clusters of unloaded columns are thrown away.
+ *
+ * @author Zdenek
+ * @version 1.1
+ */
+public class ChunkGraph implements Serializable {
+    
+    private final World world;
+    private final int WIDTH;
+    private final int HEIGHT;
+    private final int chunksY;
+    private final int height;
+    private final int clustersPerTick;
+    private final int nodesPerSearch;
+    
+    /**
+     * Built clusters by their index, see {@link #getClusterIndex(int, int)}.
+     */
+    private final Map<Integer, Cluster> clusters = new HashMap<>();
+    
+    private int remainingClusters;
+    private long builtCount = 0;
+    private long searchCount = 0;
+    
+    //state of searches inside one cluster, reused by all searches
+    private transient int[] localCosts;
+    private transient int[] localVisits;
+    private transient IntHeap localHeap;
+    private transient int localSearch;
+    private transient int localX;
+    private transient int localY;
+    
+    //state of searches of routes, reused by all searches, nodes reached by the search are numbered from 0
+    private transient int[] routeKeys;
+    private transient int[] routeCosts;
+    private transient int[] routeParents;
+    private transient boolean[] routeClosed;
+    private transient int routeCount;
+    private transient IntHeap routeHeap;
+    private transient int routeSearch;
+    //open addressing table from tiles of the nodes to their numbers, entries of older searches are free
+    private transient int[] routeTable;
+    private transient int[] routeTableSearches;
+    //costs of the ways from the nodes of the goal cluster to the goal
+    private transient int[] goalCosts;
+    
+    /**
+     * Nodes of one chunk and the ways between them.
+     */
+    private static class Cluster implements Serializable {
+        
+        /**
+         * Tiles of the nodes, see {@link ChunkGraph#getKey(int, int)}.
+         */
+        private int[] nodes = new int[8];
+        private int nodeCount = 0;
+        
+        /**
+         * Costs of the shortest ways between the nodes inside the cluster, nodeCount*nodeCount, -1 if there is no way.
+         */
+        private int[] costs;
+        
+        /**
+         * Moves out of the cluster, index of the node, tile of the node in the other cluster and cost of the move.
+         */
+        private int[] exitNodes = new int[8];
+        private int[] exitTiles = new int[8];
+        private int[] exitCosts = new int[8];
+        private int exitCount = 0;
+        
+        private int addNode(int key) {
+            for (int i = 0; i < nodeCount; i++) {
+                if (nodes[i] == key) { return i; }
+            }
+            if (nodeCount == nodes.length) { nodes = Arrays.copyOf(nodes, nodeCount*2); }
+            nodes[nodeCount] = key;
+            return nodeCount++;
+        }
+        
+        private int getNode(int key) {
+            for (int i = 0; i < nodeCount; i++) {
+                if (nodes[i] == key) { return i; }
+            }
+            return -1;
+        }
+        
+        private void addExit(int node, int tile, int cost) {
+            if (exitCount == exitNodes.length) {
+                exitNodes = Arrays.copyOf(exitNodes, exitCount*2);
+                exitTiles = Arrays.copyOf(exitTiles, exitCount*2);
+                exitCosts = Arrays.copyOf(exitCosts, exitCount*2);
+            }
+            exitNodes[exitCount] = node;
+            exitTiles[exitCount] = tile;
+            exitCosts[exitCount] = cost;
+            exitCount++;
+        }
+        
+    }
+
+    /**
+     * Create new graph of chunks.
+     *
+     * @param world instance of the world, its pathfinder decides the moves of NPCs
+     * @param height height of bodies of the NPCs using the graph in tiles
+     * @param clustersPerTick maximal number of clusters built in one tick
+     * @param nodesPerSearch maximal number of nodes expanded by one search of a route
+     * @since 1.0
+     */
+    public ChunkGraph(World world, int height, int clustersPerTick, int nodesPerSearch) {
+        this.world = world;
+        this.WIDTH = world.getWIDTH();
+        this.HEIGHT = world.getWorldMap().getHEIGHT();
+        this.chunksY = (HEIGHT + Chunk.SIZE - 1) / Chunk.SIZE;
+        this.height = height;
+        this.clustersPerTick = clustersPerTick;
+        this.nodesPerSearch = nodesPerSearch;
+        remainingClusters = clustersPerTick;
+    }
+    
+    /**
+     * Start new tick, the budget of built clusters is renewed.
+     *
+     * @since 1.0
+     */
+    public void startTick() {
+        remainingClusters = clustersPerTick;
+    }
+    
+    /**
+     * Find route from the start tile to the goal tile over the graph. The route contains the start tile,
+     * tiles where the NPC moves between clusters and the goal tile, the NPC goes between them with paths
+     * of {@link Pathfinder}. The goal may be in the air, the route leads to the ground below it then.
+     *
+     * @param startX X coordinate of the lowest tile of the NPC's body
+     * @param startY Y coordinate of the lowest tile of the NPC's body
+     * @param goalX X coordinate of the goal tile, the world is looping so any value is valid
+     * @param goalY Y coordinate of the goal tile
+     * @param route route filled with the waypoints, X coordinates are near the start, if the goal can not be reached
+     * the route leads to the node closest to it
+     * @return true if the route was searched, false if the clusters on the way could not be built in this tick
+     * and the route was not changed
+     * @since 1.0
+     */
+    public boolean findRoute(int startX, int startY, int goalX, int goalY, Path route) {
+        goalY = world.getPathfinder().getGroundY(goalX, goalY, height);
+        int startKey = getKey(startX, startY);
+        int goalKey = getKey(goalX, goalY);
+        Cluster startCluster = getCluster(startX, startY);
+        Cluster goalCluster = getCluster(goalX, goalY);
+        if (startCluster == null || goalCluster == null) { return false; }
+        searchCount++;
+        startRouteSearch();
+        int start = getRouteNode(startKey);
+        routeCosts[start] = 0;
+        routeHeap.push(start, heuristic(startX, goalX));
+        if (goalCosts == null || goalCosts.length < goalCluster.nodeCount) {
+            goalCosts = new int[Math.max(goalCluster.nodeCount, 16)];
+        }
+        searchLocal(goalX, goalY, true);
+        for (int i = 0; i < goalCluster.nodeCount; i++) {
+            goalCosts[i] = getLocalCost(goalCluster.nodes[i]);
+        }
+        int expanded = 0;
+        int found = -1;
+        int best = start;
+        int bestDistance = Integer.MAX_VALUE;
+        while (!routeHeap.isEmpty() && expanded < nodesPerSearch) {
+            int current = routeHeap.pop();
+            //the node was expanded from a cheaper entry already
+            if (routeClosed[current]) { continue; }
+            routeClosed[current] = true;
+            expanded++;
+            int key = routeKeys[current];
+            if (key == goalKey) {
+                found = current;
+                break;
+            }
+            int cost = routeCosts[current];
+            int x = key / HEIGHT;
+            int y = key % HEIGHT;
+            int distance = heuristic(x, goalX) + Math.abs(y - goalY);
+            if (distance < bestDistance) {
+                best = current;
+                bestDistance = distance;
+            }
+            if (current == start) {
+                //the start is not a node, the ways from it are searched
+                searchLocal(x, y, false);
+                for (int i = 0; i < startCluster.nodeCount; i++) {
+                    int localCost = getLocalCost(startCluster.nodes[i]);
+                    if (localCost >= 0) { relax(current, startCluster.nodes[i], cost + localCost, goalX); }
+                }
+                int localCost = getLocalCost(goalKey);
+                if (localCost >= 0) { relax(current, goalKey, cost + localCost, goalX); }
+            }
+            Cluster cluster = getCluster(x, y);
+            if (cluster == null) { return false; }
+            //the start may be a node too
+            int node = cluster.getNode(key);
+            if (node == -1) { continue; }
+            for (int i = 0; i < cluster.nodeCount; i++) {
+                int localCost = cluster.costs[node*cluster.nodeCount + i];
+                if (i != node && localCost >= 0) { relax(current, cluster.nodes[i], cost + localCost, goalX); }
+            }
+            for (int i = 0; i < cluster.exitCount; i++) {
+                if (cluster.exitNodes[i] == node) { relax(current, cluster.exitTiles[i], cost + cluster.exitCosts[i], goalX); }
+            }
+            if (cluster == goalCluster && goalCosts[node] >= 0) { relax(current, goalKey, cost + goalCosts[node], goalX); }
+        }
+        route.start(goalX, goalY, 0);
+        for (int node = found != -1 ? found : best; node != start; node = routeParents[node]) {
+            route.add(routeKeys[node] / HEIGHT, routeKeys[node] % HEIGHT);
+        }
+        route.add(startX, startY);
+        route.finish(found != -1);
+        //X coordinates of the waypoints are brought next to each other
+        unwrap(route, startX);
+        return true;
+    }
+    
+    private void relax(int from, int toKey, int cost, int goalX) {
+        int to = getRouteNode(toKey);
+        if (routeCosts[to] <= cost) { return; }
+        routeCosts[to] = cost;
+        routeParents[to] = from;
+        routeHeap.push(to, cost + heuristic(toKey / HEIGHT, goalX));
+    }
+    
+    private void startRouteSearch() {
+        if (routeKeys == null) {
+            routeKeys = new int[256];
+            routeCosts = new int[256];
+            routeParents = new int[256];
+            routeClosed = new boolean[256];
+            routeTable = new int[512];
+            routeTableSearches = new int[512];
+            routeHeap = new IntHeap();
+        }
+        routeSearch++;
+        routeCount = 0;
+        routeHeap.clear();
+    }
+    
+    //number of the node in this search, the node is added if it was not reached yet
+    private int getRouteNode(int key) {
+        //the table is kept at most half full
+        if (2*(routeCount + 1) > routeTable.length) { growRouteTable(); }
+        int mask = routeTable.length - 1;
+        int slot = hash(key) & mask;
+        while (routeTableSearches[slot] == routeSearch) {
+            if (routeKeys[routeTable[slot]] == key) { return routeTable[slot]; }
+            slot = (slot + 1) & mask;
+        }
+        if (routeCount == routeKeys.length) {
+            routeKeys = Arrays.copyOf(routeKeys, routeCount*2);
+            routeCosts = Arrays.copyOf(routeCosts, routeCount*2);
+            routeParents = Arrays.copyOf(routeParents, routeCount*2);
+            routeClosed = Arrays.copyOf(routeClosed, routeCount*2);
+        }
+        routeTableSearches[slot] = routeSearch;
+        routeTable[slot] = routeCount;
+        routeKeys[routeCount] = key;
+        routeCosts[routeCount] = Integer.MAX_VALUE;
+        routeParents[routeCount] = -1;
+        routeClosed[routeCount] = false;
+        return routeCount++;
+    }
+    
+    private void growRouteTable() {
+        routeTable = new int[routeTable.length*2];
+        routeTableSearches = new int[routeTable.length];
+        int mask = routeTable.length - 1;
+        for (int node = 0; node < routeCount; node++) {
+            int slot = hash(routeKeys[node]) & mask;
+            while (routeTableSearches[slot] == routeSearch) {
+                slot = (slot + 1) & mask;
+            }
+            routeTableSearches[slot] = routeSearch;
+            routeTable[slot] = node;
+        }
+    }
+    
+    //keys of neighbouring tiles differ little, they are spread over the table
+    private int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+    
+    //columns are crossed at least one step at a time, the world is looping
+    private int heuristic(int x, int goalX) {
+        int distance = Math.abs(wrap(x) - wrap(goalX));
+        return Pathfinder.STEP_COST*Math.min(distance, WIDTH - distance);
+    }
+    
+    private void unwrap(Path route, int startX) {
+        int previousX = startX;
+        for (int i = 0; i < route.getSize(); i++) {
+            int x = route.getTileX(i);
+            x += Math.round((previousX - x) / (float) WIDTH) * WIDTH;
+            route.setTileX(i, x);
+            previousX = x;
+        }
+    }
+    
+    /**
+     * @return built cluster containing the tile, null if it is not built and can not be built in this tick
+     */
+    private Cluster getCluster(int tileX, int tileY) {
+        if (tileY < 0 || tileY >= HEIGHT) { return null; }
+        int chunkX = wrap(tileX) / Chunk.SIZE;
+        int chunkY = tileY / Chunk.SIZE;
+        Integer index = getClusterIndex(chunkX, chunkY);
+        Cluster cluster = clusters.get(index);
+        if (cluster != null) { return cluster; }
+        if (remainingClusters <= 0) { return null; }
+        int x0 = chunkX*Chunk.SIZE;
+        //moves out of the cluster need the tiles of the neighbouring columns
+        for (int x = x0 - 1; x <= x0 + Chunk.SIZE; x++) {
+            if (!world.isColumnLoaded(x)) { return null; }
+        }
+        remainingClusters--;
+        cluster = buildCluster(chunkX, chunkY);
+        clusters.put(index, cluster);
+        return cluster;
+    }
+    
+    private Cluster buildCluster(int chunkX, int chunkY) {
+        builtCount++;
+        Pathfinder pathfinder = world.getPathfinder();
+        Cluster cluster = new Cluster();
+        int x0 = chunkX*Chunk.SIZE;
+        int x1 = Math.min(x0 + Chunk.SIZE, WIDTH) - 1;
+        int y0 = chunkY*Chunk.SIZE;
+        int y1 = Math.min(y0 + Chunk.SIZE, HEIGHT) - 1;
+        //moves between tiles inside and outside of the cluster
+        for (int x = x0 - 1; x <= x1 + 1; x++) {
+            for (int y = Math.max(y0 - Pathfinder.SAFE_DROP, 0); y <= Math.min(y1 + Pathfinder.JUMP_HEIGHT, HEIGHT - 1); y++) {
+                boolean inside = x >= x0 && x <= x1 && y >= y0 && y <= y1;
+                for (int direction = -1; direction <= 1; direction += 2) {
+                    for (int dy = -Pathfinder.JUMP_HEIGHT; dy <= Pathfinder.SAFE_DROP; dy++) {
+                        addCrossing(pathfinder, cluster, x, y, x + direction, y + dy, inside, x0, x1, y0, y1);
+                    }
+                }
+                addCrossing(pathfinder, cluster, x, y, x, y - 1, inside, x0, x1, y0, y1);
+                addCrossing(pathfinder, cluster, x, y, x, y + 1, inside, x0, x1, y0, y1);
+            }
+        }
+        //ways between the nodes inside the cluster
+        int count = cluster.nodeCount;
+        cluster.costs = new int[count*count];
+        for (int i = 0; i < count; i++) {
+            int key = cluster.nodes[i];
+            searchLocal(key / HEIGHT, key % HEIGHT, false);
+            for (int j = 0; j < count; j++) {
+                cluster.costs[i*count + j] = getLocalCost(cluster.nodes[j]);
+            }
+        }
+        return cluster;
+    }
+    
+    private void addCrossing(Pathfinder pathfinder, Cluster cluster, int fromX, int fromY, int toX, int toY,
+            boolean fromInside, int x0, int x1, int y0, int y1) {
+        boolean toInside = toX >= x0 && toX <= x1 && toY >= y0 && toY <= y1;
+        if (fromInside == toInside || toY < 0 || toY >= HEIGHT) { return; }
+        int cost = pathfinder.getMoveCost(fromX, fromY, toX, toY, height);
+        if (cost < 0) { return; }
+        //the same move one tile higher in a liquid is enough, the NPC swims between them
+        if (pathfinder.isLiquid(fromX, fromY) && pathfinder.isLiquid(fromX, fromY - 1)
+                && pathfinder.isLiquid(toX, toY) && pathfinder.isLiquid(toX, toY - 1)
+                && pathfinder.getMoveCost(fromX, fromY - 1, toX, toY - 1, height) >= 0) {
+            return;
+        }
+        if (fromInside) {
+            cluster.addExit(cluster.addNode(getKey(fromX, fromY)), getKey(toX, toY), cost);
+        } else {
+            cluster.addNode(getKey(toX, toY));
+        }
+    }
+    
+    /**
+     * Search costs of the ways from the tile to all tiles of its cluster, or to the tile if reverse is true.
+     */
+    private void searchLocal(int tileX, int tileY, boolean reverse) {
+        if (localCosts == null) {
+            localCosts = new int[Chunk.SIZE*Chunk.SIZE];
+            localVisits = new int[Chunk.SIZE*Chunk.SIZE];
+            localHeap = new IntHeap();
+        }
+        Pathfinder pathfinder = world.getPathfinder();
+        localSearch++;
+        tileX = wrap(tileX);
+        localX = tileX - tileX % Chunk.SIZE;
+        localY = tileY - tileY % Chunk.SIZE;
+        int x1 = Math.min(localX + Chunk.SIZE, WIDTH) - 1;
+        int y1 = Math.min(localY + Chunk.SIZE, HEIGHT) - 1;
+        localHeap.clear();
+        int start = (tileX - localX)*Chunk.SIZE + (tileY - localY);
+        localCosts[start] = 0;
+        localVisits[start] = localSearch;
+        localHeap.push(start, 0);
+        while (!localHeap.isEmpty()) {
+            int cell = localHeap.pop();
+            if (localVisits[cell] != localSearch) { continue; }
+            localVisits[cell] = -localSearch;
+            int x = localX + cell / Chunk.SIZE;
+            int y = localY + cell % Chunk.SIZE;
+            //NPC jumps up or drops down, in the reverse search it comes from the tiles below or above
+            int fromDy = reverse ? -Pathfinder.SAFE_DROP : -Pathfinder.JUMP_HEIGHT;
+            int toDy = reverse ? Pathfinder.JUMP_HEIGHT : Pathfinder.SAFE_DROP;
+            for (int direction = -1; direction <= 1; direction += 2) {
+                for (int dy = fromDy; dy <= toDy; dy++) {
+                    relaxLocal(pathfinder, cell, x, y, x + direction, y + dy, x1, y1, reverse);
+                }
+            }
+            relaxLocal(pathfinder, cell, x, y, x, y - 1, x1, y1, reverse);
+            relaxLocal(pathfinder, cell, x, y, x, y + 1, x1, y1, reverse);
+        }
+    }
+    
+    private void relaxLocal(Pathfinder pathfinder, int from, int fromX, int fromY, int x, int y, int x1, int y1, boolean reverse) {
+        if (x < localX || x > x1 || y < localY || y > y1) { return; }
+        int cell = (x - localX)*Chunk.SIZE + (y - localY);
+        if (localVisits[cell] == -localSearch) { return; }
+        int cost = reverse ? pathfinder.getMoveCost(x, y, fromX, fromY, height) : pathfinder.getMoveCost(fromX, fromY, x, y, height);
+        if (cost < 0) { return; }
+        cost += localCosts[from];
+        if (localVisits[cell] == localSearch && localCosts[cell] <= cost) { return; }
+        localVisits[cell] = localSearch;
+        localCosts[cell] = cost;
+        localHeap.push(cell, cost);
+    }
+    
+    //cost of the way found by the last local search, -1 if the tile was not reached
+    private int getLocalCost(int key) {
+        int x = key / HEIGHT - localX;
+        int y = key % HEIGHT - localY;
+        if (x < 0 || x >= Chunk.SIZE || y < 0 || y >= Chunk.SIZE) { return -1; }
+        int cell = x*Chunk.SIZE + y;
+        return localVisits[cell] == -localSearch ? localCosts[cell] : -1;
+    }
+    
+    /**
+     * Throw away clusters whose nodes or ways may be changed by the changed tile, called when a solid block
+     * is dug or placed. They are built again when a route goes through them.
+     *
+     * @param tileX X coordinate of the changed tile, the world is looping so any value is valid
+     * @param tileY Y coordinate of the changed tile
+     * @since 1.0
+     */
+    public void tileChanged(int tileX, int tileY) {
+        //moves go to the neighbouring column and the NPC's body and drops reach over several rows
+        int margin = Pathfinder.SAFE_DROP + height + 1;
+        for (int x = tileX - 1; x <= tileX + 1; x++) {
+            int chunkX = wrap(x) / Chunk.SIZE;
+            for (int chunkY = Math.max(tileY - margin, 0) / Chunk.SIZE; chunkY <= Math.min(tileY + margin, HEIGHT - 1) / Chunk.SIZE; chunkY++) {
+                clusters.remove(getClusterIndex(chunkX, chunkY));
+            }
+        }
+    }
+    
+    /**
+     * Throw away clusters in columns of chunks that are not loaded anymore, called when the loaded columns
+     * of the infinite world change. They are built again when a route goes through them after they are loaded.
+     *
+     * @since 1.1
+     */
+    public void removeUnloaded() {
+        Iterator<Integer> indices = clusters.keySet().iterator();
+        while (indices.hasNext()) {
+            int chunkX = indices.next() / chunksY;
+            if (!world.isColumnLoaded(chunkX*Chunk.SIZE)) { indices.remove(); }
+        }
+    }
+    
+    private int getClusterIndex(int chunkX, int chunkY) {
+        return chunkX*chunksY + chunkY;
+    }
+    
+    //tile of the node, X coordinate is wrapped into the world
+    private int getKey(int tileX, int tileY) {
+        return wrap(tileX)*HEIGHT + tileY;
+    }
+    
+    private int wrap(int tileX) {
+        return ((tileX % WIDTH) + WIDTH) % WIDTH;
+    }
+    
+    /**
+     * @return number of built clusters held by the graph
+     * @since 1.0
+     */
+    public int getClusterCount() {
+        return clusters.size();
+    }
+    
+    /**
+     * @return total number of clusters built
+     * @since 1.0
+     */
+    public long getBuiltCount() {
+        return builtCount;
+    }
+    
+    /**
+     * @return total number of searched routes
+     * @since 1.0
+     */
+    public long getSearchCount() {
+        return searchCount;
+    }
+    
+}
@@ -0,0 +1,273 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 Zdenek.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package cz.cvut.fel.pjv;
+
+import cz.cvut.fel.pjv.blocks.Chunk;
+import cz.cvut.fel.pjv.blocks.StreamingTileStore;
+import cz.cvut.fel.pjv.fileio.ChunkStorage;
+import cz.cvut.fel.pjv.maps.ChunkGenerator;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.nio.file.Files;
+
+/**
+ * Loads columns of chunks of the infinite world around the player and unloads the columns far from him.
+ * Changed columns are saved to disk before they are unloaded, columns are loaded from disk
+ * or generated if they were never saved.
+ * <p>
+ * Each game writes its columns into its own working directory. Saving the game copies them
+ * into a snapshot directory of the save, see {@link #save(File)}, which is never written again,
+ * so changes made after the save or in another game do not get into it. A loaded game gets a new
+ * working directory and reads columns it did not change from the snapshot of its save.
+ *
+ * @author Zdenek
+ * @version 1.2
+ */
+public class ChunkStreamer implements Serializable {
+    
+    private final StreamingTileStore tiles;
+    private final ChunkGenerator generator;
+    private final int radius;
+    
+    /**
+     * Working directory of the game, directory it is created in and snapshot of the last save.
+     */
+    private transient File directory;
+    private final File root;
+    private File savedDirectory;
+    
+    /**
+     * Buffers for tiles of one column of chunks.
+     */
+    private transient short[] ids;
+    private transient byte[] states;
+    
+    private int lastCenterChunkX = -1;
+    private int generatedColumns = 0;
+    private int readColumns = 0;
+    private int writtenColumns = 0;
+
+    /**
+     * Create new streamer of chunks.
+     *
+     * @param tiles storage of loaded tiles
+     * @param generator generator of columns that were never saved
+     * @param directory working directory for changed columns, it belongs to this game only
+     * @param radius number of columns of chunks loaded on each side of the player,
+     * limited by the number of columns the storage can hold
+     * @since 1.0
+     */
+    public ChunkStreamer(StreamingTileStore tiles, ChunkGenerator generator, File directory, int radius) {
+        this.tiles = tiles;
+        this.generator = generator;
+        this.directory = directory;
+        this.root = directory.getAbsoluteFile().getParentFile();
+        int maxRadius = (Math.min(tiles.getSlotCount(), tiles.getCHUNKS_X()) - 1) / 2;
+        this.radius = Math.max(0, Math.min(radius, maxRadius));
+    }
+    
+    /**
+     * Load columns of chunks around the given column and unload columns out of the radius.
+     * Nothing is done while the center stays in the same column of chunks, unless a changed column
+     * could not be saved, such column stays loaded and it is saved again on the next update.
+     *
+     * @param centerTileX X coordinate of the column of tiles in the center of the loaded area
+     * @return number of newly loaded columns of chunks
+     * @since 1.0
+     */
+    public int update(int centerTileX) {
+        int centerChunkX = centerTileX / Chunk.SIZE;
+        if (centerChunkX == lastCenterChunkX) { return 0; }
+        boolean complete = true;
+        //unload far columns first to free their slots
+        for (int slot = 0; slot < tiles.getSlotCount(); slot++) {
+            int chunkX = tiles.getLoadedChunkX(slot);
+            if (chunkX != -1 && distance(chunkX, centerChunkX) > radius && !unload(chunkX)) { complete = false; }
+        }
+        int loaded = 0;
+        for (int i = -radius; i <= radius; i++) {
+            int chunkX = ((centerChunkX + i) % tiles.getCHUNKS_X() + tiles.getCHUNKS_X()) % tiles.getCHUNKS_X();
+            if (tiles.isLoaded(chunkX * Chunk.SIZE)) { continue; }
+            if (load(chunkX)) {
+                loaded++;
+            } else {
+                complete = false;
+            }
+        }
+        //unsaved columns are tried again on the next update
+        lastCenterChunkX = complete ? centerChunkX : -1;
+        return loaded;
+    }
+    
+    private int distance(int chunkX, int otherChunkX) {
+        int distance = Math.abs(chunkX - otherChunkX);
+        //the world is looping
+        return Math.min(distance, tiles.getCHUNKS_X() - distance);
+    }
+    
+    private boolean load(int chunkX) {
+        //the column sharing the slot has to leave
+        int occupant = tiles.getLoadedChunkX(tiles.getSlot(chunkX));
+        if (occupant != -1 && !unload(occupant)) { return false; }
+        createBuffers();
+        if (ChunkStorage.loadChunkColumn(directory, chunkX, ids, states)
+            || (savedDirectory != null && ChunkStorage.loadChunkColumn(savedDirectory, chunkX, ids, states))) {
+            readColumns++;
+            tiles.loadColumn(chunkX, ids, states);
+        } else {
+            generatedColumns++;
+            generator.generate(chunkX, ids);
+            tiles.loadColumn(chunkX, ids, null);
+        }
+        return true;
+    }
+    
+    private boolean unload(int chunkX) {
+        //changes of the column would be lost
+        if (!save(chunkX)) { return false; }
+        tiles.unloadColumn(chunkX);
+        return true;
+    }
+    
+    private boolean save(int chunkX) {
+        if (!tiles.isModified(chunkX)) { return true; }
+        createBuffers();
+        tiles.exportColumn(chunkX, ids, states);
+        if (!ChunkStorage.saveChunkColumn(directory, chunkX, ids, states)) { return false; }
+        writtenColumns++;
+        tiles.clearModified(chunkX);
+        return true;
+    }
+    
+    private void createBuffers() {
+        if (ids != null) { return; }
+        ids = new short[Chunk.SIZE * tiles.getHEIGHT()];
+        states = new byte[Chunk.SIZE * tiles.getHEIGHT()];
+    }
+    
+    /**
+     * Save all changed loaded columns of chunks to disk, the columns stay loaded.
+     *
+     * @return true if all changed columns were saved, false otherwise
+     * @since 1.0
+     */
+    public boolean saveAll() {
+        boolean saved = true;
+        for (int slot = 0; slot < tiles.getSlotCount(); slot++) {
+            int chunkX = tiles.getLoadedChunkX(slot);
+            if (chunkX != -1 && !save(chunkX)) { saved = false; }
+        }
+        return saved;
+    }
+    
+    /**
+     * Save all changed columns of chunks into a snapshot of the world, the serialized streamer refers to it.
+     * The snapshot of the previous save is not changed, unless it is the given directory.
+     *
+     * @param snapshot directory of the snapshot
+     * @throws IOException if the snapshot could not be written
+     * @since 1.1
+     */
+    public void save(File snapshot) throws IOException {
+        if (!saveAll()) { throw new IOException("Changed columns of chunks could not be saved."); }
+        ChunkStorage.createSnapshot(savedDirectory, directory, snapshot);
+        savedDirectory = snapshot;
+    }
+    
+    /**
+     * Delete the working directory of the game, called when the game is not played anymore.
+     * Snapshots of saves are kept.
+     *
+     * @since 1.1
+     */
+    public void close() {
+        ChunkStorage.deleteDirectory(directory);
+    }
+    
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        //the loaded game does not share its changes with other games loaded from the same save
+        root.mkdirs();
+        directory = Files.createTempDirectory(root.toPath(), "world_").toFile();
+    }
+    
+    /**
+     * @return storage of loaded tiles
+     * @since 1.1
+     */
+    public StreamingTileStore getTiles() {
+        return tiles;
+    }
+    
+    /**
+     * @return working directory of the game
+     * @since 1.1
+     */
+    public File getDirectory() {
+        return directory;
+    }
+    
+    /**
+     * @return snapshot of the last save, null if the game was not saved
+     * @since 1.1
+     */
+    public File getSavedDirectory() {
+        return savedDirectory;
+    }
+    
+    /**
+     * @return number of columns of chunks loaded on each side of the center
+     * @since 1.0
+     */
+    public int getRadius() {
+        return radius;
+    }
+
+    /**
+     * @return number of columns of chunks created by the generator
+     * @since 1.0
+     */
+    public int getGeneratedColumnCount() {
+        return generatedColumns;
+    }
+
+    /**
+     * @return number of columns of chunks read from disk
+     * @since 1.0
+     */
+    public int getReadColumnCount() {
+        return readColumns;
+    }
+
+    /**
+     * @return number of columns of chunks written to disk
+     * @since 1.0
+     */
+    public int getWrittenColumnCount() {
+        return writtenColumns;
+    }
+    
+}
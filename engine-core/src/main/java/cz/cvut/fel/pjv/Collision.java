@@ -0,0 +1,401 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 Michal-jr.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package cz.cvut.fel.pjv;
+
+import cz.cvut.fel.pjv.creatures.Player;
+import cz.cvut.fel.pjv.blocks.LiquidBlock;
+import cz.cvut.fel.pjv.blocks.Block;
+import cz.cvut.fel.pjv.blocks.BlockType;
+import cz.cvut.fel.pjv.blocks.TileQuery;
+import cz.cvut.fel.pjv.creatures.Creature;
+import cz.cvut.fel.pjv.items.Item;
+
+/**
+ * Collision management.
+ * 
+ * @author Michal-jr
+ * @version 1.7
+ */
+public abstract class Collision {
+    
+    /**
+     * Reusable result of tile queries, collisions are resolved one by one in each thread.
+     */
+    private static final ThreadLocal<TileQuery> QUERY = new ThreadLocal<TileQuery>() {
+        @Override
+        protected TileQuery initialValue() {
+            return new TileQuery();
+        }
+    };
+    
+    /**
+     * Reusable result of sweeps, creatures and items are swept one by one in each thread.
+     */
+    private static final ThreadLocal<Sweep> SWEEP = new ThreadLocal<Sweep>() {
+        @Override
+        protected Sweep initialValue() {
+            return new Sweep();
+        }
+    };
+    
+    /**
+     * Check if creature is colliding with other entity.
+     * If it is colliding than edit creature's coordinates.
+     * 
+     * @param creature instance of creature
+     * @param world instance of world where creature exists
+     * @since 1.0
+     */
+    public static void preventCollision(Creature creature, World world) {
+        if (resolveCollision(creature, world)) { creature.die(); }
+    }
+    
+    /**
+     * Check if creature is colliding with other entity, if so, edit creature's coordinates.
+     * The creature is swept along its last move, so it stops at the first tile in its way even when it moves
+     * faster than one tile per tick. Overlaps left after the sweep, for example with a block placed
+     * into the creature, are pushed out.
+     * Fall damage is taken, but the creature does not die, only the creature itself is changed.
+     * 
+     * @param creature instance of creature
+     * @param world instance of world where creature exists
+     * @return true if the creature should die from the fall damage, false otherwise
+     * @since 1.6
+     */
+    public static boolean resolveCollision(Creature creature, World world) {
+        boolean fallen = false;
+        double dx = creature.getMoveX();
+        double dy = creature.getMoveY();
+        creature.resetMove();
+        if (dx != 0 || dy != 0) {
+            Sweep sweep = SWEEP.get();
+            sweep(world, creature.getX() - dx, creature.getY() - dy, creature.getWidth(), creature.getHeight(), dx, dy, TileQuery.SOLID, sweep);
+            creature.setX(sweep.getX());
+            creature.setY(sweep.getY());
+            if (sweep.getNormalY() < 0) { fallen = land(creature); }
+            //the creature hit the ceiling with its head
+            if (sweep.getNormalY() > 0) { creature.setVelocityY(0.0); }
+        }
+        TileQuery query = QUERY.get();
+        world.queryTiles(creature.getX(), creature.getY(), creature.getX2(), creature.getY2(), TileQuery.SOLID, query);
+        for (int i = 0; i < query.getSize(); i++) {
+            double blockX = world.getTilePixelX(query.getTileX(i));
+            double blockY = world.getTilePixelY(query.getTileY(i));
+            double blockX2 = blockX + Block.block_width;
+            double blockY2 = blockY + Block.block_height;
+            //creature could be already moved by previous collision
+            if (!collides(creature.getX(), creature.getY(), creature.getX2(), creature.getY2(), blockX, blockY, blockX2, blockY2)) {
+                continue;
+            }
+            double bottomCollision = blockY2 - creature.getY();
+            double topCollision = creature.getY2() - blockY;
+            double leftCollision = creature.getX2() - blockX;
+            double rightCollision = blockX2 - creature.getX();
+
+            if(topCollision < bottomCollision && topCollision < leftCollision && topCollision < rightCollision) {
+                creature.setY(blockY-creature.getHeight()); //top collision
+                if (land(creature)) { fallen = true; }
+            }
+            if(bottomCollision < topCollision && bottomCollision < leftCollision && bottomCollision < rightCollision)
+                creature.setY(blockY2); //bottom collision
+            if(leftCollision < rightCollision && leftCollision < topCollision && leftCollision < bottomCollision)
+                creature.setX(blockX-creature.getWidth()); //left collision
+            if(rightCollision < leftCollision && rightCollision < topCollision && rightCollision < bottomCollision)
+                creature.setX(blockX2); //right collision
+        }
+        return fallen;
+    }
+    
+    //the creature stands on the ground, fall damage is taken, returns true if it should die from it
+    private static boolean land(Creature creature) {
+        boolean fallen = false;
+        if (creature.getVelocityY()/creature.getVelocityMultiplier() > 10) {
+            creature.setHp(creature.getHp()-(int)(creature.getVelocityY()/creature.getVelocityMultiplier())/6);
+            if (creature.getHp() < 0) { fallen = true; }
+        }
+        creature.setVelocityY(0.0); //set creature's velocity to 0
+        creature.setOnGround(true); //creature is standing on the ground
+        return fallen;
+    }
+    
+    /**
+     * Move the box by the given distance and stop it at the first tile matching the filter in its way.
+     * The box moves along X axis first and then along Y axis, only tiles the box sweeps through are checked,
+     * so fast boxes can not tunnel through thin walls. Tiles the box overlaps at the start are ignored.
+     *
+     * @param world instance of the world
+     * @param x pixel X coordinate of the left side of the box
+     * @param y pixel Y coordinate of the top side of the box
+     * @param width width of the box in pixels
+     * @param height height of the box in pixels
+     * @param dx distance to move along X axis in pixels
+     * @param dy distance to move along Y axis in pixels
+     * @param filter filter of tiles from {@link TileQuery} that stop the box
+     * @param result reusable result of the sweep, the reached position and contact normals
+     * @return true if the box hit a tile, false otherwise
+     * @since 1.7
+     */
+    public static boolean sweep(World world, double x, double y, double width, double height, double dx, double dy, int filter, Sweep result) {
+        result.start(x + dx, y);
+        if (dx > 0) {
+            //columns the right side enters
+            int fromY = world.getTileY(y);
+            int toY = lastTile(world.getTileY(y + height), world.getTilePixelY(world.getTileY(y + height)), y + height);
+            int column = firstTile(world.getTileX(x + width), world.getTilePixelX(world.getTileX(x + width)), x + width, true);
+            for (; world.getTilePixelX(column) < x + width + dx; column++) {
+                if (columnHasTile(world, column, fromY, toY, filter)) {
+                    result.moveX(world.getTilePixelX(column) - width, -1);
+                    break;
+                }
+            }
+        } else if (dx < 0) {
+            //columns the left side enters
+            int fromY = world.getTileY(y);
+            int toY = lastTile(world.getTileY(y + height), world.getTilePixelY(world.getTileY(y + height)), y + height);
+            for (int column = world.getTileX(x) - 1; world.getTilePixelX(column + 1) > x + dx; column--) {
+                if (columnHasTile(world, column, fromY, toY, filter)) {
+                    result.moveX(world.getTilePixelX(column + 1), 1);
+                    break;
+                }
+            }
+        }
+        x = result.getX();
+        result.moveY(y + dy, 0);
+        int fromX = world.getTileX(x);
+        int toX = lastTile(world.getTileX(x + width), world.getTilePixelX(world.getTileX(x + width)), x + width);
+        if (dy > 0) {
+            //rows the bottom side enters
+            for (int row = firstTile(world.getTileY(y + height), world.getTilePixelY(world.getTileY(y + height)), y + height, true); 
+                    world.getTilePixelY(row) < y + height + dy; row++) {
+                if (rowHasTile(world, row, fromX, toX, filter)) {
+                    result.moveY(world.getTilePixelY(row) - height, -1);
+                    break;
+                }
+            }
+        } else if (dy < 0) {
+            //rows the top side enters
+            for (int row = world.getTileY(y) - 1; world.getTilePixelY(row + 1) > y + dy; row--) {
+                if (rowHasTile(world, row, fromX, toX, filter)) {
+                    result.moveY(world.getTilePixelY(row + 1), 1);
+                    break;
+                }
+            }
+        }
+        return result.isHit();
+    }
+    
+    //index of the first tile starting at the coordinate or after it, tile is the tile containing the coordinate
+    private static int firstTile(int tile, double tileStart, double coordinate, boolean after) {
+        return after && tileStart < coordinate ? tile + 1 : tile;
+    }
+    
+    //index of the last tile starting before the coordinate, tile is the tile containing the coordinate
+    private static int lastTile(int tile, double tileStart, double coordinate) {
+        return tileStart < coordinate ? tile : tile - 1;
+    }
+    
+    private static boolean columnHasTile(World world, int tileX, int fromY, int toY, int filter) {
+        for (int tileY = Math.max(fromY, 0); tileY <= toY && tileY < world.getWorldMap().getHEIGHT(); tileY++) {
+            if (TileQuery.matches(world.getTile(tileX, tileY), filter)) { return true; }
+        }
+        return false;
+    }
+    
+    private static boolean rowHasTile(World world, int tileY, int fromX, int toX, int filter) {
+        if (tileY < 0 || tileY >= world.getWorldMap().getHEIGHT()) { return false; }
+        for (int tileX = fromX; tileX <= toX; tileX++) {
+            if (TileQuery.matches(world.getTile(tileX, tileY), filter)) { return true; }
+        }
+        return false;
+    }
+    
+    private static boolean collides(double x, double y, double x2, double y2, double blockX, double blockY, double blockX2, double blockY2) {
+        return x < blockX2 && x2 > blockX && y < blockY2 && y2 > blockY;
+    }
+    
+    /**
+     * Check if item is colliding with other entity.
+     * If it is colliding than edit item's coordinates.
+     *
+     * @param item instance of the item
+     * @param world instance of the world where item exists
+     * @since 1.2
+     */
+    public static void preventItemCollision(Item item, World world) {
+        TileQuery query = QUERY.get();
+        world.queryTiles(item.getX(), item.getY(), item.getX2(), item.getY2(), TileQuery.ANY, query);
+        for (int i = 0; i < query.getSize(); i++) {
+            double blockX = world.getTilePixelX(query.getTileX(i));
+            double blockY = world.getTilePixelY(query.getTileY(i));
+            double blockX2 = blockX + Block.block_width;
+            double blockY2 = blockY + Block.block_height;
+            //item could be already moved by previous collision
+            if (!collides(item.getX(), item.getY(), item.getX2(), item.getY2(), blockX, blockY, blockX2, blockY2)) {
+                continue;
+            }
+            double bottomCollision = blockY2 - item.getY();
+            double topCollision = item.getY2() - blockY;
+            double leftCollision = item.getX2() - blockX;
+            double rightCollision = blockX2 - item.getX();
+
+            if(topCollision < bottomCollision && topCollision < leftCollision && topCollision < rightCollision) {
+                item.setY(blockY-item.getHeight()); //top collision
+            }
+            if(bottomCollision < topCollision && bottomCollision < leftCollision && bottomCollision < rightCollision)
+                item.setY(blockY2); //bottom collision
+            if(leftCollision < rightCollision && leftCollision < topCollision && leftCollision < bottomCollision)
+                item.setX(blockX-item.getWidth()); //left collision
+            if(rightCollision < leftCollision && rightCollision < topCollision && rightCollision < bottomCollision)
+                item.setX(blockX2); //right collision
+        }
+    }
+    
+    /**
+     * Move the item by the given distance, the item stops at the first block in its way
+     * so it does not fall through thin floors.
+     *
+     * @param item instance of the item
+     * @param world instance of the world where item exists
+     * @param dx distance to move along X axis in pixels
+     * @param dy distance to move along Y axis in pixels
+     * @since 1.7
+     */
+    public static void moveItem(Item item, World world, double dx, double dy) {
+        Sweep sweep = SWEEP.get();
+        sweep(world, item.getX(), item.getY(), item.getWidth(), item.getHeight(), dx, dy, TileQuery.ANY, sweep);
+        item.setX(sweep.getX());
+        item.setY(sweep.getY());
+        preventItemCollision(item, world);
+    }
+    
+    /**
+     * Check if creature has block in front of itself.
+     *
+     * @param creature instance of creature
+     * @param world instance of world
+     * @return true if creature has block in front of itself, false otherwise
+     * @since 1.1
+     */
+    public static boolean creatureHasBlockInFront(Creature creature, World world) {
+        int tileY = world.getTileY(creature.getY()+creature.getHeight()/2);
+        if (creature.movingLeft() && isSolid(world, world.getTileX(creature.getX()-creature.getWidth()/2), tileY)) {
+            return true;
+        }
+        if (creature.movingRight() && isSolid(world, world.getTileX(creature.getX2()+creature.getWidth()/2), tileY)) {
+            return true;
+        }
+        return false;
+    }
+    
+    private static boolean isSolid(World world, int tileX, int tileY) {
+        BlockType type = world.getTile(tileX, tileY);
+        return type != null && type.isSolid();
+    }
+    
+    /**
+     * Check if creature is in liquid. If so, set that creature is swimming.
+     *
+     * @param creature instance of creature
+     * @param world instance of world
+     * @since 1.0
+     */
+    public static void creatureIsInLiquid(Creature creature, World world) {
+        creature.setSwimming(world.hasTiles(creature.getX(), creature.getY(), creature.getX2(), creature.getY2(), TileQuery.LIQUID));
+    }
+    
+    /**
+     * Check if user clicked on block.
+     *
+     * @param clickX
+     * @param clickY
+     * @param block
+     * @return true if user clicked on block, false otherwise
+     * @since 1.0
+     */
+    public static boolean collides(double clickX, double clickY, Block block) {
+        if (block.isDestroyed()) { return block instanceof LiquidBlock; }
+        return clickX < block.getX2() && clickX > block.getX() && clickY < block.getY2() && clickY > block.getY();
+    }
+    
+    /**
+     * Check if creature is attacked.
+     *
+     * @param x X coordinate of the attack
+     * @param y Y coordinate of the attack
+     * @param width width of the attack
+     * @param height height of the attack
+     * @param creature instance of the creature
+     * @return true if creature is attacked, false otherwise
+     * @since 1.0
+     */
+    public static boolean creatureIsAttacked(double x, double y, double width, double height, Creature creature) {
+        if (creature.isKilled()) { return false; }
+        boolean xControl;
+        boolean yControl;
+        if (width < 0) {
+            xControl = x+width < creature.getX2() && x > creature.getX();
+        } else {
+            xControl = x < creature.getX2() && x+width > creature.getX();
+        }
+        if (height < 0) {
+            yControl = y+height < creature.getY2() && y > creature.getY();
+        } else {
+            yControl = y < creature.getY2() && y+height > creature.getY();
+        }
+        return xControl && yControl;
+    }
+    
+    /**
+     * Check if player can pick any of the items in the world.
+     * If he can, item is added to player's inventory.
+     *
+     * @param player instance of player
+     * @param world instance of world where player exists
+     * @since 1.0
+     */
+    public static void controlItems(Player player, World world) {
+        ItemRegistry items = world.getItems();
+        //check only the buckets of items the player can reach
+        int bucketIndex = items.getBucketIndex(player.getX()-12);
+        int lastBucketIndex = items.getBucketIndex(player.getX2());
+        while (true) {
+            for (Item item : items.getBucket(bucketIndex)) {
+                if (canPickItem(player, item, world)) {
+                    player.getInventory().add(item);
+                    item.setPicked(true);
+                }
+            }
+            if (bucketIndex == lastBucketIndex) { break; }
+            bucketIndex = (bucketIndex + 1) % items.getBucketCount();
+        }
+    }
+    
+    private static boolean canPickItem(Player player, Item item, World world) {
+        if (item.isPicked()) { return false; }
+        //the item may be on the other side of the world edge
+        double itemX = world.nearestX(item.getX(), player.getX());
+        return player.getX() < itemX+12 && player.getX2() > itemX+2 && player.getY() < item.getY()+12 && player.getY2() > item.getY()+2;
+    }
+    
+}
@@ -0,0 +1,115 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 Michal-jr.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package cz.cvut.fel.pjv;
+
+/**
+ * Clock of the simulation. The simulation runs in ticks of fixed length no matter how often frames are drawn.
+ * Time of each frame is accumulated and as many ticks as fit into it are run. If the simulation can not
+ * keep up, at most a limited number of ticks is run in one frame and the rest of the time is dropped,
+ * so the game slows down instead of freezing.
+ *
+ * @author Michal-jr
+ * @version 1.1
+ */
+public class FixedTimestep {
+    
+    private final long tickNanos;
+    private final int maxTicksPerFrame;
+    private long lastTime = -1;
+    private long accumulator = 0;
+    private long droppedTicks = 0;
+
+    /**
+     * Create new clock.
+     *
+     * @param tickRate number of ticks per second
+     * @param maxTicksPerFrame maximal number of ticks run in one frame
+     * @since 1.0
+     */
+    public FixedTimestep(int tickRate, int maxTicksPerFrame) {
+        this.tickNanos = 1_000_000_000L / Math.max(1, tickRate);
+        this.maxTicksPerFrame = Math.max(1, maxTicksPerFrame);
+    }
+    
+    /**
+     * Add the time since the last frame.
+     *
+     * @param now time of the frame in nanoseconds
+     * @return number of ticks that should be run in this frame
+     * @since 1.0
+     */
+    public int advance(long now) {
+        if (lastTime == -1) {
+            //the first frame runs one tick, so there is something to draw
+            lastTime = now;
+            accumulator = tickNanos;
+        }
+        accumulator += Math.max(0, now - lastTime);
+        lastTime = now;
+        long ticks = accumulator / tickNanos;
+        if (ticks > maxTicksPerFrame) {
+            droppedTicks += ticks - maxTicksPerFrame;
+            ticks = maxTicksPerFrame;
+        }
+        accumulator -= ticks * tickNanos;
+        //the dropped time is not caught up later
+        accumulator = Math.min(accumulator, tickNanos - 1);
+        return (int) ticks;
+    }
+    
+    /**
+     * @return nanoseconds until the next tick should be run
+     * @since 1.0
+     */
+    public long getNanosToNextTick() {
+        return tickNanos - accumulator;
+    }
+    
+    /**
+     * Forget the time of the last frame, time while the game is paused is not caught up.
+     *
+     * @since 1.0
+     */
+    public void reset() {
+        lastTime = -1;
+        accumulator = 0;
+    }
+
+    /**
+     * @return length of one tick in nanoseconds
+     * @since 1.0
+     */
+    public long getTickNanos() {
+        return tickNanos;
+    }
+
+    /**
+     * @return number of ticks dropped because the simulation could not keep up
+     * @since 1.0
+     */
+    public long getDroppedTicks() {
+        return droppedTicks;
+    }
+    
+}
@@ -0,0 +1,293 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 Zdenek.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package cz.cvut.fel.pjv;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Shared field of steps toward the player for all enemies chasing him. Distances from the tiles around the player
+ * to his tile are computed by Dijkstra's algorithm over the moves of {@link Pathfinder} in reverse and every tile
+ * remembers the next tile of its shortest way. Enemies read their next step in constant time,
+ * so the cost of the chase does not grow with the number of enemies.
+ * <p>
+ * The field is computed again when the player gets to another tile or a tile in the field changes between
+ * solid, liquid and air, enemies swim through liquids. The computation is spread over ticks with a limited
+ * number of tiles expanded in one tick, enemies use the last finished field meanwhile. The field is not saved,
+ * it is computed again after the game is loaded.
+ * <p>
+ * Each computation starts from scratch, the previous field is not repaired. This is a deliberate simplification:
+ * the field is small, its cost per tick is bounded by the budget and an incremental search would have to keep
+ * the state of the search between fields. Enemies do not stop meanwhile, they follow the finished field.
+ *
+ * @author Zdenek
+ * @version 1.2
+ */
+public class FlowField implements Serializable {
+    
+    private final World world;
+    private final int WIDTH;
+    private final int radius;
+    private final int size;
+    private final int nodesPerTick;
+    private final int height;
+    
+    //finished field, next tile of every tile or -1 if it has no way to the player
+    private transient int[] steps;
+    private transient int[] distances;
+    private transient int originX;
+    private transient int originY;
+    private transient boolean ready;
+    
+    //field being computed
+    private transient int[] nextSteps;
+    private transient int[] nextDistances;
+    private transient int[] visits;
+    private transient IntHeap heap;
+    private transient int search;
+    private transient int nextOriginX;
+    private transient int nextOriginY;
+    private transient boolean computing;
+    private transient boolean changed;
+    private transient int goalX;
+    private transient int goalY;
+    
+    private long computedCount = 0;
+    private long expandedCount = 0;
+
+    /**
+     * Create new flow field.
+     *
+     * @param world instance of the world, its pathfinder decides the moves of NPCs
+     * @param radius maximal distance in tiles from the player covered by the field
+     * @param nodesPerTick maximal number of tiles expanded in one tick
+     * @param height height of bodies of the NPCs using the field in tiles
+     * @since 1.0
+     */
+    public FlowField(World world, int radius, int nodesPerTick, int height) {
+        this.world = world;
+        this.WIDTH = world.getWIDTH();
+        //the field does not overlap itself in a narrow world
+        this.radius = Math.max(1, Math.min(radius, (WIDTH - 1) / 2));
+        this.size = 2*this.radius + 1;
+        this.nodesPerTick = Math.max(1, nodesPerTick);
+        this.height = height;
+    }
+    
+    /**
+     * Continue the computation of the field, it is started again if the player got to another tile
+     * or the terrain changed.
+     *
+     * @param tileX X coordinate of the lowest tile of the player's body
+     * @param tileY Y coordinate of the lowest tile of the player's body
+     * @since 1.0
+     */
+    public void update(int tileX, int tileY) {
+        Pathfinder pathfinder = world.getPathfinder();
+        if (steps == null) {
+            steps = new int[size*size];
+            distances = new int[size*size];
+            nextSteps = new int[size*size];
+            nextDistances = new int[size*size];
+            visits = new int[size*size];
+            heap = new IntHeap();
+        }
+        //the player in the air is chased to the ground below him
+        tileY = pathfinder.getGroundY(tileX, tileY, height);
+        if (changed || (!ready && !computing) || tileX != goalX || tileY != goalY) { start(tileX, tileY); }
+        if (computing) { compute(pathfinder); }
+    }
+    
+    private void start(int tileX, int tileY) {
+        goalX = tileX;
+        goalY = tileY;
+        changed = false;
+        computing = true;
+        search++;
+        nextOriginX = tileX - radius;
+        nextOriginY = tileY - radius;
+        Arrays.fill(nextSteps, -1);
+        heap.clear();
+        int goal = getCell(tileX, tileY, nextOriginX, nextOriginY);
+        nextDistances[goal] = 0;
+        visits[goal] = search;
+        heap.push(goal, 0);
+    }
+    
+    private void compute(Pathfinder pathfinder) {
+        int expanded = 0;
+        while (!heap.isEmpty() && expanded < nodesPerTick) {
+            int cell = heap.pop();
+            //the tile was expanded from a cheaper entry already
+            if (visits[cell] != search) { continue; }
+            visits[cell] = -search;
+            expanded++;
+            int x = nextOriginX + cell / size;
+            int y = nextOriginY + cell % size;
+            //tiles NPCs can get here from, they jump up or drop down onto this tile or walk or swim to it
+            for (int direction = -1; direction <= 1; direction += 2) {
+                for (int dy = -Pathfinder.SAFE_DROP; dy <= Pathfinder.JUMP_HEIGHT; dy++) {
+                    relax(pathfinder, cell, x + direction, y + dy, x, y);
+                }
+            }
+            relax(pathfinder, cell, x, y - 1, x, y);
+            relax(pathfinder, cell, x, y + 1, x, y);
+        }
+        expandedCount += expanded;
+        if (!heap.isEmpty()) { return; }
+        //the field is finished, enemies use it from now on
+        int[] finished = nextSteps;
+        nextSteps = steps;
+        steps = finished;
+        finished = nextDistances;
+        nextDistances = distances;
+        distances = finished;
+        originX = nextOriginX;
+        originY = nextOriginY;
+        ready = true;
+        computing = false;
+        computedCount++;
+    }
+    
+    private void relax(Pathfinder pathfinder, int to, int x, int y, int toX, int toY) {
+        if (x < nextOriginX || x >= nextOriginX + size || y < nextOriginY || y >= nextOriginY + size) { return; }
+        int cell = getCell(x, y, nextOriginX, nextOriginY);
+        if (visits[cell] == -search) { return; }
+        int cost = pathfinder.getMoveCost(x, y, toX, toY, height);
+        if (cost < 0) { return; }
+        int distance = nextDistances[to] + cost;
+        if (visits[cell] == search && nextDistances[cell] <= distance) { return; }
+        visits[cell] = search;
+        nextDistances[cell] = distance;
+        nextSteps[cell] = to;
+        heap.push(cell, distance);
+    }
+    
+    private int getCell(int x, int y, int originX, int originY) {
+        return (x - originX)*size + (y - originY);
+    }
+    
+    //tile of the finished field, -1 if the tile is not in the field
+    private int getCell(int tileX, int tileY) {
+        if (!ready) { return -1; }
+        //the world is looping
+        int x = (((tileX - originX) % WIDTH) + WIDTH) % WIDTH;
+        int y = tileY - originY;
+        if (x >= size || y < 0 || y >= size) { return -1; }
+        return x*size + y;
+    }
+    
+    /**
+     * Compute the field again, called when a solid block is dug or placed
+     * or when liquid flows into the tile or away from it. Tiles far above or below the field do not change it.
+     *
+     * @param tileX X coordinate of the changed tile, the world is looping so any value is valid
+     * @param tileY Y coordinate of the changed tile
+     * @since 1.2
+     */
+    public void tileChanged(int tileX, int tileY) {
+        if ((ready && isAround(tileX, tileY, originX, originY))
+            || (computing && isAround(tileX, tileY, nextOriginX, nextOriginY))) { changed = true; }
+    }
+    
+    //moves between tiles of the field depend on the ground below them and on the space for the body above them
+    private boolean isAround(int tileX, int tileY, int originX, int originY) {
+        //the world is looping
+        int x = (((tileX - originX) % WIDTH) + WIDTH) % WIDTH;
+        return x < size && tileY >= originY - height - Pathfinder.JUMP_HEIGHT && tileY <= originY + size;
+    }
+    
+    /**
+     * @param tileX X coordinate of the lowest tile of the NPC's body, the world is looping so any value is valid
+     * @param tileY Y coordinate of the lowest tile of the NPC's body
+     * @return true if the NPC on the tile has a way to the player in the finished field, false otherwise
+     * or if the NPC is already on the tile of the player
+     * @since 1.0
+     */
+    public boolean hasStep(int tileX, int tileY) {
+        int cell = getCell(tileX, tileY);
+        return cell != -1 && steps[cell] != -1;
+    }
+    
+    /**
+     * @param tileX X coordinate of the lowest tile of the NPC's body, it has to have a step, see {@link #hasStep}
+     * @param tileY Y coordinate of the lowest tile of the NPC's body
+     * @return difference of X coordinates of the next tile toward the player and the given tile
+     * @since 1.0
+     */
+    public int getStepX(int tileX, int tileY) {
+        int cell = getCell(tileX, tileY);
+        return steps[cell] / size - cell / size;
+    }
+    
+    /**
+     * @param tileX X coordinate of the lowest tile of the NPC's body, it has to have a step, see {@link #hasStep}
+     * @param tileY Y coordinate of the lowest tile of the NPC's body
+     * @return difference of Y coordinates of the next tile toward the player and the given tile
+     * @since 1.0
+     */
+    public int getStepY(int tileX, int tileY) {
+        int cell = getCell(tileX, tileY);
+        return steps[cell] % size - cell % size;
+    }
+    
+    /**
+     * @param tileX X coordinate of the lowest tile of the NPC's body, the world is looping so any value is valid
+     * @param tileY Y coordinate of the lowest tile of the NPC's body
+     * @return cost of the way from the tile to the player in the finished field, 0 on the tile of the player,
+     * -1 if there is no way
+     * @since 1.0
+     */
+    public int getDistance(int tileX, int tileY) {
+        int cell = getCell(tileX, tileY);
+        if (cell == -1) { return -1; }
+        if (cell == radius*size + radius) { return 0; }
+        return steps[cell] == -1 ? -1 : distances[cell];
+    }
+    
+    /**
+     * @return true if a field was finished and enemies can use it
+     * @since 1.0
+     */
+    public boolean isReady() {
+        return ready;
+    }
+    
+    /**
+     * @return total number of finished fields
+     * @since 1.0
+     */
+    public long getComputedCount() {
+        return computedCount;
+    }
+    
+    /**
+     * @return total number of tiles expanded by all computations
+     * @since 1.0
+     */
+    public long getExpandedCount() {
+        return expandedCount;
+    }
+    
+}
@@ -26,30 +26,37 @@ package cz.cvut.fel.pjv;
 import cz.cvut.fel.pjv.blocks.Block;
 import cz.cvut.fel.pjv.creatures.Player;
 import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
  * Contains all entities in the game.
  *
  * @author Zdenek
- * @version 1.2
+ * @version 1.7
  */
 public class Game implements Serializable {
     
     private final Player player;
     private final World world;
-    private double zoomScale = 1;
-    private double savedCameraOffsetX = 0;
-    private double savedCameraOffsetY = 0;
+    private final Camera camera;
+    
+    /**
+     * Commands from the input waiting for the next tick, they can be posted from any thread.
+     */
+    private transient Queue<Runnable> commands = new ConcurrentLinkedQueue<>();
 
     /**
      * Create new game.
      *
      * @param SCREEN_WIDTH width of the canvas in pixels
+     * @param SCREEN_HEIGHT height of the canvas in pixels
      * @throws java.io.IOException
-     * @since 1.0
+     * @since 1.3
      */
-    public Game(double SCREEN_WIDTH) throws IOException {
+    public Game(double SCREEN_WIDTH, double SCREEN_HEIGHT) throws IOException {
         // Create a new world.
         world = new World();
         
@@ -57,6 +64,9 @@ public class Game implements Serializable {
         int playerY = (int) (world.getWorldMap().getPlayerY() * Block.block_height);
         // Create a new player at the given pixel coordinates.
         player = new Player(playerX, playerY);
+        world.streamChunks(player);
+        camera = new Camera(SCREEN_WIDTH, SCREEN_HEIGHT, world.getWIDTH());
+        camera.centerOn(player);
     }
 
     /**
@@ -76,68 +86,75 @@ public class Game implements Serializable {
     }
     
     /**
-     * Respawn dead player.
+     * Run the command at the start of the next tick, on the thread running the simulation.
      *
-     * @since 1.1
+     * @param command command changing the game
+     * @since 1.6
      */
-    public void respawnPlayer() {
-        player.setX(world.getPlayerSpawnX());
-        player.setY(world.getHighestBlockY(world.getPlayerSpawnX()));
-        player.revive();
+    public void post(Runnable command) {
+        commands.add(command);
     }
-
-    /**
-     * @return saved camera offset in X axis
-     * @since 1.2
-     */
-    public double getSavedCameraOffsetX() {
-        return savedCameraOffsetX;
-    }
-
+    
     /**
-     * Save new camera offset in X axis.
+     * Run one tick of the simulation. Commands posted since the last tick run first.
+     * Positions of creatures before the tick are remembered for drawing.
      *
-     * @param savedCameraOffsetX
-     * @since 1.2
+     * @since 1.5
      */
-    public void setSavedCameraOffsetX(double savedCameraOffsetX) {
-        this.savedCameraOffsetX = savedCameraOffsetX;
+    public void tick() {
+        Runnable command;
+        while ((command = commands.poll()) != null) {
+            command.run();
+        }
+        world.streamChunks(player);
+        player.savePosition();
+        world.getNpcs().savePositions();
+        player.update(world);
+        world.updateNPCs(player);
+        world.updateLiquids();
+        world.updateBlocks(player);
+        world.updateLayingItems();
     }
-
+    
     /**
-     * @return saved camera offset in Y axis
-     * @since 1.2
+     * Release files of the game, called when the game is replaced by another one.
+     * The game must not be played afterwards.
+     *
+     * @since 1.7
      */
-    public double getSavedCameraOffsetY() {
-        return savedCameraOffsetY;
+    public void close() {
+        world.close();
     }
-
+    
     /**
-     * Save new camera offset in Y axis.
+     * Respawn dead player.
      *
-     * @param savedCameraOffsetY
-     * @since 1.2
+     * @since 1.1
      */
-    public void setSavedCameraOffsetY(double savedCameraOffsetY) {
-        this.savedCameraOffsetY = savedCameraOffsetY;
+    public void respawnPlayer() {
+        //input from the time the player was dead is forgotten
+        commands.clear();
+        player.setX(world.getPlayerSpawnX());
+        world.streamChunks(player);
+        player.setY(world.getHighestBlockY(world.getPlayerSpawnX()) - player.getHeight());
+        player.revive();
+        //the player is not drawn on his way from the place he died
+        player.savePosition();
+        camera.centerOn(player);
     }
 
     /**
-     * @return saved zoom scale
-     * @since 1.2
+     * @return camera looking at the world
+     * @since 1.3
      */
-    public double getZoomScale() {
-        return zoomScale;
+    public Camera getCamera() {
+        return camera;
     }
-
-    /**
-     * Save new zoom scale.
-     *
-     * @param zoomScale
-     * @since 1.2
-     */
-    public void setZoomScale(double zoomScale) {
-        this.zoomScale = zoomScale;
+    
+    //the queue of commands is not saved
+    private void readObject(ObjectInputStream s) throws IOException, ClassNotFoundException {
+        s.defaultReadObject();
+        commands = new ConcurrentLinkedQueue<>();
     }
     
 }
@@ -0,0 +1,88 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 Zdenek.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package cz.cvut.fel.pjv;
+
+import java.util.Arrays;
+
+/**
+ * Binary min-heap of tile indices keyed by their costs, used by the searches of NPC paths.
+ * Tiles are not removed when their key decreases, the search skips outdated entries,
+ * so the heap does not allocate once it is large enough.
+ *
+ * @author Zdenek
+ * @version 1.0
+ */
+class IntHeap {
+    
+    private int[] cells = new int[64];
+    private int[] keys = new int[64];
+    private int size = 0;
+    
+    void clear() {
+        size = 0;
+    }
+    
+    boolean isEmpty() {
+        return size == 0;
+    }
+    
+    void push(int cell, int key) {
+        if (size == cells.length) {
+            cells = Arrays.copyOf(cells, size*2);
+            keys = Arrays.copyOf(keys, size*2);
+        }
+        int i = size++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (keys[parent] <= key) { break; }
+            cells[i] = cells[parent];
+            keys[i] = keys[parent];
+            i = parent;
+        }
+        cells[i] = cell;
+        keys[i] = key;
+    }
+    
+    //removes the entry with the lowest key and returns its tile
+    int pop() {
+        int top = cells[0];
+        size--;
+        int cell = cells[size];
+        int key = keys[size];
+        int i = 0;
+        while (true) {
+            int child = 2*i + 1;
+            if (child >= size) { break; }
+            if (child + 1 < size && keys[child + 1] < keys[child]) { child++; }
+            if (keys[child] >= key) { break; }
+            cells[i] = cells[child];
+            keys[i] = keys[child];
+            i = child;
+        }
+        cells[i] = cell;
+        keys[i] = key;
+        return top;
+    }
+    
+}
@@ -0,0 +1,215 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 Zdenek.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package cz.cvut.fel.pjv;
+
+import cz.cvut.fel.pjv.blocks.Chunk;
+import cz.cvut.fel.pjv.items.Item;
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * List of items laying in the world. Items are also sorted into buckets by the column of tiles
+ * they lay in (one bucket is as wide as a chunk), so only items near a given place can be checked.
+ * Number of buckets is limited, in a very wide world one bucket holds items of several distant chunks.
+ * X coordinate of an item should change only by the whole world width while it is in the registry,
+ * use {@link #relocate(Item, int)} otherwise.
+ *
+ * @author Zdenek
+ * @version 1.1
+ */
+public class ItemRegistry extends AbstractList<Item> implements RandomAccess, Serializable {
+    
+    private static final int MAX_BUCKETS = 1024;
+    
+    private final World world;
+    private final List<Item> items = new ArrayList<>();
+    private final List<List<Item>> buckets;
+
+    /**
+     * Create new empty registry.
+     *
+     * @param world instance of the world the items lay in
+     * @since 1.0
+     */
+    public ItemRegistry(World world) {
+        this.world = world;
+        int bucketCount = Math.min((world.getWIDTH() + Chunk.SIZE - 1) / Chunk.SIZE, MAX_BUCKETS);
+        buckets = new ArrayList<>(bucketCount);
+        for (int i = 0; i < bucketCount; i++) {
+            buckets.add(new ArrayList<Item>());
+        }
+    }
+
+    @Override
+    public Item get(int index) {
+        return items.get(index);
+    }
+
+    @Override
+    public int size() {
+        return items.size();
+    }
+
+    @Override
+    public Item set(int index, Item item) {
+        Item old = items.set(index, item);
+        removeFromBucket(old, getBucketIndex(old.getX()));
+        buckets.get(getBucketIndex(item.getX())).add(item);
+        return old;
+    }
+
+    @Override
+    public void add(int index, Item item) {
+        items.add(index, item);
+        buckets.get(getBucketIndex(item.getX())).add(item);
+    }
+
+    @Override
+    public Item remove(int index) {
+        Item old = items.remove(index);
+        removeFromBucket(old, getBucketIndex(old.getX()));
+        return old;
+    }
+
+    @Override
+    public void clear() {
+        items.clear();
+        for (List<Item> bucket : buckets) {
+            bucket.clear();
+        }
+    }
+    
+    /**
+     * Remove all picked items from the registry.
+     *
+     * @return number of removed items
+     * @since 1.0
+     */
+    public int removePicked() {
+        int live = 0;
+        for (int i = 0; i < items.size(); i++) {
+            Item item = items.get(i);
+            if (item.isPicked()) {
+                removeFromBucket(item, getBucketIndex(item.getX()));
+                continue;
+            }
+            items.set(live++, item);
+        }
+        int removed = items.size() - live;
+        items.subList(live, items.size()).clear();
+        return removed;
+    }
+    
+    /**
+     * Move the item to the right bucket after its X coordinate was changed.
+     *
+     * @param item instance of the item in the registry
+     * @param oldBucketIndex index of the bucket the item was in before the change
+     * @since 1.0
+     */
+    public void relocate(Item item, int oldBucketIndex) {
+        int bucketIndex = getBucketIndex(item.getX());
+        if (bucketIndex == oldBucketIndex) { return; }
+        removeFromBucket(item, oldBucketIndex);
+        buckets.get(bucketIndex).add(item);
+    }
+    
+    /**
+     * Wake up all settled items that could lay on the given column of tiles,
+     * so they fall again if the ground under them was removed.
+     *
+     * @param tileX X coordinate of the column of tiles, the world is looping so any value is valid
+     * @since 1.0
+     */
+    public void wakeColumn(int tileX) {
+        int column = world.wrapTileX(tileX);
+        int bucketIndex = getColumnBucketIndex(column);
+        //item laying on the previous column can overlap this one
+        int previousBucketIndex = getColumnBucketIndex(world.wrapTileX(column - 1));
+        wakeBucket(bucketIndex, column);
+        if (previousBucketIndex != bucketIndex) { wakeBucket(previousBucketIndex, column); }
+    }
+    
+    private void wakeBucket(int bucketIndex, int column) {
+        for (Item item : buckets.get(bucketIndex)) {
+            if (!item.isSettled()) { continue; }
+            if (world.wrapTileX(world.getTileX(item.getX())) == column || world.wrapTileX(world.getTileX(item.getX2())) == column) {
+                item.setSettled(false);
+            }
+        }
+    }
+    
+    private void removeFromBucket(Item item, int bucketIndex) {
+        if (removeFromList(buckets.get(bucketIndex), item)) { return; }
+        //the item was moved without relocation, find it in all buckets
+        for (List<Item> bucket : buckets) {
+            if (removeFromList(bucket, item)) { return; }
+        }
+    }
+    
+    private boolean removeFromList(List<Item> bucket, Item item) {
+        //items of the same type are equal, compare the instances
+        for (int i = 0; i < bucket.size(); i++) {
+            if (bucket.get(i) == item) {
+                bucket.remove(i);
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * @param x pixel X coordinate in the world
+     * @return index of the bucket containing items laying on the given X coordinate
+     * @since 1.0
+     */
+    public int getBucketIndex(double x) {
+        return getColumnBucketIndex(world.wrapTileX(world.getTileX(x)));
+    }
+    
+    private int getColumnBucketIndex(int column) {
+        return (column / Chunk.SIZE) % buckets.size();
+    }
+    
+    /**
+     * @param bucketIndex index of the bucket
+     * @return items in the bucket, the list must not be modified
+     * @since 1.0
+     */
+    public List<Item> getBucket(int bucketIndex) {
+        return buckets.get(bucketIndex);
+    }
+    
+    /**
+     * @return number of buckets
+     * @since 1.0
+     */
+    public int getBucketCount() {
+        return buckets.size();
+    }
+    
+}
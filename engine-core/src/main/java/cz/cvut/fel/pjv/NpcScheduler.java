@@ -0,0 +1,197 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 Zdenek.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package cz.cvut.fel.pjv;
+
+import cz.cvut.fel.pjv.blocks.Chunk;
+import java.io.Serializable;
+
+/**
+ * Decides which NPCs are updated in the tick by their distance from the player.
+ * NPCs near the player are updated every tick, NPCs farther away are updated only once in a few ticks
+ * and NPCs far from the player are frozen. Frozen NPCs are woken for a while when a tile
+ * in their chunk changes, so they can react to it (for example fall into a dug hole).
+ * NPCs in columns that are not loaded are always frozen.
+ *
+ * @author Zdenek
+ * @version 1.0
+ */
+public class NpcScheduler implements Serializable {
+    
+    /**
+     * Tiers of NPCs.
+     */
+    public static final int FULL = 0;
+    public static final int REDUCED = 1;
+    public static final int FROZEN = 2;
+    
+    /**
+     * Number of ticks an NPC is updated every tick after a change in its chunk.
+     */
+    public static final int WAKE_TICKS = 120;
+    
+    private static final int MAX_CHUNK_COLUMNS = 1024;
+    
+    private final int WIDTH;
+    private final int fullRadius;
+    private final int reducedRadius;
+    private final int reducedPeriod;
+    
+    /**
+     * Tick until which NPCs in the column of chunks are awake. Number of columns is limited,
+     * in a very wide world one entry is shared by several distant columns.
+     */
+    private final long[] awakeUntil;
+    
+    private long tick = 0;
+    private final int[] tierCounts = new int[3];
+    private int wokenCount = 0;
+    private long updatedCount = 0;
+    private long skippedCount = 0;
+
+    /**
+     * Create new scheduler.
+     *
+     * @param WIDTH width of the world in tiles
+     * @param fullRadius distance from the player in tiles up to which NPCs are updated every tick
+     * @param reducedRadius distance from the player in tiles up to which NPCs are updated once in reducedPeriod ticks,
+     * farther NPCs are frozen
+     * @param reducedPeriod number of ticks between updates of NPCs in the reduced tier
+     * @since 1.0
+     */
+    public NpcScheduler(int WIDTH, int fullRadius, int reducedRadius, int reducedPeriod) {
+        this.WIDTH = WIDTH;
+        this.fullRadius = Math.max(0, fullRadius);
+        this.reducedRadius = Math.max(this.fullRadius, reducedRadius);
+        this.reducedPeriod = Math.max(1, reducedPeriod);
+        awakeUntil = new long[Math.min((WIDTH + Chunk.SIZE - 1) / Chunk.SIZE, MAX_CHUNK_COLUMNS)];
+    }
+    
+    /**
+     * Start new tick, counts of NPCs in tiers are reset.
+     *
+     * @since 1.0
+     */
+    public void startTick() {
+        tick++;
+        tierCounts[FULL] = 0;
+        tierCounts[REDUCED] = 0;
+        tierCounts[FROZEN] = 0;
+        wokenCount = 0;
+    }
+    
+    /**
+     * @param tileX X coordinate of the column of the NPC
+     * @param playerTileX X coordinate of the column of the player
+     * @param loaded true if the column of the NPC is loaded
+     * @return tier of the NPC by its distance from the player
+     * @since 1.0
+     */
+    public int getTier(int tileX, int playerTileX, boolean loaded) {
+        if (!loaded) { return FROZEN; }
+        int distance = Math.abs(tileX - playerTileX) % WIDTH;
+        //the world is looping
+        distance = Math.min(distance, WIDTH - distance);
+        if (distance <= fullRadius) { return FULL; }
+        if (distance <= reducedRadius) { return REDUCED; }
+        return FROZEN;
+    }
+    
+    /**
+     * Decide if the NPC is updated in this tick. NPCs in the reduced tier are spread over the ticks by their index.
+     *
+     * @param index index of the NPC
+     * @param tileX X coordinate of the column of the NPC
+     * @param playerTileX X coordinate of the column of the player
+     * @param loaded true if the column of the NPC is loaded
+     * @return true if the NPC should be updated, false otherwise
+     * @since 1.0
+     */
+    public boolean isScheduled(int index, int tileX, int playerTileX, boolean loaded) {
+        int tier = getTier(tileX, playerTileX, loaded);
+        if (tier != FULL && loaded && isAwake(tileX)) {
+            wokenCount++;
+            tier = FULL;
+        }
+        tierCounts[tier]++;
+        boolean scheduled = tier == FULL || (tier == REDUCED && (tick + index) % reducedPeriod == 0);
+        if (scheduled) { updatedCount++; } else { skippedCount++; }
+        return scheduled;
+    }
+    
+    /**
+     * Wake NPCs around the changed tile.
+     *
+     * @param tileX X coordinate of the changed column, the world is looping so any value is valid
+     * @since 1.0
+     */
+    public void wakeColumn(int tileX) {
+        //NPC standing on the edge of the chunk overlaps the neighbouring chunk
+        for (int x = tileX - 1; x <= tileX + 1; x++) {
+            awakeUntil[getEntry(x)] = tick + WAKE_TICKS + 1;
+        }
+    }
+    
+    private boolean isAwake(int tileX) {
+        return awakeUntil[getEntry(tileX)] > tick;
+    }
+    
+    private int getEntry(int tileX) {
+        int chunkX = (((tileX % WIDTH) + WIDTH) % WIDTH) / Chunk.SIZE;
+        return chunkX % awakeUntil.length;
+    }
+    
+    /**
+     * @param tier one of {@link #FULL}, {@link #REDUCED} and {@link #FROZEN}
+     * @return number of NPCs in the tier in the last tick, woken NPCs are in the full tier
+     * @since 1.0
+     */
+    public int getTierCount(int tier) {
+        return tierCounts[tier];
+    }
+
+    /**
+     * @return number of NPCs moved to the full tier by a change in their chunk in the last tick
+     * @since 1.0
+     */
+    public int getWokenCount() {
+        return wokenCount;
+    }
+
+    /**
+     * @return total number of NPC updates done
+     * @since 1.0
+     */
+    public long getUpdatedCount() {
+        return updatedCount;
+    }
+
+    /**
+     * @return total number of NPC updates skipped
+     * @since 1.0
+     */
+    public long getSkippedCount() {
+        return skippedCount;
+    }
+    
+}
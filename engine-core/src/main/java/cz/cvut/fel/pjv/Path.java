@@ -0,0 +1,174 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 Zdenek.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package cz.cvut.fel.pjv;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Path of tiles found by {@link Pathfinder}. The path is owned by the NPC following it
+ * and it is filled again by every search, so it does not allocate once it is long enough.
+ *
+ * @author Zdenek
+ * @version 1.0
+ */
+public class Path implements Serializable {
+    
+    private int[] tilesX = new int[16];
+    private int[] tilesY = new int[16];
+    private int size = 0;
+    private int next = 0;
+    private int goalX;
+    private int goalY;
+    private boolean complete;
+    
+    /**
+     * Number of tile changes in the world when the path was found, see {@link Pathfinder#isValid(Path)}.
+     */
+    private long stamp;
+    
+    /**
+     * Remove all tiles from the path.
+     *
+     * @since 1.0
+     */
+    public void clear() {
+        size = 0;
+        next = 0;
+    }
+    
+    void start(int goalX, int goalY, long stamp) {
+        clear();
+        this.goalX = goalX;
+        this.goalY = goalY;
+        this.stamp = stamp;
+    }
+    
+    void add(int tileX, int tileY) {
+        if (size == tilesX.length) {
+            tilesX = Arrays.copyOf(tilesX, size*2);
+            tilesY = Arrays.copyOf(tilesY, size*2);
+        }
+        tilesX[size] = tileX;
+        tilesY[size] = tileY;
+        size++;
+    }
+    
+    void setTileX(int i, int tileX) {
+        tilesX[i] = tileX;
+    }
+    
+    //tiles are added from the goal to the start
+    void finish(boolean complete) {
+        for (int i = 0, j = size - 1; i < j; i++, j--) {
+            int x = tilesX[i];
+            tilesX[i] = tilesX[j];
+            tilesX[j] = x;
+            int y = tilesY[i];
+            tilesY[i] = tilesY[j];
+            tilesY[j] = y;
+        }
+        this.complete = complete;
+    }
+    
+    long getStamp() {
+        return stamp;
+    }
+    
+    /**
+     * @return true if there are no tiles in the path
+     * @since 1.0
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+    
+    /**
+     * @return number of tiles in the path, the first one is the tile where the search started
+     * @since 1.0
+     */
+    public int getSize() {
+        return size;
+    }
+    
+    /**
+     * @param i index of the tile in the path
+     * @return X coordinate of the tile, near the start of the search, it is not wrapped into the world
+     * @since 1.0
+     */
+    public int getTileX(int i) {
+        return tilesX[i];
+    }
+    
+    /**
+     * @param i index of the tile in the path
+     * @return Y coordinate of the tile
+     * @since 1.0
+     */
+    public int getTileY(int i) {
+        return tilesY[i];
+    }
+    
+    /**
+     * @return index of the next tile the NPC goes to
+     * @since 1.0
+     */
+    public int getNext() {
+        return next;
+    }
+    
+    /**
+     * @param next index of the next tile the NPC goes to
+     * @since 1.0
+     */
+    public void setNext(int next) {
+        this.next = next;
+    }
+    
+    /**
+     * @return X coordinate of the goal tile the path was searched for
+     * @since 1.0
+     */
+    public int getGoalX() {
+        return goalX;
+    }
+    
+    /**
+     * @return Y coordinate of the goal tile the path was searched for
+     * @since 1.0
+     */
+    public int getGoalY() {
+        return goalY;
+    }
+    
+    /**
+     * @return true if the path leads to the goal, false if it leads only to the tile closest to it
+     * the search reached
+     * @since 1.0
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+    
+}
@@ -0,0 +1,362 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 Zdenek.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package cz.cvut.fel.pjv;
+
+import cz.cvut.fel.pjv.blocks.TileQuery;
+import java.io.Serializable;
+
+/**
+ * Searches paths of walking NPCs over the tile grid with A*. A node of the search is the lowest tile of the NPC's body,
+ * the NPC stands on a solid block below it or swims in a liquid. The NPC walks to the neighbouring column,
+ * jumps up to {@link #JUMP_HEIGHT} tiles onto it or drops at most {@link #SAFE_DROP} tiles down from it.
+ * <p>
+ * The search is limited to a square around the start and the number of tiles expanded in one tick is limited
+ * for all NPCs together, so many NPCs searching at once can not slow the tick down. A search starts only when
+ * the budget of the tick has enough tiles for the whole search. When the search runs out of tiles, the path leads
+ * to the tile closest to the goal. Paths are invalidated only when a solid block is dug or placed or a liquid
+ * appears or disappears in a column the path goes through.
+ *
+ * @author Zdenek
+ * @version 1.2
+ */
+public class Pathfinder implements Serializable {
+    
+    /**
+     * Number of tiles NPCs jump up, they jump a bit less than two tiles high.
+     */
+    public static final int JUMP_HEIGHT = 1;
+    
+    /**
+     * Number of tiles NPCs drop down, longer falls would hurt them.
+     */
+    public static final int SAFE_DROP = 4;
+    
+    private static final int MAX_COLUMNS = 4096;
+    
+    //cost of a step to the neighbouring tile, the cost of jumps and drops grows with their height
+    static final int STEP_COST = 2;
+    
+    private final World world;
+    private final int WIDTH;
+    private final int HEIGHT;
+    private final int nodesPerTick;
+    private final int nodesPerSearch;
+    private final int radius;
+    private final int size;
+    
+    /**
+     * Number of the tile change after which the column changed the last time. Number of columns is limited,
+     * in a very wide world one entry is shared by several distant columns.
+     */
+    private final long[] columnChanges;
+    private long changeCount = 0;
+    
+    private int remainingNodes;
+    private long expandedCount = 0;
+    private long searchCount = 0;
+    
+    //state of the search reused by all searches, the search window is size*size tiles
+    private transient int[] costs;
+    private transient int[] parents;
+    private transient int[] visits;
+    private transient IntHeap heap;
+    private transient int search;
+    private transient int originX;
+    private transient int originY;
+
+    /**
+     * Create new pathfinder.
+     *
+     * @param world instance of the world
+     * @param nodesPerTick maximal number of tiles expanded by all searches in one tick
+     * @param nodesPerSearch maximal number of tiles expanded by one search, at most nodesPerTick
+     * @param radius maximal distance in tiles from the start the search goes to
+     * @since 1.0
+     */
+    public Pathfinder(World world, int nodesPerTick, int nodesPerSearch, int radius) {
+        this.world = world;
+        this.WIDTH = world.getWIDTH();
+        this.HEIGHT = world.getWorldMap().getHEIGHT();
+        this.nodesPerTick = nodesPerTick;
+        //a search longer than the budget of the tick would never start
+        this.nodesPerSearch = Math.min(nodesPerSearch, nodesPerTick);
+        this.radius = Math.max(1, radius);
+        this.size = 2*this.radius + 1;
+        columnChanges = new long[Math.min(WIDTH, MAX_COLUMNS)];
+        remainingNodes = nodesPerTick;
+    }
+    
+    /**
+     * Start new tick, the budget of expanded tiles is renewed.
+     *
+     * @since 1.0
+     */
+    public void startTick() {
+        remainingNodes = nodesPerTick;
+    }
+    
+    /**
+     * @return true if there are enough tiles left in the budget of this tick for another search
+     * @since 1.0
+     */
+    public boolean hasBudget() {
+        return remainingNodes >= nodesPerSearch;
+    }
+    
+    /**
+     * Find path from the start tile to the goal tile. The goal may be in the air, the path leads
+     * to the ground below it then.
+     *
+     * @param startX X coordinate of the lowest tile of the NPC's body
+     * @param startY Y coordinate of the lowest tile of the NPC's body
+     * @param goalX X coordinate of the goal tile, near the start, it is not wrapped into the world
+     * @param goalY Y coordinate of the goal tile
+     * @param height height of the NPC's body in tiles
+     * @param path path filled with the found tiles
+     * @return true if the path was searched, false if the budget of this tick is spent and the path was not changed
+     * @since 1.0
+     */
+    public boolean findPath(int startX, int startY, int goalX, int goalY, int height, Path path) {
+        //a search cut short by the budget of the tick would give a path to nowhere
+        if (remainingNodes < nodesPerSearch || nodesPerSearch <= 0) { return false; }
+        if (costs == null) {
+            costs = new int[size*size];
+            parents = new int[size*size];
+            visits = new int[size*size];
+            heap = new IntHeap();
+        }
+        search++;
+        searchCount++;
+        originX = startX - radius;
+        originY = startY - radius;
+        goalY = getGroundY(goalX, goalY, height);
+        path.start(goalX, goalY, changeCount);
+        heap.clear();
+        int start = getCell(startX, startY);
+        costs[start] = 0;
+        parents[start] = -1;
+        visits[start] = search;
+        heap.push(start, heuristic(startX, goalX));
+        int best = start;
+        int bestDistance = Integer.MAX_VALUE;
+        boolean found = false;
+        int expanded = 0;
+        while (!heap.isEmpty() && expanded < nodesPerSearch) {
+            int cell = heap.pop();
+            //the tile was expanded from a cheaper entry already
+            if (visits[cell] != search) { continue; }
+            visits[cell] = -search;
+            expanded++;
+            int x = originX + cell / size;
+            int y = originY + cell % size;
+            int distance = Math.abs(x - goalX) + Math.abs(y - goalY);
+            if (distance < bestDistance || (distance == bestDistance && costs[cell] < costs[best])) {
+                best = cell;
+                bestDistance = distance;
+            }
+            if (distance == 0) { found = true; break; }
+            expand(cell, x, y, goalX, height);
+        }
+        remainingNodes -= expanded;
+        expandedCount += expanded;
+        for (int cell = best; cell != -1; cell = parents[cell]) {
+            path.add(originX + cell / size, originY + cell % size);
+        }
+        path.finish(found);
+        return true;
+    }
+    
+    private void expand(int cell, int x, int y, int goalX, int height) {
+        for (int direction = -1; direction <= 1; direction += 2) {
+            int nextX = x + direction;
+            if (isStandable(nextX, y, height)) {
+                relax(cell, nextX, y, STEP_COST, goalX);
+            } else if (isClear(nextX, y, height)) {
+                //drop down to the first ground
+                for (int drop = 1; drop <= SAFE_DROP && isClear(nextX, y + drop, height); drop++) {
+                    if (isStandable(nextX, y + drop, height)) {
+                        relax(cell, nextX, y + drop, STEP_COST + drop, goalX);
+                        break;
+                    }
+                }
+            }
+            //jump up onto the first ground
+            for (int jump = 1; jump <= JUMP_HEIGHT && isClear(x, y - jump, height); jump++) {
+                if (isStandable(nextX, y - jump, height)) {
+                    relax(cell, nextX, y - jump, STEP_COST*(jump + 1), goalX);
+                    break;
+                }
+            }
+        }
+        //NPC swims up and down in liquids
+        if (isLiquid(x, y)) {
+            if (isStandable(x, y - 1, height)) { relax(cell, x, y - 1, STEP_COST, goalX); }
+            if (isStandable(x, y + 1, height)) { relax(cell, x, y + 1, STEP_COST, goalX); }
+        }
+    }
+    
+    private void relax(int from, int x, int y, int cost, int goalX) {
+        if (x < originX || x >= originX + size || y < originY || y >= originY + size) { return; }
+        int cell = getCell(x, y);
+        if (visits[cell] == -search) { return; }
+        int newCost = costs[from] + cost;
+        if (visits[cell] == search && costs[cell] <= newCost) { return; }
+        visits[cell] = search;
+        costs[cell] = newCost;
+        parents[cell] = from;
+        heap.push(cell, newCost + heuristic(x, goalX));
+    }
+    
+    //every step changes the column at most by one, so the heuristic never overestimates
+    private int heuristic(int x, int goalX) {
+        return STEP_COST*Math.abs(goalX - x);
+    }
+    
+    private int getCell(int x, int y) {
+        return (x - originX)*size + (y - originY);
+    }
+    
+    /**
+     * Cost of the move between two tiles, the same moves are made by the search.
+     *
+     * @param fromX X coordinate of the lowest tile of the NPC's body before the move
+     * @param fromY Y coordinate of the lowest tile of the NPC's body before the move
+     * @param toX X coordinate of the lowest tile of the NPC's body after the move
+     * @param toY Y coordinate of the lowest tile of the NPC's body after the move
+     * @param height height of the NPC's body in tiles
+     * @return cost of the move, -1 if the NPC can not move directly between the tiles
+     */
+    int getMoveCost(int fromX, int fromY, int toX, int toY, int height) {
+        if (!isStandable(fromX, fromY, height)) { return -1; }
+        int dy = toY - fromY;
+        if (toX == fromX) {
+            return Math.abs(dy) == 1 && isLiquid(fromX, fromY) && isStandable(toX, toY, height) ? STEP_COST : -1;
+        }
+        if (Math.abs(toX - fromX) != 1 || dy > SAFE_DROP || -dy > JUMP_HEIGHT || !isStandable(toX, toY, height)) { return -1; }
+        if (dy == 0) { return STEP_COST; }
+        if (dy > 0) {
+            //NPC drops to the first ground
+            for (int drop = 0; drop < dy; drop++) {
+                if (!isClear(toX, fromY + drop, height) || isStandable(toX, fromY + drop, height)) { return -1; }
+            }
+            return STEP_COST + dy;
+        }
+        //NPC jumps onto the first ground
+        for (int jump = 1; jump <= -dy; jump++) {
+            if (!isClear(fromX, fromY - jump, height)) { return -1; }
+            if (jump < -dy && isStandable(toX, fromY - jump, height)) { return -1; }
+        }
+        return STEP_COST*(1 - dy);
+    }
+    
+    /**
+     * @param x X coordinate of the tile
+     * @param y Y coordinate of the tile
+     * @param height height of the NPC's body in tiles
+     * @return Y coordinate of the first tile at most {@link #SAFE_DROP} tiles below the given one
+     * the NPC can stand on, the given Y coordinate if there is no such tile
+     * @since 1.1
+     */
+    public int getGroundY(int x, int y, int height) {
+        for (int drop = 0; drop <= SAFE_DROP; drop++) {
+            if (isStandable(x, y + drop, height)) { return y + drop; }
+        }
+        return y;
+    }
+    
+    /**
+     * @param x X coordinate of the lowest tile of the NPC's body
+     * @param y Y coordinate of the lowest tile of the NPC's body
+     * @param height height of the NPC's body in tiles
+     * @return true if the NPC's body fits in the tiles and it stands on the ground or swims there
+     * @since 1.0
+     */
+    public boolean isStandable(int x, int y, int height) {
+        return isClear(x, y, height) && (isLiquid(x, y) || isSolid(x, y + 1));
+    }
+    
+    //the body of the NPC fits in the tiles, the sky above the world is free
+    private boolean isClear(int x, int y, int height) {
+        if (y >= HEIGHT || !world.isColumnLoaded(x)) { return false; }
+        for (int tileY = Math.max(y - height + 1, 0); tileY <= y; tileY++) {
+            if (isSolid(x, tileY)) { return false; }
+        }
+        return true;
+    }
+    
+    private boolean isSolid(int x, int y) {
+        return y >= 0 && y < HEIGHT && TileQuery.matches(world.getTile(x, y), TileQuery.SOLID);
+    }
+    
+    boolean isLiquid(int x, int y) {
+        return y >= 0 && y < HEIGHT && TileQuery.matches(world.getTile(x, y), TileQuery.LIQUID);
+    }
+    
+    /**
+     * Invalidate paths going through the column, called when a solid block is dug or placed
+     * or when liquid flows into the tile or away from it.
+     *
+     * @param tileX X coordinate of the changed column, the world is looping so any value is valid
+     * @since 1.0
+     */
+    public void tileChanged(int tileX) {
+        changeCount++;
+        columnChanges[getEntry(tileX)] = changeCount;
+    }
+    
+    /**
+     * @param path path found by this pathfinder
+     * @return true if no column the path goes through changed since the path was found, false otherwise
+     * or if the path is empty
+     * @since 1.0
+     */
+    public boolean isValid(Path path) {
+        if (path.isEmpty()) { return false; }
+        for (int i = 0; i < path.getSize(); i++) {
+            if (columnChanges[getEntry(path.getTileX(i))] > path.getStamp()) { return false; }
+        }
+        return true;
+    }
+    
+    private int getEntry(int tileX) {
+        return (((tileX % WIDTH) + WIDTH) % WIDTH) % columnChanges.length;
+    }
+    
+    /**
+     * @return total number of tiles expanded by all searches
+     * @since 1.0
+     */
+    public long getExpandedCount() {
+        return expandedCount;
+    }
+    
+    /**
+     * @return total number of searches done
+     * @since 1.0
+     */
+    public long getSearchCount() {
+        return searchCount;
+    }
+    
+}
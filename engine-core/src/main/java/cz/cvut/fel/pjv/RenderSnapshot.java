@@ -0,0 +1,395 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 Michal-jr.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package cz.cvut.fel.pjv;
+
+import cz.cvut.fel.pjv.blocks.TileQuery;
+import cz.cvut.fel.pjv.creatures.Creature;
+import cz.cvut.fel.pjv.creatures.Friend;
+import cz.cvut.fel.pjv.creatures.NPC;
+import cz.cvut.fel.pjv.creatures.Player;
+import cz.cvut.fel.pjv.items.Item;
+import cz.cvut.fel.pjv.items.StoredBlock;
+import java.util.Arrays;
+
+/**
+ * Everything needed to draw one frame, copied from the game after a tick.
+ * The simulation fills the snapshot and hands it over to the renderer, the renderer then reads it
+ * while the simulation goes on with another snapshot, so the game state is never read while it changes.
+ * Only the area around the player that can be seen on the canvas is copied.
+ * Snapshots are reused, they do not allocate new objects once their buffers are large enough.
+ *
+ * @author Michal-jr
+ * @version 1.1
+ */
+public class RenderSnapshot {
+    
+    private static final int HOTBAR_SIZE = 10;
+    
+    private final double viewWidth;
+    private final double viewHeight;
+    
+    private long sequence = -1;
+    private long time;
+    private final Sprites creatures = new Sprites();
+    private final Sprites items = new Sprites();
+    private final TileQuery tiles = new TileQuery();
+    private final Item[] hotbarItems = new Item[HOTBAR_SIZE];
+    private final int[] hotbarQuantities = new int[HOTBAR_SIZE];
+    private int activeItemIndex;
+    private int playerHp;
+    private boolean playerKilled;
+    private Friend talkingNPC;
+    private String message;
+
+    /**
+     * Create new empty snapshot.
+     *
+     * @param viewWidth width in pixels of the area around the player that is copied to each side
+     * @param viewHeight height in pixels of the area around the player that is copied to each side
+     * @since 1.0
+     */
+    public RenderSnapshot(double viewWidth, double viewHeight) {
+        this.viewWidth = viewWidth;
+        this.viewHeight = viewHeight;
+    }
+    
+    /**
+     * Copy the game state. Must be called on the thread running the simulation.
+     *
+     * @param game instance of the game
+     * @param sequence number of the snapshot, newer snapshots have greater numbers
+     * @param time time of the last tick in nanoseconds
+     * @since 1.0
+     */
+    public void capture(Game game, long sequence, long time) {
+        this.sequence = sequence;
+        this.time = time;
+        World world = game.getWorld();
+        Player player = game.getPlayer();
+        double fromX = player.getX() - viewWidth;
+        double toX = player.getX2() + viewWidth;
+        double fromY = player.getY() - viewHeight;
+        double toY = player.getY2() + viewHeight;
+        
+        //the player is the first creature
+        creatures.clear();
+        creatures.add(player);
+        talkingNPC = null;
+        message = null;
+        for (NPC npc : world.getNpcs()) {
+            if (npc.isKilled()) { continue; }
+            double x = world.nearestX(npc.getX(), player.getX());
+            if (x + npc.getWidth() < fromX || x > toX || npc.getY2() < fromY || npc.getY() > toY) { continue; }
+            if (npc instanceof Friend && ((Friend) npc).getSomethingToSay() != null) {
+                talkingNPC = (Friend) npc;
+                message = talkingNPC.getSomethingToSay();
+            }
+            creatures.add(npc);
+        }
+        
+        items.clear();
+        for (Item item : world.getItems()) {
+            if (item.isPicked()) { continue; }
+            double x = world.nearestX(item.getX(), player.getX());
+            if (x + item.getWidth() < fromX || x > toX || item.getY2() < fromY || item.getY() > toY) { continue; }
+            items.add(item);
+        }
+        
+        world.queryTiles(fromX, fromY, toX, toY, TileQuery.ANY, tiles);
+        //liquids are drawn by their level
+        for (int i = 0; i < tiles.getSize(); i++) {
+            if (tiles.getType(i).isLiquid()) { tiles.setState(i, world.getTileState(tiles.getTileX(i), tiles.getTileY(i))); }
+        }
+        
+        Item[] hotbar = player.getInventory().getHotbarItems();
+        Arrays.fill(hotbarItems, null);
+        System.arraycopy(hotbar, 0, hotbarItems, 0, Math.min(hotbar.length, HOTBAR_SIZE));
+        for (int i = 0; i < HOTBAR_SIZE; i++) {
+            hotbarQuantities[i] = hotbarItems[i] instanceof StoredBlock ? ((StoredBlock) hotbarItems[i]).getQuantity() : 1;
+        }
+        activeItemIndex = player.getInventory().getActiveItemIndex();
+        playerHp = player.getHp();
+        playerKilled = player.isKilled();
+    }
+
+    /**
+     * @return number of the snapshot, -1 if nothing was captured yet
+     * @since 1.0
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * @return time of the tick the snapshot was captured after, in nanoseconds
+     * @since 1.0
+     */
+    public long getTime() {
+        return time;
+    }
+
+    /**
+     * @return creatures to draw, the player is the first one
+     * @since 1.0
+     */
+    public Sprites getCreatures() {
+        return creatures;
+    }
+
+    /**
+     * @return items laying in the world to draw
+     * @since 1.0
+     */
+    public Sprites getItems() {
+        return items;
+    }
+
+    /**
+     * @return tiles to draw
+     * @since 1.0
+     */
+    public TileQuery getTiles() {
+        return tiles;
+    }
+
+    /**
+     * @param index index of the hotbar cell
+     * @return item in the hotbar cell, null if the cell is empty
+     * @since 1.0
+     */
+    public Item getHotbarItem(int index) {
+        return hotbarItems[index];
+    }
+
+    /**
+     * @param index index of the hotbar cell
+     * @return number of items in the hotbar cell
+     * @since 1.0
+     */
+    public int getHotbarQuantity(int index) {
+        return hotbarQuantities[index];
+    }
+
+    /**
+     * @return number of hotbar cells
+     * @since 1.0
+     */
+    public int getHotbarSize() {
+        return HOTBAR_SIZE;
+    }
+
+    /**
+     * @return index of the active item
+     * @since 1.0
+     */
+    public int getActiveItemIndex() {
+        return activeItemIndex;
+    }
+
+    /**
+     * @return player's HP
+     * @since 1.0
+     */
+    public int getPlayerHp() {
+        return playerHp;
+    }
+
+    /**
+     * @return true if the player was killed, false otherwise
+     * @since 1.0
+     */
+    public boolean isPlayerKilled() {
+        return playerKilled;
+    }
+
+    /**
+     * @return friendly NPC that is talking to the player, null if there is none
+     * @since 1.0
+     */
+    public Friend getTalkingNPC() {
+        return talkingNPC;
+    }
+
+    /**
+     * @return what the talking NPC says, null if nobody is talking
+     * @since 1.0
+     */
+    public String getMessage() {
+        return message;
+    }
+    
+    /**
+     * Copied sprites of entities with their positions.
+     */
+    public static class Sprites {
+        
+        private int size = 0;
+        private Spritesheet[] spritesheets = new Spritesheet[16];
+        private double[] imageX = new double[16];
+        private double[] imageY = new double[16];
+        private double[] imageWidth = new double[16];
+        private double[] imageHeight = new double[16];
+        private double[] x = new double[16];
+        private double[] y = new double[16];
+        private double[] previousX = new double[16];
+        private double[] previousY = new double[16];
+        private double[] width = new double[16];
+        private double[] height = new double[16];
+        
+        void clear() {
+            size = 0;
+        }
+        
+        void add(Creature creature) {
+            int i = next();
+            spritesheets[i] = creature.getSpritesheet();
+            imageX[i] = creature.getSpriteX();
+            imageY[i] = creature.getSpriteY();
+            imageWidth[i] = creature.getIMAGE_WIDTH();
+            imageHeight[i] = creature.getIMAGE_HEIGHT();
+            x[i] = creature.getX();
+            y[i] = creature.getY();
+            previousX[i] = creature.getInterpolatedX(0);
+            previousY[i] = creature.getInterpolatedY(0);
+            width[i] = creature.getWidth();
+            height[i] = creature.getHeight();
+        }
+        
+        void add(Item item) {
+            int i = next();
+            spritesheets[i] = item.getSpritesheet();
+            imageX[i] = item.getIMAGE_X();
+            imageY[i] = item.getIMAGE_Y();
+            imageWidth[i] = item.getIMAGE_WIDTH();
+            imageHeight[i] = item.getIMAGE_HEIGHT();
+            x[i] = item.getX();
+            y[i] = item.getY();
+            previousX[i] = item.getX();
+            previousY[i] = item.getY();
+            width[i] = item.getWidth();
+            height[i] = item.getHeight();
+        }
+        
+        private int next() {
+            if (size == spritesheets.length) {
+                int capacity = size*2;
+                spritesheets = Arrays.copyOf(spritesheets, capacity);
+                imageX = Arrays.copyOf(imageX, capacity);
+                imageY = Arrays.copyOf(imageY, capacity);
+                imageWidth = Arrays.copyOf(imageWidth, capacity);
+                imageHeight = Arrays.copyOf(imageHeight, capacity);
+                x = Arrays.copyOf(x, capacity);
+                y = Arrays.copyOf(y, capacity);
+                previousX = Arrays.copyOf(previousX, capacity);
+                previousY = Arrays.copyOf(previousY, capacity);
+                width = Arrays.copyOf(width, capacity);
+                height = Arrays.copyOf(height, capacity);
+            }
+            return size++;
+        }
+
+        /**
+         * @return number of sprites
+         */
+        public int getSize() {
+            return size;
+        }
+
+        /**
+         * @param i index of the sprite
+         * @return id of the spritesheet of the sprite
+         */
+        public Spritesheet getSpritesheet(int i) {
+            return spritesheets[i];
+        }
+
+        /**
+         * @param i index of the sprite
+         * @return X coordinate of the sprite in the spritesheet
+         */
+        public double getImageX(int i) {
+            return imageX[i];
+        }
+
+        /**
+         * @param i index of the sprite
+         * @return Y coordinate of the sprite in the spritesheet
+         */
+        public double getImageY(int i) {
+            return imageY[i];
+        }
+
+        /**
+         * @param i index of the sprite
+         * @return width of the sprite in the spritesheet
+         */
+        public double getImageWidth(int i) {
+            return imageWidth[i];
+        }
+
+        /**
+         * @param i index of the sprite
+         * @return height of the sprite in the spritesheet
+         */
+        public double getImageHeight(int i) {
+            return imageHeight[i];
+        }
+
+        /**
+         * @param i index of the sprite
+         * @param alpha part of the tick passed since the last position, from 0 to 1
+         * @return pixel X coordinate of the entity between its previous and current position
+         */
+        public double getX(int i, double alpha) {
+            return previousX[i] + (x[i] - previousX[i])*alpha;
+        }
+
+        /**
+         * @param i index of the sprite
+         * @param alpha part of the tick passed since the last position, from 0 to 1
+         * @return pixel Y coordinate of the entity between its previous and current position
+         */
+        public double getY(int i, double alpha) {
+            return previousY[i] + (y[i] - previousY[i])*alpha;
+        }
+
+        /**
+         * @param i index of the sprite
+         * @return width of the entity in pixels
+         */
+        public double getWidth(int i) {
+            return width[i];
+        }
+
+        /**
+         * @param i index of the sprite
+         * @return height of the entity in pixels
+         */
+        public double getHeight(int i) {
+            return height[i];
+        }
+        
+    }
+    
+}
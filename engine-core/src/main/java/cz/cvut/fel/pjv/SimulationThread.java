@@ -0,0 +1,191 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 Michal-jr.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package cz.cvut.fel.pjv;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runs the simulation of the game on its own thread, so a slow tick does not stop drawing and input.
+ * After each run of ticks the game is copied into a snapshot that is handed over to the renderer.
+ * Three snapshots are used: the simulation writes one, the renderer reads another one
+ * and the last finished one waits for the renderer. They are exchanged atomically, no locks are used.
+ * Input reaches the game by commands posted by {@link Game#post(Runnable)}.
+ * The thread finishes when the player is killed.
+ *
+ * @author Michal-jr
+ * @version 1.2
+ */
+public class SimulationThread implements Runnable {
+    
+    private final Game game;
+    private final FixedTimestep clock;
+    private final AtomicReference<RenderSnapshot> ready;
+    
+    /**
+     * Snapshot written by the simulation.
+     */
+    private RenderSnapshot back;
+    
+    /**
+     * Snapshot read by the renderer.
+     */
+    private RenderSnapshot front;
+    
+    private long sequence = 0;
+    private long droppedTicks = 0;
+    private volatile boolean running = false;
+    private volatile boolean idle = true;
+    private volatile boolean finished = false;
+    private Thread thread;
+    
+    /**
+     * Thread waiting in {@link #pause()} until the running tick ends, it is unparked when the simulation gets idle.
+     */
+    private volatile Thread pausing;
+
+    /**
+     * Create new simulation, it is not running until it is resumed.
+     *
+     * @param game instance of the game
+     * @param clock clock deciding when ticks run
+     * @param viewWidth width in pixels of the area around the player copied to each side for drawing
+     * @param viewHeight height in pixels of the area around the player copied to each side for drawing
+     * @since 1.0
+     */
+    public SimulationThread(Game game, FixedTimestep clock, double viewWidth, double viewHeight) {
+        this.game = game;
+        this.clock = clock;
+        ready = new AtomicReference<>(new RenderSnapshot(viewWidth, viewHeight));
+        back = new RenderSnapshot(viewWidth, viewHeight);
+        front = new RenderSnapshot(viewWidth, viewHeight);
+    }
+    
+    /**
+     * Start or resume the simulation. Time while it was paused is not caught up.
+     *
+     * @since 1.0
+     */
+    public void resume() {
+        if (finished) { return; }
+        //the simulation is idle, so the clock can be changed
+        clock.reset();
+        running = true;
+        if (thread == null) {
+            thread = new Thread(this, "Simulation");
+            thread.setDaemon(true);
+            thread.start();
+        } else {
+            LockSupport.unpark(thread);
+        }
+    }
+    
+    /**
+     * Pause the simulation and wait until the running tick ends, the game can be saved then.
+     *
+     * @since 1.0
+     */
+    public void pause() {
+        running = false;
+        if (thread == null) { return; }
+        //pausing is set before idle is checked, so the simulation can not get idle without unparking the caller
+        pausing = Thread.currentThread();
+        LockSupport.unpark(thread);
+        while (!idle) {
+            LockSupport.park(this);
+        }
+        pausing = null;
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (true) {
+                //idle is cleared before running is checked, so pause can not miss a starting tick
+                idle = false;
+                if (!running) {
+                    setIdle();
+                    LockSupport.park(this);
+                    continue;
+                }
+                int ticks = clock.advance(System.nanoTime());
+                if (clock.getDroppedTicks() != droppedTicks) { logDroppedTicks(); }
+                for (int i = 0; i < ticks && !game.getPlayer().isKilled(); i++) {
+                    game.tick();
+                }
+                if (ticks > 0) { publish(); }
+                if (game.getPlayer().isKilled()) { break; }
+                LockSupport.parkNanos(this, clock.getNanosToNextTick());
+            }
+        } catch (RuntimeException ex) {
+            Logger.getLogger(Logger.GLOBAL_LOGGER_NAME).log(Level.SEVERE, "Simulation of the game failed.", ex);
+        }
+        finished = true;
+        running = false;
+        setIdle();
+    }
+    
+    private void logDroppedTicks() {
+        long dropped = clock.getDroppedTicks() - droppedTicks;
+        droppedTicks = clock.getDroppedTicks();
+        Logger.getLogger(Logger.GLOBAL_LOGGER_NAME).log(Level.WARNING,
+            "Simulation could not keep up, {0} ticks were dropped, {1} in total.", new Object[]{dropped, droppedTicks});
+    }
+    
+    private void setIdle() {
+        idle = true;
+        Thread caller = pausing;
+        if (caller != null) { LockSupport.unpark(caller); }
+    }
+    
+    private void publish() {
+        back.capture(game, ++sequence, System.nanoTime());
+        back = ready.getAndSet(back);
+    }
+    
+    /**
+     * Get the newest snapshot of the game. Must be called only by the renderer,
+     * the returned snapshot is not changed until the next call.
+     *
+     * @return newest snapshot of the game, null if no tick was run yet
+     * @since 1.0
+     */
+    public RenderSnapshot takeSnapshot() {
+        if (ready.get().getSequence() > front.getSequence()) {
+            front = ready.getAndSet(front);
+        }
+        return front.getSequence() == -1 ? null : front;
+    }
+
+    /**
+     * @return true if the simulation finished because the player was killed or the simulation failed
+     * @since 1.0
+     */
+    public boolean isFinished() {
+        return finished;
+    }
+    
+}
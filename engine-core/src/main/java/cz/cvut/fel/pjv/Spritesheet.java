@@ -0,0 +1,79 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 Michal-jr.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package cz.cvut.fel.pjv;
+
+/**
+ * Enumeration class of all spritesheets. The game refers to sprites only by these ids,
+ * images are loaded by the client drawing the game.
+ *
+ * @author Michal-jr
+ * @version 1.0
+ */
+public enum Spritesheet {
+    
+    /**
+     * Spritesheet of blocks and stored blocks.
+     */
+    TILES("spritesheet_tiles.png"),
+    
+    /**
+     * Spritesheet of tools.
+     */
+    ITEMS("spritesheet_items.png"),
+    
+    /**
+     * Spritesheet of the player.
+     */
+    HERO("spritesheet_hero.png"),
+    
+    /**
+     * Spritesheet of monks.
+     */
+    MONK("spritesheet_monk.png"),
+    
+    /**
+     * Spritesheet of skeletons.
+     */
+    SKELETON("spritesheet_skeleton.png"),
+    
+    /**
+     * Spritesheet of the enemy boss.
+     */
+    BOSS("spritesheet_boss.png");
+    
+    private final String fileName;
+
+    private Spritesheet(String fileName) {
+        this.fileName = fileName;
+    }
+
+    /**
+     * @return name of the image file with the spritesheet in resources
+     * @since 1.0
+     */
+    public String getFileName() {
+        return fileName;
+    }
+    
+}
@@ -0,0 +1,99 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 Michal-jr.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package cz.cvut.fel.pjv;
+
+/**
+ * Reusable result of the swept collision, see {@link Collision#sweep}. Contains the position
+ * the box reached and normals of the tiles it hit, so the sweep does not allocate new objects.
+ *
+ * @author Michal-jr
+ * @version 1.0
+ */
+public class Sweep {
+    
+    private double x;
+    private double y;
+    private int normalX;
+    private int normalY;
+    
+    void start(double x, double y) {
+        this.x = x;
+        this.y = y;
+        normalX = 0;
+        normalY = 0;
+    }
+    
+    void moveX(double x, int normalX) {
+        this.x = x;
+        this.normalX = normalX;
+    }
+    
+    void moveY(double y, int normalY) {
+        this.y = y;
+        this.normalY = normalY;
+    }
+
+    /**
+     * @return pixel X coordinate of the left side of the box after the sweep
+     * @since 1.0
+     */
+    public double getX() {
+        return x;
+    }
+
+    /**
+     * @return pixel Y coordinate of the top side of the box after the sweep
+     * @since 1.0
+     */
+    public double getY() {
+        return y;
+    }
+
+    /**
+     * @return X part of the normal of the hit tile side, 1 for a tile on the left, -1 for a tile on the right,
+     * 0 if no tile was hit horizontally
+     * @since 1.0
+     */
+    public int getNormalX() {
+        return normalX;
+    }
+
+    /**
+     * @return Y part of the normal of the hit tile side, -1 for a tile below (ground), 1 for a tile above (ceiling),
+     * 0 if no tile was hit vertically
+     * @since 1.0
+     */
+    public int getNormalY() {
+        return normalY;
+    }
+    
+    /**
+     * @return true if any tile was hit, false otherwise
+     * @since 1.0
+     */
+    public boolean isHit() {
+        return normalX != 0 || normalY != 0;
+    }
+    
+}
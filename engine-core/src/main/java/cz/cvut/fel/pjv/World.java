@@ -0,0 +1,935 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 Zdenek.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package cz.cvut.fel.pjv;
+
+import cz.cvut.fel.pjv.blocks.LiquidSimulation;
+import cz.cvut.fel.pjv.blocks.BlockType;
+import cz.cvut.fel.pjv.blocks.Block;
+import cz.cvut.fel.pjv.blocks.Chunk;
+import cz.cvut.fel.pjv.blocks.MappedTileStore;
+import cz.cvut.fel.pjv.blocks.StreamingTileStore;
+import cz.cvut.fel.pjv.blocks.TileQuery;
+import cz.cvut.fel.pjv.blocks.TileStorage;
+import cz.cvut.fel.pjv.blocks.TileStore;
+import cz.cvut.fel.pjv.creatures.CreatureStore;
+import cz.cvut.fel.pjv.creatures.CreatureType;
+import cz.cvut.fel.pjv.creatures.Enemy;
+import cz.cvut.fel.pjv.creatures.Friend;
+import cz.cvut.fel.pjv.creatures.NPC;
+import cz.cvut.fel.pjv.creatures.Player;
+import cz.cvut.fel.pjv.fileio.ChunkStorage;
+import cz.cvut.fel.pjv.items.Item;
+import cz.cvut.fel.pjv.items.StoredBlock;
+import cz.cvut.fel.pjv.items.ItemType;
+import cz.cvut.fel.pjv.maps.Cave;
+import cz.cvut.fel.pjv.maps.MapConfig;
+import cz.cvut.fel.pjv.maps.RNG;
+import cz.cvut.fel.pjv.maps.Structure;
+import cz.cvut.fel.pjv.maps.Vector;
+import cz.cvut.fel.pjv.maps.WorldMap;
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Contains all entities in the world.
+ * Takes the world worldMap (2D ArrayList) as argument.
+ * 
+ * @author Zdenek
+ * @version 1.18
+ */
+public class World implements Serializable {
+    
+    private final int WIDTH;
+    private final int HEIGHT;
+    
+    /**
+     * Tiles of the world, addressed by tile coordinates.
+     */
+    private TileStorage tiles;
+    
+    /**
+     * Streamer of chunks around the player, null if the whole world is held in memory.
+     */
+    private ChunkStreamer streamer;
+    
+    /**
+     * Pixel coordinates of the top left corner of the tile [0, 0].
+     */
+    private double tilesOriginX;
+    private double tilesOriginY;
+    
+    /**
+     * Array of instances of items in the world.
+     */
+    private ItemRegistry items;
+    
+    /**
+     * Instances of NPCs in the world, their state is stored in parallel arrays.
+     */
+    private CreatureStore<NPC> npcs;
+    
+    /**
+     * Decides which NPCs are updated by their distance from the player.
+     */
+    private NpcScheduler npcScheduler;
+    
+    /**
+     * Number of threads deciding NPC moves, NPCs are updated on the calling thread if it is 1 or less.
+     */
+    private int npcThreads = 1;
+    private transient ForkJoinPool npcPool;
+    
+    /**
+     * NPCs killed by the fall damage in this tick, they die in the apply phase.
+     */
+    private transient boolean[] npcFallen;
+    
+    /**
+     * Searches paths of NPCs under a budget of tiles per tick, NPCs plan their paths one by one
+     * starting with the first NPC that did not get to plan in the last tick.
+     */
+    private Pathfinder pathfinder;
+    private int planCursor = 0;
+    
+    /**
+     * Steps toward the player shared by all enemies chasing him.
+     */
+    private FlowField flowField;
+    
+    /**
+     * Graph of chunks for long routes of NPCs.
+     */
+    private ChunkGraph chunkGraph;
+    
+    /**
+     * Simulation of liquids, only liquid next to changed tiles is updated.
+     */
+    private LiquidSimulation liquids;
+    
+    /**
+     * Scheduled and random ticks of tiles, they drive grass and spawners.
+     */
+    private BlockTicks blockTicks;
+    
+    /*
+     * Instance of WorldMap.
+     */
+    private final WorldMap worldMap;
+    
+    private double playerSpawnX;
+    
+    /**
+     * Number of picked items and killed NPCs removed from the world.
+     */
+    private int removedItems = 0;
+    private int removedNpcs = 0;
+    
+    /**
+     * Create new world.
+     *
+     * @throws java.io.IOException
+     * @since 1.0
+     */
+    public World() throws IOException {
+        worldMap = new WorldMap();
+        WIDTH = worldMap.getWIDTH();
+        HEIGHT = worldMap.getHEIGHT();
+        createWorld();
+        playerSpawnX = worldMap.getPlayerX();
+    }
+    
+    private void spawnBoss() {
+        double bossX = RNG.randomIntInRange(0, WIDTH - 1);
+        double bossY = 0;
+        
+        boolean bossCoordsInStructure = true;
+        
+        for (int i = HEIGHT - 1; i >= 0; i--) {
+            
+            if (worldMap.getBlockType((int) (bossX), i) == null) {
+                bossY = i;
+                
+                //Make sure boss is not spawned inside a structure.
+                for (Structure structure : worldMap.getStructures().values()) {
+                    
+                    for (Vector vector : structure.getStructureVectors()) {
+                        
+                        //If he is not inside a structure the coordinates are ok.
+                        if ((bossX != vector.getX()) || (bossY != vector.getY())) {
+                            bossCoordsInStructure = false;
+                            bossX -= worldMap.getWIDTH() / 2;
+                            break;
+                        }
+                    }
+                    
+                    if (!bossCoordsInStructure) {
+                        break;
+                    }
+                }
+            }
+            
+            if (!bossCoordsInStructure) {
+                break;
+            }
+        }
+        
+        npcs.add(new Enemy(bossX * Block.block_width, bossY * Block.block_height, CreatureType.BOSS, this));
+    }
+    
+    private void spawnNPCs() {
+        npcs = new CreatureStore<>(worldMap.getCaves().size() + worldMap.getStructures().size() + 1);
+        
+        for (Cave cave : worldMap.getCaves()) {
+            addSpawner(cave.getSpawner(), CreatureType.SKELETON);
+        }
+        
+        for (Map.Entry<String, Structure> structure : worldMap.getStructures().entrySet()) {
+            
+            if (structure.getValue().getSpawner() != null) {
+                addSpawner(structure.getValue().getSpawner(), CreatureType.MONK);
+            }
+        }
+    }
+    
+    //spawner brings its NPC back after it is killed
+    private void addSpawner(Vector spawner, CreatureType type) {
+        blockTicks.addSpawner(spawner.getX(), spawner.getY(), type, spawnNPC(spawner.getX(), spawner.getY(), type));
+    }
+    
+    /**
+     * Add new NPC standing on the tile of a spawner into the world, monks are friendly, other NPCs are enemies.
+     */
+    NPC spawnNPC(int tileX, int tileY, CreatureType type) {
+        double x = getTilePixelX(tileX);
+        double y = getTilePixelY(tileY - 1);
+        NPC npc = type == CreatureType.MONK ? new Friend(x, y, type) : new Enemy(x, y, type, this);
+        npcs.add(npc);
+        return npc;
+    }
+    
+    private void createItems() {
+        
+        for (Map.Entry<List<Integer>, ItemType> newItem : worldMap.getItemMap().entrySet()) {
+            List<Integer> coords = newItem.getKey();
+            
+            double itemX = (coords.get(0) - (worldMap.getWIDTH() / 2)) * Block.block_width;
+            double itemY = coords.get(1) * Block.block_height;
+            
+            addItem(new StoredBlock(itemX, itemY, newItem.getValue()));
+        }
+    }
+    
+    private void createWorld() throws IOException {
+        tilesOriginX = -((int) WIDTH/2) * Block.block_width;
+        tilesOriginY = 0;
+        MapConfig mapConfig = WorldMap.getMapConfig();
+        
+        if (worldMap.isStreaming()) {
+            //tiles are loaded later around the player
+            StreamingTileStore streamingTiles = new StreamingTileStore(WIDTH, HEIGHT, mapConfig.streamingMaxColumns);
+            //every game has its own working directory, saved games refer to snapshots of it
+            File root = new File(mapConfig.streamingDirectory);
+            root.mkdirs();
+            File directory = Files.createTempDirectory(root.toPath(), "world_"+worldMap.getSeed()+"_").toFile();
+            streamer = new ChunkStreamer(streamingTiles, worldMap.getGenerator(), directory, mapConfig.streamingRadius);
+            tiles = streamingTiles;
+        } else {
+            if (mapConfig != null && mapConfig.mappedTiles) {
+                //every game has its own working file, saved games refer to snapshots of it
+                File file = new File(mapConfig.mappedTilesDirectory, "world_"+worldMap.getSeed()+"_"+System.currentTimeMillis()+".tiles");
+                tiles = new MappedTileStore(file, WIDTH, HEIGHT);
+            } else {
+                tiles = new TileStore(WIDTH, HEIGHT);
+            }
+            for (int i = 0; i < WIDTH; i++) {
+                for (int j = 0; j < HEIGHT; j++) {
+                    tiles.setTile(i, j, worldMap.getBlockType(i, j));
+                }
+            }
+            //the map is not held twice
+            if (tiles instanceof MappedTileStore) { worldMap.useTiles(tiles); }
+        }
+        
+        items = new ItemRegistry(this);
+        
+        if (mapConfig != null && mapConfig.npcReducedPeriod > 0) {
+            npcScheduler = new NpcScheduler(WIDTH, mapConfig.npcFullRadius, mapConfig.npcReducedRadius, mapConfig.npcReducedPeriod);
+        } else {
+            //every NPC is updated every tick
+            npcScheduler = new NpcScheduler(WIDTH, WIDTH, WIDTH, 1);
+        }
+        if (mapConfig != null) { npcThreads = mapConfig.npcThreads; }
+        
+        if (mapConfig != null && mapConfig.pathNodesPerTick > 0) {
+            pathfinder = new Pathfinder(this, mapConfig.pathNodesPerTick, mapConfig.pathNodesPerSearch, mapConfig.pathSearchRadius);
+        } else {
+            pathfinder = new Pathfinder(this, 4000, 1000, 32);
+        }
+        //enemies are two tiles tall
+        if (mapConfig != null && mapConfig.flowFieldNodesPerTick > 0) {
+            flowField = new FlowField(this, mapConfig.flowFieldRadius, mapConfig.flowFieldNodesPerTick, 2);
+        } else {
+            flowField = new FlowField(this, 24, 2048, 2);
+        }
+        if (mapConfig != null && mapConfig.routeClustersPerTick > 0) {
+            chunkGraph = new ChunkGraph(this, 2, mapConfig.routeClustersPerTick, mapConfig.routeNodesPerSearch);
+        } else {
+            chunkGraph = new ChunkGraph(this, 2, 2, 2000);
+        }
+        
+        if (mapConfig != null && mapConfig.liquidCellsPerUpdate > 0) {
+            liquids = new LiquidSimulation(this, mapConfig.liquidCellsPerUpdate, mapConfig.liquidUpdatePeriod);
+        } else {
+            liquids = new LiquidSimulation(this, 256, 1);
+        }
+        
+        if (mapConfig != null && mapConfig.blockTicksPerTick > 0) {
+            blockTicks = new BlockTicks(this, mapConfig.blockTicksPerTick, mapConfig.randomTicksPerChunk, mapConfig.randomTickRadius, mapConfig.spawnerPeriod, worldMap.getSeed());
+        } else {
+            blockTicks = new BlockTicks(this, 256, 3, 4, 1800, worldMap.getSeed());
+        }
+        
+        spawnNPCs();
+        spawnBoss();
+        createItems();
+    }
+    
+    /**
+     * Add item to the world.
+     *
+     * @param itemToAdd instance of item to add into the world
+     * @since 1.1
+     */
+    public void addItem(Item itemToAdd) {
+        items.add(itemToAdd);
+    }
+    
+    /**
+     * Update all items that are laying in the world (they are not picked by any creature).
+     * Picked items are removed from the world, items laying on the ground
+     * and items in columns of chunks that are not loaded are skipped.
+     *
+     * @since 1.1
+     */
+    public void updateLayingItems() {
+        removedItems += items.removePicked();
+        for (int i = 0; i < items.size(); i++) {
+            Item item = items.get(i);
+            //item laying on the ground does not move until the ground changes
+            if (item.isSettled()) { continue; }
+            //there are no tiles under the item until its chunk is loaded
+            if (!isColumnLoaded(getTileX(item.getX()))) { continue; }
+            double x = item.getX();
+            double y = item.getY();
+            int bucketIndex = items.getBucketIndex(x);
+            Collision.moveItem(item, this, 0, item.getVelocityY());
+            if (item.getX() == x && item.getY() == y) { item.setSettled(true); }
+            items.relocate(item, bucketIndex);
+        }
+    }
+    
+    /**
+     * Update all NPCs in the world. Killed NPCs are removed from the world.
+     * NPCs far from the player are updated less often or not at all, see {@link NpcScheduler}.
+     * The update has two phases. In the decision phase NPCs change only themselves, they decide where to go,
+     * move and resolve their collisions. This phase runs on more threads if {@link #setNpcThreads(int)} is set.
+     * In the apply phase NPCs killed by the fall damage die and NPCs act (attack the player) one by one in their order.
+     * Each step of {@link NPC#update(World, Player)} is done for a range of NPCs before the next step,
+     * NPCs do not affect each other, so the result is the same as updating them one by one,
+     * no matter how many threads are used.
+     * 
+     * @param player instance of the player
+     * @since 1.0
+     */
+    public void updateNPCs(Player player) {
+        int count = npcs.size();
+        int playerTileX = getTileX(player.getX() + player.getWidth()/2);
+        npcScheduler.startTick();
+        for (int i = 0; i < count; i++) {
+            NPC npc = npcs.get(i);
+            if (npc.isKilled()) { npcs.setSkipped(i, true); continue; }
+            int tileX = getTileX(npc.getX() + npc.getWidth()/2);
+            npcs.setSkipped(i, !npcScheduler.isScheduled(i, tileX, playerTileX, isColumnLoaded(tileX)));
+        }
+        if (npcFallen == null || npcFallen.length < count) { npcFallen = new boolean[Math.max(count, 16)]; }
+        flowField.update(playerTileX, getTileY(player.getY2() - 1));
+        planNPCs(player, count);
+        //decision phase
+        if (npcThreads > 1 && count > NpcDecisionTask.RANGE_SIZE) {
+            if (npcPool == null) { npcPool = new ForkJoinPool(npcThreads); }
+            npcPool.invoke(new NpcDecisionTask(this, player, 0, count));
+        } else {
+            decideNPCs(player, 0, count);
+        }
+        //apply phase
+        for (int i = 0; i < count; i++) {
+            if (!npcs.isActive(i)) { continue; }
+            NPC npc = npcs.get(i);
+            if (npcFallen[i]) { npc.die(); }
+            npc.act(this, player);
+        }
+        //NPC can be killed by the fall damage or by the player
+        removedNpcs += npcs.removeKilled();
+    }
+    
+    /**
+     * NPCs search their paths one by one on the calling thread, so the budget of the pathfinder is spent
+     * in the same order no matter how many threads decide NPC moves.
+     */
+    private void planNPCs(Player player, int count) {
+        pathfinder.startTick();
+        chunkGraph.startTick();
+        if (count == 0) { return; }
+        if (planCursor >= count) { planCursor = 0; }
+        int first = planCursor;
+        for (int j = 0; j < count; j++) {
+            int i = (first + j) % count;
+            if (!pathfinder.hasBudget()) {
+                planCursor = i;
+                return;
+            }
+            if (npcs.isActive(i)) { npcs.get(i).plan(this, player); }
+        }
+    }
+    
+    /**
+     * Decision phase of the NPC update for a range of NPCs. Only the NPCs in the range are changed.
+     */
+    private void decideNPCs(Player player, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (npcs.isActive(i)) { Collision.creatureIsInLiquid(npcs.get(i), this); }
+        }
+        for (int i = from; i < to; i++) {
+            if (npcs.isActive(i)) { npcs.get(i).think(this, player); }
+        }
+        npcs.moveAll(from, to);
+        for (int i = from; i < to; i++) {
+            npcFallen[i] = npcs.isActive(i) && Collision.resolveCollision(npcs.get(i), this);
+        }
+    }
+    
+    /**
+     * Decision phase of the NPC update split into ranges of NPCs decided by the worker threads.
+     */
+    private static class NpcDecisionTask extends RecursiveAction {
+        
+        private static final int RANGE_SIZE = 32;
+        
+        private final World world;
+        private final Player player;
+        private final int from;
+        private final int to;
+
+        NpcDecisionTask(World world, Player player, int from, int to) {
+            this.world = world;
+            this.player = player;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= RANGE_SIZE) {
+                world.decideNPCs(player, from, to);
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new NpcDecisionTask(world, player, from, middle), new NpcDecisionTask(world, player, middle, to));
+        }
+        
+    }
+    
+    /**
+     * Set number of threads deciding NPC moves. Result of the update does not depend on the number of threads.
+     *
+     * @param npcThreads number of threads, NPCs are updated on the calling thread if it is 1 or less
+     * @since 1.12
+     */
+    public void setNpcThreads(int npcThreads) {
+        if (npcThreads != this.npcThreads && npcPool != null) {
+            npcPool.shutdown();
+            npcPool = null;
+        }
+        this.npcThreads = npcThreads;
+    }
+    
+    /**
+     * @return number of threads deciding NPC moves
+     * @since 1.12
+     */
+    public int getNpcThreads() {
+        return npcThreads;
+    }
+    
+    /**
+     * Load chunks around the player and unload chunks far from him in the infinite world.
+     * Nothing is done if the whole world is held in memory.
+     *
+     * @param player instance of the player
+     * @since 1.7
+     */
+    public void streamChunks(Player player) {
+        if (streamer == null) { return; }
+        //far columns are unloaded when the player gets to another column of chunks, new ones are loaded then
+        if (streamer.update(wrapTileX(getTileX(player.getX() + player.getWidth()/2))) > 0) { chunkGraph.removeUnloaded(); }
+    }
+    
+    /**
+     * Save tiles that are not held in the serialized world next to the saved game.
+     * Columns of chunks of the infinite world are saved into the snapshot directory name.chunks,
+     * tiles in a memory mapped file into the snapshot name.tiles, the serialized world refers to them.
+     * Nothing is saved if the whole world is held on the heap.
+     *
+     * @param directory directory of saved games
+     * @param name name of the saved game
+     * @throws IOException if the tiles could not be saved
+     * @since 1.18
+     */
+    public void saveTiles(File directory, String name) throws IOException {
+        File chunks = new File(directory, name+".chunks");
+        if (streamer != null) {
+            streamer.save(chunks);
+        } else {
+            //the save may have belonged to an infinite world before
+            ChunkStorage.deleteDirectory(chunks);
+        }
+        File mappedTiles = new File(directory, name+".tiles");
+        if (tiles instanceof MappedTileStore) {
+            ((MappedTileStore) tiles).save(mappedTiles);
+        } else {
+            mappedTiles.delete();
+        }
+    }
+    
+    /**
+     * Release files of the world, called when the world is not played anymore.
+     * The working directory of the infinite world and the working file of mapped tiles are deleted,
+     * snapshots of saved games are kept.
+     *
+     * @since 1.18
+     */
+    public void close() {
+        if (streamer != null) { streamer.close(); }
+        if (tiles instanceof MappedTileStore) { ((MappedTileStore) tiles).close(); }
+        if (npcPool != null) {
+            npcPool.shutdown();
+            npcPool = null;
+        }
+    }
+    
+    /**
+     * @param tileX X coordinate of the column, the world is looping so any value is valid
+     * @return true if tiles of the column are in memory, false otherwise
+     * @since 1.7
+     */
+    public boolean isColumnLoaded(int tileX) {
+        return tiles.isLoaded(wrapTileX(tileX));
+    }
+    
+    /**
+     * The world is looping, the same place has X coordinates differing by multiples of the world width.
+     * Entities keep their coordinates when they cross the edge of the world, so coordinates of two entities
+     * have to be brought to the same loop of the world before they are compared.
+     *
+     * @param x pixel X coordinate
+     * @param referenceX pixel X coordinate of the place the result should be close to
+     * @return pixel X coordinate of the same place as x, at most half of the world width from referenceX
+     * @since 1.9
+     */
+    public double nearestX(double x, double referenceX) {
+        double worldWidth = WIDTH * Block.block_width;
+        return x - Math.floor((x - referenceX + worldWidth/2) / worldWidth) * worldWidth;
+    }
+    
+    /**
+     * Run one tick of the simulation of liquids. Liquids fall and spread from the tiles changed
+     * since the last update, settled liquid is not updated.
+     *
+     * @since 1.13
+     */
+    public void updateLiquids() {
+        liquids.tick();
+    }
+    
+    /**
+     * Run one tick of the blocks, scheduled ticks due in it and random ticks of the chunks around the player.
+     * Grass spreads and spawners bring back killed NPCs, see {@link BlockTicks}.
+     *
+     * @param player instance of the player
+     * @since 1.17
+     */
+    public void updateBlocks(Player player) {
+        blockTicks.tick(getTileX(player.getX() + player.getWidth()/2));
+    }
+    
+    /**
+     * @param x pixel X coordinate of the blocks column
+     * @return pixel Y coordinate of the highest block in the given column of blocks,
+     * bottom of the world for an empty column
+     * @since 1.1
+     */
+    public double getHighestBlockY(double x) {
+        return getTilePixelY(tiles.getTopY(wrapTileX(getTileX(x))));
+    }
+    
+    /**
+     * @param tileX X coordinate of the column, the world is looping so any value is valid
+     * @return Y coordinate of the highest solid tile in the column, HEIGHT if there is none
+     * @since 1.5
+     */
+    public int getTopSolidTileY(int tileX) {
+        return tiles.getTopSolidY(wrapTileX(tileX));
+    }
+    
+    /**
+     * @param tileX X coordinate of the column, the world is looping so any value is valid
+     * @return Y coordinate of the highest liquid tile in the column, HEIGHT if there is none
+     * @since 1.5
+     */
+    public int getTopLiquidTileY(int tileX) {
+        return tiles.getTopLiquidY(wrapTileX(tileX));
+    }
+    
+    /**
+     * @param tileX X coordinate of the tile, the world is looping so any value is valid
+     * @param tileY Y coordinate of the tile
+     * @return type of the block on the given tile, null for air
+     * @since 1.2
+     */
+    public BlockType getTile(int tileX, int tileY) {
+        return tiles.getTile(wrapTileX(tileX), tileY);
+    }
+    
+    /**
+     * Set type of the block on the given tile.
+     *
+     * @param tileX X coordinate of the tile, the world is looping so any value is valid
+     * @param tileY Y coordinate of the tile
+     * @param type type of the block, null for air
+     * @since 1.2
+     */
+    public void setTile(int tileX, int tileY, BlockType type) {
+        BlockType oldType = tiles.getTile(wrapTileX(tileX), tileY);
+        tiles.setTile(wrapTileX(tileX), tileY, type);
+        //NPCs walk on solid blocks and swim in liquids, paths change when a tile changes between solid, liquid and air
+        if (pathfinder != null && (TileQuery.matches(oldType, TileQuery.SOLID) != TileQuery.matches(type, TileQuery.SOLID)
+            || TileQuery.matches(oldType, TileQuery.LIQUID) != TileQuery.matches(type, TileQuery.LIQUID))) {
+            pathfinder.tileChanged(tileX);
+            flowField.tileChanged(tileX, tileY);
+            chunkGraph.tileChanged(tileX, tileY);
+        }
+        //items laying on the changed tile may fall now, NPCs around it have to notice the change
+        if (items != null) { items.wakeColumn(tileX); }
+        if (npcScheduler != null) { npcScheduler.wakeColumn(tileX); }
+        if (liquids != null) { liquids.activateAround(tileX, tileY); }
+        if (blockTicks != null) { blockTicks.tileChanged(tileX, tileY, type); }
+    }
+    
+    /**
+     * @param tileX X coordinate of the tile, the world is looping so any value is valid
+     * @param tileY Y coordinate of the tile
+     * @return state bits of the tile
+     * @since 1.2
+     */
+    public int getTileState(int tileX, int tileY) {
+        return tiles.getState(wrapTileX(tileX), tileY);
+    }
+    
+    /**
+     * Set state bits of the tile.
+     *
+     * @param tileX X coordinate of the tile, the world is looping so any value is valid
+     * @param tileY Y coordinate of the tile
+     * @param state state bits of the tile
+     * @since 1.2
+     */
+    public void setTileState(int tileX, int tileY, int state) {
+        tiles.setState(wrapTileX(tileX), tileY, state);
+    }
+    
+    /**
+     * Place the block into the world on the tile it is lying on.
+     *
+     * @param block instance of the block to place
+     * @since 1.2
+     */
+    public void placeBlock(Block block) {
+        setTile(getTileX(block.getX() + block.getWidth()/2), getTileY(block.getY() + block.getHeight()/2), block.getBlockType());
+    }
+    
+    /**
+     * Find all tiles matching the filter that overlap the given area.
+     * Chunks without matching tiles are skipped.
+     *
+     * @param x pixel X coordinate of the left side of the area
+     * @param y pixel Y coordinate of the top side of the area
+     * @param x2 pixel X coordinate of the right side of the area
+     * @param y2 pixel Y coordinate of the bottom side of the area
+     * @param filter filter of tiles from {@link TileQuery}
+     * @param result reusable result of the query, found tiles replace its content
+     * @return number of found tiles
+     * @since 1.2
+     */
+    public int queryTiles(double x, double y, double x2, double y2, int filter, TileQuery result) {
+        result.clear();
+        findTiles(x, y, x2, y2, filter, result);
+        return result.getSize();
+    }
+    
+    /**
+     * @param x pixel X coordinate of the left side of the area
+     * @param y pixel Y coordinate of the top side of the area
+     * @param x2 pixel X coordinate of the right side of the area
+     * @param y2 pixel Y coordinate of the bottom side of the area
+     * @param filter filter of tiles from {@link TileQuery}
+     * @return true if any tile matching the filter overlaps the given area, false otherwise
+     * @since 1.2
+     */
+    public boolean hasTiles(double x, double y, double x2, double y2, int filter) {
+        return findTiles(x, y, x2, y2, filter, null);
+    }
+    
+    private boolean findTiles(double x, double y, double x2, double y2, int filter, TileQuery result) {
+        boolean found = false;
+        int fromX = getTileX(x);
+        int toX = (int) Math.ceil((x2 - tilesOriginX) / Block.block_width) - 1;
+        int fromY = Math.max(getTileY(y), 0);
+        int toY = Math.min((int) Math.ceil((y2 - tilesOriginY) / Block.block_height) - 1, HEIGHT - 1);
+        for (int i = fromX; i <= toX; i++) {
+            int wrappedX = wrapTileX(i);
+            for (int j = fromY; j <= toY; j++) {
+                if (!tiles.hasTilesInChunk(wrappedX, j, filter)) {
+                    //skip the rest of the chunk in this column
+                    j += Chunk.SIZE - 1 - j % Chunk.SIZE;
+                    continue;
+                }
+                BlockType type = tiles.getTile(wrappedX, j);
+                if (!TileQuery.matches(type, filter)) { continue; }
+                if (result == null) { return true; }
+                result.add(i, j, type);
+                found = true;
+            }
+        }
+        return found;
+    }
+    
+    /**
+     * @param tileX X coordinate of the tile, the world is looping so any value is valid
+     * @return X coordinate of the same tile inside the world
+     * @since 1.6
+     */
+    public int wrapTileX(int tileX) {
+        return ((tileX % WIDTH) + WIDTH) % WIDTH;
+    }
+    
+    /**
+     * @param x pixel X coordinate
+     * @return X coordinate of the tile containing the given pixel
+     * @since 1.2
+     */
+    public int getTileX(double x) {
+        return (int) Math.floor((x - tilesOriginX) / Block.block_width);
+    }
+    
+    /**
+     * @param y pixel Y coordinate
+     * @return Y coordinate of the tile containing the given pixel
+     * @since 1.2
+     */
+    public int getTileY(double y) {
+        return (int) Math.floor((y - tilesOriginY) / Block.block_height);
+    }
+    
+    /**
+     * @param tileX X coordinate of the tile
+     * @return pixel X coordinate of the left side of the tile
+     * @since 1.2
+     */
+    public double getTilePixelX(int tileX) {
+        return tilesOriginX + tileX * Block.block_width;
+    }
+    
+    /**
+     * @param tileY Y coordinate of the tile
+     * @return pixel Y coordinate of the top side of the tile
+     * @since 1.2
+     */
+    public double getTilePixelY(int tileY) {
+        return tilesOriginY + tileY * Block.block_height;
+    }
+    
+    /**
+     * @return storage of all tiles in the world
+     * @since 1.2
+     */
+    public TileStorage getTiles() {
+        return tiles;
+    }
+
+    /**
+     * @return streamer of chunks of the infinite world, null if the whole world is held in memory
+     * @since 1.7
+     */
+    public ChunkStreamer getStreamer() {
+        return streamer;
+    }
+
+    /**
+     * @return list of all items in the world
+     * @since 1.0
+     */
+    public ItemRegistry getItems() {
+        return items;
+    }
+    
+    /**
+     * @return simulation of liquids in the world
+     * @since 1.13
+     */
+    public LiquidSimulation getLiquids() {
+        return liquids;
+    }
+    
+    /**
+     * @return scheduled and random ticks of tiles
+     * @since 1.17
+     */
+    public BlockTicks getBlockTicks() {
+        return blockTicks;
+    }
+    
+    /**
+     * @return pathfinder of NPCs
+     * @since 1.14
+     */
+    public Pathfinder getPathfinder() {
+        return pathfinder;
+    }
+    
+    /**
+     * @return field of steps toward the player used by enemies
+     * @since 1.15
+     */
+    public FlowField getFlowField() {
+        return flowField;
+    }
+    
+    /**
+     * @return graph of chunks for long routes of NPCs
+     * @since 1.16
+     */
+    public ChunkGraph getChunkGraph() {
+        return chunkGraph;
+    }
+    
+    /**
+     * @return scheduler of NPC updates, it counts NPCs in its tiers
+     * @since 1.11
+     */
+    public NpcScheduler getNpcScheduler() {
+        return npcScheduler;
+    }
+    
+    /**
+     * @return list of all NPCs in the world
+     * @since 1.0
+     */
+    public CreatureStore<NPC> getNpcs() {
+        return npcs;
+    }
+    
+    /**
+     * @return number of items laying in the world
+     * @since 1.4
+     */
+    public int getItemCount() {
+        return items.size();
+    }
+    
+    /**
+     * @return number of picked items removed from the world
+     * @since 1.4
+     */
+    public int getRemovedItemCount() {
+        return removedItems;
+    }
+    
+    /**
+     * @return number of NPCs in the world
+     * @since 1.4
+     */
+    public int getNpcCount() {
+        return npcs.size();
+    }
+    
+    /**
+     * @return number of killed NPCs removed from the world
+     * @since 1.4
+     */
+    public int getRemovedNpcCount() {
+        return removedNpcs;
+    }
+    
+    /**
+     * @return instance of the world map
+     * @since 1.0
+     */
+    public WorldMap getWorldMap() {
+        return worldMap;
+    }
+    
+    /**
+     * @return width of the world in blocks
+     * @since 1.0
+     */
+    public int getWIDTH() {
+        return WIDTH;
+    }
+
+    /**
+     * @return X coordinate of the player's spawn point in pixels
+     * @since 1.1
+     */
+    public double getPlayerSpawnX() {
+        return playerSpawnX;
+    }
+
+    /**
+     * Set X coordinate of the player's spawn point.
+     *
+     * @param playerSpawnX pixel X coordinate of the player's spawn point
+     * @since 1.1
+     */
+    public void setPlayerSpawnX(double playerSpawnX) {
+        this.playerSpawnX = playerSpawnX;
+    }
+    
+}
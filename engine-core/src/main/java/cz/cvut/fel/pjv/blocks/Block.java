@@ -23,36 +23,30 @@
  */
 package cz.cvut.fel.pjv.blocks;
 
+import cz.cvut.fel.pjv.Spritesheet;
 import java.io.Serializable;
-import javafx.scene.image.Image;
 
 
 /**
  * Block class. Block is basic part of the world.
+ * Size and sprite of the block are shared by all blocks of the same type.
  *
  * @author Michal-jr
- * @version 1.0
+ * @version 1.3
  */
 public abstract class Block implements Serializable {
  
     /**
-     * Actual width of the block in pixels.
+     * Width of the block in pixels of the world, zoom is applied only when drawing.
      */
-    public static double block_width = 32;
+    public static final double block_width = 32;
 
     /**
-     * Actual height of the block in pixels.
+     * Height of the block in pixels of the world, zoom is applied only when drawing.
      */
-    public static double block_height = 32;
+    public static final double block_height = 32;
     
     private double x, y;
-    private double width = block_width;
-    private double height = block_height;
-    private static final Image image = new Image( "spritesheet_tiles.png" );
-    private final double IMAGE_X;
-    private final double IMAGE_Y;
-    private final double IMAGE_WIDTH = 128;
-    private final double IMAGE_HEIGHT = 128;
     private final BlockType blockType;
     private boolean destroyed = false;
 
@@ -67,8 +61,6 @@ public abstract class Block implements Serializable {
     public Block(double x, double y, BlockType type) {
         this.x = x;
         this.y = y;
-        this.IMAGE_X = type.getSpritesheetX();
-        this.IMAGE_Y = type.getSpritesheetY();
         blockType = type;
     }
 
@@ -85,7 +77,7 @@ public abstract class Block implements Serializable {
      * @since 1.0
      */
     public double getX2() {
-        return x+width;
+        return x+block_width;
     }
 
     /**
@@ -101,7 +93,7 @@ public abstract class Block implements Serializable {
      * @since 1.0
      */
     public double getY2() {
-        return y+height;
+        return y+block_height;
     }
 
     /**
@@ -109,7 +101,7 @@ public abstract class Block implements Serializable {
      * @since 1.0
      */
     public double getWidth() {
-        return width;
+        return block_width;
     }
 
     /**
@@ -117,7 +109,7 @@ public abstract class Block implements Serializable {
      * @since 1.0
      */
     public double getHeight() {
-        return height;
+        return block_height;
     }
     
     /**
@@ -140,28 +132,6 @@ public abstract class Block implements Serializable {
         this.y = y;
     }
 
-    /**
-     * Set block's width in pixels.
-     *
-     * @param width
-     * @since 1.0
-     */
-    public void setWidth(double width) {
-        this.width = width;
-        block_width = width;
-    }
-
-    /**
-     * Set block's height in pixels.
-     *
-     * @param height
-     * @since 1.0
-     */
-    public void setHeight(double height) {
-        this.height = height;
-        block_height = height;
-    }
-
     /**
      * Destroy block.
      * 
@@ -188,11 +158,11 @@ public abstract class Block implements Serializable {
     }
 
     /**
-     * @return spritesheet for blocks
-     * @since 1.0
+     * @return id of the spritesheet for blocks
+     * @since 1.3
      */
-    public static Image getImage() {
-        return image;
+    public static Spritesheet getSpritesheet() {
+        return Spritesheet.TILES;
     }
 
     /**
@@ -200,7 +170,7 @@ public abstract class Block implements Serializable {
      * @since 1.0
      */
     public double getIMAGE_X() {
-        return IMAGE_X;
+        return blockType.getSpritesheetX();
     }
 
     /**
@@ -208,7 +178,7 @@ public abstract class Block implements Serializable {
      * @since 1.0
      */
     public double getIMAGE_Y() {
-        return IMAGE_Y;
+        return blockType.getSpritesheetY();
     }
 
     /**
@@ -216,7 +186,7 @@ public abstract class Block implements Serializable {
      * @since 1.0
      */
     public double getIMAGE_WIDTH() {
-        return IMAGE_WIDTH;
+        return blockType.getSpriteWidth();
     }
 
     /**
@@ -224,7 +194,7 @@ public abstract class Block implements Serializable {
      * @since 1.0
      */
     public double getIMAGE_HEIGHT() {
-        return IMAGE_HEIGHT;
+        return blockType.getSpriteHeight();
     }
 
 }
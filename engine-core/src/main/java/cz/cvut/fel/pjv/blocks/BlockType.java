@@ -0,0 +1,195 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 Zdenek.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package cz.cvut.fel.pjv.blocks;
+
+/**
+ * Enumeration class representing all types of block that can appear in the map.
+ * Each type holds the render and physics data shared by all tiles of that type,
+ * so a tile stores only the identifier of its type.
+ *
+ * @author Zdenek
+ * @version 1.2
+ */
+public enum BlockType {
+    
+    /**
+     * Helper BlockType for defining structures. Is never used in the world (null is used for air instead).
+     */
+    AIR(0, -1, -1, false, false, -1),
+    
+    /**
+     * Type of dirt block.
+     */
+    DIRT(1, 650, 130, true, false, 1),
+
+    /**
+     * Type of stone block.
+     */
+    STONE(2, 260, 650, true, false, 1),
+
+    /**
+     * Type of water block. Water cannot be digged.
+     */
+    WATER(3, 0, 910, false, true, -1),
+
+    /**
+     * Type of diamond ore block.
+     */
+    DIAMOND_ORE(4, 260, 0, true, false, 1),
+    
+    /**
+     * Type of bedrock block. Bedrock is indestructible.
+     */
+    BEDROCK(5, 390, 1690, true, false, -1),
+    
+    /**
+     * Type of dirt block with grass on top.
+     */
+    DIRT_WITH_GRASS(6, 650, 0, true, false, 1),
+    
+    /**
+     * Type of stone bricks block. Stone bricks can be digged only with golden pickaxe.
+     */
+    STONE_BRICKS(7, 0, 0, true, false, 2),
+    
+    /**
+     * Helper BlockType for defining a spawner in structures. Is never used in the world.
+     */
+    SPAWNER(8, -1, -1, false, false, -1);
+
+    /**
+     * Size of the block sprite in the spritesheet in pixels.
+     */
+    public static final double SPRITE_SIZE = 128;
+
+    private static final BlockType[] BY_ID;
+    
+    static {
+        BY_ID = new BlockType[values().length];
+        for (BlockType type : values()) {
+            BY_ID[type.id] = type;
+        }
+    }
+
+    private final int id;
+    private final double spritesheetX;
+    private final double spritesheetY;
+    private final boolean solid;
+    private final boolean liquid;
+    private final int hardness;
+
+
+    private BlockType(int id, double spritesheetX, double spritesheetY, boolean solid, boolean liquid, int hardness) {
+        this.id = id;
+        this.spritesheetX = spritesheetX;
+        this.spritesheetY = spritesheetY;
+        this.solid = solid;
+        this.liquid = liquid;
+        this.hardness = hardness;
+    }
+    
+    /**
+     * @param id identifier of the block type
+     * @return block type with the given identifier, null for air (id 0)
+     * @since 1.1
+     */
+    public static BlockType fromId(int id) {
+        if (id == AIR.id) { return null; }
+        return BY_ID[id];
+    }
+
+    /**
+     * @return identifier of the block type, used for storing tiles
+     * @since 1.1
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * @return true if blocks of this type are liquid, false otherwise
+     * @since 1.1
+     */
+    public boolean isLiquid() {
+        return liquid;
+    }
+
+    /**
+     * @return true if blocks of this type stop creatures and items, false otherwise
+     * @since 1.2
+     */
+    public boolean isSolid() {
+        return solid;
+    }
+
+    /**
+     * @return power of the tool required to dig blocks of this type, negative if the blocks cannot be digged
+     * @since 1.2
+     */
+    public int getHardness() {
+        return hardness;
+    }
+
+    /**
+     * @param toolPower power of the tool used for digging, 0 if no tool is used
+     * @return true if blocks of this type can be digged with the given tool, false otherwise
+     * @since 1.2
+     */
+    public boolean canBeDugWith(int toolPower) {
+        return hardness >= 0 && toolPower >= hardness;
+    }
+
+    /**
+     * @return X position of block sprite in the spritesheet in pixels
+     * @since 1.0
+     */
+    public double getSpritesheetX() {
+        return spritesheetX;
+    }
+
+    /**
+     * @return Y position of block sprite in the spritesheet in pixels
+     * @since 1.0
+     */
+    public double getSpritesheetY() {
+        return spritesheetY;
+    }
+
+    /**
+     * @return width of block sprite in the spritesheet in pixels
+     * @since 1.2
+     */
+    public double getSpriteWidth() {
+        return SPRITE_SIZE;
+    }
+
+    /**
+     * @return height of block sprite in the spritesheet in pixels
+     * @since 1.2
+     */
+    public double getSpriteHeight() {
+        return SPRITE_SIZE;
+    }
+    
+}
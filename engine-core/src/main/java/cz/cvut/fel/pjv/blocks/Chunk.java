@@ -0,0 +1,131 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 Michal-jr.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package cz.cvut.fel.pjv.blocks;
+
+import java.io.Serializable;
+
+/**
+ * Square part of the world with fixed size. Tiles are stored as block type identifiers
+ * in primitive arrays together with state bits of each tile.
+ *
+ * @author Michal-jr
+ * @version 1.1
+ */
+public class Chunk implements Serializable {
+    
+    /**
+     * Width and height of the chunk in tiles.
+     */
+    public static final int SIZE = 32;
+    
+    private final short[] tiles = new short[SIZE*SIZE];
+    private final byte[] states = new byte[SIZE*SIZE];
+    private int blockCount = 0;
+    private int liquidCount = 0;
+    
+    /**
+     * @param x X coordinate of the tile inside the chunk
+     * @param y Y coordinate of the tile inside the chunk
+     * @return identifier of the block type on the given tile, 0 for air
+     * @since 1.0
+     */
+    public int getTileId(int x, int y) {
+        return tiles[y*SIZE + x];
+    }
+    
+    /**
+     * Set block type identifier of the tile. State bits of the tile are reset.
+     *
+     * @param x X coordinate of the tile inside the chunk
+     * @param y Y coordinate of the tile inside the chunk
+     * @param id identifier of the block type, 0 for air
+     * @since 1.0
+     */
+    public void setTileId(int x, int y, int id) {
+        int index = y*SIZE + x;
+        if (tiles[index] == 0 && id != 0) { blockCount++; }
+        if (tiles[index] != 0 && id == 0) { blockCount--; }
+        if (tiles[index] != 0 && BlockType.fromId(tiles[index]).isLiquid()) { liquidCount--; }
+        if (id != 0 && BlockType.fromId(id).isLiquid()) { liquidCount++; }
+        tiles[index] = (short) id;
+        states[index] = 0;
+    }
+    
+    /**
+     * @param x X coordinate of the tile inside the chunk
+     * @param y Y coordinate of the tile inside the chunk
+     * @return state bits of the tile
+     * @since 1.0
+     */
+    public int getState(int x, int y) {
+        return states[y*SIZE + x];
+    }
+    
+    /**
+     * Set state bits of the tile.
+     *
+     * @param x X coordinate of the tile inside the chunk
+     * @param y Y coordinate of the tile inside the chunk
+     * @param state state bits of the tile
+     * @since 1.0
+     */
+    public void setState(int x, int y, int state) {
+        states[y*SIZE + x] = (byte) state;
+    }
+
+    /**
+     * @return number of tiles in the chunk that are not air
+     * @since 1.0
+     */
+    public int getBlockCount() {
+        return blockCount;
+    }
+
+    /**
+     * @return number of liquid tiles in the chunk
+     * @since 1.1
+     */
+    public int getLiquidCount() {
+        return liquidCount;
+    }
+
+    /**
+     * @return number of solid tiles in the chunk
+     * @since 1.1
+     */
+    public int getSolidCount() {
+        return blockCount - liquidCount;
+    }
+    
+    /**
+     * @param filter filter of tiles from {@link TileQuery}
+     * @return true if the chunk contains any tile matching the filter, false otherwise
+     * @since 1.1
+     */
+    public boolean hasTiles(int filter) {
+        return ((filter & TileQuery.SOLID) != 0 && getSolidCount() > 0)
+            || ((filter & TileQuery.LIQUID) != 0 && liquidCount > 0);
+    }
+    
+}
@@ -21,43 +21,26 @@
  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
  * THE SOFTWARE.
  */
-package cz.cvut.fel.pjv.creatures;
-
-import cz.cvut.fel.pjv.Collision;
-import cz.cvut.fel.pjv.World;
+package cz.cvut.fel.pjv.blocks;
 
 /**
- * Character that is not controlled by player.
+ * Special type of block. Liquids flow in the {@link LiquidSimulation}.
  *
  * @author Michal-jr
- * @version 1.0
+ * @version 1.2
  */
-public abstract class NPC extends Creature {
+public class LiquidBlock extends Block {
 
     /**
-     * Create new NPC on given coordinates.
+     * Create new liquid block on given coordinates.
      *
      * @param x
      * @param y
      * @param type
      * @since 1.0
      */
-    public NPC(double x, double y, CreatureType type) {
+    public LiquidBlock(double x, double y, BlockType type) {
         super(x, y, type);
     }
     
-    /**
-     * Update NPC's state.
-     * 
-     * @param world instance of the world
-     * @param player instance of the player
-     * @since 1.0
-     */
-    public void update(World world, Player player) {
-        Collision.creatureIsInLiquid(this, world);
-        setUp(true);
-        move();
-        Collision.preventCollision(this, world);
-    }
-  
 }
@@ -0,0 +1,259 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 Michal-jr.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package cz.cvut.fel.pjv.blocks;
+
+import cz.cvut.fel.pjv.World;
+import java.io.Serializable;
+import java.util.BitSet;
+
+/**
+ * Cellular simulation of liquids on the tile grid. Each liquid tile holds a level from 1 to {@link #MAX_LEVEL}
+ * in its state bits, liquid falls down and spreads to the sides until the levels of neighbouring tiles
+ * differ at most by one. Only active tiles, changed since their last update or next to a changed tile,
+ * are updated and at most a given number of them in one update. Settled liquid costs nothing.
+ *
+ * @author Michal-jr
+ * @version 1.0
+ */
+public class LiquidSimulation implements Serializable {
+    
+    /**
+     * Level of the full liquid tile.
+     */
+    public static final int MAX_LEVEL = 8;
+    
+    //state bits keep the missing part of the level, so liquid tiles with no state are full
+    private static final int LEVEL_MASK = 7;
+    
+    private final World world;
+    private final int HEIGHT;
+    private final int cellsPerUpdate;
+    private final int updatePeriod;
+    
+    /**
+     * Ring buffer of active tiles stored as X*HEIGHT+Y, X inside the world.
+     */
+    private int[] queue = new int[64];
+    private int head = 0;
+    private int size = 0;
+    private final BitSet queued = new BitSet();
+    
+    private long ticks = 0;
+    private long updates = 0;
+    private int updatedCount = 0;
+    private int changedCount = 0;
+
+    /**
+     * Create simulation of liquids in the world.
+     *
+     * @param world instance of the world
+     * @param cellsPerUpdate maximal number of tiles updated in one update
+     * @param updatePeriod number of ticks between two updates
+     * @since 1.0
+     */
+    public LiquidSimulation(World world, int cellsPerUpdate, int updatePeriod) {
+        this.world = world;
+        this.HEIGHT = world.getWorldMap().getHEIGHT();
+        this.cellsPerUpdate = cellsPerUpdate;
+        this.updatePeriod = Math.max(updatePeriod, 1);
+    }
+    
+    /**
+     * @param state state bits of the liquid tile
+     * @return level of the liquid, from 1 to {@link #MAX_LEVEL}
+     * @since 1.0
+     */
+    public static int getLevel(int state) {
+        return MAX_LEVEL - (state & LEVEL_MASK);
+    }
+    
+    /**
+     * @param level level of the liquid, from 1 to {@link #MAX_LEVEL}
+     * @return state bits of the liquid tile with the given level
+     * @since 1.0
+     */
+    public static int toState(int level) {
+        return MAX_LEVEL - level;
+    }
+    
+    /**
+     * Update the liquid tile in the next updates. Tiles without liquid are ignored.
+     *
+     * @param tileX X coordinate of the tile, the world is looping so any value is valid
+     * @param tileY Y coordinate of the tile
+     * @since 1.0
+     */
+    public void activate(int tileX, int tileY) {
+        if (tileY < 0 || tileY >= HEIGHT) { return; }
+        BlockType type = world.getTile(tileX, tileY);
+        if (type == null || !type.isLiquid()) { return; }
+        int cell = world.wrapTileX(tileX)*HEIGHT + tileY;
+        if (queued.get(cell)) { return; }
+        queued.set(cell);
+        if (size == queue.length) {
+            int[] newQueue = new int[size*2];
+            for (int i = 0; i < size; i++) {
+                newQueue[i] = queue[(head + i) % queue.length];
+            }
+            queue = newQueue;
+            head = 0;
+        }
+        queue[(head + size) % queue.length] = cell;
+        size++;
+    }
+    
+    /**
+     * Activate liquid on the tile and on the tiles next to it, called when the tile changes.
+     *
+     * @param tileX X coordinate of the tile, the world is looping so any value is valid
+     * @param tileY Y coordinate of the tile
+     * @since 1.0
+     */
+    public void activateAround(int tileX, int tileY) {
+        activate(tileX, tileY);
+        activate(tileX, tileY - 1);
+        activate(tileX - 1, tileY);
+        activate(tileX + 1, tileY);
+        activate(tileX, tileY + 1);
+    }
+    
+    /**
+     * Run one tick of the simulation, liquids are updated once in the update period.
+     *
+     * @since 1.0
+     */
+    public void tick() {
+        ticks++;
+        if (ticks % updatePeriod == 0) { update(); }
+    }
+    
+    /**
+     * Update active liquid tiles. Tiles activated during the update wait for the next one.
+     *
+     * @since 1.0
+     */
+    public void update() {
+        updates++;
+        int count = Math.min(size, cellsPerUpdate);
+        changedCount = 0;
+        for (int i = 0; i < count; i++) {
+            int cell = queue[head];
+            head = (head + 1) % queue.length;
+            size--;
+            queued.clear(cell);
+            int tileX = cell / HEIGHT;
+            //liquid in unloaded columns waits until something changes next to it again
+            if (!world.isColumnLoaded(tileX)) { continue; }
+            if (flow(tileX, cell % HEIGHT)) { changedCount++; }
+        }
+        updatedCount = count;
+    }
+    
+    private boolean flow(int tileX, int tileY) {
+        BlockType type = world.getTile(tileX, tileY);
+        if (type == null || !type.isLiquid()) { return false; }
+        int level = getLevel(world.getTileState(tileX, tileY));
+        boolean changed = false;
+        //fall
+        if (tileY + 1 < HEIGHT) {
+            BlockType below = world.getTile(tileX, tileY + 1);
+            if (below == null) {
+                setLiquid(tileX, tileY + 1, type, level);
+                setLiquid(tileX, tileY, null, 0);
+                return true;
+            }
+            if (below == type) {
+                int belowLevel = getLevel(world.getTileState(tileX, tileY + 1));
+                int moved = Math.min(level, MAX_LEVEL - belowLevel);
+                if (moved > 0) {
+                    setLiquid(tileX, tileY + 1, type, belowLevel + moved);
+                    level -= moved;
+                    if (level == 0) {
+                        setLiquid(tileX, tileY, null, 0);
+                        return true;
+                    }
+                    changed = true;
+                }
+            }
+        }
+        //spread, the side going first alternates so liquid does not drift to one side
+        int first = updates % 2 == 0 ? -1 : 1;
+        for (int i = 0; i < 2; i++) {
+            int x = i == 0 ? tileX + first : tileX - first;
+            if (!world.isColumnLoaded(x)) { continue; }
+            BlockType next = world.getTile(x, tileY);
+            int nextLevel;
+            if (next == null) {
+                nextLevel = 0;
+            } else if (next == type) {
+                nextLevel = getLevel(world.getTileState(x, tileY));
+            } else {
+                continue;
+            }
+            if (nextLevel < level - 1) {
+                setLiquid(x, tileY, type, nextLevel + 1);
+                level--;
+                changed = true;
+            }
+        }
+        if (changed) { setLiquid(tileX, tileY, type, level); }
+        return changed;
+    }
+    
+    private void setLiquid(int tileX, int tileY, BlockType type, int level) {
+        if (type == null) {
+            //the world activates the tiles around
+            world.setTile(tileX, tileY, null);
+            return;
+        }
+        if (world.getTile(tileX, tileY) != type) { world.setTile(tileX, tileY, type); }
+        world.setTileState(tileX, tileY, toState(level));
+        activateAround(tileX, tileY);
+    }
+    
+    /**
+     * @return number of liquid tiles waiting for an update
+     * @since 1.0
+     */
+    public int getActiveCount() {
+        return size;
+    }
+
+    /**
+     * @return number of tiles updated in the last update
+     * @since 1.0
+     */
+    public int getUpdatedCount() {
+        return updatedCount;
+    }
+
+    /**
+     * @return number of tiles whose liquid moved in the last update
+     * @since 1.0
+     */
+    public int getChangedCount() {
+        return changedCount;
+    }
+    
+}
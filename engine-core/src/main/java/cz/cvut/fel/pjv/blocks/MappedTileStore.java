@@ -0,0 +1,407 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 Michal-jr.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package cz.cvut.fel.pjv.blocks;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.RandomAccessFile;
+import java.io.Serializable;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Storage of tiles in a memory mapped file, the tiles are not on the heap.
+ * The file is divided into chunks, each chunk holds identifiers of block types (2 bytes per tile)
+ * followed by state bits (1 byte per tile). Chunks are stored by columns, the chunk [cx, cy]
+ * has the index cx * CHUNKS_Y + cy. The file is mapped by regions of chunks when they are used
+ * for the first time, the operating system decides which parts of the file are in memory.
+ * <p>
+ * The mapped file is a working file of one game, it is deleted when the store is closed.
+ * Saving the game copies it into a snapshot, see {@link #save(File)}, and the serialized store contains
+ * only the path to the snapshot. Loaded store maps a new working copy of the snapshot,
+ * so the snapshot never changes and the saved game stays as it was saved.
+ *
+ * @author Michal-jr
+ * @version 1.2
+ */
+public class MappedTileStore implements TileStorage, Serializable {
+    
+    private static final int TILES_PER_CHUNK = Chunk.SIZE*Chunk.SIZE;
+    private static final int CHUNK_BYTES = TILES_PER_CHUNK*3;
+    private static final int STATES_OFFSET = TILES_PER_CHUNK*2;
+    
+    /**
+     * Number of chunks in one mapped region of the file.
+     */
+    private static final int REGION_CHUNKS = 256;
+    
+    /**
+     * Mapped working file, directory of working files and snapshot of the last save.
+     */
+    private transient File file;
+    private final File root;
+    private File savedFile;
+    
+    private final int WIDTH;
+    private final int HEIGHT;
+    private final int CHUNKS_X;
+    private final int CHUNKS_Y;
+    
+    private transient RandomAccessFile raf;
+    private transient FileChannel channel;
+    /**
+     * Mapped regions of the file, null for regions not used yet. Regions are published atomically,
+     * so threads reading tiles at once never see a region that is not fully mapped.
+     */
+    private transient AtomicReferenceArray<MappedByteBuffer> regions;
+    
+    /**
+     * Number of solid and liquid tiles in each chunk, rebuilt from the file when it is opened.
+     */
+    private transient int[] solidCounts;
+    private transient int[] liquidCounts;
+    private transient int blockCount;
+    
+    /**
+     * Y coordinates of the highest solid and liquid tile in each column, HEIGHT for columns without such tile.
+     */
+    private transient int[] topSolid;
+    private transient int[] topLiquid;
+
+    /**
+     * Create new tile store filled with air. Content of the file is replaced,
+     * the file is deleted when the store is closed or the application ends.
+     *
+     * @param file working file for the tiles, it belongs to this store only
+     * @param WIDTH width of the stored area in tiles
+     * @param HEIGHT height of the stored area in tiles
+     * @throws java.io.IOException if the file can not be created
+     * @since 1.0
+     */
+    public MappedTileStore(File file, int WIDTH, int HEIGHT) throws IOException {
+        this.file = file;
+        this.root = file.getAbsoluteFile().getParentFile();
+        this.WIDTH = WIDTH;
+        this.HEIGHT = HEIGHT;
+        this.CHUNKS_X = (WIDTH + Chunk.SIZE - 1) / Chunk.SIZE;
+        this.CHUNKS_Y = (HEIGHT + Chunk.SIZE - 1) / Chunk.SIZE;
+        if (file.getParentFile() != null) { file.getParentFile().mkdirs(); }
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            //the new file is filled with zeros, which is air
+            raf.setLength(0);
+            raf.setLength((long) CHUNKS_X*CHUNKS_Y*CHUNK_BYTES);
+        }
+        file.deleteOnExit();
+        open();
+    }
+    
+    private void open() throws IOException {
+        raf = new RandomAccessFile(file, "rw");
+        channel = raf.getChannel();
+        regions = new AtomicReferenceArray<>((CHUNKS_X*CHUNKS_Y + REGION_CHUNKS - 1) / REGION_CHUNKS);
+        solidCounts = new int[CHUNKS_X*CHUNKS_Y];
+        liquidCounts = new int[CHUNKS_X*CHUNKS_Y];
+        topSolid = new int[WIDTH];
+        topLiquid = new int[WIDTH];
+        Arrays.fill(topSolid, HEIGHT);
+        Arrays.fill(topLiquid, HEIGHT);
+        blockCount = 0;
+    }
+    
+    /**
+     * Count blocks and find the highest tiles of columns in the existing file.
+     */
+    private void rebuild() {
+        for (int x = 0; x < WIDTH; x++) {
+            for (int y = 0; y < HEIGHT; y++) {
+                BlockType type = BlockType.fromId(readId(x, y));
+                if (type == null) { continue; }
+                countTile(chunkIndex(x, y), type, 1);
+                if (type.isSolid() && topSolid[x] == HEIGHT) { topSolid[x] = y; }
+                if (type.isLiquid() && topLiquid[x] == HEIGHT) { topLiquid[x] = y; }
+            }
+        }
+    }
+    
+    private void countTile(int chunkIndex, BlockType type, int delta) {
+        if (type == null) { return; }
+        if (type.isLiquid()) { liquidCounts[chunkIndex] += delta; }
+        else { solidCounts[chunkIndex] += delta; }
+        blockCount += delta;
+    }
+    
+    private int chunkIndex(int x, int y) {
+        return (x / Chunk.SIZE)*CHUNKS_Y + y / Chunk.SIZE;
+    }
+    
+    private MappedByteBuffer getRegion(int chunkIndex) {
+        int regionIndex = chunkIndex / REGION_CHUNKS;
+        MappedByteBuffer region = regions.get(regionIndex);
+        if (region == null) { region = mapRegion(regionIndex); }
+        return region;
+    }
+    
+    /**
+     * Map the region of the file, tiles can be read by more threads at once.
+     */
+    private synchronized MappedByteBuffer mapRegion(int regionIndex) {
+        if (regions.get(regionIndex) == null) {
+            int chunks = Math.min(REGION_CHUNKS, CHUNKS_X*CHUNKS_Y - regionIndex*REGION_CHUNKS);
+            long position = (long) regionIndex*REGION_CHUNKS*CHUNK_BYTES;
+            try {
+                regions.set(regionIndex, channel.map(FileChannel.MapMode.READ_WRITE, position, (long) chunks*CHUNK_BYTES));
+            } catch (IOException ex) {
+                throw new IllegalStateException("Tiles file "+file+" can not be mapped.", ex);
+            }
+        }
+        return regions.get(regionIndex);
+    }
+    
+    private int chunkOffset(int chunkIndex) {
+        return (chunkIndex % REGION_CHUNKS)*CHUNK_BYTES;
+    }
+    
+    private int idOffset(int chunkIndex, int x, int y) {
+        return chunkOffset(chunkIndex) + ((y % Chunk.SIZE)*Chunk.SIZE + x % Chunk.SIZE)*2;
+    }
+    
+    private int stateOffset(int chunkIndex, int x, int y) {
+        return chunkOffset(chunkIndex) + STATES_OFFSET + (y % Chunk.SIZE)*Chunk.SIZE + x % Chunk.SIZE;
+    }
+    
+    private int readId(int x, int y) {
+        int index = chunkIndex(x, y);
+        return getRegion(index).getShort(idOffset(index, x, y));
+    }
+    
+    private boolean isEmptyChunk(int chunkIndex) {
+        return solidCounts[chunkIndex] == 0 && liquidCounts[chunkIndex] == 0;
+    }
+
+    @Override
+    public boolean contains(int x, int y) {
+        return x >= 0 && x < WIDTH && y >= 0 && y < HEIGHT;
+    }
+
+    @Override
+    public boolean isLoaded(int x) {
+        return x >= 0 && x < WIDTH;
+    }
+
+    @Override
+    public BlockType getTile(int x, int y) {
+        if (!contains(x, y)) { return null; }
+        //empty chunks are not read, so their pages stay untouched
+        if (isEmptyChunk(chunkIndex(x, y))) { return null; }
+        return BlockType.fromId(readId(x, y));
+    }
+
+    @Override
+    public void setTile(int x, int y, BlockType type) {
+        if (!contains(x, y)) { return; }
+        int index = chunkIndex(x, y);
+        BlockType oldType = getTile(x, y);
+        if (oldType == null && type == null) { return; }
+        countTile(index, oldType, -1);
+        countTile(index, type, 1);
+        MappedByteBuffer region = getRegion(index);
+        region.putShort(idOffset(index, x, y), (short) (type == null ? 0 : type.getId()));
+        region.put(stateOffset(index, x, y), (byte) 0);
+        updateHeightMap(x, y, type);
+    }
+    
+    private void updateHeightMap(int x, int y, BlockType type) {
+        boolean solid = type != null && type.isSolid();
+        boolean liquid = type != null && type.isLiquid();
+        if (solid && y < topSolid[x]) { topSolid[x] = y; }
+        else if (!solid && y == topSolid[x]) { topSolid[x] = findTop(x, y + 1, TileQuery.SOLID); }
+        if (liquid && y < topLiquid[x]) { topLiquid[x] = y; }
+        else if (!liquid && y == topLiquid[x]) { topLiquid[x] = findTop(x, y + 1, TileQuery.LIQUID); }
+    }
+    
+    private int findTop(int x, int fromY, int filter) {
+        for (int y = fromY; y < HEIGHT; y++) {
+            if (!hasTilesInChunk(x, y, filter)) {
+                y += Chunk.SIZE - 1 - y % Chunk.SIZE;
+                continue;
+            }
+            if (TileQuery.matches(getTile(x, y), filter)) { return y; }
+        }
+        return HEIGHT;
+    }
+
+    @Override
+    public int getState(int x, int y) {
+        if (getTile(x, y) == null) { return 0; }
+        int index = chunkIndex(x, y);
+        return getRegion(index).get(stateOffset(index, x, y));
+    }
+
+    @Override
+    public void setState(int x, int y, int state) {
+        if (getTile(x, y) == null) { return; }
+        int index = chunkIndex(x, y);
+        getRegion(index).put(stateOffset(index, x, y), (byte) state);
+    }
+
+    @Override
+    public boolean hasTilesInChunk(int x, int y, int filter) {
+        if (!contains(x, y)) { return false; }
+        int index = chunkIndex(x, y);
+        return ((filter & TileQuery.SOLID) != 0 && solidCounts[index] > 0)
+            || ((filter & TileQuery.LIQUID) != 0 && liquidCounts[index] > 0);
+    }
+
+    @Override
+    public void clear() {
+        for (int i = 0; i < solidCounts.length; i++) {
+            if (isEmptyChunk(i)) { continue; }
+            MappedByteBuffer region = getRegion(i);
+            for (int j = 0; j < CHUNK_BYTES; j++) {
+                region.put(chunkOffset(i) + j, (byte) 0);
+            }
+            solidCounts[i] = 0;
+            liquidCounts[i] = 0;
+        }
+        Arrays.fill(topSolid, HEIGHT);
+        Arrays.fill(topLiquid, HEIGHT);
+        blockCount = 0;
+    }
+    
+    /**
+     * Write all changed tiles to the file.
+     *
+     * @since 1.0
+     */
+    public void flush() {
+        for (int i = 0; i < regions.length(); i++) {
+            MappedByteBuffer region = regions.get(i);
+            if (region != null) { region.force(); }
+        }
+    }
+    
+    /**
+     * Copy all tiles into a snapshot, the serialized store refers to it. The working file stays mapped.
+     *
+     * @param snapshot file of the snapshot, it is replaced only when the copy is complete
+     * @throws IOException if the snapshot could not be written
+     * @since 1.2
+     */
+    public void save(File snapshot) throws IOException {
+        flush();
+        if (snapshot.getParentFile() != null) { snapshot.getParentFile().mkdirs(); }
+        File tmp = new File(snapshot.getPath()+".tmp");
+        Files.copy(file.toPath(), tmp.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        Files.move(tmp.toPath(), snapshot.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        savedFile = snapshot;
+    }
+    
+    /**
+     * Close and delete the working file, called when the game is not played anymore.
+     * Snapshots of saves are kept.
+     *
+     * @since 1.2
+     */
+    public void close() {
+        try {
+            raf.close();
+        } catch (IOException ex) {
+            Logger.getLogger(Logger.GLOBAL_LOGGER_NAME).log(Level.WARNING, "Tiles file "+file+" can not be closed.", ex);
+        }
+        //mapped regions stay valid until they are collected, the file is removed from the directory only
+        file.delete();
+    }
+    
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        if (savedFile == null) { throw new NotSerializableException("Tiles in "+file+" were not saved into a snapshot."); }
+        out.defaultWriteObject();
+    }
+    
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        //the loaded game does not write into the snapshot of its save
+        root.mkdirs();
+        file = File.createTempFile("world_", ".tiles", root);
+        file.deleteOnExit();
+        Files.copy(savedFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        open();
+        rebuild();
+    }
+
+    @Override
+    public int getTopSolidY(int x) {
+        return topSolid[x];
+    }
+
+    @Override
+    public int getTopLiquidY(int x) {
+        return topLiquid[x];
+    }
+
+    @Override
+    public int getTopY(int x) {
+        return Math.min(topSolid[x], topLiquid[x]);
+    }
+    
+    /**
+     * @return working file with the tiles
+     * @since 1.0
+     */
+    public File getFile() {
+        return file;
+    }
+    
+    /**
+     * @return snapshot of the last save, null if the tiles were not saved
+     * @since 1.2
+     */
+    public File getSavedFile() {
+        return savedFile;
+    }
+
+    @Override
+    public int getWIDTH() {
+        return WIDTH;
+    }
+
+    @Override
+    public int getHEIGHT() {
+        return HEIGHT;
+    }
+
+    @Override
+    public int getBlockCount() {
+        return blockCount;
+    }
+    
+}
@@ -0,0 +1,371 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 Michal-jr.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package cz.cvut.fel.pjv.blocks;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Storage of tiles of a wide world, only some columns of chunks are held in memory.
+ * Loaded columns are kept in a fixed number of slots, the column of chunks with X coordinate cx
+ * is stored in the slot cx modulo number of slots. Tiles of columns that are not loaded are air
+ * and changes of them are ignored.
+ *
+ * @author Michal-jr
+ * @version 1.1
+ */
+public class StreamingTileStore implements TileStorage, Serializable {
+    
+    private final int WIDTH;
+    private final int HEIGHT;
+    private final int CHUNKS_X;
+    private final int CHUNKS_Y;
+    private final ChunkColumn[] slots;
+    private final int slotMask;
+    private int loadedColumns = 0;
+    private int blockCount = 0;
+
+    /**
+     * Create new tile store without any loaded column.
+     *
+     * @param WIDTH width of the stored area in tiles, multiple of {@link Chunk#SIZE}
+     * @param HEIGHT height of the stored area in tiles
+     * @param maxColumns maximal number of columns of chunks held in memory at once
+     * @since 1.0
+     */
+    public StreamingTileStore(int WIDTH, int HEIGHT, int maxColumns) {
+        if (WIDTH % Chunk.SIZE != 0) {
+            throw new IllegalArgumentException("Width of the world must be a multiple of the chunk size.");
+        }
+        this.WIDTH = WIDTH;
+        this.HEIGHT = HEIGHT;
+        this.CHUNKS_X = WIDTH / Chunk.SIZE;
+        this.CHUNKS_Y = (HEIGHT + Chunk.SIZE - 1) / Chunk.SIZE;
+        //number of slots is a power of two, so the slot is found by a mask
+        int slotCount = Integer.highestOneBit(Math.max(Math.min(maxColumns, CHUNKS_X), 1));
+        if (slotCount < Math.min(maxColumns, CHUNKS_X)) { slotCount *= 2; }
+        this.slots = new ChunkColumn[slotCount];
+        this.slotMask = slotCount - 1;
+    }
+    
+    /**
+     * Tiles of one loaded column of chunks.
+     */
+    private class ChunkColumn implements Serializable {
+        private final int chunkX;
+        private final Chunk[] chunks = new Chunk[CHUNKS_Y];
+        private final int[] topSolid = new int[Chunk.SIZE];
+        private final int[] topLiquid = new int[Chunk.SIZE];
+        private boolean modified = false;
+
+        private ChunkColumn(int chunkX) {
+            this.chunkX = chunkX;
+            Arrays.fill(topSolid, HEIGHT);
+            Arrays.fill(topLiquid, HEIGHT);
+        }
+    }
+    
+    private ChunkColumn getColumn(int x) {
+        if (x < 0 || x >= WIDTH) { return null; }
+        int chunkX = x / Chunk.SIZE;
+        ChunkColumn column = slots[chunkX & slotMask];
+        if (column == null || column.chunkX != chunkX) { return null; }
+        return column;
+    }
+
+    @Override
+    public boolean contains(int x, int y) {
+        return x >= 0 && x < WIDTH && y >= 0 && y < HEIGHT;
+    }
+
+    @Override
+    public boolean isLoaded(int x) {
+        return getColumn(x) != null;
+    }
+
+    @Override
+    public BlockType getTile(int x, int y) {
+        Chunk chunk = getChunk(x, y);
+        if (chunk == null) { return null; }
+        return BlockType.fromId(chunk.getTileId(x % Chunk.SIZE, y % Chunk.SIZE));
+    }
+
+    @Override
+    public void setTile(int x, int y, BlockType type) {
+        ChunkColumn column = getColumn(x);
+        if (column == null || y < 0 || y >= HEIGHT) { return; }
+        setTile(column, x % Chunk.SIZE, y, type == null ? 0 : type.getId());
+        column.modified = true;
+    }
+    
+    private void setTile(ChunkColumn column, int x, int y, int id) {
+        int chunkY = y / Chunk.SIZE;
+        if (column.chunks[chunkY] == null) {
+            if (id == 0) { return; }
+            column.chunks[chunkY] = new Chunk();
+        }
+        Chunk chunk = column.chunks[chunkY];
+        int oldCount = chunk.getBlockCount();
+        chunk.setTileId(x, y % Chunk.SIZE, id);
+        blockCount += chunk.getBlockCount() - oldCount;
+        if (chunk.getBlockCount() == 0) { column.chunks[chunkY] = null; }
+        updateHeightMap(column, x, y, BlockType.fromId(id));
+    }
+    
+    private void updateHeightMap(ChunkColumn column, int x, int y, BlockType type) {
+        boolean solid = type != null && type.isSolid();
+        boolean liquid = type != null && type.isLiquid();
+        if (solid && y < column.topSolid[x]) { column.topSolid[x] = y; }
+        else if (!solid && y == column.topSolid[x]) { column.topSolid[x] = findTop(column, x, y + 1, TileQuery.SOLID); }
+        if (liquid && y < column.topLiquid[x]) { column.topLiquid[x] = y; }
+        else if (!liquid && y == column.topLiquid[x]) { column.topLiquid[x] = findTop(column, x, y + 1, TileQuery.LIQUID); }
+    }
+    
+    private int findTop(ChunkColumn column, int x, int fromY, int filter) {
+        for (int y = fromY; y < HEIGHT; y++) {
+            Chunk chunk = column.chunks[y / Chunk.SIZE];
+            if (chunk == null) {
+                y += Chunk.SIZE - 1 - y % Chunk.SIZE;
+                continue;
+            }
+            if (TileQuery.matches(BlockType.fromId(chunk.getTileId(x, y % Chunk.SIZE)), filter)) { return y; }
+        }
+        return HEIGHT;
+    }
+
+    @Override
+    public int getState(int x, int y) {
+        Chunk chunk = getChunk(x, y);
+        if (chunk == null) { return 0; }
+        return chunk.getState(x % Chunk.SIZE, y % Chunk.SIZE);
+    }
+
+    @Override
+    public void setState(int x, int y, int state) {
+        Chunk chunk = getChunk(x, y);
+        if (chunk == null) { return; }
+        chunk.setState(x % Chunk.SIZE, y % Chunk.SIZE, state);
+        getColumn(x).modified = true;
+    }
+
+    /**
+     * @param x X coordinate of the tile
+     * @param y Y coordinate of the tile
+     * @return chunk containing the given tile, null if the chunk contains only air
+     * or the tile lies outside the stored area
+     * @since 1.0
+     */
+    public Chunk getChunk(int x, int y) {
+        ChunkColumn column = getColumn(x);
+        if (column == null || y < 0 || y >= HEIGHT) { return null; }
+        return column.chunks[y / Chunk.SIZE];
+    }
+    
+    @Override
+    public boolean hasTilesInChunk(int x, int y, int filter) {
+        Chunk chunk = getChunk(x, y);
+        return chunk != null && chunk.hasTiles(filter);
+    }
+
+    /**
+     * Remove all blocks from the loaded columns, columns stay loaded.
+     *
+     * @since 1.0
+     */
+    @Override
+    public void clear() {
+        for (ChunkColumn column : slots) {
+            if (column == null) { continue; }
+            Arrays.fill(column.chunks, null);
+            Arrays.fill(column.topSolid, HEIGHT);
+            Arrays.fill(column.topLiquid, HEIGHT);
+            column.modified = true;
+        }
+        blockCount = 0;
+    }
+
+    @Override
+    public int getTopSolidY(int x) {
+        ChunkColumn column = getColumn(x);
+        return column == null ? HEIGHT : column.topSolid[x % Chunk.SIZE];
+    }
+
+    @Override
+    public int getTopLiquidY(int x) {
+        ChunkColumn column = getColumn(x);
+        return column == null ? HEIGHT : column.topLiquid[x % Chunk.SIZE];
+    }
+
+    @Override
+    public int getTopY(int x) {
+        return Math.min(getTopSolidY(x), getTopLiquidY(x));
+    }
+    
+    /**
+     * Load the column of chunks from the given tiles. The slot of the column must be empty.
+     *
+     * @param chunkX X coordinate of the column of chunks
+     * @param ids identifiers of block types of the column, the tile [x, y] has the index y * {@link Chunk#SIZE} + x
+     * @param states state bits of tiles of the column with the same layout, null if all states are 0
+     * @since 1.0
+     */
+    public void loadColumn(int chunkX, short[] ids, byte[] states) {
+        if (getLoadedChunkX(getSlot(chunkX)) != -1) {
+            throw new IllegalStateException("Slot of the column "+chunkX+" is not empty.");
+        }
+        ChunkColumn column = new ChunkColumn(chunkX);
+        slots[getSlot(chunkX)] = column;
+        loadedColumns++;
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < Chunk.SIZE; x++) {
+                int index = y*Chunk.SIZE + x;
+                if (ids[index] == 0) { continue; }
+                setTile(column, x, y, ids[index]);
+                if (states != null) { column.chunks[y / Chunk.SIZE].setState(x, y % Chunk.SIZE, states[index]); }
+            }
+        }
+    }
+    
+    /**
+     * Copy tiles of the loaded column of chunks into the given arrays.
+     *
+     * @param chunkX X coordinate of the column of chunks
+     * @param ids identifiers of block types of the column, the layout is the same as in {@link #loadColumn(int, short[], byte[])}
+     * @param states state bits of tiles of the column
+     * @since 1.0
+     */
+    public void exportColumn(int chunkX, short[] ids, byte[] states) {
+        ChunkColumn column = getColumn(chunkX * Chunk.SIZE);
+        if (column == null) {
+            throw new IllegalStateException("Column "+chunkX+" is not loaded.");
+        }
+        for (int y = 0; y < HEIGHT; y++) {
+            Chunk chunk = column.chunks[y / Chunk.SIZE];
+            for (int x = 0; x < Chunk.SIZE; x++) {
+                int index = y*Chunk.SIZE + x;
+                ids[index] = chunk == null ? 0 : (short) chunk.getTileId(x, y % Chunk.SIZE);
+                states[index] = chunk == null ? 0 : (byte) chunk.getState(x, y % Chunk.SIZE);
+            }
+        }
+    }
+    
+    /**
+     * Remove the column of chunks from memory. Changes of the column are lost.
+     *
+     * @param chunkX X coordinate of the column of chunks
+     * @since 1.0
+     */
+    public void unloadColumn(int chunkX) {
+        ChunkColumn column = getColumn(chunkX * Chunk.SIZE);
+        if (column == null) { return; }
+        for (Chunk chunk : column.chunks) {
+            if (chunk != null) { blockCount -= chunk.getBlockCount(); }
+        }
+        slots[getSlot(chunkX)] = null;
+        loadedColumns--;
+    }
+    
+    /**
+     * @param chunkX X coordinate of the column of chunks
+     * @return true if the loaded column was changed since it was loaded, false otherwise
+     * @since 1.0
+     */
+    public boolean isModified(int chunkX) {
+        ChunkColumn column = getColumn(chunkX * Chunk.SIZE);
+        return column != null && column.modified;
+    }
+    
+    /**
+     * Mark the loaded column of chunks as not changed, after it was saved.
+     *
+     * @param chunkX X coordinate of the column of chunks
+     * @since 1.0
+     */
+    public void clearModified(int chunkX) {
+        ChunkColumn column = getColumn(chunkX * Chunk.SIZE);
+        if (column != null) { column.modified = false; }
+    }
+    
+    /**
+     * @param chunkX X coordinate of the column of chunks
+     * @return index of the slot the column is stored in when it is loaded
+     * @since 1.0
+     */
+    public int getSlot(int chunkX) {
+        return chunkX & slotMask;
+    }
+    
+    /**
+     * @param slot index of the slot
+     * @return X coordinate of the column of chunks loaded in the slot, -1 for an empty slot
+     * @since 1.0
+     */
+    public int getLoadedChunkX(int slot) {
+        return slots[slot] == null ? -1 : slots[slot].chunkX;
+    }
+    
+    /**
+     * @return number of slots, maximal number of columns of chunks loaded at once
+     * @since 1.0
+     */
+    public int getSlotCount() {
+        return slots.length;
+    }
+    
+    /**
+     * @return number of loaded columns of chunks
+     * @since 1.0
+     */
+    public int getLoadedColumnCount() {
+        return loadedColumns;
+    }
+    
+    /**
+     * @return width of the stored area in columns of chunks
+     * @since 1.0
+     */
+    public int getCHUNKS_X() {
+        return CHUNKS_X;
+    }
+
+    @Override
+    public int getWIDTH() {
+        return WIDTH;
+    }
+
+    @Override
+    public int getHEIGHT() {
+        return HEIGHT;
+    }
+
+    /**
+     * @return number of tiles that are not air in the loaded columns
+     * @since 1.0
+     */
+    @Override
+    public int getBlockCount() {
+        return blockCount;
+    }
+    
+}
@@ -0,0 +1,161 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 Michal-jr.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package cz.cvut.fel.pjv.blocks;
+
+/**
+ * Reusable result of the tile query. Contains coordinates and types of the tiles
+ * found in the queried area, so the query does not allocate new objects.
+ *
+ * @author Michal-jr
+ * @version 1.1
+ */
+public class TileQuery {
+    
+    /**
+     * Filter for solid tiles.
+     */
+    public static final int SOLID = 1;
+    
+    /**
+     * Filter for liquid tiles.
+     */
+    public static final int LIQUID = 2;
+    
+    /**
+     * Filter for all tiles that are not air.
+     */
+    public static final int ANY = SOLID | LIQUID;
+    
+    private int[] tileX = new int[16];
+    private int[] tileY = new int[16];
+    private BlockType[] types = new BlockType[16];
+    private int[] states = new int[16];
+    private int size = 0;
+    
+    /**
+     * @param type type of the block
+     * @param filter filter of tiles
+     * @return true if the block type matches the filter, false otherwise
+     * @since 1.0
+     */
+    public static boolean matches(BlockType type, int filter) {
+        if (type == null) { return false; }
+        return (type.isLiquid() && (filter & LIQUID) != 0) || (type.isSolid() && (filter & SOLID) != 0);
+    }
+    
+    /**
+     * Remove all found tiles.
+     *
+     * @since 1.0
+     */
+    public void clear() {
+        size = 0;
+    }
+    
+    /**
+     * Add found tile to the result, its state is 0 until it is set.
+     *
+     * @param x X coordinate of the tile
+     * @param y Y coordinate of the tile
+     * @param type type of the block on the tile
+     * @since 1.0
+     */
+    public void add(int x, int y, BlockType type) {
+        if (size == tileX.length) {
+            int[] newTileX = new int[size*2];
+            int[] newTileY = new int[size*2];
+            BlockType[] newTypes = new BlockType[size*2];
+            int[] newStates = new int[size*2];
+            System.arraycopy(tileX, 0, newTileX, 0, size);
+            System.arraycopy(tileY, 0, newTileY, 0, size);
+            System.arraycopy(types, 0, newTypes, 0, size);
+            System.arraycopy(states, 0, newStates, 0, size);
+            tileX = newTileX;
+            tileY = newTileY;
+            types = newTypes;
+            states = newStates;
+        }
+        tileX[size] = x;
+        tileY[size] = y;
+        types[size] = type;
+        states[size] = 0;
+        size++;
+    }
+    
+    /**
+     * Set state bits of the found tile, queries find only types, states are copied when they are needed.
+     *
+     * @param index index of the found tile
+     * @param state state bits of the tile
+     * @since 1.1
+     */
+    public void setState(int index, int state) {
+        states[index] = state;
+    }
+
+    /**
+     * @return number of found tiles
+     * @since 1.0
+     */
+    public int getSize() {
+        return size;
+    }
+    
+    /**
+     * @param index index of the found tile
+     * @return X coordinate of the found tile
+     * @since 1.0
+     */
+    public int getTileX(int index) {
+        return tileX[index];
+    }
+    
+    /**
+     * @param index index of the found tile
+     * @return Y coordinate of the found tile
+     * @since 1.0
+     */
+    public int getTileY(int index) {
+        return tileY[index];
+    }
+    
+    /**
+     * @param index index of the found tile
+     * @return type of the block on the found tile
+     * @since 1.0
+     */
+    public BlockType getType(int index) {
+        return types[index];
+    }
+    
+    /**
+     * @param index index of the found tile
+     * @return state bits of the found tile, if they were set
+     * @since 1.1
+     */
+    public int getState(int index) {
+        return states[index];
+    }
+    
+}
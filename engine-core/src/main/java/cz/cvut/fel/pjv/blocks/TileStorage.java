@@ -0,0 +1,145 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 Michal-jr.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package cz.cvut.fel.pjv.blocks;
+
+/**
+ * Storage of tiles addressed by integer tile coordinates, tiles are grouped into chunks.
+ * The storage also keeps the height map, the highest solid and liquid tile of each column.
+ *
+ * @author Michal-jr
+ * @version 1.1
+ */
+public interface TileStorage {
+    
+    /**
+     * @param x X coordinate of the tile
+     * @param y Y coordinate of the tile
+     * @return true if the tile lies inside the stored area, false otherwise
+     * @since 1.0
+     */
+    boolean contains(int x, int y);
+    
+    /**
+     * @param x X coordinate of the column
+     * @return true if tiles of the column are in the storage, false if the column is not loaded
+     * or lies outside the stored area
+     * @since 1.0
+     */
+    boolean isLoaded(int x);
+    
+    /**
+     * @param x X coordinate of the tile
+     * @param y Y coordinate of the tile
+     * @return type of the block on the given tile, null for air or tiles outside the stored area
+     * @since 1.0
+     */
+    BlockType getTile(int x, int y);
+    
+    /**
+     * Set type of the block on the given tile. Tiles outside the stored area are ignored.
+     *
+     * @param x X coordinate of the tile
+     * @param y Y coordinate of the tile
+     * @param type type of the block, null for air
+     * @since 1.0
+     */
+    void setTile(int x, int y, BlockType type);
+    
+    /**
+     * @param x X coordinate of the tile
+     * @param y Y coordinate of the tile
+     * @return state bits of the tile, 0 for air or tiles outside the stored area
+     * @since 1.0
+     */
+    int getState(int x, int y);
+    
+    /**
+     * Set state bits of the tile. Air tiles have no state.
+     *
+     * @param x X coordinate of the tile
+     * @param y Y coordinate of the tile
+     * @param state state bits of the tile
+     * @since 1.0
+     */
+    void setState(int x, int y, int state);
+    
+    /**
+     * Fast check of a whole chunk, used to skip chunks without wanted tiles.
+     *
+     * @param x X coordinate of the tile
+     * @param y Y coordinate of the tile
+     * @param filter filter of tiles from {@link TileQuery}
+     * @return true if the chunk containing the given tile contains any tile matching the filter,
+     * false otherwise or if the tile lies outside the stored area
+     * @since 1.1
+     */
+    boolean hasTilesInChunk(int x, int y, int filter);
+    
+    /**
+     * Remove all blocks from the storage.
+     *
+     * @since 1.0
+     */
+    void clear();
+    
+    /**
+     * @param x X coordinate of the column
+     * @return Y coordinate of the highest solid tile in the column, HEIGHT if there is none
+     * @since 1.0
+     */
+    int getTopSolidY(int x);
+    
+    /**
+     * @param x X coordinate of the column
+     * @return Y coordinate of the highest liquid tile in the column, HEIGHT if there is none
+     * @since 1.0
+     */
+    int getTopLiquidY(int x);
+    
+    /**
+     * @param x X coordinate of the column
+     * @return Y coordinate of the highest tile that is not air in the column, HEIGHT if there is none
+     * @since 1.0
+     */
+    int getTopY(int x);
+    
+    /**
+     * @return width of the stored area in tiles
+     * @since 1.0
+     */
+    int getWIDTH();
+    
+    /**
+     * @return height of the stored area in tiles
+     * @since 1.0
+     */
+    int getHEIGHT();
+    
+    /**
+     * @return number of stored tiles that are not air
+     * @since 1.0
+     */
+    int getBlockCount();
+    
+}
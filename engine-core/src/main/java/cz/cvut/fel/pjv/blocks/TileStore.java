@@ -0,0 +1,198 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 Michal-jr.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package cz.cvut.fel.pjv.blocks;
+
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * Storage of all tiles in the world held in memory at once.
+ * Chunks containing only air are not allocated.
+ *
+ * @author Michal-jr
+ * @version 1.4
+ */
+public class TileStore implements TileStorage, Serializable {
+    
+    private final int WIDTH;
+    private final int HEIGHT;
+    private final int CHUNKS_X;
+    private final int CHUNKS_Y;
+    private final Chunk[] chunks;
+    private int blockCount = 0;
+    
+    /**
+     * Y coordinates of the highest solid and liquid tile in each column, HEIGHT for columns without such tile.
+     */
+    private final int[] topSolid;
+    private final int[] topLiquid;
+
+    /**
+     * Create new tile store filled with air.
+     *
+     * @param WIDTH width of the stored area in tiles
+     * @param HEIGHT height of the stored area in tiles
+     * @since 1.0
+     */
+    public TileStore(int WIDTH, int HEIGHT) {
+        this.WIDTH = WIDTH;
+        this.HEIGHT = HEIGHT;
+        this.CHUNKS_X = (WIDTH + Chunk.SIZE - 1) / Chunk.SIZE;
+        this.CHUNKS_Y = (HEIGHT + Chunk.SIZE - 1) / Chunk.SIZE;
+        this.chunks = new Chunk[CHUNKS_X*CHUNKS_Y];
+        this.topSolid = new int[WIDTH];
+        this.topLiquid = new int[WIDTH];
+        Arrays.fill(topSolid, HEIGHT);
+        Arrays.fill(topLiquid, HEIGHT);
+    }
+    
+    @Override
+    public boolean contains(int x, int y) {
+        return x >= 0 && x < WIDTH && y >= 0 && y < HEIGHT;
+    }
+    
+    @Override
+    public boolean isLoaded(int x) {
+        return x >= 0 && x < WIDTH;
+    }
+    
+    @Override
+    public BlockType getTile(int x, int y) {
+        if (!contains(x, y)) { return null; }
+        Chunk chunk = chunks[chunkIndex(x, y)];
+        if (chunk == null) { return null; }
+        return BlockType.fromId(chunk.getTileId(x % Chunk.SIZE, y % Chunk.SIZE));
+    }
+    
+    @Override
+    public void setTile(int x, int y, BlockType type) {
+        if (!contains(x, y)) { return; }
+        int index = chunkIndex(x, y);
+        if (chunks[index] == null) {
+            if (type == null) { return; }
+            chunks[index] = new Chunk();
+        }
+        Chunk chunk = chunks[index];
+        int oldCount = chunk.getBlockCount();
+        chunk.setTileId(x % Chunk.SIZE, y % Chunk.SIZE, type == null ? 0 : type.getId());
+        blockCount += chunk.getBlockCount() - oldCount;
+        if (chunk.getBlockCount() == 0) { chunks[index] = null; }
+        updateHeightMap(x, y, type);
+    }
+    
+    private void updateHeightMap(int x, int y, BlockType type) {
+        boolean solid = type != null && type.isSolid();
+        boolean liquid = type != null && type.isLiquid();
+        if (solid && y < topSolid[x]) { topSolid[x] = y; }
+        else if (!solid && y == topSolid[x]) { topSolid[x] = findTop(x, y + 1, TileQuery.SOLID); }
+        if (liquid && y < topLiquid[x]) { topLiquid[x] = y; }
+        else if (!liquid && y == topLiquid[x]) { topLiquid[x] = findTop(x, y + 1, TileQuery.LIQUID); }
+    }
+    
+    private int findTop(int x, int fromY, int filter) {
+        for (int y = fromY; y < HEIGHT; y++) {
+            if (TileQuery.matches(getTile(x, y), filter)) { return y; }
+        }
+        return HEIGHT;
+    }
+    
+    @Override
+    public int getState(int x, int y) {
+        if (!contains(x, y)) { return 0; }
+        Chunk chunk = chunks[chunkIndex(x, y)];
+        if (chunk == null) { return 0; }
+        return chunk.getState(x % Chunk.SIZE, y % Chunk.SIZE);
+    }
+    
+    @Override
+    public void setState(int x, int y, int state) {
+        if (!contains(x, y)) { return; }
+        Chunk chunk = chunks[chunkIndex(x, y)];
+        if (chunk == null) { return; }
+        chunk.setState(x % Chunk.SIZE, y % Chunk.SIZE, state);
+    }
+    
+    /**
+     * @param x X coordinate of the tile
+     * @param y Y coordinate of the tile
+     * @return chunk containing the given tile, null if the chunk contains only air
+     * or the tile lies outside the stored area
+     * @since 1.0
+     */
+    public Chunk getChunk(int x, int y) {
+        if (!contains(x, y)) { return null; }
+        return chunks[chunkIndex(x, y)];
+    }
+    
+    @Override
+    public boolean hasTilesInChunk(int x, int y, int filter) {
+        Chunk chunk = getChunk(x, y);
+        return chunk != null && chunk.hasTiles(filter);
+    }
+    
+    @Override
+    public void clear() {
+        for (int i = 0; i < chunks.length; i++) {
+            chunks[i] = null;
+        }
+        blockCount = 0;
+        Arrays.fill(topSolid, HEIGHT);
+        Arrays.fill(topLiquid, HEIGHT);
+    }
+    
+    @Override
+    public int getTopSolidY(int x) {
+        return topSolid[x];
+    }
+    
+    @Override
+    public int getTopLiquidY(int x) {
+        return topLiquid[x];
+    }
+    
+    @Override
+    public int getTopY(int x) {
+        return Math.min(topSolid[x], topLiquid[x]);
+    }
+    
+    private int chunkIndex(int x, int y) {
+        return (y / Chunk.SIZE)*CHUNKS_X + x / Chunk.SIZE;
+    }
+
+    @Override
+    public int getWIDTH() {
+        return WIDTH;
+    }
+
+    @Override
+    public int getHEIGHT() {
+        return HEIGHT;
+    }
+
+    @Override
+    public int getBlockCount() {
+        return blockCount;
+    }
+    
+}
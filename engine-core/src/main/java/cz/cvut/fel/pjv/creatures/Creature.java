@@ -23,37 +23,25 @@
  */
 package cz.cvut.fel.pjv.creatures;
 
-import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
+import cz.cvut.fel.pjv.Spritesheet;
 import java.io.Serializable;
-import javafx.embed.swing.SwingFXUtils;
-import javafx.scene.image.Image;
-import javax.imageio.ImageIO;
 
 /**
  * Creature is a living entity which can move around the world and interact with it.
+ * The state of the creature is kept in a {@link CreatureStore}, the creature is a handle to it.
  *
  * @author Michal-jr
- * @version 1.2
+ * @version 1.6
  */
 public abstract class Creature implements Serializable {
-    private double x, y;
-    private double velocityX = 2;
-    private double velocityY = 0;
-    private double velocityMultiplier = 1;
-    private final double GRAVITY = 0.3;
-    private boolean onGround, attacking = false;
-    private boolean left, right, up, down, running, swimming, leftAttack, rightAttack;
-    private double width = 32;
-    private double height = 52;
-    private final double IMAGE_WIDTH = 64;
-    private final double IMAGE_HEIGHT = 64;
-    private double spriteX, spriteY, spriteFrame, frameLimit, attackAnimationLimit = 0;
-    private transient Image image;
+    
+    /**
+     * Store with the state of the creature and index of the creature in it, changed by the store.
+     */
+    CreatureStore<?> store;
+    int index;
+    
     private final CreatureType type;
-    private int hp;
-    private boolean killed = false;
 
     /**
      * Create new creature on given coordinates.
@@ -64,11 +52,8 @@ public abstract class Creature implements Serializable {
      * @since 1.0
      */
     public Creature(double x, double y, CreatureType type) {
-        this.x = x;
-        this.y = y;
         this.type = type;
-        this.image = type.getSpritesheet();
-        this.hp = type.getHp();
+        new CreatureStore<>(1).create(this, x, y, type.getHp());
     }
     
     /**
@@ -77,61 +62,7 @@ public abstract class Creature implements Serializable {
      * @since 1.0
      */
     public void move() {
-        frameLimit++;
-        if (running) { velocityX = 4*velocityMultiplier; frameLimit = 0; } else { velocityX = 2*velocityMultiplier; }
-        if (swimming) { velocityX = 1*velocityMultiplier; }
-        if (left) {
-            x -= velocityX;
-            spriteY = 9 * IMAGE_HEIGHT;
-            if (frameLimit % 2 == 0) { spriteFrame--; }
-            if (spriteFrame < 0) { spriteFrame = 8; }
-            if (!onGround) { spriteFrame = 1; }
-            spriteX = spriteFrame * IMAGE_WIDTH;
-        }
-        if (right) {
-            x += velocityX;
-            spriteY = 11 * IMAGE_HEIGHT;
-            if (frameLimit % 2 == 0) { spriteFrame++; }
-            if (spriteFrame > 8) { spriteFrame = 0; }
-            if (!onGround) { spriteFrame = 1; }
-            spriteX = spriteFrame * IMAGE_WIDTH;
-        }
-        if (!left && !right) {
-            spriteX = IMAGE_WIDTH;
-            spriteY = 10 * IMAGE_HEIGHT;
-            if (!onGround) {
-                spriteX = 6 * IMAGE_WIDTH;
-                spriteY = 2 * IMAGE_HEIGHT;
-            }
-        }
-        if (!swimming) {
-            if (up) { jump(); }
-            fall();
-        } else {
-            swim();
-        }
-        if (frameLimit < 1) { frameLimit = 0; }
-    }
-    
-    private void fall() {
-        onGround = false;
-        velocityY += GRAVITY*velocityMultiplier;
-        y += velocityY;
-    }
-    
-    private void jump() {
-        if (onGround) {
-            velocityY = -6.0*velocityMultiplier;
-            onGround = false;
-        }
-    }
-    
-    private void swim() {
-        if (up) { velocityY = -velocityX; }
-        if (down) { velocityY = velocityX; }
-        if (!up && !down) { velocityY = GRAVITY/1.5; }
-        y += velocityY;
-        onGround = false;
+        store.move(index);
     }
     
     /**
@@ -140,15 +71,7 @@ public abstract class Creature implements Serializable {
      * @since 1.1
      */
     public void animateAttack() {
-        spriteX = attackAnimationLimit*IMAGE_WIDTH;
-        if (leftAttack) { spriteY = 13*IMAGE_HEIGHT; }
-        else if (rightAttack) { spriteY = 15*IMAGE_HEIGHT; }
-        if (attackAnimationLimit < 5) {
-            attackAnimationLimit++;
-        } else {
-            attackAnimationLimit = 0;
-            attacking = false;
-        }
+        store.animateAttack(index);
     }
     
     /**
@@ -157,8 +80,8 @@ public abstract class Creature implements Serializable {
      * @since 1.1
      */
     public void revive() {
-        hp = type.getHp();
-        killed = false;
+        store.hp[index] = type.getHp();
+        store.setFlag(index, CreatureStore.KILLED, false);
     }
     
     /**
@@ -168,7 +91,7 @@ public abstract class Creature implements Serializable {
      * @since 1.0
      */
     public void setLeft(boolean left) {
-        this.left = left;
+        store.setFlag(index, CreatureStore.LEFT, left);
     }
 
     /**
@@ -178,7 +101,7 @@ public abstract class Creature implements Serializable {
      * @since 1.0
      */
     public void setRight(boolean right) {
-        this.right = right;
+        store.setFlag(index, CreatureStore.RIGHT, right);
     }
 
     /**
@@ -188,7 +111,7 @@ public abstract class Creature implements Serializable {
      * @since 1.0
      */
     public void setUp(boolean up) {
-        this.up = up;
+        store.setFlag(index, CreatureStore.UP, up);
     }
     
     /**
@@ -198,7 +121,7 @@ public abstract class Creature implements Serializable {
      * @since 1.0
      */
     public void setDown(boolean down) {
-        this.down = down;
+        store.setFlag(index, CreatureStore.DOWN, down);
     }
 
     /**
@@ -208,7 +131,7 @@ public abstract class Creature implements Serializable {
      * @since 1.0
      */
     public void run(boolean running) {
-        this.running = running;
+        store.setFlag(index, CreatureStore.RUNNING, running);
     }
     
     /**
@@ -218,7 +141,7 @@ public abstract class Creature implements Serializable {
      * @since 1.0
      */
     public void setSwimming(boolean swimming) {
-        this.swimming = swimming;
+        store.setFlag(index, CreatureStore.SWIMMING, swimming);
     }
 
     /**
@@ -228,7 +151,7 @@ public abstract class Creature implements Serializable {
      * @since 1.1
      */
     public void setAttacking(boolean attacking) {
-        this.attacking = attacking;
+        store.setFlag(index, CreatureStore.ATTACKING, attacking);
     }
 
     /**
@@ -238,7 +161,7 @@ public abstract class Creature implements Serializable {
      * @since 1.1
      */
     public void setLeftAttack(boolean leftAttack) {
-        this.leftAttack = leftAttack;
+        store.setFlag(index, CreatureStore.LEFT_ATTACK, leftAttack);
     }
 
     /**
@@ -248,7 +171,7 @@ public abstract class Creature implements Serializable {
      * @since 1.1
      */
     public void setRightAttack(boolean rightAttack) {
-        this.rightAttack = rightAttack;
+        store.setFlag(index, CreatureStore.RIGHT_ATTACK, rightAttack);
     }
     
     /**
@@ -256,7 +179,7 @@ public abstract class Creature implements Serializable {
      * @since 1.0
      */
     public boolean movingLeft() {
-        return left;
+        return store.hasFlag(index, CreatureStore.LEFT);
     }
     
     /**
@@ -264,7 +187,7 @@ public abstract class Creature implements Serializable {
      * @since 1.0
      */
     public boolean movingRight() {
-        return right;
+        return store.hasFlag(index, CreatureStore.RIGHT);
     }
     
     /**
@@ -272,7 +195,7 @@ public abstract class Creature implements Serializable {
      * @since 1.0
      */
     public boolean jumping() {
-        return velocityY < 0;
+        return store.velocityY[index] < 0;
     }
     
     /**
@@ -280,7 +203,7 @@ public abstract class Creature implements Serializable {
      * @since 1.0
      */
     public boolean falling() {
-        return velocityY > 0;
+        return store.velocityY[index] > 0;
     }
     
     /**
@@ -288,7 +211,7 @@ public abstract class Creature implements Serializable {
      * @since 1.1
      */
     public boolean swimming() {
-        return swimming;
+        return store.hasFlag(index, CreatureStore.SWIMMING);
     }
 
     /**
@@ -296,7 +219,7 @@ public abstract class Creature implements Serializable {
      * @since 1.1
      */
     public boolean isKilled() {
-        return killed;
+        return store.hasFlag(index, CreatureStore.KILLED);
     }
 
     /**
@@ -304,7 +227,7 @@ public abstract class Creature implements Serializable {
      * @since 1.1
      */
     public boolean isAttacking() {
-        return attacking;
+        return store.hasFlag(index, CreatureStore.ATTACKING);
     }
 
     /**
@@ -312,7 +235,7 @@ public abstract class Creature implements Serializable {
      * @since 1.0
      */
     public double getVelocityX() {
-        return velocityX;
+        return store.velocityX[index];
     }
     
     /**
@@ -320,7 +243,7 @@ public abstract class Creature implements Serializable {
      * @since 1.0
      */
     public double getVelocityY() {
-        return velocityY;
+        return store.velocityY[index];
     }
     
     /**
@@ -328,7 +251,7 @@ public abstract class Creature implements Serializable {
      * @since 1.0
      */
     public double getVelocityMultiplier() {
-        return velocityMultiplier;
+        return store.velocityMultiplier[index];
     }
 
     /**
@@ -336,7 +259,7 @@ public abstract class Creature implements Serializable {
      * @since 1.0
      */
     public int getHp() {
-        return hp;
+        return store.hp[index];
     }
 
     /**
@@ -344,7 +267,7 @@ public abstract class Creature implements Serializable {
      * @since 1.0
      */
     public double getX() {
-        return x;
+        return store.x[index];
     }
     
     /**
@@ -352,7 +275,7 @@ public abstract class Creature implements Serializable {
      * @since 1.0
      */
     public double getX2() {
-        return x+width;
+        return store.x[index]+store.width[index];
     }
 
     /**
@@ -360,7 +283,7 @@ public abstract class Creature implements Serializable {
      * @since 1.0
      */
     public double getY() {
-        return y;
+        return store.y[index];
     }
     
     /**
@@ -368,7 +291,7 @@ public abstract class Creature implements Serializable {
      * @since 1.0
      */
     public double getY2() {
-        return y+height;
+        return store.y[index]+store.height[index];
     }
 
     /**
@@ -376,7 +299,7 @@ public abstract class Creature implements Serializable {
      * @since 1.0
      */
     public double getWidth() {
-        return width;
+        return store.width[index];
     }
 
     /**
@@ -384,7 +307,7 @@ public abstract class Creature implements Serializable {
      * @since 1.0
      */
     public double getHeight() {
-        return height;
+        return store.height[index];
     }
 
     /**
@@ -392,7 +315,7 @@ public abstract class Creature implements Serializable {
      * @since 1.0
      */
     public double getIMAGE_WIDTH() {
-        return IMAGE_WIDTH-32;
+        return CreatureStore.FRAME_WIDTH-32;
     }
 
     /**
@@ -400,15 +323,15 @@ public abstract class Creature implements Serializable {
      * @since 1.0
      */
     public double getIMAGE_HEIGHT() {
-        return IMAGE_HEIGHT-12;
+        return CreatureStore.FRAME_HEIGHT-12;
     }
 
     /**
-     * @return creature's spritesheet
-     * @since 1.0
+     * @return id of creature's spritesheet
+     * @since 1.5
      */
-    public Image getImage() {
-        return image;
+    public Spritesheet getSpritesheet() {
+        return type.getSpritesheet();
     }
 
     /**
@@ -416,7 +339,7 @@ public abstract class Creature implements Serializable {
      * @since 1.0
      */
     public double getSpriteX() {
-        return spriteX+16;
+        return store.spriteX[index]+16;
     }
 
     /**
@@ -424,7 +347,61 @@ public abstract class Creature implements Serializable {
      * @since 1.0
      */
     public double getSpriteY() {
-        return spriteY+12;
+        return store.spriteY[index]+12;
+    }
+
+    /**
+     * Remember the creature's position before the tick.
+     *
+     * @since 1.4
+     */
+    public void savePosition() {
+        store.previousX[index] = store.x[index];
+        store.previousY[index] = store.y[index];
+    }
+    
+    /**
+     * @return distance in pixels the creature moved along X axis in its last move, not resolved by collision yet
+     * @since 1.6
+     */
+    public double getMoveX() {
+        return store.moveX[index];
+    }
+    
+    /**
+     * @return distance in pixels the creature moved along Y axis in its last move, not resolved by collision yet
+     * @since 1.6
+     */
+    public double getMoveY() {
+        return store.moveY[index];
+    }
+    
+    /**
+     * Forget the last move, it was resolved by collision.
+     *
+     * @since 1.6
+     */
+    public void resetMove() {
+        store.moveX[index] = 0;
+        store.moveY[index] = 0;
+    }
+    
+    /**
+     * @param alpha part of the tick passed since the last position, from 0 to 1
+     * @return creature's X position in pixels between the position before the last tick and the current position
+     * @since 1.4
+     */
+    public double getInterpolatedX(double alpha) {
+        return store.previousX[index] + (store.x[index] - store.previousX[index])*alpha;
+    }
+    
+    /**
+     * @param alpha part of the tick passed since the last position, from 0 to 1
+     * @return creature's Y position in pixels between the position before the last tick and the current position
+     * @since 1.4
+     */
+    public double getInterpolatedY(double alpha) {
+        return store.previousY[index] + (store.y[index] - store.previousY[index])*alpha;
     }
 
     /**
@@ -434,7 +411,7 @@ public abstract class Creature implements Serializable {
      * @since 1.0
      */
     public void setX(double x) {
-        this.x = x;
+        store.x[index] = x;
     }
 
     /**
@@ -444,7 +421,7 @@ public abstract class Creature implements Serializable {
      * @since 1.0
      */
     public void setY(double y) {
-        this.y = y;
+        store.y[index] = y;
     }
 
     /**
@@ -454,7 +431,7 @@ public abstract class Creature implements Serializable {
      * @since 1.0
      */
     public void setWidth(double width) {
-        this.width = width;
+        store.width[index] = width;
     }
 
     /**
@@ -464,7 +441,7 @@ public abstract class Creature implements Serializable {
      * @since 1.0
      */
     public void setHeight(double height) {
-        this.height = height;
+        store.height[index] = height;
     }
 
     /**
@@ -474,7 +451,7 @@ public abstract class Creature implements Serializable {
      * @since 1.0
      */
     public void setVelocityY(double velocityY) {
-        this.velocityY = velocityY;
+        store.velocityY[index] = velocityY;
     }
 
     /**
@@ -484,7 +461,7 @@ public abstract class Creature implements Serializable {
      * @since 1.0
      */
     public void setVelocityMultiplier(double velocityMultiplier) {
-        this.velocityMultiplier = velocityMultiplier;
+        store.velocityMultiplier[index] = velocityMultiplier;
     }
 
     /**
@@ -494,7 +471,7 @@ public abstract class Creature implements Serializable {
      * @since 1.0
      */
     public void setOnGround(boolean onGround) {
-        this.onGround = onGround;
+        store.setFlag(index, CreatureStore.ON_GROUND, onGround);
     }
 
     /**
@@ -504,7 +481,7 @@ public abstract class Creature implements Serializable {
      * @since 1.1
      */
     public void setHp(int hp) {
-        this.hp = hp;
+        store.hp[index] = hp;
     }
     
     /**
@@ -513,8 +490,8 @@ public abstract class Creature implements Serializable {
      * @since 1.1
      */
     public void die() {
-        killed = true;
-        left = false; right = false; up = false; down = false;
+        store.setFlag(index, CreatureStore.KILLED, true);
+        store.setFlag(index, CreatureStore.LEFT | CreatureStore.RIGHT | CreatureStore.UP | CreatureStore.DOWN, false);
     }
 
     /**
@@ -525,15 +502,4 @@ public abstract class Creature implements Serializable {
         return type;
     }
     
-    //classes for serialization of image
-    private void readObject(ObjectInputStream s) throws IOException, ClassNotFoundException {
-        s.defaultReadObject();
-        image = SwingFXUtils.toFXImage(ImageIO.read(s), null);
-    }
-
-    private void writeObject(ObjectOutputStream s) throws IOException {
-        s.defaultWriteObject();
-        ImageIO.write(SwingFXUtils.fromFXImage(image, null), "png", s);
-    }
-    
 }
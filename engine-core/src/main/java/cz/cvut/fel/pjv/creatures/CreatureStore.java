@@ -0,0 +1,442 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 Michal-jr.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package cz.cvut.fel.pjv.creatures;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * Storage of the state of creatures in parallel primitive arrays. Creature objects are only handles
+ * pointing to their index in the store. Creatures are kept dense in the order they were added,
+ * so systems like movement run over ranges of the arrays.
+ * A creature that is not in any shared store (like the player) has its own store with one entry.
+ *
+ * @author Michal-jr
+ * @version 1.2
+ * @param <T> type of stored creatures
+ */
+public class CreatureStore<T extends Creature> extends AbstractList<T> implements RandomAccess, Serializable {
+    
+    static final double GRAVITY = 0.3;
+    
+    /**
+     * Size of one animation frame in the spritesheet.
+     */
+    static final double FRAME_WIDTH = 64;
+    static final double FRAME_HEIGHT = 64;
+    
+    /**
+     * Bits of the creature's flags.
+     */
+    static final int ON_GROUND = 1;
+    static final int ATTACKING = 1 << 1;
+    static final int LEFT = 1 << 2;
+    static final int RIGHT = 1 << 3;
+    static final int UP = 1 << 4;
+    static final int DOWN = 1 << 5;
+    static final int RUNNING = 1 << 6;
+    static final int SWIMMING = 1 << 7;
+    static final int LEFT_ATTACK = 1 << 8;
+    static final int RIGHT_ATTACK = 1 << 9;
+    static final int KILLED = 1 << 10;
+    static final int SKIPPED = 1 << 11;
+    
+    private int size = 0;
+    private Creature[] handles;
+    
+    double[] x, y;
+    double[] previousX, previousY;
+    double[] moveX, moveY;
+    double[] velocityX, velocityY, velocityMultiplier;
+    double[] width, height;
+    double[] spriteX, spriteY, spriteFrame, frameLimit, attackAnimationLimit;
+    int[] hp;
+    int[] flags;
+
+    /**
+     * Create new empty store.
+     *
+     * @param capacity initial number of creatures the store can hold without growing
+     * @since 1.0
+     */
+    public CreatureStore(int capacity) {
+        allocate(Math.max(capacity, 1));
+    }
+    
+    private void allocate(int capacity) {
+        handles = handles == null ? new Creature[capacity] : Arrays.copyOf(handles, capacity);
+        x = grow(x, capacity);
+        y = grow(y, capacity);
+        previousX = grow(previousX, capacity);
+        previousY = grow(previousY, capacity);
+        moveX = grow(moveX, capacity);
+        moveY = grow(moveY, capacity);
+        velocityX = grow(velocityX, capacity);
+        velocityY = grow(velocityY, capacity);
+        velocityMultiplier = grow(velocityMultiplier, capacity);
+        width = grow(width, capacity);
+        height = grow(height, capacity);
+        spriteX = grow(spriteX, capacity);
+        spriteY = grow(spriteY, capacity);
+        spriteFrame = grow(spriteFrame, capacity);
+        frameLimit = grow(frameLimit, capacity);
+        attackAnimationLimit = grow(attackAnimationLimit, capacity);
+        hp = hp == null ? new int[capacity] : Arrays.copyOf(hp, capacity);
+        flags = flags == null ? new int[capacity] : Arrays.copyOf(flags, capacity);
+    }
+    
+    private double[] grow(double[] array, int capacity) {
+        return array == null ? new double[capacity] : Arrays.copyOf(array, capacity);
+    }
+    
+    /**
+     * Make room for a creature at the given index, creatures from the index are shifted by one.
+     */
+    private void insertSlot(int index) {
+        if (size == handles.length) { allocate(handles.length * 2); }
+        shift(index, index + 1, size - index);
+        size++;
+        modCount++;
+    }
+    
+    /**
+     * Remove the slot of the creature at the given index, following creatures are shifted back.
+     */
+    private void removeSlot(int index) {
+        shift(index + 1, index, size - index - 1);
+        size--;
+        handles[size] = null;
+        modCount++;
+    }
+    
+    private void shift(int from, int to, int length) {
+        if (length <= 0) { return; }
+        System.arraycopy(handles, from, handles, to, length);
+        System.arraycopy(x, from, x, to, length);
+        System.arraycopy(y, from, y, to, length);
+        System.arraycopy(previousX, from, previousX, to, length);
+        System.arraycopy(previousY, from, previousY, to, length);
+        System.arraycopy(moveX, from, moveX, to, length);
+        System.arraycopy(moveY, from, moveY, to, length);
+        System.arraycopy(velocityX, from, velocityX, to, length);
+        System.arraycopy(velocityY, from, velocityY, to, length);
+        System.arraycopy(velocityMultiplier, from, velocityMultiplier, to, length);
+        System.arraycopy(width, from, width, to, length);
+        System.arraycopy(height, from, height, to, length);
+        System.arraycopy(spriteX, from, spriteX, to, length);
+        System.arraycopy(spriteY, from, spriteY, to, length);
+        System.arraycopy(spriteFrame, from, spriteFrame, to, length);
+        System.arraycopy(frameLimit, from, frameLimit, to, length);
+        System.arraycopy(attackAnimationLimit, from, attackAnimationLimit, to, length);
+        System.arraycopy(hp, from, hp, to, length);
+        System.arraycopy(flags, from, flags, to, length);
+        //moved creatures have to know their new index
+        for (int i = to; i < to + length; i++) {
+            handles[i].index = i;
+        }
+    }
+    
+    private static void copySlot(CreatureStore<?> from, int i, CreatureStore<?> to, int j) {
+        to.x[j] = from.x[i];
+        to.y[j] = from.y[i];
+        to.previousX[j] = from.previousX[i];
+        to.previousY[j] = from.previousY[i];
+        to.moveX[j] = from.moveX[i];
+        to.moveY[j] = from.moveY[i];
+        to.velocityX[j] = from.velocityX[i];
+        to.velocityY[j] = from.velocityY[i];
+        to.velocityMultiplier[j] = from.velocityMultiplier[i];
+        to.width[j] = from.width[i];
+        to.height[j] = from.height[i];
+        to.spriteX[j] = from.spriteX[i];
+        to.spriteY[j] = from.spriteY[i];
+        to.spriteFrame[j] = from.spriteFrame[i];
+        to.frameLimit[j] = from.frameLimit[i];
+        to.attackAnimationLimit[j] = from.attackAnimationLimit[i];
+        to.hp[j] = from.hp[i];
+        to.flags[j] = from.flags[i];
+    }
+    
+    /**
+     * Add new creature with the default state to the end of the store.
+     *
+     * @param creature handle of the new creature
+     */
+    void create(Creature creature, double x, double y, int hp) {
+        int index = size;
+        insertSlot(index);
+        handles[index] = creature;
+        this.x[index] = x;
+        this.y[index] = y;
+        previousX[index] = x;
+        previousY[index] = y;
+        moveX[index] = 0;
+        moveY[index] = 0;
+        velocityX[index] = 2;
+        velocityY[index] = 0;
+        velocityMultiplier[index] = 1;
+        width[index] = 32;
+        height[index] = 52;
+        spriteX[index] = 0;
+        spriteY[index] = 0;
+        spriteFrame[index] = 0;
+        frameLimit[index] = 0;
+        attackAnimationLimit[index] = 0;
+        this.hp[index] = hp;
+        flags[index] = 0;
+        creature.store = this;
+        creature.index = index;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        if (index < 0 || index >= size) { throw new IndexOutOfBoundsException("Index: "+index+", Size: "+size); }
+        return (T) handles[index];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Move the creature into this store, its state is moved with it.
+     *
+     * @param index index the creature is inserted at
+     * @param creature creature to add, it must not be in this store already
+     */
+    @Override
+    public void add(int index, T creature) {
+        if (index < 0 || index > size) { throw new IndexOutOfBoundsException("Index: "+index+", Size: "+size); }
+        if (creature.store == this) { throw new IllegalArgumentException("Creature is already in the store."); }
+        insertSlot(index);
+        handles[index] = creature;
+        copySlot(creature.store, creature.index, this, index);
+        creature.store.removeSlot(creature.index);
+        creature.store = this;
+        creature.index = index;
+    }
+
+    /**
+     * Remove the creature from this store, the creature gets its own store with its state.
+     *
+     * @param index index of the creature
+     * @return removed creature
+     */
+    @Override
+    public T remove(int index) {
+        T creature = get(index);
+        detach(index);
+        removeSlot(index);
+        return creature;
+    }
+    
+    private void detach(int index) {
+        Creature creature = handles[index];
+        CreatureStore<Creature> own = new CreatureStore<>(1);
+        own.insertSlot(0);
+        own.handles[0] = creature;
+        copySlot(this, index, own, 0);
+        creature.store = own;
+        creature.index = 0;
+    }
+
+    @Override
+    public void clear() {
+        while (size > 0) {
+            remove(size - 1);
+        }
+    }
+    
+    /**
+     * Remove all killed creatures, the order of other creatures is kept.
+     *
+     * @return number of removed creatures
+     * @since 1.0
+     */
+    public int removeKilled() {
+        int live = 0;
+        for (int i = 0; i < size; i++) {
+            if ((flags[i] & KILLED) != 0) {
+                detach(i);
+                continue;
+            }
+            if (live != i) {
+                handles[live] = handles[i];
+                copySlot(this, i, this, live);
+                handles[live].index = live;
+            }
+            live++;
+        }
+        int removed = size - live;
+        for (int i = live; i < size; i++) {
+            handles[i] = null;
+        }
+        size = live;
+        if (removed > 0) { modCount++; }
+        return removed;
+    }
+    
+    /**
+     * Mark the creature as skipped or not skipped by the systems in this tick.
+     *
+     * @param index index of the creature
+     * @param skipped true if the creature should not be updated
+     * @since 1.0
+     */
+    public void setSkipped(int index, boolean skipped) {
+        setFlag(index, SKIPPED, skipped);
+    }
+    
+    /**
+     * @param index index of the creature
+     * @return true if the creature is updated by the systems in this tick, false otherwise
+     * @since 1.0
+     */
+    public boolean isActive(int index) {
+        return (flags[index] & SKIPPED) == 0;
+    }
+    
+    void setFlag(int index, int flag, boolean value) {
+        if (value) { flags[index] |= flag; }
+        else { flags[index] &= ~flag; }
+    }
+    
+    boolean hasFlag(int index, int flag) {
+        return (flags[index] & flag) != 0;
+    }
+    
+    /**
+     * Remember positions of all creatures before the tick, they are drawn between the previous and the current position.
+     *
+     * @since 1.2
+     */
+    public void savePositions() {
+        System.arraycopy(x, 0, previousX, 0, size);
+        System.arraycopy(y, 0, previousY, 0, size);
+    }
+    
+    /**
+     * Movement system. Update positions of all active creatures and animate their movement.
+     *
+     * @since 1.0
+     */
+    public void moveAll() {
+        moveAll(0, size);
+    }
+    
+    /**
+     * Movement system for a range of creatures. Creatures are independent,
+     * so different ranges can be moved by different threads at once.
+     *
+     * @param from index of the first creature
+     * @param to index after the last creature
+     * @since 1.1
+     */
+    public void moveAll(int from, int to) {
+        for (int i = from; i < to; i++) {
+            if ((flags[i] & SKIPPED) == 0) { move(i); }
+        }
+    }
+    
+    /**
+     * Update the creature's position and animate its movement.
+     *
+     * @param i index of the creature
+     */
+    void move(int i) {
+        double startX = x[i];
+        double startY = y[i];
+        int f = flags[i];
+        double multiplier = velocityMultiplier[i];
+        frameLimit[i]++;
+        if ((f & RUNNING) != 0) { velocityX[i] = 4*multiplier; frameLimit[i] = 0; } else { velocityX[i] = 2*multiplier; }
+        if ((f & SWIMMING) != 0) { velocityX[i] = 1*multiplier; }
+        boolean onGround = (f & ON_GROUND) != 0;
+        if ((f & LEFT) != 0) {
+            x[i] -= velocityX[i];
+            spriteY[i] = 9 * FRAME_HEIGHT;
+            if (frameLimit[i] % 2 == 0) { spriteFrame[i]--; }
+            if (spriteFrame[i] < 0) { spriteFrame[i] = 8; }
+            if (!onGround) { spriteFrame[i] = 1; }
+            spriteX[i] = spriteFrame[i] * FRAME_WIDTH;
+        }
+        if ((f & RIGHT) != 0) {
+            x[i] += velocityX[i];
+            spriteY[i] = 11 * FRAME_HEIGHT;
+            if (frameLimit[i] % 2 == 0) { spriteFrame[i]++; }
+            if (spriteFrame[i] > 8) { spriteFrame[i] = 0; }
+            if (!onGround) { spriteFrame[i] = 1; }
+            spriteX[i] = spriteFrame[i] * FRAME_WIDTH;
+        }
+        if ((f & (LEFT | RIGHT)) == 0) {
+            spriteX[i] = FRAME_WIDTH;
+            spriteY[i] = 10 * FRAME_HEIGHT;
+            if (!onGround) {
+                spriteX[i] = 6 * FRAME_WIDTH;
+                spriteY[i] = 2 * FRAME_HEIGHT;
+            }
+        }
+        if ((f & SWIMMING) == 0) {
+            //jump
+            if ((f & UP) != 0 && onGround) {
+                velocityY[i] = -6.0*multiplier;
+            }
+            //fall
+            velocityY[i] += GRAVITY*multiplier;
+        } else {
+            //swim
+            if ((f & UP) != 0) { velocityY[i] = -velocityX[i]; }
+            if ((f & DOWN) != 0) { velocityY[i] = velocityX[i]; }
+            if ((f & (UP | DOWN)) == 0) { velocityY[i] = GRAVITY/1.5; }
+        }
+        y[i] += velocityY[i];
+        flags[i] &= ~ON_GROUND;
+        if (frameLimit[i] < 1) { frameLimit[i] = 0; }
+        //the collision sweeps the creature along this move
+        moveX[i] = x[i] - startX;
+        moveY[i] = y[i] - startY;
+    }
+    
+    /**
+     * Animate the creature's attack.
+     *
+     * @param i index of the creature
+     */
+    void animateAttack(int i) {
+        spriteX[i] = attackAnimationLimit[i]*FRAME_WIDTH;
+        if ((flags[i] & LEFT_ATTACK) != 0) { spriteY[i] = 13*FRAME_HEIGHT; }
+        else if ((flags[i] & RIGHT_ATTACK) != 0) { spriteY[i] = 15*FRAME_HEIGHT; }
+        if (attackAnimationLimit[i] < 5) {
+            attackAnimationLimit[i]++;
+        } else {
+            attackAnimationLimit[i] = 0;
+            flags[i] &= ~ATTACKING;
+        }
+    }
+    
+}
@@ -23,44 +23,44 @@
  */
 package cz.cvut.fel.pjv.creatures;
 
+import cz.cvut.fel.pjv.Spritesheet;
 import cz.cvut.fel.pjv.items.ItemType;
-import javafx.scene.image.Image;
 
 /**
  * Enumeration class representing all types of creatures that can appear in the world.
  *
  * @author Michal-jr
- * @version 1.1
+ * @version 1.2
  */
 public enum CreatureType {
     
     /**
      * Type of player.
      */
-    PLAYER(0, new Image("spritesheet_hero.png"), 10, null),
+    PLAYER(0, Spritesheet.HERO, 10, null),
     
     /**
      * Type of monk.
      */
-    MONK(1, new Image("spritesheet_monk.png"), 15, null),
+    MONK(1, Spritesheet.MONK, 15, null),
     
     /**
      * Type of skeleton.
      */
-    SKELETON(2, new Image("spritesheet_skeleton.png"), 5, null),
+    SKELETON(2, Spritesheet.SKELETON, 5, null),
     
     /**
      * Type of enemy boss.
      */
-    BOSS(3, new Image("spritesheet_boss.png"), 30, ItemType.GOLDEN_PICKAXE);
+    BOSS(3, Spritesheet.BOSS, 30, ItemType.GOLDEN_PICKAXE);
 
     private final int id;
-    private final Image spritesheet;
+    private final Spritesheet spritesheet;
     private final int hp;
     private final ItemType dropItemType;
 
 
-    private CreatureType(int id, Image spritesheet, int hp, ItemType dropItemType) {
+    private CreatureType(int id, Spritesheet spritesheet, int hp, ItemType dropItemType) {
         this.id = id;
         this.spritesheet = spritesheet;
         this.hp = hp;
@@ -68,10 +68,10 @@ public enum CreatureType {
     }
 
     /**
-     * @return spritesheet of the specified creature
-     * @since 1.0
+     * @return id of the spritesheet of the specified creature
+     * @since 1.2
      */
-    public Image getSpritesheet() {
+    public Spritesheet getSpritesheet() {
         return spritesheet;
     }
 
@@ -0,0 +1,347 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 Michal-jr.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package cz.cvut.fel.pjv.creatures;
+
+import cz.cvut.fel.pjv.ChunkGraph;
+import cz.cvut.fel.pjv.Collision;
+import cz.cvut.fel.pjv.FlowField;
+import cz.cvut.fel.pjv.Path;
+import cz.cvut.fel.pjv.Pathfinder;
+import cz.cvut.fel.pjv.World;
+import cz.cvut.fel.pjv.blocks.Block;
+import cz.cvut.fel.pjv.items.Tool;
+import cz.cvut.fel.pjv.items.Item;
+import cz.cvut.fel.pjv.maps.Structure;
+
+/**
+ * NPC that is attacking player.
+ *
+ * @author Michal-jr
+ * @version 1.6
+ */
+public class Enemy extends NPC {
+    
+    /**
+     * Number of ticks before the enemy searches its path again when the player moves.
+     */
+    private static final int REPLAN_TICKS = 15;
+    
+    private final int attackRate = 20;
+    private int attackCounter = 0;
+    private final int attackPower = 1;
+    private int movementCounter = 0;
+    private boolean wantGoLeft = true;
+    private boolean wantGoRight = false;
+    private final Item dropItem;
+    private final World world;
+    private final Path path = new Path();
+    private int planCounter = 0;
+    private boolean followingField = false;
+    
+    /**
+     * Route of the boss walking his rounds between structures, it is refined into the path part by part.
+     */
+    private final Path route = new Path();
+    private int roamingPlace = 0;
+    private int failedParts = 0;
+
+    /**
+     * Create new enemy NPC that is attacking the player.
+     *
+     * @param x creature's X position in pixels
+     * @param y creature's Y position in pixels
+     * @param type type of the creature from enumeration
+     * @param world instance of the world
+     * @since 1.0
+     */
+    public Enemy(double x, double y, CreatureType type, World world) {
+        super(x, y, type);
+        this.world = world;
+        if (type.getDropItemType() != null) {
+            dropItem = new Tool(x, y, type.getDropItemType());
+        } else {
+            dropItem = null;
+        }
+    }
+    
+    @Override
+    public void plan(World world, Player player) {
+        double playerX = world.nearestX(player.getX(), getX());
+        if (!isNear(playerX, playerX + player.getWidth(), 10)) {
+            if (getType() == CreatureType.BOSS) {
+                planRoute(world);
+            } else {
+                path.clear();
+            }
+            return;
+        }
+        //the chase interrupts the rounds of the boss
+        if (!route.isEmpty()) {
+            route.clear();
+            path.clear();
+        }
+        if (planCounter > 0) { planCounter--; }
+        //the path is searched from the ground
+        if ((jumping() || falling()) && !swimming()) { return; }
+        int tileX = world.getTileX(getX() + getWidth()/2);
+        int tileY = world.getTileY(getY2() - 1);
+        //the shared field leads the enemy, it does not need its own path
+        if (world.getFlowField().getDistance(tileX, tileY) >= 0) {
+            path.clear();
+            return;
+        }
+        Pathfinder pathfinder = world.getPathfinder();
+        int goalX = world.getTileX(playerX + player.getWidth()/2);
+        int goalY = world.getTileY(player.getY2() - 1);
+        //the goal of the path is on the ground below the player
+        boolean goalMoved = goalX != path.getGoalX() || goalY > path.getGoalY() || goalY < path.getGoalY() - Pathfinder.SAFE_DROP;
+        if (pathfinder.isValid(path) && !goalMoved) { return; }
+        if (planCounter > 0) { return; }
+        int height = (int) Math.ceil(getHeight() / Block.block_height);
+        if (pathfinder.findPath(tileX, tileY, goalX, goalY, height, path)) { planCounter = REPLAN_TICKS; }
+    }
+    
+    //the boss walks his rounds between structures, long routes go over the graph of chunks
+    private void planRoute(World world) {
+        if (planCounter > 0) { planCounter--; }
+        if ((jumping() || falling()) && !swimming()) { return; }
+        if (planCounter > 0) { return; }
+        int tileX = world.getTileX(getX() + getWidth()/2);
+        int tileY = world.getTileY(getY2() - 1);
+        if (route.isEmpty()) {
+            Structure place = getRoamingPlace(world);
+            if (place == null) { return; }
+            ChunkGraph graph = world.getChunkGraph();
+            //the spawner is on a tile already
+            if (!graph.findRoute(tileX, tileY, place.getSpawner().getX(), place.getSpawner().getY(), route)) { return; }
+            path.clear();
+            failedParts = 0;
+            return;
+        }
+        //skip waypoints the boss already reached, he is too wide to step down into narrow holes
+        int next = route.getNext();
+        for (int i = next; i < route.getSize(); i++) {
+            if (route.getTileX(i) == tileX && Math.abs(route.getTileY(i) - tileY) <= 1) { next = i + 1; }
+        }
+        route.setNext(next);
+        if (next >= route.getSize()) {
+            route.clear();
+            roamingPlace++;
+            planCounter = REPLAN_TICKS;
+            return;
+        }
+        int waypointX = route.getTileX(next);
+        int waypointY = route.getTileY(next);
+        Pathfinder pathfinder = world.getPathfinder();
+        if (pathfinder.isValid(path) && path.getGoalX() == waypointX && path.getGoalY() == waypointY) { return; }
+        int height = (int) Math.ceil(getHeight() / Block.block_height);
+        if (!pathfinder.findPath(tileX, tileY, waypointX, waypointY, height, path)) { return; }
+        if (path.isComplete()) { return; }
+        //the boss can not get to the waypoint, the route is searched again
+        failedParts++;
+        planCounter = REPLAN_TICKS;
+        if (failedParts > 3) {
+            route.clear();
+            path.clear();
+            roamingPlace++;
+        }
+    }
+    
+    //structure with a spawner the boss goes to, null if there is none
+    private Structure getRoamingPlace(World world) {
+        int count = 0;
+        for (Structure structure : world.getWorldMap().getStructures().values()) {
+            if (structure.getSpawner() != null) { count++; }
+        }
+        if (count == 0) { return null; }
+        int index = roamingPlace % count;
+        for (Structure structure : world.getWorldMap().getStructures().values()) {
+            if (structure.getSpawner() == null) { continue; }
+            if (index == 0) { return structure; }
+            index--;
+        }
+        return null;
+    }
+    
+    @Override
+    public void think(World world, Player player) {
+        calculateMovement(world, player);
+    }
+    
+    @Override
+    public void act(World world, Player player) {
+        if (attackCounter == attackRate) {
+            attack(player);
+            attackCounter = 0;
+        }
+        attackCounter++;
+        if (isAttacking()) { animateAttack(); }
+    }
+    
+    private void calculateMovement(World world, Player player) {
+        //the player may be on the other side of the world edge
+        double playerX = world.nearestX(player.getX(), getX());
+        double playerX2 = playerX + player.getWidth();
+        //the boss walks his rounds even far from the player
+        boolean roaming = !route.isEmpty();
+        //enemy is not moving if he is more than 50 blocks far from the player
+        if (!roaming && !isNear(playerX, playerX2, 50)) { setUp(false); setDown(false); setLeft(false); setRight(false); return; }
+        if (isNear(playerX, playerX2, 10)) {
+            //without a way the enemy goes straight to the player
+            if (!followField(world) && !followPath(world)) {
+                if (playerX2 < getX()) {
+                    setRight(false);
+                    setLeft(true);
+                }
+                else if (playerX > getX2()) {
+                    setLeft(false);
+                    setRight(true);
+                }
+            }
+        } else if (!roaming || !followPath(world)) {
+            movementCounter++;
+            setUp(false);
+            if (movementCounter == 200) {
+                wantGoLeft = !wantGoLeft;
+                wantGoRight = !wantGoRight;
+                movementCounter = 0;
+            }
+            setLeft(wantGoLeft);
+            setRight(wantGoRight);
+        }
+        if (Collision.creatureHasBlockInFront(this, world) || swimming()) { setUp(true); }
+    }
+    
+    private boolean isNear(double playerX, double playerX2, int blocks) {
+        return playerX2 > getX()-blocks*Block.block_width && playerX < getX2()+blocks*Block.block_width;
+    }
+    
+    //go to the next tile toward the player in the shared field, returns false if the field has no step for the enemy
+    private boolean followField(World world) {
+        FlowField field = world.getFlowField();
+        int tileX = world.getTileX(getX() + getWidth()/2);
+        int tileY = world.getTileY(getY2() - 1);
+        if (!field.hasStep(tileX, tileY)) {
+            //enemy in the middle of a jump or a drop keeps going
+            followingField = followingField && (jumping() || falling()) && !swimming();
+            return followingField;
+        }
+        int stepX = field.getStepX(tileX, tileY);
+        setLeft(stepX < 0);
+        setRight(stepX > 0);
+        setUp(field.getStepY(tileX, tileY) < 0);
+        followingField = true;
+        return true;
+    }
+    
+    //go to the next tile of the path, returns false if there is no path to follow
+    private boolean followPath(World world) {
+        if (path.isEmpty()) { return false; }
+        int tileX = world.getTileX(getX() + getWidth()/2);
+        int tileY = world.getTileY(getY2() - 1);
+        int next = path.getNext();
+        //skip tiles the enemy already reached
+        for (int i = next; i < path.getSize() && i <= next + 2; i++) {
+            if (path.getTileX(i) == tileX && path.getTileY(i) == tileY) { next = i + 1; }
+        }
+        path.setNext(next);
+        if (next >= path.getSize()) {
+            path.clear();
+            return false;
+        }
+        int nextX = path.getTileX(next);
+        int nextY = path.getTileY(next);
+        //enemy was pushed away from the path
+        if (Math.abs(nextX - tileX) > 1 || nextY < tileY - Pathfinder.JUMP_HEIGHT - 1 || nextY > tileY + Pathfinder.SAFE_DROP + 1) {
+            path.clear();
+            return false;
+        }
+        int stepX = nextX - tileX;
+        //wide enemy still stands on the ledge it drops from, it keeps walking off
+        if (stepX == 0 && nextY > tileY && next > 0) { stepX = nextX - path.getTileX(next - 1); }
+        setLeft(stepX < 0);
+        setRight(stepX > 0);
+        setUp(nextY < tileY);
+        return true;
+    }
+    
+    /**
+     * @return path the enemy follows to the player, it is empty if the enemy does not follow any path
+     * @since 1.4
+     */
+    public Path getPath() {
+        return path;
+    }
+    
+    /**
+     * @return route of the boss walking between structures, it is empty if the enemy does not walk any route
+     * @since 1.6
+     */
+    public Path getRoute() {
+        return route;
+    }
+    
+    /**
+     * Attack player and update his HP if attack was successful.
+     *
+     * @param player instance of player
+     * @since 1.0
+     */
+    public void attack(Player player) {
+        double playerX = world.nearestX(player.getX(), getX());
+        double playerX2 = playerX + player.getWidth();
+        if (playerX2 > getX()-Block.block_width*4 && playerX < getX2()+Block.block_width*4) {
+            if (!isAttacking()) { setAttacking(true); }
+            double attackWidth;
+            setLeftAttack(false);
+            setRightAttack(false);
+            if (playerX2 < getX()+getWidth()/2) {
+                attackWidth = -getWidth()/2;
+                setLeftAttack(true);
+            }
+            else if (playerX > getX()+getWidth()/2){
+                attackWidth = getWidth()/2;
+                setRightAttack(true);
+            }
+            else { attackWidth = 0; }
+            if (Collision.creatureIsAttacked(world.nearestX(getX()+getWidth()/2, player.getX()), getY(), attackWidth, getHeight(), player)) {
+                player.setHp(player.getHp()-attackPower);
+                if (player.getHp() <= 0) { player.die(); }
+            }
+        }
+    }
+
+    @Override
+    public void die() {
+        if (isKilled()) { return; }
+        super.die();
+        //drop the item where the enemy died
+        if (dropItem != null) {
+            dropItem.setX(getX());
+            dropItem.setY(getY());
+            world.addItem(dropItem);
+        }
+    }
+    
+}
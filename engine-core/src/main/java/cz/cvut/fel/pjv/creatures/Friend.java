@@ -31,7 +31,7 @@ import cz.cvut.fel.pjv.blocks.Block;
  * NPC that is not attacking player.
  *
  * @author Michal-jr
- * @version 1.1
+ * @version 1.3
  */
 public class Friend extends NPC {
 
@@ -53,18 +53,21 @@ public class Friend extends NPC {
     }
 
     @Override
-    public void update(World world, Player player) {
-        Collision.creatureIsInLiquid(this, world);
+    public void think(World world, Player player) {
         calculateMovement(world, player);
-        move();
-        Collision.preventCollision(this, world);
-        tellPlayerHeWon(player);
+    }
+    
+    @Override
+    public void act(World world, Player player) {
+        tellPlayerHeWon(world, player);
     }
     
     private void calculateMovement(World world, Player player) {
+        //the player may be on the other side of the world edge
+        double playerX = world.nearestX(player.getX(), getX());
         if ( //friendly NPC is not moving if he is more than 50 blocks far from the player
-            player.getX() > getX2()+50*Block.block_width ||
-            player.getX2() < getX()-50*Block.block_width
+            playerX > getX2()+50*Block.block_width ||
+            playerX + player.getWidth() < getX()-50*Block.block_width
         ) { setUp(false); setDown(false); setLeft(false); setRight(false); return; }
         movementCounter++;
         setUp(false);
@@ -78,9 +81,10 @@ public class Friend extends NPC {
         if (Collision.creatureHasBlockInFront(this, world) || swimming()) { setUp(true); }
     }
     
-    private void tellPlayerHeWon(Player player) {
+    private void tellPlayerHeWon(World world, Player player) {
         if (getType() != CreatureType.MONK) { return; }
-        if (!player.isWinner() && getY() == player.getY() && player.getX() < getX2()+Block.block_width && player.getX2() > getX()-Block.block_width) {
+        double playerX = world.nearestX(player.getX(), getX());
+        if (!player.isWinner() && getY() == player.getY() && playerX < getX2()+Block.block_width && playerX + player.getWidth() > getX()-Block.block_width) {
             somethingToSay = "Greetings young one. Welcome to the chamber of winners. You are now one of them, for you have just won the whole game.";
             player.setHasWon(true);
         }
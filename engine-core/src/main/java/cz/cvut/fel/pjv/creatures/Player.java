@@ -31,7 +31,7 @@ import cz.cvut.fel.pjv.World;
  * Character that is controlled by player.
  * 
  * @author Michal-jr
- * @version 1.3
+ * @version 1.4
  */
 public class Player extends Creature {
     
@@ -91,7 +91,8 @@ public class Player extends Creature {
         }
         for (NPC npc : world.getNpcs()) {
             if (!(npc instanceof Enemy)) { continue; }
-            if (Collision.creatureIsAttacked(getX()+getWidth()/2, getY(), attackWidth, getHeight(), npc)) {
+            //the enemy may be on the other side of the world edge
+            if (Collision.creatureIsAttacked(world.nearestX(getX()+getWidth()/2, npc.getX()), getY(), attackWidth, getHeight(), npc)) {
                 npc.setHp(npc.getHp()-1);
                 if (npc.getHp() <= 0) { npc.die(); }
             }
@@ -0,0 +1,183 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 Michal-jr.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package cz.cvut.fel.pjv.fileio;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Class for storing columns of chunks of the infinite world in files.
+ * Each column of chunks has its own file in the directory of the world.
+ * Columns changed while playing are written to a working directory of the game,
+ * saving the game copies them into a snapshot directory that is never written again.
+ *
+ * @author Michal-jr
+ * @version 1.2
+ */
+public class ChunkStorage {
+    
+    /**
+     * @param directory directory of the world
+     * @param chunkX X coordinate of the column of chunks
+     * @return file of the column of chunks
+     * @since 1.0
+     */
+    public static File getChunkFile(File directory, int chunkX) {
+        return new File(directory, "chunk_"+chunkX+".dat");
+    }
+    
+    /**
+     * Save tiles of the column of chunks to file.
+     *
+     * @param directory directory of the world
+     * @param chunkX X coordinate of the column of chunks
+     * @param ids identifiers of block types of the column
+     * @param states state bits of tiles of the column
+     * @return true if the column was saved, false otherwise, the previously saved column is kept then
+     * @since 1.0
+     */
+    public static boolean saveChunkColumn(File directory, int chunkX, short[] ids, byte[] states) {
+        directory.mkdirs();
+        File file = getChunkFile(directory, chunkX);
+        //the previous file of the column stays untouched until the new one is complete
+        File tmp = new File(file.getPath()+".tmp");
+        try {
+            try (
+                DataOutputStream dos = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))
+            ) {
+                dos.writeInt(ids.length);
+                for (short id : ids) {
+                    dos.writeShort(id);
+                }
+                dos.write(states);
+            }
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            return true;
+        } catch (IOException ex) {
+            Logger.getLogger(Logger.GLOBAL_LOGGER_NAME).log(Level.SEVERE, "An error occured during chunk saving.", ex);
+        }
+        tmp.delete();
+        return false;
+    }
+    
+    /**
+     * Load tiles of the column of chunks from file.
+     *
+     * @param directory directory of the world
+     * @param chunkX X coordinate of the column of chunks
+     * @param ids identifiers of block types of the column, filled with the loaded values
+     * @param states state bits of tiles of the column, filled with the loaded values
+     * @return true if the column was loaded, false if it was never saved or the file is broken
+     * @since 1.0
+     */
+    public static boolean loadChunkColumn(File directory, int chunkX, short[] ids, byte[] states) {
+        File file = getChunkFile(directory, chunkX);
+        if (!file.isFile()) { return false; }
+        try (
+            DataInputStream dis = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))
+        ) {
+            if (dis.readInt() != ids.length) {
+                Logger.getLogger(Logger.GLOBAL_LOGGER_NAME).log(Level.WARNING, "Chunk file {0} has a wrong size.", file);
+                return false;
+            }
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = dis.readShort();
+            }
+            dis.readFully(states);
+            return true;
+        } catch (IOException ex) {
+            Logger.getLogger(Logger.GLOBAL_LOGGER_NAME).log(Level.SEVERE, "An error occured during chunk loading.", ex);
+        }
+        return false;
+    }
+    
+    /**
+     * Create a snapshot of the world. Columns of the working directory are copied into the snapshot,
+     * columns of the previous snapshot that did not change since are linked or copied into it.
+     * The snapshot replaces the given directory only when it is complete.
+     *
+     * @param savedDirectory previous snapshot of the world, null if there is none
+     * @param directory working directory of the world, it is emptied when the snapshot is complete
+     * @param snapshot directory of the new snapshot, it may be the previous snapshot
+     * @throws IOException if the snapshot could not be written, the working directory stays untouched then
+     * @since 1.1
+     */
+    public static void createSnapshot(File savedDirectory, File directory, File snapshot) throws IOException {
+        File tmp = new File(snapshot.getPath()+".tmp");
+        deleteDirectory(tmp);
+        if (!tmp.mkdirs()) { throw new IOException("Directory "+tmp+" can not be created."); }
+        File[] savedFiles = savedDirectory == null ? null : savedDirectory.listFiles();
+        if (savedFiles != null) {
+            for (File file : savedFiles) {
+                if (new File(directory, file.getName()).isFile()) { continue; }
+                //files of snapshots are never written, so they can be shared
+                try {
+                    Files.createLink(new File(tmp, file.getName()).toPath(), file.toPath());
+                } catch (IOException | UnsupportedOperationException ex) {
+                    Files.copy(file.toPath(), new File(tmp, file.getName()).toPath());
+                }
+            }
+        }
+        File[] changedFiles = directory.listFiles();
+        if (changedFiles != null) {
+            for (File file : changedFiles) {
+                Files.copy(file.toPath(), new File(tmp, file.getName()).toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        deleteDirectory(snapshot);
+        if (!tmp.renameTo(snapshot)) { throw new IOException("Directory "+tmp+" can not be renamed to "+snapshot+"."); }
+        //the columns are read from the snapshot now
+        if (changedFiles != null) {
+            for (File file : changedFiles) {
+                file.delete();
+            }
+        }
+    }
+    
+    /**
+     * Delete the directory with the files in it.
+     *
+     * @param directory directory of columns of chunks
+     * @since 1.1
+     */
+    public static void deleteDirectory(File directory) {
+        File[] files = directory.listFiles();
+        if (files == null) { return; }
+        for (File file : files) {
+            file.delete();
+        }
+        directory.delete();
+    }
+    
+}
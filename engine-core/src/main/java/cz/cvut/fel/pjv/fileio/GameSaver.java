@@ -24,7 +24,6 @@
 package cz.cvut.fel.pjv.fileio;
 
 import cz.cvut.fel.pjv.Game;
-import cz.cvut.fel.pjv.UIControls;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
@@ -33,21 +32,17 @@ import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.nio.file.Files;
 import java.nio.file.attribute.BasicFileAttributes;
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Comparator;
-import java.util.Date;
 import java.util.logging.Level;
 import java.util.logging.Logger;
-import javafx.scene.control.Alert.AlertType;
 
 /**
- * Class for managing game saving and loading.
+ * Class for managing game saving and loading. Asking the user and showing the result is left to the UI.
  *
  * @author Michal-jr
- * @version 1.0
+ * @version 1.1
  */
 public class GameSaver {
 
@@ -55,23 +50,18 @@ public class GameSaver {
      * Save game to file.
      *
      * @param gameToSaveToFile instance of the game to be saved in file
-     * @since 1.0
+     * @param fileName name of the file without extension
+     * @throws IOException if the file could not be written
+     * @since 1.1
      */
-    public static void saveGame(Game gameToSaveToFile) {
-        DateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss");
-	Date date = new Date();
-        String fileName = UIControls.createInputDialog("save_"+dateFormat.format(date), "Save as", "Please enter the name of the file:");
-        if (fileName != null) {
-            new File("saves").mkdirs();
-            try (
-                ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream("saves/"+fileName+".txt"))
-            ) {
-                oos.writeObject(gameToSaveToFile);
-                UIControls.createAlert(AlertType.INFORMATION, "Success", null, "The game was saved successfully!");
-            } catch (IOException ex) {
-                UIControls.createErrorAlert("An error occured during file saving.");
-                Logger.getLogger(Logger.GLOBAL_LOGGER_NAME).log(Level.SEVERE, "An error occured during file saving.", ex);
-            }
+    public static void saveGame(Game gameToSaveToFile, String fileName) throws IOException {
+        new File("saves").mkdirs();
+        //tiles stored on disk are not in the saved game, write them first
+        gameToSaveToFile.getWorld().saveTiles(new File("saves"), fileName);
+        try (
+            ObjectOutputStream oos = new ObjectOutputStream(new FileOutputStream("saves/"+fileName+".txt"))
+        ) {
+            oos.writeObject(gameToSaveToFile);
         }
     }
     
@@ -80,24 +70,16 @@ public class GameSaver {
      *
      * @param fileName name of the file in which the game is saved
      * @return instance of the loaded game
-     * @since 1.0
+     * @throws IOException if the file could not be read
+     * @throws ClassNotFoundException if the file doesn't contain game object
+     * @since 1.1
      */
-    public static Game loadSavedGame(String fileName) {
-        if (fileName != null) {
-            try (
-                ObjectInputStream ois = new ObjectInputStream(new FileInputStream("saves/"+fileName))
-            ) {
-                Game game = (Game) ois.readObject();
-                return game;
-            } catch (ClassNotFoundException ex) {
-                UIControls.createErrorAlert("Game could not be loaded. Loaded file doesn't contain game object.");
-                Logger.getLogger(Logger.GLOBAL_LOGGER_NAME).log(Level.SEVERE, "Game could not be loaded. Loaded file doesn't contain game object.", ex);
-            } catch (IOException ex) {
-                UIControls.createErrorAlert("An error occured during file loading.");
-                Logger.getLogger(Logger.GLOBAL_LOGGER_NAME).log(Level.SEVERE, "An error occured during file loading.", ex);
-            }
+    public static Game loadSavedGame(String fileName) throws IOException, ClassNotFoundException {
+        try (
+            ObjectInputStream ois = new ObjectInputStream(new FileInputStream("saves/"+fileName))
+        ) {
+            return (Game) ois.readObject();
         }
-        return null;
     }
     
     /**
@@ -109,7 +91,8 @@ public class GameSaver {
         File[] files = new File("saves").listFiles();
         if (files.length > 0) { sortFilesByDateCreated(files); }
         for (File file : files) {
-            if (file.isFile()) {
+            //snapshots of tiles of saved games are next to them
+            if (file.isFile() && file.getName().endsWith(".txt")) {
                 results.add(file.getName());
             }
         }
@@ -153,11 +136,11 @@ public class GameSaver {
     }
     
     /**
-     * @return true if save folder is empty, false otherwise
+     * @return true if there is no saved game in save folder, false otherwise
      * @since 1.0
      */
     public static boolean savesFolderIsEmpty() {
         new File("saves").mkdirs();
-        return new File("saves").listFiles().length == 0;
+        return getSavedGames().isEmpty();
     }
 }
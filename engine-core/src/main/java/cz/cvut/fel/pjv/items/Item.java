@@ -23,19 +23,14 @@
  */
 package cz.cvut.fel.pjv.items;
 
-import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
+import cz.cvut.fel.pjv.Spritesheet;
 import java.io.Serializable;
-import javafx.embed.swing.SwingFXUtils;
-import javafx.scene.image.Image;
-import javax.imageio.ImageIO;
 
 /**
  * Item class. Item lays in the world or is in the player's inventory.
  *
  * @author Michal-jr
- * @version 1.1
+ * @version 1.3
  */
 public abstract class Item implements Serializable {
     private double x, y;
@@ -43,7 +38,8 @@ public abstract class Item implements Serializable {
     private double width = 24;
     private double height = 24;
     private boolean picked;
-    private transient Image IMAGE;
+    private boolean settled = false;
+    private final Spritesheet spritesheet;
     private final double IMAGE_X;
     private final double IMAGE_Y;
     private final double IMAGE_WIDTH = 128;
@@ -55,13 +51,13 @@ public abstract class Item implements Serializable {
      * @param x
      * @param y
      * @param type
-     * @param image spritesheet of items
-     * @since 1.0
+     * @param spritesheet id of the spritesheet with the item
+     * @since 1.3
      */
-    public Item(double x, double y, ItemType type, Image image) {
+    public Item(double x, double y, ItemType type, Spritesheet spritesheet) {
         this.x = x+2;
         this.y = y+2;
-        this.IMAGE = image;
+        this.spritesheet = spritesheet;
         IMAGE_X = type.getSpritesheetX();
         IMAGE_Y = type.getSpritesheetY();
         picked = false;
@@ -182,11 +178,29 @@ public abstract class Item implements Serializable {
     }
 
     /**
-     * @return spritesheet for items
-     * @since 1.0
+     * @return true if item lays on the ground and does not need to be moved, false otherwise
+     * @since 1.2
+     */
+    public boolean isSettled() {
+        return settled;
+    }
+
+    /**
+     * Set if item lays on the ground and does not need to be moved.
+     *
+     * @param settled
+     * @since 1.2
      */
-    public Image getImage() {
-        return IMAGE;
+    public void setSettled(boolean settled) {
+        this.settled = settled;
+    }
+
+    /**
+     * @return id of the spritesheet with the item
+     * @since 1.3
+     */
+    public Spritesheet getSpritesheet() {
+        return spritesheet;
     }
 
     /**
@@ -221,14 +235,4 @@ public abstract class Item implements Serializable {
         return IMAGE_HEIGHT;
     }
     
-    private void readObject(ObjectInputStream s) throws IOException, ClassNotFoundException {
-        s.defaultReadObject();
-        IMAGE = SwingFXUtils.toFXImage(ImageIO.read(s), null);
-    }
-
-    private void writeObject(ObjectOutputStream s) throws IOException {
-        s.defaultWriteObject();
-        ImageIO.write(SwingFXUtils.fromFXImage(IMAGE, null), "png", s);
-    }
-    
 }
@@ -27,54 +27,56 @@ package cz.cvut.fel.pjv.items;
  * Enumeration class representing all types of items that can appear in the game.
  * 
  * @author Michal-jr
- * @version 1.0
+ * @version 1.1
  */
 public enum ItemType {
     
     /**
      * Type of basic pickaxe.
      */
-    PICKAXE(0, 0, 1170),
+    PICKAXE(0, 0, 1170, 1),
      
     /**
      * Type of stored dirt block.
      */
-    DIRT(1, 650, 130),
+    DIRT(1, 650, 130, 0),
     
     /**
      * Type of stored dirt block with grass on top.
      */
-    DIRT_WITH_GRASS(6, 650, 0),
+    DIRT_WITH_GRASS(6, 650, 0, 0),
 
     /**
      * Type of stored stone block.
      */
-    STONE(2, 260, 650),
+    STONE(2, 260, 650, 0),
     
     /**
      * Type of stored stone bricks block.
      */
-    STONE_BRICKS(7, 0, 0),
+    STONE_BRICKS(7, 0, 0, 0),
 
     /**
      * Type of stored diamond ore block.
      */
-    DIAMOND_ORE(4, 260, 0),
+    DIAMOND_ORE(4, 260, 0, 0),
     
     /**
      * Type of golden pickaxe that can destroy stone bricks.
      */
-    GOLDEN_PICKAXE(6, 0, 910);
+    GOLDEN_PICKAXE(6, 0, 910, 2);
 
     private final int id;
     private final double spritesheetX;
     private final double spritesheetY;
+    private final int power;
 
 
-    private ItemType(int id, double spritesheetX, double spritesheetY) {
+    private ItemType(int id, double spritesheetX, double spritesheetY, int power) {
         this.id = id;
         this.spritesheetX = spritesheetX;
         this.spritesheetY = spritesheetY;
+        this.power = power;
     }
 
     /**
@@ -92,5 +94,13 @@ public enum ItemType {
     public double getSpritesheetY() {
         return spritesheetY;
     }
+
+    /**
+     * @return power of the tool compared with the hardness of digged blocks, 0 for items that are not tools
+     * @since 1.1
+     */
+    public int getPower() {
+        return power;
+    }
     
 }
@@ -27,7 +27,6 @@ import cz.cvut.fel.pjv.blocks.Block;
 import cz.cvut.fel.pjv.blocks.BlockType;
 import cz.cvut.fel.pjv.blocks.SolidBlock;
 import java.util.Objects;
-import javafx.scene.image.Image;
 
 /**
  * Class for stored block which can be placed in the world as blocks, extends item class.
@@ -37,7 +36,6 @@ import javafx.scene.image.Image;
  */
 public class StoredBlock extends Item implements Placeable {
     
-    private static final Image IMAGE = new Image( "spritesheet_tiles.png" );
     private int quantity = 1;
     private final BlockType blockType;
 
@@ -50,7 +48,7 @@ public class StoredBlock extends Item implements Placeable {
      * @since 1.0
      */
     public StoredBlock(double x, double y, ItemType type) {
-        super(x, y, type, IMAGE);
+        super(x, y, type, Block.getSpritesheet());
         blockType = BlockType.valueOf(type.name());
     }
     
@@ -23,18 +23,17 @@
  */
 package cz.cvut.fel.pjv.items;
 
+import cz.cvut.fel.pjv.Spritesheet;
 import java.util.Objects;
-import javafx.scene.image.Image;
 
 /**
  * Class for tools, extends item class.
  *
  * @author Michal-jr
- * @version 1.1
+ * @version 1.2
  */
 public class Tool extends Item {
     
-    private static final Image IMAGE = new Image( "spritesheet_items.png" );
     private final ItemType toolType;
 
     /**
@@ -46,7 +45,7 @@ public class Tool extends Item {
      * @since 1.0
      */
     public Tool(double x, double y, ItemType type) {
-        super(x, y, type, IMAGE);
+        super(x, y, type, Spritesheet.ITEMS);
         toolType = type;
     }
 
@@ -66,6 +65,14 @@ public class Tool extends Item {
         return toolType == ItemType.GOLDEN_PICKAXE;
     }
 
+    /**
+     * @return power of the tool compared with the hardness of digged blocks
+     * @since 1.2
+     */
+    public int getPower() {
+        return toolType.getPower();
+    }
+
     @Override
     public int hashCode() {
         int hash = 3;
@@ -34,7 +34,7 @@ import java.util.List;
  * A special vector called "spawner" defines the exact starting position of this enemy.
  * 
  * @author Zdenek
- * @version 1.1
+ * @version 1.2
  */
 public class Cave implements Serializable {
     
@@ -44,7 +44,7 @@ public class Cave implements Serializable {
     private final int x;
     private final int y;
     
-    private final List<List<BlockType>> map;
+    private final WorldMap worldMap;
     
     /**
      * The complete cave is stored as a list of vectors, that represent the cave's area.
@@ -58,13 +58,13 @@ public class Cave implements Serializable {
      * 
      * @param x x coordinate of the cave
      * @param y y coordinate of the cave
-     * @param map the current state of the map is used to decide about specific vectors of the cave
-     * @since 1.0
+     * @param worldMap the current state of the map is used to decide about specific vectors of the cave
+     * @since 1.2
      */
-    public Cave(int x, int y, List<List<BlockType>> map) {
+    public Cave(int x, int y, WorldMap worldMap) {
         this.x = x;
         this.y = y;
-        this.map = map;
+        this.worldMap = worldMap;
         
         generateCaveVectors();
         createSpawner();
@@ -117,17 +117,17 @@ public class Cave implements Serializable {
     private void addEllipseToCave(List<Vector> ellipse) {
         for (Vector vector : ellipse) {
 
-            if ((vector.getY() >= 0) && (vector.getY() < map.get(0).size())) {
+            if ((vector.getY() >= 0) && (vector.getY() < worldMap.getHEIGHT())) {
 
                 if (vector.getX() < 0) {
-                    vector.setX(map.size() + vector.getX());
-                } else if (vector.getX() >= map.size()) {
-                    vector.setX(vector.getX() - map.size());
+                    vector.setX(worldMap.getWIDTH() + vector.getX());
+                } else if (vector.getX() >= worldMap.getWIDTH()) {
+                    vector.setX(vector.getX() - worldMap.getWIDTH());
                 }
 
                 if (!caveVectors.contains(vector)) {
 
-                    if (map.get(vector.getX()).get(vector.getY()) == BlockType.STONE) {
+                    if (worldMap.getBlockType(vector.getX(), vector.getY()) == BlockType.STONE) {
                         caveVectors.add(vector);
                     }
                 }
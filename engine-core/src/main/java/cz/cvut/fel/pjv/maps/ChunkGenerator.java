@@ -0,0 +1,190 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 Zdenek.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package cz.cvut.fel.pjv.maps;
+
+import cz.cvut.fel.pjv.blocks.BlockType;
+import cz.cvut.fel.pjv.blocks.Chunk;
+import java.io.Serializable;
+
+/**
+ * Generator of the map of an infinite world. Any column of the map can be generated independently
+ * of the others, the same seed always gives the same map. The terrain follows the same rules
+ * as the map generated by WorldMap, the skyline and caves are made by value noise.
+ * The noise repeats after the width of the world, so the looping world has no seam.
+ *
+ * @author Zdenek
+ * @version 1.0
+ */
+public class ChunkGenerator implements Serializable {
+    
+    /**
+     * Distance between two random values of the skyline noise in tiles.
+     */
+    public static final int SKYLINE_PERIOD = 4 * Chunk.SIZE;
+    
+    private static final int CAVE_PERIOD = 8;
+    private static final double CAVE_THRESHOLD = 0.8;
+    
+    private final int WIDTH;
+    private final int HEIGHT;
+    private final long SEED;
+    private final double amplitude;
+    private final double flatLandProbability;
+    private final double diamondProbability;
+
+    /**
+     * Create new generator of the map.
+     *
+     * @param WIDTH width of the world in tiles, multiple of {@link #SKYLINE_PERIOD}
+     * @param HEIGHT height of the world in tiles
+     * @param SEED seed of the map
+     * @param mapConfig configuration of the map generation
+     * @since 1.0
+     */
+    public ChunkGenerator(int WIDTH, int HEIGHT, long SEED, MapConfig mapConfig) {
+        this.WIDTH = WIDTH;
+        this.HEIGHT = HEIGHT;
+        this.SEED = SEED;
+        this.amplitude = mapConfig.ampMax * mapConfig.amplitudeCoefficientMultiplicator;
+        this.flatLandProbability = mapConfig.flatLandProbability;
+        this.diamondProbability = mapConfig.diamondProbability;
+    }
+    
+    /**
+     * @param x X coordinate of the column
+     * @return height of the skyline in the column, counted from the bottom of the map
+     * @since 1.0
+     */
+    public int getSkyline(int x) {
+        int cellX = x - x % SKYLINE_PERIOD;
+        double t = (double) (x % SKYLINE_PERIOD) / SKYLINE_PERIOD;
+        double y = interpolate(skylinePoint(cellX), skylinePoint(cellX + SKYLINE_PERIOD), t);
+        //smaller hills on the big ones
+        int smallCellX = x - x % Chunk.SIZE;
+        double smallT = (double) (x % Chunk.SIZE) / Chunk.SIZE;
+        y += interpolate(random(smallCellX, 0, 1), random(smallCellX + Chunk.SIZE, 0, 1), smallT) * amplitude / 4;
+        return Math.max(1, Math.min(HEIGHT - 2, (int) (HEIGHT / 2 + y)));
+    }
+    
+    private double skylinePoint(int cellX) {
+        //flat land has smaller hills
+        double cellAmplitude = random(cellX, 0, 2) * 100 < flatLandProbability ? amplitude / 8 : amplitude;
+        return (random(cellX, 0, 3) * 2 - 1) * cellAmplitude;
+    }
+    
+    /**
+     * @param x X coordinate of the tile
+     * @param y Y coordinate of the tile, counted from the top of the map
+     * @return type of the block on the given tile, null for air
+     * @since 1.0
+     */
+    public BlockType getBlockType(int x, int y) {
+        return getBlockType(x, HEIGHT - 1 - y, getSkyline(x));
+    }
+    
+    private BlockType getBlockType(int x, int j, int skyline) {
+        int waterLevel = HEIGHT / 2 - HEIGHT / 16;
+        if (j == 0) { return BlockType.BEDROCK; }
+        if (j > skyline) { return j <= waterLevel ? BlockType.WATER : null; }
+        //used to define the border between STONE and DIRT
+        int dirtStoneBorder = skyline - getSkylineModifier(x) - 1;
+        if (j >= dirtStoneBorder) {
+            return (j == skyline && skyline >= waterLevel) ? BlockType.DIRT_WITH_GRASS : BlockType.DIRT;
+        }
+        if (j > 1 && isCave(x, j)) { return null; }
+        if (j <= HEIGHT / 8 && random(x, j, 4) * 100 < diamondProbability) { return BlockType.DIAMOND_ORE; }
+        return BlockType.STONE;
+    }
+    
+    private int getSkylineModifier(int x) {
+        int cellX = x - x % 8;
+        double t = (double) (x % 8) / 8;
+        return (int) Math.round(interpolate(random(cellX, 0, 5), random(cellX + 8, 0, 5), t) * 9) - 2;
+    }
+    
+    private boolean isCave(int x, int j) {
+        int cellX = x - x % CAVE_PERIOD;
+        int cellY = j - j % CAVE_PERIOD;
+        double tx = (double) (x % CAVE_PERIOD) / CAVE_PERIOD;
+        double ty = (double) (j % CAVE_PERIOD) / CAVE_PERIOD;
+        double bottom = interpolate(random(cellX, cellY, 6), random(cellX + CAVE_PERIOD, cellY, 6), tx);
+        double top = interpolate(random(cellX, cellY + CAVE_PERIOD, 6), random(cellX + CAVE_PERIOD, cellY + CAVE_PERIOD, 6), tx);
+        return interpolate(bottom, top, ty) > CAVE_THRESHOLD;
+    }
+    
+    /**
+     * Fill the given array with the generated column of chunks.
+     *
+     * @param chunkX X coordinate of the column of chunks
+     * @param ids identifiers of block types, the tile [x, y] has the index y * {@link Chunk#SIZE} + x,
+     * y is counted from the top of the map
+     * @since 1.0
+     */
+    public void generate(int chunkX, short[] ids) {
+        for (int x = 0; x < Chunk.SIZE; x++) {
+            int worldX = chunkX * Chunk.SIZE + x;
+            int skyline = getSkyline(worldX);
+            for (int y = 0; y < HEIGHT; y++) {
+                BlockType type = getBlockType(worldX, HEIGHT - 1 - y, skyline);
+                ids[y*Chunk.SIZE + x] = type == null ? 0 : (short) type.getId();
+            }
+        }
+    }
+    
+    private double interpolate(double a, double b, double t) {
+        //cosine interpolation gives smooth hills
+        double f = (1 - Math.cos(t * Math.PI)) / 2;
+        return a * (1 - f) + b * f;
+    }
+    
+    /**
+     * @return random number from 0 to 1 given by the seed, the tile coordinates and the salt
+     */
+    private double random(int x, int y, int salt) {
+        //the world is looping, so the noise has to loop too
+        x = ((x % WIDTH) + WIDTH) % WIDTH;
+        long h = SEED ^ (x * 0x9E3779B97F4A7C15L) ^ (y * 0xC2B2AE3D27D4EB4FL) ^ (salt * 0x165667B19E3779F9L);
+        h = (h ^ (h >>> 30)) * 0xBF58476D1CE4E5B9L;
+        h = (h ^ (h >>> 27)) * 0x94D049BB133111EBL;
+        h = h ^ (h >>> 31);
+        return (h >>> 11) * 0x1.0p-53;
+    }
+    
+    /**
+     * @return width of the world in tiles
+     * @since 1.0
+     */
+    public int getWIDTH() {
+        return WIDTH;
+    }
+    
+    /**
+     * @return seed of the map
+     * @since 1.0
+     */
+    public long getSeed() {
+        return SEED;
+    }
+    
+}
@@ -0,0 +1,138 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 Zdenek.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package cz.cvut.fel.pjv.maps;
+
+import cz.cvut.fel.pjv.blocks.BlockType;
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Object representation of the JSON configuration file.
+ * 
+ * @author Zdenek
+ * @version 1.10
+ */
+public class MapConfig implements Serializable {
+    
+    public List<List<BlockType>> completeMap;
+    
+    public Map<String, List<List<BlockType>>> structureBlueprints;
+    
+    public int playerStartingX;
+    public int playerStartingY;
+    
+    public int width;
+    public int height;
+    
+    public double amplitudeCoefficientMultiplicator;
+    public double periodCoefficientMultiplicator;
+    
+    public double ampMin;
+    public double ampMax;
+    public double perMin;
+    public double perMax;
+    
+    public double flatLandProbability;
+    public double diamondProbability;
+    public double caveProbability;
+    
+    public String seed;
+    
+    /**
+     * Infinite world mode, the world is generated in chunk columns around the player
+     * and columns far from the player are stored on disk.
+     */
+    public boolean streaming;
+    public int streamingWidth;
+    public int streamingRadius;
+    public int streamingMaxColumns;
+    public String streamingDirectory;
+    
+    /**
+     * Tiles of the world are stored in a memory mapped file instead of the heap.
+     */
+    public boolean mappedTiles;
+    public String mappedTilesDirectory;
+    
+    /**
+     * Distances from the player in tiles up to which NPCs are updated every tick
+     * and once in npcReducedPeriod ticks, farther NPCs are frozen.
+     */
+    public int npcFullRadius;
+    public int npcReducedRadius;
+    public int npcReducedPeriod;
+    
+    /**
+     * Number of threads deciding NPC moves, NPCs are updated on the game thread if it is 1 or less.
+     */
+    public int npcThreads;
+    
+    /**
+     * Number of simulation ticks per second and maximal number of ticks run in one drawn frame.
+     */
+    public int tickRate;
+    public int maxTicksPerFrame;
+    
+    /**
+     * Maximal number of liquid tiles updated at once and number of ticks between updates of liquids.
+     */
+    public int liquidCellsPerUpdate;
+    public int liquidUpdatePeriod;
+    
+    /**
+     * Maximal number of tiles expanded by all path searches in one tick, by one search
+     * and maximal distance in tiles the search goes to.
+     */
+    public int pathNodesPerTick;
+    public int pathNodesPerSearch;
+    public int pathSearchRadius;
+    
+    /**
+     * Maximal distance in tiles from the player covered by the field of steps toward him
+     * and maximal number of tiles expanded by its computation in one tick.
+     */
+    public int flowFieldRadius;
+    public int flowFieldNodesPerTick;
+    
+    /**
+     * Maximal number of chunks added to the graph of long routes in one tick
+     * and maximal number of its nodes expanded by one search of a route.
+     */
+    public int routeClustersPerTick;
+    public int routeNodesPerSearch;
+    
+    /**
+     * Maximal number of scheduled ticks of tiles run in one tick, number of random ticks of every chunk in one tick,
+     * distance in chunks from the player up to which chunks get random ticks and number of ticks between
+     * two checks of a spawner.
+     */
+    public int blockTicksPerTick;
+    public int randomTicksPerChunk;
+    public int randomTickRadius;
+    public int spawnerPeriod;
+
+    public MapConfig() {
+    }
+}
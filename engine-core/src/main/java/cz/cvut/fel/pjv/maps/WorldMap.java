@@ -25,11 +25,13 @@ package cz.cvut.fel.pjv.maps;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import cz.cvut.fel.pjv.blocks.BlockType;
+import cz.cvut.fel.pjv.blocks.TileStorage;
 import cz.cvut.fel.pjv.items.ItemType;
 import java.io.File;
 import java.io.IOException;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -37,9 +39,12 @@ import java.util.Map;
 /**
  * The main output of class WorldMap is a map for a newly created world. 
  * The map defines types of blocks and their position in the world.
+ * The map is stored in flat arrays by columns, the cell [x, y] has the index x * HEIGHT + y.
+ * The map of an infinite world is not stored, its cells are generated on demand by {@link ChunkGenerator}.
+ * After {@link #useTiles(TileStorage)} the map is read from tiles of the world and the arrays are released.
  *
  * @author Zdenek
- * @version 1.2
+ * @version 1.6
  */
 public class WorldMap implements Serializable {
     
@@ -50,14 +55,35 @@ public class WorldMap implements Serializable {
     
     private final long SEED;
 
-    private List<List<Integer>> terrain;
-    private List<List<BlockType>> map;
+    /**
+     * Terrain (set bit) and void (clear bit), y is counted from the bottom of the map.
+     */
+    private BitSet terrain;
+    
+    /**
+     * Identifiers of block types, y is counted from the top of the map, 0 is air.
+     */
+    private byte[] map;
+    
     private Map<List<Integer>, ItemType> itemMap;
     
-    private List<Integer> completeSkyline;
+    /**
+     * Height of the skyline in each column, counted from the bottom of the map.
+     */
+    private int[] completeSkyline;
     private List<Cave> caves;
     private Map<String, Structure> structures;
     
+    /**
+     * Generator of the infinite world, null for the world generated at once.
+     */
+    private ChunkGenerator generator;
+    
+    /**
+     * Tiles of the world used as the map, null while the map is in the arrays.
+     */
+    private TileStorage tiles;
+    
     private final int playerX;
     private final int playerY;
 
@@ -78,7 +104,20 @@ public class WorldMap implements Serializable {
         RNG.setNewSeed();
         SEED = RNG.getSeed();
         
-        if (mapConfig.completeMap.get(0).isEmpty()) {
+        if (mapConfig.streaming) {
+            // Width is rounded up so the generated noise loops with the world.
+            int period = ChunkGenerator.SKYLINE_PERIOD;
+            WIDTH = Math.max(1, (mapConfig.streamingWidth + period - 1) / period) * period;
+            HEIGHT = mapConfig.height;
+            
+            generator = new ChunkGenerator(WIDTH, HEIGHT, SEED, mapConfig);
+            caves = new ArrayList<>();
+            structures = new HashMap<>();
+            itemMap = new HashMap<>();
+            
+            playerX = 0;
+            playerY = HEIGHT - generator.getSkyline(WIDTH / 2) - 2;
+        } else if (mapConfig.completeMap.get(0).isEmpty()) {
             WIDTH = mapConfig.width;
             HEIGHT = mapConfig.height;
             
@@ -89,7 +128,7 @@ public class WorldMap implements Serializable {
             // Spawn in the middle of the map.
             playerX = 0;
             // Spawn on the skyline (in the middle of the map).
-            playerY = HEIGHT - completeSkyline.get(WIDTH / 2) - 2;
+            playerY = HEIGHT - completeSkyline[WIDTH / 2] - 2;
         } else {
             WIDTH = mapConfig.completeMap.get(0).size();
             HEIGHT = mapConfig.completeMap.size();
@@ -125,27 +164,96 @@ public class WorldMap implements Serializable {
     }
 
     /**
-     * @return list of 1 and 0 (1 for any block, 0 for empty space)
-     * @since 1.0
+     * @param x x coordinate of the column
+     * @param y y coordinate counted from the top of the map
+     * @return identifier of the block type, 0 for air
+     * @since 1.3
      */
-    public List<List<Integer>> getTerrain() {
-        return terrain;
+    public int getBlockId(int x, int y) {
+        if (generator != null) {
+            BlockType type = generator.getBlockType(x, y);
+            return type == null ? 0 : type.getId();
+        }
+        if (tiles != null) {
+            BlockType type = tiles.getTile(x, y);
+            return type == null ? 0 : type.getId();
+        }
+        return map[x * HEIGHT + y];
     }
 
     /**
-     * @return list of block types
-     * @since 1.0
+     * @param x x coordinate of the column
+     * @param y y coordinate counted from the top of the map
+     * @return type of the block, null for air
+     * @since 1.3
+     */
+    public BlockType getBlockType(int x, int y) {
+        if (generator != null) { return generator.getBlockType(x, y); }
+        if (tiles != null) { return tiles.getTile(x, y); }
+        return BlockType.fromId(map[x * HEIGHT + y]);
+    }
+
+    private void setBlockType(int x, int y, BlockType type) {
+        if (generator != null) {
+            throw new UnsupportedOperationException("Map of the infinite world can not be changed.");
+        }
+        if (tiles != null) {
+            tiles.setTile(x, y, type);
+            return;
+        }
+        map[x * HEIGHT + y] = (byte) (type == null ? 0 : type.getId());
+    }
+
+    /**
+     * @param x x coordinate of the column
+     * @param y y coordinate counted from the bottom of the map
+     * @return true if there is terrain on the given coordinates, false for empty space
+     * @since 1.3
+     */
+    public boolean isTerrain(int x, int y) {
+        if (generator != null) { return y == 0 || y <= generator.getSkyline(x); }
+        //terrain is everything up to the skyline
+        if (tiles != null) { return y == 0 || y <= completeSkyline[x]; }
+        return terrain.get(x * HEIGHT + y);
+    }
+
+    /**
+     * @param x x coordinate of the column
+     * @return height of the skyline in the given column, counted from the bottom of the map
+     * @since 1.3
      */
-    public List<List<BlockType>> getMap() {
-        return map;
+    public int getSkyline(int x) {
+        if (generator != null) { return generator.getSkyline(x); }
+        return completeSkyline[x];
+    }
+
+    /**
+     * Read the map from the given tiles from now on, arrays of the map are released.
+     * The tiles must contain the map, y of tiles is counted from the top of the map.
+     *
+     * @param tiles tiles of the world
+     * @since 1.5
+     */
+    public void useTiles(TileStorage tiles) {
+        this.tiles = tiles;
+        map = null;
+        terrain = null;
     }
     
     /**
-     * @return list of integers, that specify how high the skyline is
-     * @since 1.0
+     * @return true if the map is generated on demand by columns, false if the whole map was generated at once
+     * @since 1.4
      */
-    public List<Integer> getCompleteSkyline() {
-        return completeSkyline;
+    public boolean isStreaming() {
+        return generator != null;
+    }
+    
+    /**
+     * @return generator of the infinite world, null if the whole map was generated at once
+     * @since 1.4
+     */
+    public ChunkGenerator getGenerator() {
+        return generator;
     }
     
     /**
@@ -197,13 +305,12 @@ public class WorldMap implements Serializable {
     }
     
     private void customMap() {
-        map = new ArrayList<>(WIDTH);
+        map = new byte[WIDTH * HEIGHT];
         
         for (int i = 0; i < WIDTH; i++) {
-            map.add(new ArrayList<BlockType>(HEIGHT));
             
             for (int j = 0; j < HEIGHT; j++) {
-                map.get(i).add(mapConfig.completeMap.get(j).get(i));
+                setBlockType(i, j, mapConfig.completeMap.get(j).get(i));
             }
         }
     }
@@ -215,7 +322,7 @@ public class WorldMap implements Serializable {
     }
     
     /**
-     * Fills the 2D ArrayList terrain with values that represent terrain (1)
+     * Fills the terrain with values that represent terrain (1)
      * and void (0) using a mathematical function.
      * Uses random numbers to calculate the amplitude and period of a sine function.
      * The function is calculated again with new values after each period.
@@ -223,8 +330,8 @@ public class WorldMap implements Serializable {
      * @since 1.0
      */
     private void generateTerrain() {
-        terrain = new ArrayList<>(WIDTH);
-        completeSkyline = new ArrayList<>(WIDTH);
+        terrain = new BitSet(WIDTH * HEIGHT);
+        completeSkyline = new int[WIDTH];
         
         double amplitudeCoefficient = RNG.randomDoubleInRange(mapConfig.ampMin, mapConfig.ampMax) * mapConfig.amplitudeCoefficientMultiplicator;
         double periodCoefficient = 1 / (RNG.randomDoubleInRange(mapConfig.perMin, mapConfig.perMax) * mapConfig.periodCoefficientMultiplicator);
@@ -235,10 +342,8 @@ public class WorldMap implements Serializable {
         int counter = 1;
 
         for (int i = 0; i < WIDTH; i++) {
-            terrain.add(new ArrayList<Integer>(HEIGHT));
-            
             double skyline = calculateSkyline((double) i, amplitudeCoefficient, periodCoefficient, previousY);
-            completeSkyline.add((int) skyline);
+            completeSkyline[i] = (int) skyline;
             
             if ((int)period == counter) {
                 
@@ -259,12 +364,8 @@ public class WorldMap implements Serializable {
 
             for (int j = 0; j < HEIGHT; j++) {
                 
-                if (j == 0) {
-                    terrain.get(i).add(1);
-                } else if (j <= skyline) {
-                    terrain.get(i).add(1);
-                } else {
-                    terrain.get(i).add(0);
+                if ((j == 0) || (j <= skyline)) {
+                    terrain.set(i * HEIGHT + j);
                 }
             }
             
@@ -273,7 +374,7 @@ public class WorldMap implements Serializable {
     }
     
     /**
-     * Fills the 2D ArrayList map with values that represent the actual block, 
+     * Fills the map with values that represent the actual block, 
      * that will be generated in the World.
      * Uses random numbers and probability to decide the specific blocks that 
      * make up the terrain.
@@ -281,7 +382,7 @@ public class WorldMap implements Serializable {
      * @since 1.1
      */
     private void generateMap() {
-        map = new ArrayList<>(WIDTH);
+        map = new byte[WIDTH * HEIGHT];
         
         //Used to define the border between STONE and DIRT.
         int skylineModifier = 0;
@@ -289,8 +390,6 @@ public class WorldMap implements Serializable {
         int dirtStoneBorder;
         
         for (int i = 0; i < WIDTH; i++) {
-            map.add(new ArrayList<BlockType>(HEIGHT));
-            
             boolean isUnderWater = false;
             
             if (skylineModifier < - 2) {
@@ -301,37 +400,38 @@ public class WorldMap implements Serializable {
                 skylineModifier += RNG.randomIntInRange(-1, 1);
             }
             
-            dirtStoneBorder = completeSkyline.get(i) - skylineModifier - 1;
+            dirtStoneBorder = completeSkyline[i] - skylineModifier - 1;
             
             for (int j = HEIGHT - 1; j >= 0; j--) {
+                // The map is counted from the top, the terrain from the bottom.
+                int mapY = HEIGHT - 1 - j;
                 
-                if (terrain.get(i).get(j) == 1) {
+                if (isTerrain(i, j)) {
                     
                     if (j == 0) {
                         // Bedrock
-                        map.get(i).add(BlockType.BEDROCK);
+                        setBlockType(i, mapY, BlockType.BEDROCK);
                     } else if (j >= dirtStoneBorder) {
-                        if ((j == completeSkyline.get(i)) && (!isUnderWater)) {
+                        if ((j == completeSkyline[i]) && (!isUnderWater)) {
                             // Grass
-                            map.get(i).add(BlockType.DIRT_WITH_GRASS);
+                            setBlockType(i, mapY, BlockType.DIRT_WITH_GRASS);
                         } else {
                             // Dirt
-                            map.get(i).add(BlockType.DIRT);
+                            setBlockType(i, mapY, BlockType.DIRT);
                         }
                     } else if ((j <= HEIGHT / 8) && RNG.calculateProbability(mapConfig.diamondProbability)) {
                         // Diamond
-                        map.get(i).add(BlockType.DIAMOND_ORE);
+                        setBlockType(i, mapY, BlockType.DIAMOND_ORE);
                     } else {
                         // Stone
-                        map.get(i).add(BlockType.STONE);
+                        setBlockType(i, mapY, BlockType.STONE);
                     }
                 } else if (j <= HEIGHT / 2 - HEIGHT / 16) {
                     // Water
-                    map.get(i).add(BlockType.WATER);
+                    setBlockType(i, mapY, BlockType.WATER);
                     isUnderWater = true;
                 } else {
-                    // Nothing/air
-                    map.get(i).add(null);
+                    // Nothing/air, the map is already filled with air
                 }
             }
         }
@@ -352,12 +452,12 @@ public class WorldMap implements Serializable {
             
             for (int j = HEIGHT - 1; j >= 1; j--) {
                 
-                if ((map.get(i).get(j) == BlockType.STONE) && RNG.calculateProbability(mapConfig.caveProbability)) {
-                    caves.add(new Cave(i, j, map));
+                if ((getBlockType(i, j) == BlockType.STONE) && RNG.calculateProbability(mapConfig.caveProbability)) {
+                    caves.add(new Cave(i, j, this));
                     
                     // Insert the cave into the map
                     for (Vector vector : caves.get(caves.size() - 1).getCaveVectors()) {
-                        map.get(vector.getX()).set(vector.getY(), null);
+                        setBlockType(vector.getX(), vector.getY(), null);
                     }
                 }
             }
@@ -386,9 +486,9 @@ public class WorldMap implements Serializable {
             for (Vector vector : structures.get(structureName).getStructureVectors()) {
 
                 if ((vector.getBlockType() == BlockType.AIR) || (vector.getBlockType() == BlockType.SPAWNER)) {
-                    map.get(vector.getX()).set(vector.getY(), null);
+                    setBlockType(vector.getX(), vector.getY(), null);
                 } else {
-                    map.get(vector.getX()).set(vector.getY(), vector.getBlockType());
+                    setBlockType(vector.getX(), vector.getY(), vector.getBlockType());
                 }
             }
         }
@@ -407,7 +507,7 @@ public class WorldMap implements Serializable {
             
             for (int j = HEIGHT - 1; j >= 0; j--) {
                 
-                if (map.get(i).get(j) == null) {
+                if (getBlockType(i, j) == null) {
                     int itemY = j;
                     
                     List<Integer> coords = new ArrayList<>(2);
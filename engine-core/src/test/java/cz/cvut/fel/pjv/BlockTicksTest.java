@@ -0,0 +1,213 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 Zdenek.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package cz.cvut.fel.pjv;
+
+import cz.cvut.fel.pjv.blocks.BlockType;
+import cz.cvut.fel.pjv.creatures.CreatureType;
+import cz.cvut.fel.pjv.creatures.NPC;
+import java.io.IOException;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * BlockTicks unit tests.
+ *
+ * @author Zdenek
+ * @version 1.2
+ */
+public class BlockTicksTest {
+    
+    private World world;
+    private int ground;
+    
+    /**
+     * Create an empty world with a flat floor of grass in the middle.
+     *
+     * @throws IOException
+     */
+    @Before
+    public void setUp() throws IOException {
+        world = new World();
+        world.getTiles().clear();
+        ground = world.getWorldMap().getHEIGHT()/2;
+        for (int x = 0; x < 20; x++) {
+            world.setTile(x, ground, BlockType.DIRT_WITH_GRASS);
+        }
+    }
+
+    /**
+     * Test of schedule method, of class BlockTicks.
+     * Ticks run in their tick, at most the given number of them in one tick.
+     */
+    @Test
+    public void testSchedule() {
+        BlockTicks blockTicks = new BlockTicks(world, 2, 0, 0, 1800, 0);
+        //longer than one round of the wheel
+        int delay = BlockTicks.WHEEL_SIZE + 10;
+        for (int x = 0; x < 5; x++) {
+            assertTrue(blockTicks.schedule(x, ground, delay));
+            world.setTile(x, ground-1, BlockType.STONE);
+        }
+        //the earlier tick is kept
+        assertFalse(blockTicks.schedule(0, ground, delay + 5));
+        assertEquals(5, blockTicks.getScheduledCount());
+        for (int tick = 1; tick < delay; tick++) {
+            blockTicks.tick(0);
+            assertEquals(0, blockTicks.getRunCount());
+        }
+        blockTicks.tick(0);
+        assertEquals(2, blockTicks.getRunCount());
+        blockTicks.tick(0);
+        assertEquals(2, blockTicks.getRunCount());
+        blockTicks.tick(0);
+        assertEquals(1, blockTicks.getRunCount());
+        assertEquals(0, blockTicks.getScheduledCount());
+        //covered grass turned to dirt
+        for (int x = 0; x < 5; x++) {
+            assertEquals(BlockType.DIRT, world.getTile(x, ground));
+        }
+        assertEquals(BlockType.DIRT_WITH_GRASS, world.getTile(5, ground));
+    }
+    
+    /**
+     * Test of cancel method, of class BlockTicks.
+     * Grass is covered and uncovered before its tick, it stays grass.
+     */
+    @Test
+    public void testCancel() {
+        BlockTicks blockTicks = world.getBlockTicks();
+        world.setTile(3, ground-1, BlockType.STONE);
+        world.setTile(4, ground-1, BlockType.STONE);
+        assertTrue(blockTicks.isScheduled(3, ground));
+        assertTrue(blockTicks.isScheduled(4, ground));
+        world.setTile(3, ground-1, null);
+        assertFalse(blockTicks.isScheduled(3, ground));
+        assertFalse(blockTicks.cancel(3, ground));
+        for (int tick = 0; tick < BlockTicks.GRASS_DECAY_TICKS; tick++) {
+            blockTicks.tick(0);
+        }
+        assertEquals(BlockType.DIRT_WITH_GRASS, world.getTile(3, ground));
+        assertEquals(BlockType.DIRT, world.getTile(4, ground));
+    }
+    
+    /**
+     * Test of tick method, of class BlockTicks.
+     * Random ticks spread grass onto dirt with air above it.
+     */
+    @Test
+    public void testTick() {
+        BlockTicks blockTicks = new BlockTicks(world, 256, 64, 1, 1800, 0);
+        for (int x = 20; x < 30; x++) {
+            world.setTile(x, ground, BlockType.DIRT);
+        }
+        world.setTile(29, ground-1, BlockType.STONE);
+        for (int tick = 0; tick < 1000 && world.getTile(28, ground) != BlockType.DIRT_WITH_GRASS; tick++) {
+            blockTicks.tick(0);
+            assertTrue(blockTicks.getRandomCount() > 0);
+        }
+        assertEquals(BlockType.DIRT_WITH_GRASS, world.getTile(28, ground));
+        //covered dirt stays dirt
+        for (int tick = 0; tick < 1000; tick++) {
+            blockTicks.tick(0);
+        }
+        assertEquals(BlockType.DIRT, world.getTile(29, ground));
+    }
+    
+    /**
+     * Test of tick method, of class BlockTicks.
+     * Covered grass found by a random tick decays after the same delay as grass covered while it was watched.
+     */
+    @Test
+    public void testTick2() {
+        BlockTicks blockTicks = new BlockTicks(world, 256, 64, 1, 1800, 0);
+        //the change is not seen by this instance, like a change in a column that was not loaded
+        world.setTile(25, ground, BlockType.DIRT_WITH_GRASS);
+        world.setTile(25, ground-1, BlockType.STONE);
+        for (int tick = 0; tick < 1000 && !blockTicks.isScheduled(25, ground); tick++) {
+            blockTicks.tick(0);
+        }
+        assertTrue(blockTicks.isScheduled(25, ground));
+        assertEquals(BlockType.DIRT_WITH_GRASS, world.getTile(25, ground));
+        for (int tick = 0; tick < BlockTicks.GRASS_DECAY_TICKS; tick++) {
+            blockTicks.tick(0);
+        }
+        assertEquals(BlockType.DIRT, world.getTile(25, ground));
+    }
+    
+    /**
+     * Test of addSpawner method, of class BlockTicks.
+     * Spawner brings its NPC back after it was killed, but not in front of the player.
+     */
+    @Test
+    public void testAddSpawner() {
+        BlockTicks blockTicks = new BlockTicks(world, 256, 0, 0, 10, 0);
+        int count = world.getNpcCount();
+        blockTicks.addSpawner(100, ground, CreatureType.SKELETON, null);
+        for (int tick = 0; tick < 10; tick++) {
+            blockTicks.tick(0);
+        }
+        assertEquals(1, blockTicks.getSpawnedCount());
+        assertEquals(count + 1, world.getNpcCount());
+        NPC npc = world.getNpcs().get(count);
+        assertEquals(CreatureType.SKELETON, npc.getType());
+        assertEquals(world.getTilePixelY(ground-1), npc.getY(), 0);
+        //the NPC is alive
+        for (int tick = 0; tick < 10; tick++) {
+            blockTicks.tick(0);
+        }
+        assertEquals(1, blockTicks.getSpawnedCount());
+        npc.die();
+        //the player is too close
+        for (int tick = 0; tick < 10; tick++) {
+            blockTicks.tick(90);
+        }
+        assertEquals(1, blockTicks.getSpawnedCount());
+        for (int tick = 0; tick < 10; tick++) {
+            blockTicks.tick(0);
+        }
+        assertEquals(2, blockTicks.getSpawnedCount());
+    }
+    
+    /**
+     * Test of addSpawner method, of class BlockTicks.
+     * Cancelled tick of the grass on the tile of a spawner does not stop the spawner.
+     */
+    @Test
+    public void testAddSpawner2() {
+        BlockTicks blockTicks = new BlockTicks(world, 256, 0, 0, 10, 0);
+        world.setTile(100, ground, BlockType.DIRT_WITH_GRASS);
+        blockTicks.addSpawner(100, ground, CreatureType.SKELETON, null);
+        blockTicks.tileChanged(100, ground-1, BlockType.STONE);
+        assertTrue(blockTicks.isScheduled(100, ground));
+        //the tile above the grass is cleared
+        blockTicks.tileChanged(100, ground-1, null);
+        assertFalse(blockTicks.isScheduled(100, ground));
+        for (int tick = 0; tick < 10; tick++) {
+            blockTicks.tick(0);
+        }
+        assertEquals(1, blockTicks.getSpawnedCount());
+    }
+    
+}
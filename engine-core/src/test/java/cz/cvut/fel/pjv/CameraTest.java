@@ -0,0 +1,110 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 Michal-jr.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package cz.cvut.fel.pjv;
+
+import cz.cvut.fel.pjv.blocks.Block;
+import cz.cvut.fel.pjv.creatures.Player;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Camera unit tests.
+ *
+ * @author Michal-jr
+ * @version 1.0
+ */
+public class CameraTest {
+    
+    private static final double WIDTH = 800;
+    private static final double HEIGHT = 600;
+    private static final int MAP_WIDTH = 64;
+    
+    /**
+     * Test of centerOn method, of class Camera.
+     */
+    @Test
+    public void testCenterOn() {
+        Player player = new Player(100, 200);
+        Camera instance = new Camera(WIDTH, HEIGHT, MAP_WIDTH);
+        instance.centerOn(player);
+        assertEquals(WIDTH/2, instance.toScreenX(player.getX()), 0.0);
+        assertEquals(HEIGHT/2, instance.toScreenY(player.getY()), 0.0);
+    }
+
+    /**
+     * Test of toScreenX method, of class Camera.
+     */
+    @Test
+    public void testToScreenX() {
+        Player player = new Player(0, 0);
+        Camera instance = new Camera(WIDTH, HEIGHT, MAP_WIDTH);
+        instance.centerOn(player);
+        //the world is looping, the same position in the next loop of the world is drawn at the same place
+        double x = 3*Block.block_width;
+        double expResult = instance.toScreenX(x);
+        assertEquals(expResult, instance.toScreenX(x + MAP_WIDTH*Block.block_width), 0.0);
+        assertEquals(expResult, instance.toScreenX(x - MAP_WIDTH*Block.block_width), 0.0);
+    }
+
+    /**
+     * Test of toWorldX and toWorldY methods, of class Camera.
+     */
+    @Test
+    public void testToWorld() {
+        Player player = new Player(50, 70);
+        Camera instance = new Camera(WIDTH, HEIGHT, MAP_WIDTH);
+        instance.centerOn(player);
+        assertEquals(player.getX(), instance.toWorldX(instance.toScreenX(player.getX())), 0.0);
+        assertEquals(player.getY(), instance.toWorldY(instance.toScreenY(player.getY())), 0.0);
+    }
+
+    /**
+     * Test of follow method, of class Camera.
+     */
+    @Test
+    public void testFollow() {
+        Player player = new Player(0, 0);
+        Camera instance = new Camera(WIDTH, HEIGHT, MAP_WIDTH);
+        instance.centerOn(player);
+        player.setX(player.getX() + WIDTH);
+        instance.follow(player);
+        assertEquals(WIDTH - 90 - player.getWidth(), instance.toScreenX(player.getX()), 0.0);
+        assertEquals(HEIGHT/2, instance.toScreenY(player.getY()), 0.0);
+    }
+
+    /**
+     * Test of setScale method, of class Camera.
+     */
+    @Test
+    public void testSetScale() {
+        Player player = new Player(0, 0);
+        Camera instance = new Camera(WIDTH, HEIGHT, MAP_WIDTH);
+        instance.setScale(2);
+        instance.centerOn(player);
+        //the view is scaled, the world coordinates stay the same
+        assertEquals(WIDTH/2 + 2*Block.block_width, instance.toScreenX(player.getX() + Block.block_width), 0.0);
+        assertEquals(player.getX() + Block.block_width, instance.toWorldX(WIDTH/2 + 2*Block.block_width), 0.0);
+    }
+    
+}
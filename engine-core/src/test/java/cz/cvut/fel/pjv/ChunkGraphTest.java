@@ -0,0 +1,151 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 Zdenek.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package cz.cvut.fel.pjv;
+
+import cz.cvut.fel.pjv.blocks.BlockType;
+import java.io.IOException;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * ChunkGraph unit tests.
+ *
+ * @author Zdenek
+ * @version 1.0
+ */
+public class ChunkGraphTest {
+    
+    private World world;
+    private int ground;
+    private int width;
+    
+    /**
+     * Create an empty world with a flat floor around the whole world and a few low walls on it.
+     *
+     * @throws IOException
+     */
+    @Before
+    public void setUp() throws IOException {
+        world = new World();
+        world.getTiles().clear();
+        width = world.getWIDTH();
+        //the floor crosses the border of chunk rows
+        ground = world.getWorldMap().getHEIGHT()/2 + 1;
+        for (int x = 0; x < width; x++) {
+            world.setTile(x, ground, BlockType.DIRT);
+        }
+        world.setTile(40, ground-1, BlockType.DIRT);
+        world.setTile(64, ground-1, BlockType.DIRT);
+        world.getChunkGraph().startTick();
+        world.getPathfinder().startTick();
+    }
+    
+    //clusters on the way are built over several ticks
+    private boolean findRoute(ChunkGraph graph, int startX, int startY, int goalX, int goalY, Path route) {
+        for (int tick = 0; tick < 200; tick++) {
+            if (graph.findRoute(startX, startY, goalX, goalY, route)) { return true; }
+            graph.startTick();
+        }
+        return false;
+    }
+    
+    /**
+     * Test of findRoute method, of class ChunkGraph.
+     * Waypoints of the route are connected by paths of the pathfinder.
+     */
+    @Test
+    public void testFindRoute() {
+        ChunkGraph graph = world.getChunkGraph();
+        Path route = new Path();
+        assertTrue(findRoute(graph, 2, ground-1, 150, ground-1, route));
+        assertTrue(route.isComplete());
+        assertEquals(2, route.getTileX(0));
+        assertEquals(150, route.getTileX(route.getSize()-1));
+        assertEquals(ground-1, route.getTileY(route.getSize()-1));
+        Pathfinder pathfinder = world.getPathfinder();
+        Path path = new Path();
+        for (int i = 1; i < route.getSize(); i++) {
+            assertTrue(route.getTileX(i) > route.getTileX(i-1));
+            pathfinder.startTick();
+            pathfinder.findPath(route.getTileX(i-1), route.getTileY(i-1), route.getTileX(i), route.getTileY(i), 2, path);
+            assertTrue(path.isComplete());
+        }
+    }
+    
+    /**
+     * Test of findRoute method, of class ChunkGraph.
+     * The route goes over the edge of the looping world.
+     */
+    @Test
+    public void testFindRoute2() {
+        ChunkGraph graph = world.getChunkGraph();
+        Path route = new Path();
+        assertTrue(findRoute(graph, width-10, ground-1, 20, ground-1, route));
+        assertTrue(route.isComplete());
+        assertEquals(width+20, route.getTileX(route.getSize()-1));
+    }
+    
+    /**
+     * Test of findRoute method, of class ChunkGraph.
+     * Only a limited number of clusters is built in one tick.
+     */
+    @Test
+    public void testFindRoute3() {
+        ChunkGraph graph = new ChunkGraph(world, 2, 2, 2000);
+        Path route = new Path();
+        assertFalse(graph.findRoute(2, ground-1, 150, ground-1, route));
+        assertEquals(2, graph.getBuiltCount());
+        for (int tick = 0; tick < 10 && !graph.findRoute(2, ground-1, 150, ground-1, route); tick++) {
+            graph.startTick();
+        }
+        assertTrue(route.isComplete());
+    }
+    
+    /**
+     * Test of tileChanged method, of class ChunkGraph.
+     * Only clusters around the changed tile are built again.
+     */
+    @Test
+    public void testTileChanged() {
+        ChunkGraph graph = world.getChunkGraph();
+        Path route = new Path();
+        assertTrue(findRoute(graph, 2, ground-1, 150, ground-1, route));
+        int clusters = graph.getClusterCount();
+        //the walls are too high to jump over, the world is looping so there are two of them
+        for (int y = ground-3; y < ground; y++) {
+            world.setTile(100, y, BlockType.DIRT);
+            world.setTile(500, y, BlockType.DIRT);
+        }
+        assertTrue(graph.getClusterCount() < clusters);
+        assertTrue(graph.getClusterCount() >= clusters - 8);
+        //the search goes around the whole world before it gives up, the route leads to the wall
+        assertTrue(findRoute(graph, 2, ground-1, 150, ground-1, route));
+        assertFalse(route.isComplete());
+        assertEquals(99, route.getTileX(route.getSize()-1));
+        assertTrue(findRoute(graph, 2, ground-1, 90, ground-1, route));
+        assertTrue(route.isComplete());
+    }
+    
+}
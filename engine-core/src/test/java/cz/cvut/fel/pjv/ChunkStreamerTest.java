@@ -0,0 +1,230 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 Zdenek.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package cz.cvut.fel.pjv;
+
+import cz.cvut.fel.pjv.blocks.BlockType;
+import cz.cvut.fel.pjv.blocks.Chunk;
+import cz.cvut.fel.pjv.blocks.StreamingTileStore;
+import cz.cvut.fel.pjv.fileio.ChunkStorage;
+import cz.cvut.fel.pjv.maps.ChunkGenerator;
+import cz.cvut.fel.pjv.maps.MapConfig;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * ChunkStreamer unit tests.
+ *
+ * @author Zdenek
+ * @version 1.2
+ */
+public class ChunkStreamerTest {
+    
+    private static final int WIDTH = 4 * ChunkGenerator.SKYLINE_PERIOD;
+    private static final int HEIGHT = 128;
+    private static final long SEED = 7451260251423394044L;
+    
+    private File directory;
+    private File saves;
+    private StreamingTileStore tiles;
+    private ChunkGenerator generator;
+    private ChunkStreamer streamer;
+    
+    /**
+     * Create a streamer holding at most 8 columns of chunks, saving to a temporary directory.
+     *
+     * @throws java.io.IOException
+     */
+    @Before
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("chunks").toFile();
+        saves = Files.createTempDirectory("saves").toFile();
+        tiles = new StreamingTileStore(WIDTH, HEIGHT, 8);
+        generator = new ChunkGenerator(WIDTH, HEIGHT, SEED, createMapConfig());
+        streamer = new ChunkStreamer(tiles, generator, directory, 2);
+    }
+    
+    /**
+     * Delete saved chunks.
+     */
+    @After
+    public void tearDown() {
+        ChunkStorage.deleteDirectory(directory);
+        for (File file : saves.listFiles()) {
+            ChunkStorage.deleteDirectory(file);
+        }
+        saves.delete();
+    }
+    
+    private MapConfig createMapConfig() {
+        MapConfig mapConfig = new MapConfig();
+        mapConfig.ampMax = 1.5;
+        mapConfig.amplitudeCoefficientMultiplicator = 8;
+        mapConfig.flatLandProbability = 10;
+        mapConfig.diamondProbability = 1;
+        return mapConfig;
+    }
+
+    /**
+     * Test of update method, of class ChunkStreamer.
+     * Columns in the radius are generated, other columns are not loaded.
+     */
+    @Test
+    public void testUpdate() {
+        int result = streamer.update(5 * Chunk.SIZE);
+        assertEquals(5, result);
+        assertEquals(5, tiles.getLoadedColumnCount());
+        assertEquals(5, streamer.getGeneratedColumnCount());
+        for (int chunkX = 3; chunkX <= 7; chunkX++) {
+            assertTrue(tiles.isLoaded(chunkX * Chunk.SIZE));
+        }
+        assertFalse(tiles.isLoaded(2 * Chunk.SIZE));
+        assertFalse(tiles.isLoaded(8 * Chunk.SIZE));
+        int x = 5 * Chunk.SIZE + 3;
+        assertEquals(generator.getBlockType(x, HEIGHT - 1), tiles.getTile(x, HEIGHT - 1));
+        assertEquals(HEIGHT - 1 - generator.getSkyline(x), tiles.getTopY(x));
+    }
+
+    /**
+     * Test of update method, of class ChunkStreamer.
+     * Changed column is saved when it leaves the radius and loaded from disk when it comes back.
+     */
+    @Test
+    public void testUpdate2() {
+        streamer.update(5 * Chunk.SIZE);
+        int x = 4 * Chunk.SIZE + 1;
+        tiles.setTile(x, 0, BlockType.STONE_BRICKS);
+        streamer.update(10 * Chunk.SIZE);
+        assertFalse(tiles.isLoaded(x));
+        assertTrue(ChunkStorage.getChunkFile(directory, 4).isFile());
+        assertEquals(1, streamer.getWrittenColumnCount());
+        streamer.update(5 * Chunk.SIZE);
+        assertEquals(1, streamer.getReadColumnCount());
+        assertEquals(BlockType.STONE_BRICKS, tiles.getTile(x, 0));
+        assertFalse(tiles.isModified(4));
+    }
+
+    /**
+     * Test of update method, of class ChunkStreamer.
+     * Changed column that could not be saved stays loaded and it is saved on the next update.
+     *
+     * @throws java.io.IOException
+     */
+    @Test
+    public void testUpdate4() throws IOException {
+        streamer.update(5 * Chunk.SIZE);
+        int x = 4 * Chunk.SIZE + 1;
+        tiles.setTile(x, 0, BlockType.STONE_BRICKS);
+        //the working directory can not be written
+        directory.delete();
+        assertTrue(directory.createNewFile());
+        streamer.update(10 * Chunk.SIZE);
+        assertTrue(tiles.isLoaded(x));
+        assertTrue(tiles.isModified(4));
+        assertEquals(0, streamer.getWrittenColumnCount());
+        directory.delete();
+        assertTrue(directory.mkdir());
+        streamer.update(10 * Chunk.SIZE);
+        assertFalse(tiles.isLoaded(x));
+        assertTrue(ChunkStorage.getChunkFile(directory, 4).isFile());
+        assertEquals(1, streamer.getWrittenColumnCount());
+        assertTrue(tiles.isLoaded(10 * Chunk.SIZE));
+    }
+
+    /**
+     * Test of save method, of class ChunkStreamer.
+     * The loaded game reads the snapshot of the save, changes made after the save do not get into it.
+     *
+     * @throws java.lang.Exception
+     */
+    @Test
+    public void testSave() throws Exception {
+        streamer.update(5 * Chunk.SIZE);
+        int x = 4 * Chunk.SIZE + 1;
+        tiles.setTile(x, 0, BlockType.STONE_BRICKS);
+        File snapshot = new File(saves, "save.chunks");
+        streamer.save(snapshot);
+        assertEquals(snapshot, streamer.getSavedDirectory());
+        assertTrue(ChunkStorage.getChunkFile(snapshot, 4).isFile());
+        assertFalse(ChunkStorage.getChunkFile(directory, 4).isFile());
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(bytes)) {
+            oos.writeObject(streamer);
+        }
+        //the game goes on without saving
+        tiles.setTile(x, 0, BlockType.DIRT);
+        streamer.update(10 * Chunk.SIZE);
+        assertTrue(ChunkStorage.getChunkFile(directory, 4).isFile());
+        ChunkStreamer result;
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            result = (ChunkStreamer) ois.readObject();
+        }
+        try {
+            assertNotEquals(directory, result.getDirectory());
+            //the column is read again from disk
+            result.update(10 * Chunk.SIZE);
+            result.update(5 * Chunk.SIZE);
+            assertEquals(BlockType.STONE_BRICKS, result.getTiles().getTile(x, 0));
+        } finally {
+            result.close();
+        }
+        assertFalse(result.getDirectory().exists());
+        assertTrue(snapshot.isDirectory());
+    }
+
+    /**
+     * Test of update method, of class ChunkStreamer.
+     * The world is looping, columns on the other side of the edge are loaded.
+     */
+    @Test
+    public void testUpdate3() {
+        streamer.update(0);
+        assertTrue(tiles.isLoaded(WIDTH - 1));
+        assertTrue(tiles.isLoaded(WIDTH - 2 * Chunk.SIZE));
+        assertFalse(tiles.isLoaded(WIDTH - 3 * Chunk.SIZE));
+    }
+
+    /**
+     * Test of generate method, of class ChunkGenerator.
+     * The same seed gives the same column.
+     */
+    @Test
+    public void testGenerate() {
+        short[] expResult = new short[Chunk.SIZE * HEIGHT];
+        short[] result = new short[Chunk.SIZE * HEIGHT];
+        generator.generate(3, expResult);
+        new ChunkGenerator(WIDTH, HEIGHT, SEED, createMapConfig()).generate(3, result);
+        assertArrayEquals(expResult, result);
+        assertEquals(BlockType.BEDROCK.getId(), result[(HEIGHT - 1) * Chunk.SIZE]);
+    }
+    
+}
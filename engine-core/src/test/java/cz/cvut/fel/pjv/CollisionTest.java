@@ -27,6 +27,7 @@ import cz.cvut.fel.pjv.blocks.Block;
 import cz.cvut.fel.pjv.blocks.BlockType;
 import cz.cvut.fel.pjv.blocks.LiquidBlock;
 import cz.cvut.fel.pjv.blocks.SolidBlock;
+import cz.cvut.fel.pjv.blocks.TileQuery;
 import cz.cvut.fel.pjv.creatures.Creature;
 import cz.cvut.fel.pjv.creatures.CreatureType;
 import cz.cvut.fel.pjv.creatures.Enemy;
@@ -35,9 +36,6 @@ import cz.cvut.fel.pjv.items.Item;
 import cz.cvut.fel.pjv.items.ItemType;
 import cz.cvut.fel.pjv.items.StoredBlock;
 import java.io.IOException;
-import static java.lang.Thread.sleep;
-import javafx.application.Application;
-import javafx.application.Platform;
 import org.junit.AfterClass;
 import org.junit.Test;
 import static org.junit.Assert.*;
@@ -47,53 +45,40 @@ import org.junit.BeforeClass;
  * Collision unit tests.
  *
  * @author Michal-jr
- * @version 1.0
+ * @version 1.1
  */
 public class CollisionTest {
     
-    private static Thread javaFXBGThread;
     private static World testWorld;
+    private static double ground;
     
     /**
-     * Start test JavaFX application needed for internal graphics initialization.
      * Create the world instance that will be used in tests.
      *
      * @throws IOException
-     * @throws java.lang.InterruptedException
      */
     @BeforeClass
-    public static void setUpClass() throws IOException, InterruptedException {
-        javaFXBGThread = new Thread() {
-            @Override
-            public void run() {
-                try {
-                    Application.launch(testJavaFXApp.class, new String[1]);
-                } catch (IllegalStateException e) {}
-            }
-        };
-        javaFXBGThread.start();
-        sleep(1000); //wait 1 second for JavaFX Toolkit to properly initialize
-
+    public static void setUpClass() throws IOException {
         testWorld = new World();
-        testWorld.getBlocks().removeAll(testWorld.getBlocks());
+        testWorld.getTiles().clear();
+        //build the test blocks in the middle of the world, so the blocks above the ground fit into the world
+        ground = testWorld.getTilePixelY(testWorld.getWorldMap().getHEIGHT()/2);
         testWorld.getItems().removeAll(testWorld.getItems());
         testWorld.getNpcs().removeAll(testWorld.getNpcs());
         for (int i = 0; i < 10; i++) {
-            testWorld.getBlocks().add(new SolidBlock(i*Block.block_width, 0, BlockType.DIRT));
+            testWorld.placeBlock(new SolidBlock(i*Block.block_width, ground, BlockType.DIRT));
         }
-        testWorld.getBlocks().add(new SolidBlock(9*Block.block_width, -Block.block_height, BlockType.DIRT));
-        testWorld.getBlocks().add(new LiquidBlock(0*Block.block_width, -Block.block_height, BlockType.WATER));
-        testWorld.getItems().add(new StoredBlock(0, 0, ItemType.DIRT));
+        testWorld.placeBlock(new SolidBlock(9*Block.block_width, ground-Block.block_height, BlockType.DIRT));
+        testWorld.placeBlock(new LiquidBlock(0*Block.block_width, ground-Block.block_height, BlockType.WATER));
+        testWorld.getItems().add(new StoredBlock(0, ground, ItemType.DIRT));
     }
     
     /**
-     * Delete the world instance and shut down the JavaFX application.
+     * Delete the world instance.
      */
     @AfterClass
     public static void tearDownClass() {
         testWorld = null;
-        Platform.exit();
-        javaFXBGThread = null;
     }
 
     /**
@@ -101,10 +86,10 @@ public class CollisionTest {
      */
     @Test
     public void testPreventCollision() {
-        Creature creature = new Player(0, Block.block_height-1);
+        Creature creature = new Player(0, ground+Block.block_height-1);
         World world = testWorld;
         Collision.preventCollision(creature, world);
-        assertEquals(creature.getY(), Block.block_height, 0.0);
+        assertEquals(creature.getY(), ground+Block.block_height, 0.0);
     }
 
     /**
@@ -112,10 +97,61 @@ public class CollisionTest {
      */
     @Test
     public void testPreventItemCollision() {
-        Item item = new StoredBlock(0, Block.block_height-3, ItemType.DIRT);
+        Item item = new StoredBlock(0, ground+Block.block_height-3, ItemType.DIRT);
         World world = testWorld;
         Collision.preventItemCollision(item, world);
-        assertEquals(item.getY(), Block.block_height, 0.0);
+        assertEquals(item.getY(), ground+Block.block_height, 0.0);
+    }
+
+    /**
+     * Test of sweep method, of class Collision.
+     * Box falling faster than one block per tick stops on the floor.
+     */
+    @Test
+    public void testSweep() {
+        Sweep sweep = new Sweep();
+        double height = Block.block_height;
+        boolean result = Collision.sweep(testWorld, 2*Block.block_width, ground-3*height, Block.block_width/2, height, 0, 5*height, TileQuery.SOLID, sweep);
+        assertTrue(result);
+        assertEquals(ground-height, sweep.getY(), 0.0);
+        assertEquals(-1, sweep.getNormalY());
+        assertEquals(0, sweep.getNormalX());
+    }
+    
+    /**
+     * Test of sweep method, of class Collision.
+     * Box moving along the floor stops at the wall and does not hit the floor it stands on.
+     */
+    @Test
+    public void testSweep2() {
+        Sweep sweep = new Sweep();
+        double width = Block.block_width/2;
+        boolean result = Collision.sweep(testWorld, 5*Block.block_width, ground-Block.block_height, width, Block.block_height, 10*Block.block_width, 0, TileQuery.SOLID, sweep);
+        assertTrue(result);
+        assertEquals(9*Block.block_width-width, sweep.getX(), 0.0);
+        assertEquals(-1, sweep.getNormalX());
+        assertEquals(0, sweep.getNormalY());
+    }
+    
+    /**
+     * Test of sweep method, of class Collision.
+     */
+    @Test
+    public void testSweep3() {
+        Sweep sweep = new Sweep();
+        boolean result = Collision.sweep(testWorld, 3*Block.block_width, ground-3*Block.block_height, 10, 10, 0, -Block.block_height, TileQuery.SOLID, sweep);
+        assertFalse(result);
+        assertEquals(ground-4*Block.block_height, sweep.getY(), 0.0);
+    }
+    
+    /**
+     * Test of moveItem method, of class Collision.
+     */
+    @Test
+    public void testMoveItem() {
+        Item item = new StoredBlock(3*Block.block_width, ground-4*Block.block_height, ItemType.DIRT);
+        Collision.moveItem(item, testWorld, 0, 10*Block.block_height);
+        assertEquals(ground, item.getY()+item.getHeight(), 0.0);
     }
 
     /**
@@ -124,7 +160,7 @@ public class CollisionTest {
     @Test
     public void testCreatureHasBlockInFront() {
         World world = testWorld;
-        Creature creature = new Enemy(10*Block.block_width, -1.5*Block.block_height, CreatureType.SKELETON, world);
+        Creature creature = new Enemy(10*Block.block_width, ground-1.5*Block.block_height, CreatureType.SKELETON, world);
         creature.setLeft(true);
         boolean expResult = true;
         boolean result = Collision.creatureHasBlockInFront(creature, world);
@@ -137,7 +173,7 @@ public class CollisionTest {
     @Test
     public void testCreatureHasBlockInFront2() {
         World world = testWorld;
-        Creature creature = new Enemy(8*Block.block_width, -1.5*Block.block_height, CreatureType.SKELETON, world);
+        Creature creature = new Enemy(8*Block.block_width, ground-1.5*Block.block_height, CreatureType.SKELETON, world);
         creature.setRight(true);
         boolean expResult = true;
         boolean result = Collision.creatureHasBlockInFront(creature, world);
@@ -150,7 +186,7 @@ public class CollisionTest {
     @Test
     public void testCreatureIsInLiquid() {
         World world = testWorld;
-        Creature creature = new Enemy(0*Block.block_width, -1.5*Block.block_height, CreatureType.SKELETON, world);
+        Creature creature = new Enemy(0*Block.block_width, ground-1.5*Block.block_height, CreatureType.SKELETON, world);
         Collision.creatureIsInLiquid(creature, world);
         assertTrue(creature.swimming());
     }
@@ -219,7 +255,7 @@ public class CollisionTest {
     @Test
     public void testControlItems() {
         World world = testWorld;
-        Player player = new Player(0, 0);
+        Player player = new Player(0, ground);
         Collision.controlItems(player, world);
         assertTrue(player.getInventory().getInv().length > 1);
     }
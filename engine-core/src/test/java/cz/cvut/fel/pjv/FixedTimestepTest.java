@@ -0,0 +1,87 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 Michal-jr.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package cz.cvut.fel.pjv;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * FixedTimestep unit tests.
+ *
+ * @author Michal-jr
+ * @version 1.1
+ */
+public class FixedTimestepTest {
+    
+    private int runFrames(FixedTimestep instance, double frameRate, double seconds) {
+        int ticks = 0;
+        long frameNanos = (long) (1_000_000_000L / frameRate);
+        for (long now = 1; now <= seconds * 1_000_000_000L; now += frameNanos) {
+            ticks += instance.advance(now);
+            assertTrue(instance.getNanosToNextTick() > 0 && instance.getNanosToNextTick() <= instance.getTickNanos());
+        }
+        return ticks;
+    }
+
+    /**
+     * Test of advance method, of class FixedTimestep.
+     * The simulation runs at the same speed on displays with different refresh rates.
+     */
+    @Test
+    public void testAdvance() {
+        int ticks60 = runFrames(new FixedTimestep(60, 5), 60, 2);
+        int ticks144 = runFrames(new FixedTimestep(60, 5), 144, 2);
+        int ticks30 = runFrames(new FixedTimestep(60, 5), 30, 2);
+        assertEquals(120, ticks60, 1);
+        assertEquals(120, ticks144, 1);
+        assertEquals(120, ticks30, 2);
+    }
+
+    /**
+     * Test of advance method, of class FixedTimestep.
+     * Long frame runs at most the limited number of ticks and the rest is not caught up.
+     */
+    @Test
+    public void testAdvance2() {
+        FixedTimestep instance = new FixedTimestep(100, 5);
+        assertEquals(1, instance.advance(0));
+        assertEquals(5, instance.advance(1_000_000_000L));
+        assertEquals(95, instance.getDroppedTicks());
+        assertEquals(1, instance.advance(1_010_000_000L));
+    }
+
+    /**
+     * Test of reset method, of class FixedTimestep.
+     */
+    @Test
+    public void testReset() {
+        FixedTimestep instance = new FixedTimestep(100, 5);
+        instance.advance(0);
+        instance.reset();
+        assertEquals(1, instance.advance(60_000_000_000L));
+        assertEquals(0, instance.getDroppedTicks());
+        assertEquals(instance.getTickNanos(), instance.getNanosToNextTick());
+    }
+    
+}
@@ -0,0 +1,178 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 Zdenek.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package cz.cvut.fel.pjv;
+
+import cz.cvut.fel.pjv.blocks.BlockType;
+import java.io.IOException;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * FlowField unit tests.
+ *
+ * @author Zdenek
+ * @version 1.2
+ */
+public class FlowFieldTest {
+    
+    private World world;
+    private int ground;
+    
+    /**
+     * Create an empty world with a flat floor in the middle and a low wall on it.
+     *
+     * @throws IOException
+     */
+    @Before
+    public void setUp() throws IOException {
+        world = new World();
+        world.getTiles().clear();
+        ground = world.getWorldMap().getHEIGHT()/2;
+        for (int x = -30; x <= 60; x++) {
+            world.setTile(x, ground, BlockType.DIRT);
+        }
+        world.setTile(10, ground-1, BlockType.DIRT);
+    }
+
+    /**
+     * Test of update method, of class FlowField.
+     * Steps lead over the wall toward the player.
+     */
+    @Test
+    public void testUpdate() {
+        FlowField field = new FlowField(world, 16, 100000, 2);
+        field.update(20, ground-1);
+        assertTrue(field.isReady());
+        assertEquals(0, field.getDistance(20, ground-1));
+        assertFalse(field.hasStep(20, ground-1));
+        assertTrue(field.hasStep(15, ground-1));
+        assertEquals(1, field.getStepX(15, ground-1));
+        assertEquals(0, field.getStepY(15, ground-1));
+        assertEquals(10, field.getDistance(15, ground-1));
+        //the enemy jumps onto the wall
+        assertEquals(1, field.getStepX(9, ground-1));
+        assertEquals(-1, field.getStepY(9, ground-1));
+        //tiles in the air and outside of the field have no step
+        assertFalse(field.hasStep(15, ground-5));
+        assertFalse(field.hasStep(40, ground-1));
+    }
+    
+    /**
+     * Test of update method, of class FlowField.
+     * The computation is spread over ticks and the goal in the air is moved to the ground.
+     */
+    @Test
+    public void testUpdate2() {
+        FlowField field = new FlowField(world, 16, 10, 2);
+        field.update(20, ground-3);
+        assertFalse(field.isReady());
+        for (int tick = 0; tick < 100 && !field.isReady(); tick++) {
+            field.update(20, ground-3);
+        }
+        assertTrue(field.isReady());
+        assertEquals(1, field.getComputedCount());
+        assertEquals(0, field.getDistance(20, ground-1));
+        //nothing changed, the field is not computed again
+        field.update(20, ground-2);
+        assertEquals(1, field.getComputedCount());
+        field.update(21, ground-1);
+        assertEquals(1, field.getComputedCount());
+        assertEquals(0, field.getDistance(20, ground-1));
+    }
+    
+    /**
+     * Test of tileChanged method, of class FlowField.
+     * The field is computed again when a solid block is placed into it.
+     */
+    @Test
+    public void testTileChanged() {
+        FlowField field = world.getFlowField();
+        field.update(20, ground-1);
+        for (int tick = 0; tick < 100 && !field.isReady(); tick++) {
+            field.update(20, ground-1);
+        }
+        long computed = field.getComputedCount();
+        assertEquals(6, field.getDistance(17, ground-1));
+        //the wall is too high to jump over
+        for (int y = ground-3; y < ground; y++) {
+            world.setTile(18, y, BlockType.DIRT);
+        }
+        for (int tick = 0; tick < 100 && field.getComputedCount() == computed; tick++) {
+            field.update(20, ground-1);
+        }
+        assertEquals(computed + 1, field.getComputedCount());
+        assertEquals(-1, field.getDistance(17, ground-1));
+    }
+    
+    /**
+     * Test of tileChanged method, of class FlowField.
+     * The field is computed again when liquid flows into it or away from it, not when its level changes.
+     */
+    @Test
+    public void testTileChanged2() {
+        FlowField field = world.getFlowField();
+        field.update(20, ground-1);
+        for (int tick = 0; tick < 100 && !field.isReady(); tick++) {
+            field.update(20, ground-1);
+        }
+        long computed = field.getComputedCount();
+        world.setTile(15, ground-1, BlockType.WATER);
+        for (int tick = 0; tick < 100 && field.getComputedCount() == computed; tick++) {
+            field.update(20, ground-1);
+        }
+        assertEquals(computed + 1, field.getComputedCount());
+        world.setTileState(15, ground-1, 4);
+        for (int tick = 0; tick < 10; tick++) {
+            field.update(20, ground-1);
+        }
+        assertEquals(computed + 1, field.getComputedCount());
+        world.setTile(15, ground-1, null);
+        for (int tick = 0; tick < 100 && field.getComputedCount() == computed + 1; tick++) {
+            field.update(20, ground-1);
+        }
+        assertEquals(computed + 2, field.getComputedCount());
+    }
+    
+    /**
+     * Test of tileChanged method, of class FlowField.
+     * Tiles in columns of the field but far above or below it do not change it.
+     */
+    @Test
+    public void testTileChanged3() {
+        FlowField field = world.getFlowField();
+        field.update(20, ground-1);
+        for (int tick = 0; tick < 100 && !field.isReady(); tick++) {
+            field.update(20, ground-1);
+        }
+        long computed = field.getComputedCount();
+        world.setTile(15, 0, BlockType.DIRT);
+        world.setTile(15, world.getWorldMap().getHEIGHT()-1, null);
+        for (int tick = 0; tick < 10; tick++) {
+            field.update(20, ground-1);
+        }
+        assertEquals(computed, field.getComputedCount());
+    }
+    
+}
@@ -0,0 +1,85 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 Zdenek.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package cz.cvut.fel.pjv;
+
+import cz.cvut.fel.pjv.creatures.Player;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Game unit tests. No JavaFX application is started, the game runs headless.
+ *
+ * @author Zdenek
+ * @version 1.0
+ */
+public class GameTest {
+
+    /**
+     * Test of tick method, of class Game.
+     *
+     * @throws IOException
+     */
+    @Test
+    public void testTick() throws IOException {
+        Game instance = new Game(1280, 720);
+        Player player = instance.getPlayer();
+        for (int i = 0; i < 120; i++) {
+            instance.tick();
+        }
+        assertFalse(player.isKilled());
+        assertEquals(Spritesheet.HERO, player.getSpritesheet());
+        assertFalse(instance.getWorld().getNpcs().isEmpty());
+    }
+
+    /**
+     * Test of serialization of class Game, saved game contains only ids of spritesheets.
+     *
+     * @throws IOException
+     * @throws ClassNotFoundException
+     */
+    @Test
+    public void testSerialization() throws IOException, ClassNotFoundException {
+        Game instance = new Game(1280, 720);
+        instance.tick();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(bytes)) {
+            oos.writeObject(instance);
+        }
+        Game result;
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            result = (Game) ois.readObject();
+        }
+        assertEquals(instance.getPlayer().getX(), result.getPlayer().getX(), 0);
+        assertEquals(instance.getPlayer().getY(), result.getPlayer().getY(), 0);
+        assertEquals(Spritesheet.HERO, result.getPlayer().getSpritesheet());
+        assertEquals(instance.getWorld().getNpcs().size(), result.getWorld().getNpcs().size());
+        result.tick();
+    }
+    
+}
@@ -34,7 +34,7 @@ import org.junit.runners.Suite.SuiteClasses;
  * @version 1.0
  */
 @RunWith(Suite.class)
-@SuiteClasses({WorldTest.class, CollisionTest.class})
+@SuiteClasses({WorldTest.class, CollisionTest.class, CameraTest.class, ChunkStreamerTest.class, NpcSchedulerTest.class, FixedTimestepTest.class, SimulationThreadTest.class, GameTest.class, PathfinderTest.class, FlowFieldTest.class, ChunkGraphTest.class, BlockTicksTest.class})
 public class MainPackageTestSuite {
     
 }
@@ -0,0 +1,111 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 Zdenek.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package cz.cvut.fel.pjv;
+
+import cz.cvut.fel.pjv.blocks.Chunk;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * NpcScheduler unit tests.
+ *
+ * @author Zdenek
+ * @version 1.0
+ */
+public class NpcSchedulerTest {
+    
+    private static final int WIDTH = 1024;
+    
+    private NpcScheduler scheduler;
+    
+    /**
+     * Create a scheduler updating NPCs up to 10 tiles every tick and up to 50 tiles every 4th tick.
+     */
+    @Before
+    public void setUp() {
+        scheduler = new NpcScheduler(WIDTH, 10, 50, 4);
+    }
+
+    /**
+     * Test of getTier method, of class NpcScheduler.
+     */
+    @Test
+    public void testGetTier() {
+        assertEquals(NpcScheduler.FULL, scheduler.getTier(110, 100, true));
+        assertEquals(NpcScheduler.REDUCED, scheduler.getTier(50, 100, true));
+        assertEquals(NpcScheduler.FROZEN, scheduler.getTier(300, 100, true));
+        assertEquals(NpcScheduler.FROZEN, scheduler.getTier(100, 100, false));
+        //the world is looping
+        assertEquals(NpcScheduler.FULL, scheduler.getTier(WIDTH - 5, 3, true));
+        assertEquals(NpcScheduler.REDUCED, scheduler.getTier(-20, WIDTH + 3, true));
+    }
+
+    /**
+     * Test of isScheduled method, of class NpcScheduler.
+     * NPCs in the reduced tier are updated once in the period, frozen NPCs never.
+     */
+    @Test
+    public void testIsScheduled() {
+        int full = 0, reduced = 0, frozen = 0;
+        for (int tick = 0; tick < 40; tick++) {
+            scheduler.startTick();
+            if (scheduler.isScheduled(0, 100, 100, true)) { full++; }
+            if (scheduler.isScheduled(1, 130, 100, true)) { reduced++; }
+            if (scheduler.isScheduled(2, 500, 100, true)) { frozen++; }
+            assertEquals(1, scheduler.getTierCount(NpcScheduler.FULL));
+            assertEquals(1, scheduler.getTierCount(NpcScheduler.REDUCED));
+            assertEquals(1, scheduler.getTierCount(NpcScheduler.FROZEN));
+        }
+        assertEquals(40, full);
+        assertEquals(10, reduced);
+        assertEquals(0, frozen);
+        assertEquals(50, scheduler.getUpdatedCount());
+        assertEquals(70, scheduler.getSkippedCount());
+    }
+
+    /**
+     * Test of wakeColumn method, of class NpcScheduler.
+     * Frozen NPC is updated every tick for a while after a tile in its chunk changed.
+     */
+    @Test
+    public void testWakeColumn() {
+        int tileX = 20 * Chunk.SIZE + 5;
+        scheduler.startTick();
+        assertFalse(scheduler.isScheduled(0, tileX, 100, true));
+        scheduler.wakeColumn(tileX + 3);
+        for (int tick = 0; tick < NpcScheduler.WAKE_TICKS; tick++) {
+            scheduler.startTick();
+            assertTrue(scheduler.isScheduled(0, tileX, 100, true));
+            assertEquals(1, scheduler.getWokenCount());
+        }
+        scheduler.startTick();
+        assertFalse(scheduler.isScheduled(0, tileX, 100, true));
+        //NPC in a column that is not loaded stays frozen
+        scheduler.wakeColumn(tileX);
+        scheduler.startTick();
+        assertFalse(scheduler.isScheduled(0, tileX, 100, false));
+    }
+    
+}
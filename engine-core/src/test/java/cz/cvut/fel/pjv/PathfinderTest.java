@@ -0,0 +1,173 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 Zdenek.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package cz.cvut.fel.pjv;
+
+import cz.cvut.fel.pjv.blocks.BlockType;
+import java.io.IOException;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Pathfinder unit tests.
+ *
+ * @author Zdenek
+ * @version 1.2
+ */
+public class PathfinderTest {
+    
+    private World world;
+    private int ground;
+    
+    /**
+     * Create an empty world with a flat floor in the middle.
+     *
+     * @throws IOException
+     */
+    @Before
+    public void setUp() throws IOException {
+        world = new World();
+        world.getTiles().clear();
+        ground = world.getWorldMap().getHEIGHT()/2;
+        for (int x = -5; x <= 45; x++) {
+            world.setTile(x, ground, BlockType.DIRT);
+        }
+    }
+
+    /**
+     * Test of findPath method, of class Pathfinder.
+     */
+    @Test
+    public void testFindPath() {
+        Pathfinder pathfinder = new Pathfinder(world, 1000, 1000, 32);
+        Path path = new Path();
+        assertTrue(pathfinder.findPath(2, ground-1, 20, ground-1, 2, path));
+        assertTrue(path.isComplete());
+        assertEquals(19, path.getSize());
+        assertEquals(2, path.getTileX(0));
+        assertEquals(20, path.getTileX(path.getSize()-1));
+        assertEquals(ground-1, path.getTileY(path.getSize()-1));
+    }
+    
+    /**
+     * Test of findPath method, of class Pathfinder.
+     * The path jumps over a low wall and the goal in the air is moved to the ground.
+     */
+    @Test
+    public void testFindPath2() {
+        world.setTile(10, ground-1, BlockType.DIRT);
+        Pathfinder pathfinder = new Pathfinder(world, 1000, 1000, 32);
+        Path path = new Path();
+        assertTrue(pathfinder.findPath(2, ground-1, 20, ground-3, 2, path));
+        assertTrue(path.isComplete());
+        assertEquals(20, path.getGoalX());
+        assertEquals(ground-1, path.getGoalY());
+        boolean overWall = false;
+        for (int i = 0; i < path.getSize(); i++) {
+            if (path.getTileX(i) == 10) { overWall = path.getTileY(i) == ground-2; }
+        }
+        assertTrue(overWall);
+    }
+    
+    /**
+     * Test of findPath method, of class Pathfinder.
+     * The goal behind a high wall is not reached, the path leads to the tile closest to it.
+     */
+    @Test
+    public void testFindPath3() {
+        for (int y = ground-3; y < ground; y++) {
+            world.setTile(15, y, BlockType.DIRT);
+        }
+        Pathfinder pathfinder = new Pathfinder(world, 1000, 1000, 32);
+        Path path = new Path();
+        assertTrue(pathfinder.findPath(2, ground-1, 20, ground-1, 2, path));
+        assertFalse(path.isComplete());
+        assertEquals(14, path.getTileX(path.getSize()-1));
+    }
+    
+    /**
+     * Test of findPath method, of class Pathfinder.
+     * Searches stop when the budget of the tick is spent.
+     */
+    @Test
+    public void testBudget() {
+        Pathfinder pathfinder = new Pathfinder(world, 10, 10, 32);
+        Path path = new Path();
+        assertTrue(pathfinder.findPath(2, ground-1, 30, ground-1, 2, path));
+        assertFalse(path.isComplete());
+        assertEquals(10, pathfinder.getExpandedCount());
+        assertFalse(pathfinder.hasBudget());
+        assertFalse(pathfinder.findPath(2, ground-1, 30, ground-1, 2, path));
+        pathfinder.startTick();
+        assertTrue(pathfinder.findPath(2, ground-1, 30, ground-1, 2, path));
+        assertEquals(2, pathfinder.getSearchCount());
+    }
+    
+    /**
+     * Test of findPath method, of class Pathfinder.
+     * Search that would be cut short by the budget of the tick does not start, the path is kept.
+     */
+    @Test
+    public void testBudget2() {
+        Pathfinder pathfinder = new Pathfinder(world, 15, 10, 32);
+        Path path = new Path();
+        assertTrue(pathfinder.findPath(2, ground-1, 30, ground-1, 2, path));
+        int size = path.getSize();
+        assertFalse(pathfinder.hasBudget());
+        assertFalse(pathfinder.findPath(2, ground-1, 5, ground-1, 2, path));
+        assertEquals(size, path.getSize());
+        assertEquals(10, pathfinder.getExpandedCount());
+        assertEquals(1, pathfinder.getSearchCount());
+    }
+    
+    /**
+     * Test of isValid method, of class Pathfinder.
+     * Solid blocks and liquid appearing or disappearing in columns of the path invalidate it,
+     * the level of liquid does not.
+     */
+    @Test
+    public void testIsValid() {
+        Pathfinder pathfinder = world.getPathfinder();
+        pathfinder.startTick();
+        Path path = new Path();
+        assertTrue(pathfinder.findPath(2, ground-1, 20, ground-1, 2, path));
+        assertTrue(pathfinder.isValid(path));
+        world.setTile(35, ground-1, BlockType.DIRT);
+        assertTrue(pathfinder.isValid(path));
+        world.setTile(10, ground-1, BlockType.DIRT);
+        assertFalse(pathfinder.isValid(path));
+        world.setTile(10, ground-1, null);
+        assertTrue(pathfinder.findPath(2, ground-1, 20, ground-1, 2, path));
+        //water flows into the path
+        world.setTile(10, ground-5, BlockType.WATER);
+        assertFalse(pathfinder.isValid(path));
+        assertTrue(pathfinder.findPath(2, ground-1, 20, ground-1, 2, path));
+        world.setTileState(10, ground-5, 3);
+        assertTrue(pathfinder.isValid(path));
+        //water drains away
+        world.setTile(10, ground-5, null);
+        assertFalse(pathfinder.isValid(path));
+    }
+    
+}
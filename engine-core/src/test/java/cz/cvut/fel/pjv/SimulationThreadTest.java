@@ -0,0 +1,119 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 Michal-jr.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package cz.cvut.fel.pjv;
+
+import java.io.IOException;
+import static java.lang.Thread.sleep;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * SimulationThread unit tests.
+ *
+ * @author Michal-jr
+ * @version 1.0
+ */
+public class SimulationThreadTest {
+    
+    
+    
+    private RenderSnapshot waitForSnapshot(SimulationThread simulation, long newerThan) throws InterruptedException {
+        for (int i = 0; i < 200; i++) {
+            RenderSnapshot snapshot = simulation.takeSnapshot();
+            if (snapshot != null && snapshot.getSequence() > newerThan) { return snapshot; }
+            sleep(10);
+        }
+        fail("No new snapshot was published.");
+        return null;
+    }
+
+    /**
+     * Test of resume and pause methods, of class SimulationThread.
+     * Commands run on the simulation thread, paused simulation publishes nothing.
+     *
+     * @throws java.io.IOException
+     * @throws java.lang.InterruptedException
+     */
+    @Test
+    public void testResumePause() throws IOException, InterruptedException {
+        Game game = new Game(1280, 640);
+        SimulationThread instance = new SimulationThread(game, new FixedTimestep(60, 5), 1280, 640);
+        assertNull(instance.takeSnapshot());
+        instance.resume();
+        RenderSnapshot snapshot = waitForSnapshot(instance, 0);
+        assertTrue(snapshot.getCreatures().getSize() >= 1);
+        
+        final AtomicReference<String> commandThread = new AtomicReference<>();
+        game.post(new Runnable() {
+            @Override
+            public void run() {
+                commandThread.set(Thread.currentThread().getName());
+            }
+        });
+        for (int i = 0; i < 200 && commandThread.get() == null; i++) {
+            sleep(10);
+        }
+        assertEquals("Simulation", commandThread.get());
+        
+        instance.pause();
+        long paused = waitForSnapshot(instance, 0).getSequence();
+        sleep(100);
+        assertEquals(paused, instance.takeSnapshot().getSequence());
+        instance.resume();
+        waitForSnapshot(instance, paused);
+        instance.pause();
+    }
+
+    /**
+     * Test of run method, of class SimulationThread.
+     * The simulation finishes when the player is killed.
+     *
+     * @throws java.io.IOException
+     * @throws java.lang.InterruptedException
+     */
+    @Test
+    public void testRun() throws IOException, InterruptedException {
+        final Game game = new Game(1280, 640);
+        SimulationThread instance = new SimulationThread(game, new FixedTimestep(60, 5), 1280, 640);
+        instance.resume();
+        RenderSnapshot snapshot = waitForSnapshot(instance, 0);
+        game.post(new Runnable() {
+            @Override
+            public void run() {
+                game.getPlayer().die();
+            }
+        });
+        for (int i = 0; i < 200 && !instance.isFinished(); i++) {
+            sleep(10);
+        }
+        assertTrue(instance.isFinished());
+        //the last snapshot shows the killed player
+        snapshot = instance.takeSnapshot();
+        assertTrue(snapshot.isPlayerKilled());
+        instance.resume();
+        assertFalse(instance.takeSnapshot().getSequence() > snapshot.getSequence());
+    }
+    
+}
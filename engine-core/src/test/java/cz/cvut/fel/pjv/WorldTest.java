@@ -0,0 +1,413 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 Michal-jr.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package cz.cvut.fel.pjv;
+
+import cz.cvut.fel.pjv.blocks.Block;
+import cz.cvut.fel.pjv.blocks.BlockType;
+import cz.cvut.fel.pjv.blocks.SolidBlock;
+import cz.cvut.fel.pjv.blocks.TileQuery;
+import cz.cvut.fel.pjv.creatures.CreatureType;
+import cz.cvut.fel.pjv.creatures.Enemy;
+import cz.cvut.fel.pjv.creatures.NPC;
+import cz.cvut.fel.pjv.creatures.Player;
+import cz.cvut.fel.pjv.items.Item;
+import cz.cvut.fel.pjv.items.ItemType;
+import cz.cvut.fel.pjv.items.StoredBlock;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static org.junit.Assert.*;
+import org.mockito.ArgumentCaptor;
+import static org.mockito.Mockito.*;
+
+/**
+ * World unit tests.
+ *
+ * @author Michal-jr
+ * @version 1.0
+ */
+public class WorldTest {
+    
+    private static World testWorld;
+    private static double ground;
+    
+    /**
+     * Create the world instance that will be used in tests.
+     *
+     * @throws IOException
+     */
+    @BeforeClass
+    public static void setUpClass() throws IOException {
+        testWorld = new World();
+        testWorld.getTiles().clear();
+        //build the test blocks in the middle of the world, so the blocks above the ground fit into the world
+        ground = testWorld.getTilePixelY(testWorld.getWorldMap().getHEIGHT()/2);
+        testWorld.getItems().removeAll(testWorld.getItems());
+        testWorld.getNpcs().removeAll(testWorld.getNpcs());
+        for (int i = 0; i < 10; i++) {
+            testWorld.placeBlock(new SolidBlock(i*Block.block_width, ground, BlockType.DIRT));
+        }
+        testWorld.placeBlock(new SolidBlock(9*Block.block_width, ground-Block.block_height, BlockType.DIRT));
+    }
+    
+    /**
+     * Delete the world instance.
+     */
+    @AfterClass
+    public static void tearDownClass() {
+        testWorld = null;
+    }
+
+    /**
+     * Test of addItem method, of class World.
+     */
+    @Test
+    public void testAddItem() {
+        Item itemToAdd = new StoredBlock(0, 0, ItemType.DIRT);
+        World instance = mock(World.class);
+        ArgumentCaptor<Item> arg = ArgumentCaptor.forClass(Item.class);
+        instance.addItem(itemToAdd);
+        verify(instance, times(1)).addItem(arg.capture());
+        assertEquals(itemToAdd, arg.getValue());
+    }
+    
+    /**
+     * Test of addItem method, of class World.
+     */
+    @Test
+    public void testAddItem2() {
+        Item itemToAdd = new StoredBlock(0, 0, ItemType.DIRT);
+        World instance = testWorld;
+        instance.addItem(itemToAdd);
+        List<Item> expResult = new ArrayList<>();
+        expResult.add(itemToAdd);
+        assertEquals(instance.getItems(), expResult);
+    }
+
+    /**
+     * Test of updateLayingItems method, of class World.
+     */
+    @Test
+    public void testUpdateLayingItems() {
+        World instance = mock(World.class);
+        instance.updateLayingItems();
+        verify(instance, times(1)).updateLayingItems();
+    }
+
+    /**
+     * Test of updateLayingItems method, of class World.
+     */
+    @Test
+    public void testUpdateLayingItems2() {
+        World instance = testWorld;
+        Item item = new StoredBlock(0, ground-Block.block_height, ItemType.DIRT);
+        instance.addItem(item);
+        int removedItems = instance.getRemovedItemCount();
+        item.setPicked(true);
+        instance.updateLayingItems();
+        assertFalse(instance.getItems().contains(item));
+        assertEquals(removedItems + 1, instance.getRemovedItemCount());
+    }
+
+    /**
+     * Test of updateLayingItems method, of class World.
+     */
+    @Test
+    public void testUpdateLayingItems3() {
+        World instance = testWorld;
+        Item item = new StoredBlock(3*Block.block_width, ground-24, ItemType.DIRT);
+        instance.addItem(item);
+        //item falls on the ground in the first update and stays there in the second one
+        instance.updateLayingItems();
+        assertFalse(item.isSettled());
+        instance.updateLayingItems();
+        //item laying on the ground is settled
+        assertTrue(item.isSettled());
+        //item falls again when the ground under it is destroyed
+        int tileX = instance.getTileX(3*Block.block_width);
+        int tileY = instance.getTileY(ground);
+        instance.setTile(tileX, tileY, null);
+        assertFalse(item.isSettled());
+        instance.setTile(tileX, tileY, BlockType.DIRT);
+        item.setPicked(true);
+        instance.updateLayingItems();
+    }
+
+    /**
+     * Test of updateNPCs method, of class World.
+     */
+    @Test
+    public void testUpdateNPCs() {
+        Player player = new Player(0, 0);
+        World instance = mock(World.class);
+        ArgumentCaptor<Player> arg = ArgumentCaptor.forClass(Player.class);
+        instance.updateNPCs(player);
+        verify(instance, times(1)).updateNPCs(arg.capture());
+        assertEquals(player, arg.getValue());
+    }
+
+    /**
+     * Test of updateNPCs method, of class World.
+     */
+    @Test
+    public void testUpdateNPCs2() {
+        World instance = testWorld;
+        Player player = new Player(0, ground-2*Block.block_height);
+        NPC npc = new Enemy(5*Block.block_width, ground-2*Block.block_height, CreatureType.SKELETON, instance);
+        instance.getNpcs().add(npc);
+        int removedNpcs = instance.getRemovedNpcCount();
+        npc.die();
+        instance.updateNPCs(player);
+        assertFalse(instance.getNpcs().contains(npc));
+        assertEquals(removedNpcs + 1, instance.getRemovedNpcCount());
+    }
+
+    /**
+     * Test of updateNPCs method, of class World.
+     * NPCs updated by more threads end in exactly the same state as NPCs updated by one thread.
+     */
+    @Test
+    public void testUpdateNPCs3() {
+        World instance = testWorld;
+        int items = instance.getItems().size();
+        Player serialPlayer = new Player(3*Block.block_width, ground-2*Block.block_height);
+        NPC[] serial = createNPCs(instance, 200);
+        instance.setNpcThreads(1);
+        for (int tick = 0; tick < 200; tick++) {
+            instance.updateNPCs(serialPlayer);
+        }
+        instance.getNpcs().clear();
+        int serialItems = instance.getItems().size();
+        
+        Player parallelPlayer = new Player(3*Block.block_width, ground-2*Block.block_height);
+        NPC[] parallel = createNPCs(instance, 200);
+        instance.setNpcThreads(4);
+        for (int tick = 0; tick < 200; tick++) {
+            instance.updateNPCs(parallelPlayer);
+        }
+        instance.setNpcThreads(1);
+        instance.getNpcs().clear();
+        
+        assertEquals(serialPlayer.getHp(), parallelPlayer.getHp());
+        //items dropped by killed NPCs
+        assertEquals(serialItems - items, instance.getItems().size() - serialItems);
+        for (int i = 0; i < serial.length; i++) {
+            assertEquals(serial[i].getX(), parallel[i].getX(), 0);
+            assertEquals(serial[i].getY(), parallel[i].getY(), 0);
+            assertEquals(serial[i].getVelocityY(), parallel[i].getVelocityY(), 0);
+            assertEquals(serial[i].getSpriteX(), parallel[i].getSpriteX(), 0);
+            assertEquals(serial[i].getSpriteY(), parallel[i].getSpriteY(), 0);
+            assertEquals(serial[i].getHp(), parallel[i].getHp());
+            assertEquals(serial[i].isKilled(), parallel[i].isKilled());
+        }
+        while (instance.getItems().size() > items) {
+            instance.getItems().remove(instance.getItems().size() - 1);
+        }
+    }
+    
+    private NPC[] createNPCs(World world, int count) {
+        NPC[] npcs = new NPC[count];
+        for (int i = 0; i < count; i++) {
+            //some NPCs fall next to the ground, some fall from high above and die from the fall damage
+            double x = (i % 14 - 2)*Block.block_width;
+            double y = ground - (i % 9 == 0 ? 100 : i % 9 + 2)*Block.block_height;
+            npcs[i] = new Enemy(x, y, i % 10 == 0 ? CreatureType.BOSS : CreatureType.SKELETON, world);
+            world.getNpcs().add(npcs[i]);
+        }
+        return npcs;
+    }
+
+    /**
+     * Test of updateLiquids method, of class World.
+     */
+    @Test
+    public void testUpdateLiquids() {
+        Player player = new Player(0, 0);
+        World instance = mock(World.class);
+        ArgumentCaptor<Player> arg = ArgumentCaptor.forClass(Player.class);
+        instance.updateNPCs(player);
+        verify(instance, times(1)).updateNPCs(arg.capture());
+        assertEquals(player, arg.getValue());
+    }
+    
+    /**
+     * Test of getHighestBlockY method, of class World.
+     */
+    @Test
+    public void testGetHighestBlockY() {
+        double x = 0.0;
+        World instance = testWorld;
+        double expResult = ground;
+        double result = instance.getHighestBlockY(x);
+        assertEquals(expResult, result, 0.0);
+    }
+
+    /**
+     * Test of getHighestBlockY method, of class World.
+     */
+    @Test
+    public void testGetHighestBlockY2() {
+        double x = 9*Block.block_width;
+        World instance = testWorld;
+        double expResult = ground-Block.block_height;
+        double result = instance.getHighestBlockY(x);
+        assertEquals(expResult, result, 0.0);
+    }
+
+    /**
+     * Test of getTopSolidTileY method, of class World.
+     */
+    @Test
+    public void testGetTopSolidTileY() {
+        World instance = testWorld;
+        int tileX = instance.getTileX(9*Block.block_width);
+        int groundY = instance.getTileY(ground);
+        assertEquals(groundY - 1, instance.getTopSolidTileY(tileX));
+        //the height map is updated when the highest block is destroyed and placed again
+        instance.setTile(tileX, groundY - 1, null);
+        assertEquals(groundY, instance.getTopSolidTileY(tileX));
+        instance.setTile(tileX, groundY - 1, BlockType.DIRT);
+        assertEquals(groundY - 1, instance.getTopSolidTileY(tileX));
+    }
+
+    /**
+     * Test of getTopLiquidTileY method, of class World.
+     */
+    @Test
+    public void testGetTopLiquidTileY() {
+        World instance = testWorld;
+        int expResult = instance.getWorldMap().getHEIGHT();
+        assertEquals(expResult, instance.getTopLiquidTileY(instance.getTileX(0)));
+    }
+
+    /**
+     * Test of getTiles method, of class World.
+     */
+    @Test
+    public void testGetTiles() {
+        World instance = testWorld;
+        int expResult = 11;
+        int result = instance.getTiles().getBlockCount();
+        assertEquals(expResult, result);
+    }
+
+    /**
+     * Test of queryTiles method, of class World.
+     */
+    @Test
+    public void testQueryTiles() {
+        World instance = testWorld;
+        TileQuery result = new TileQuery();
+        int expResult = 3;
+        int found = instance.queryTiles(0, ground, 3*Block.block_width, ground+Block.block_height, TileQuery.SOLID, result);
+        assertEquals(expResult, found);
+        assertEquals(expResult, result.getSize());
+    }
+
+    /**
+     * Test of hasTiles method, of class World.
+     */
+    @Test
+    public void testHasTiles() {
+        World instance = testWorld;
+        assertTrue(instance.hasTiles(9*Block.block_width, ground-Block.block_height, 10*Block.block_width, ground, TileQuery.SOLID));
+        assertFalse(instance.hasTiles(8*Block.block_width, ground-Block.block_height, 9*Block.block_width, ground, TileQuery.SOLID));
+        assertFalse(instance.hasTiles(0, ground, 10*Block.block_width, ground+Block.block_height, TileQuery.LIQUID));
+    }
+
+    /**
+     * Test of getItems method, of class World.
+     */
+    @Test
+    public void testGetItems() {
+        World instance = testWorld;
+        List<Item> expResult = new ArrayList<>();
+        List<Item> result = instance.getItems();
+        assertEquals(expResult, result);
+    }
+
+    /**
+     * Test of getNpcs method, of class World.
+     */
+    @Test
+    public void testGetNpcs() {
+        World instance = testWorld;
+        List<NPC> expResult = new ArrayList<>();
+        List<NPC> result = instance.getNpcs();
+        assertEquals(expResult, result);
+    }
+
+    /**
+     * Test of getPlayerSpawnX method, of class World.
+     */
+    @Test
+    public void testGetPlayerSpawnX() {
+        World instance = testWorld;
+        double expResult = 0.0;
+        instance.setPlayerSpawnX(expResult);
+        double result = instance.getPlayerSpawnX();
+        assertEquals(expResult, result, 0.0);
+    }
+
+    /**
+     * Test of setPlayerSpawnX method, of class World.
+     */
+    @Test
+    public void testSetPlayerSpawnX() {
+        double playerSpawnX = 25.0;
+        World instance = mock(World.class);
+        ArgumentCaptor<Double> arg = ArgumentCaptor.forClass(Double.class);
+        instance.setPlayerSpawnX(playerSpawnX);
+        verify(instance, times(1)).setPlayerSpawnX(arg.capture());
+        assertEquals(playerSpawnX, arg.getValue(), 0.0);
+    }
+    
+    /**
+     * Test of setPlayerSpawnX method, of class World.
+     */
+    @Test
+    public void testSetPlayerSpawnX2() {
+        double playerSpawnX = 5.0;
+        World instance = testWorld;
+        instance.setPlayerSpawnX(playerSpawnX);
+        assertEquals(testWorld.getPlayerSpawnX(), playerSpawnX, 0.0);
+    }
+    
+    /**
+     * Test of nearestX method, of class World.
+     */
+    @Test
+    public void testNearestX() {
+        World instance = testWorld;
+        double worldWidth = instance.getWIDTH() * Block.block_width;
+        assertEquals(10, instance.nearestX(10, 0), 0.0);
+        assertEquals(10, instance.nearestX(10 + worldWidth, 0), 0.0);
+        assertEquals(-10, instance.nearestX(worldWidth - 10, 0), 0.0);
+        assertEquals(worldWidth + 10, instance.nearestX(10, worldWidth - 10), 0.0);
+    }
+    
+}
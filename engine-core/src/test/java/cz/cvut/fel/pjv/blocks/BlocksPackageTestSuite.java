@@ -21,17 +21,19 @@
  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
  * THE SOFTWARE.
  */
-package cz.cvut.fel.pjv;
+package cz.cvut.fel.pjv.blocks;
 
-import javafx.application.Application;
-import javafx.stage.Stage;
+import org.junit.runner.RunWith;
+import org.junit.runners.Suite;
 
 /**
- * Basic JavaFX application used in unit tests to work properly.
+ * Test suite for blocks package.
  *
  * @author Michal-jr
+ * @version 1.0
  */
-public class testJavaFXApp extends Application {
-    @Override
-    public void start(Stage primaryStage) throws Exception {}
+@RunWith(Suite.class)
+@Suite.SuiteClasses({MappedTileStoreTest.class, LiquidSimulationTest.class})
+public class BlocksPackageTestSuite {
+    
 }
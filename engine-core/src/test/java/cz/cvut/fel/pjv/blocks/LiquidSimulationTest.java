@@ -0,0 +1,174 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 Michal-jr.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package cz.cvut.fel.pjv.blocks;
+
+import cz.cvut.fel.pjv.World;
+import java.io.IOException;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * LiquidSimulation unit tests.
+ *
+ * @author Michal-jr
+ * @version 1.0
+ */
+public class LiquidSimulationTest {
+    
+    private World world;
+    private int ground;
+    
+    /**
+     * Create the world with two basins on flat ground, their floors are at X from 0 to 19 and from 21 to 40,
+     * they have walls at X -1, 20 and 41 four tiles high.
+     *
+     * @throws IOException
+     */
+    @Before
+    public void setUp() throws IOException {
+        world = new World();
+        world.getTiles().clear();
+        world.getItems().clear();
+        world.getNpcs().clear();
+        ground = world.getWorldMap().getHEIGHT()/2;
+        for (int x = -1; x <= 41; x++) {
+            world.setTile(x, ground, BlockType.DIRT);
+        }
+        for (int y = ground - 4; y < ground; y++) {
+            world.setTile(-1, y, BlockType.DIRT);
+            world.setTile(20, y, BlockType.DIRT);
+            world.setTile(41, y, BlockType.DIRT);
+        }
+    }
+    
+    private int countLiquid() {
+        int levels = 0;
+        for (int x = -10; x <= 50; x++) {
+            for (int y = 0; y < world.getWorldMap().getHEIGHT(); y++) {
+                if (world.getTile(x, y) == BlockType.WATER) { levels += LiquidSimulation.getLevel(world.getTileState(x, y)); }
+            }
+        }
+        return levels;
+    }
+    
+    private int updateUntilSettled(LiquidSimulation instance, int maxUpdates) {
+        int updates = 0;
+        while (instance.getActiveCount() > 0 && updates < maxUpdates) {
+            instance.update();
+            updates++;
+        }
+        return updates;
+    }
+
+    /**
+     * Test of update method, of class LiquidSimulation.
+     * Liquid falls down to the floor and spreads over it, the amount of liquid stays the same.
+     */
+    @Test
+    public void testUpdate() {
+        LiquidSimulation instance = world.getLiquids();
+        world.setTile(10, ground - 20, BlockType.WATER);
+        assertEquals(1, instance.getActiveCount());
+        updateUntilSettled(instance, 1000);
+        assertEquals(0, instance.getActiveCount());
+        assertEquals(LiquidSimulation.MAX_LEVEL, countLiquid());
+        assertNull(world.getTile(10, ground - 20));
+        //eight levels spread to tiles with at most one level difference
+        for (int x = 0; x < 20; x++) {
+            if (world.getTile(x, ground - 1) != BlockType.WATER) { continue; }
+            int level = LiquidSimulation.getLevel(world.getTileState(x, ground - 1));
+            for (int side = -1; side <= 1; side += 2) {
+                int next = world.getTile(x + side, ground - 1) == BlockType.WATER ? LiquidSimulation.getLevel(world.getTileState(x + side, ground - 1)) : 0;
+                if (world.getTile(x + side, ground - 1) != BlockType.DIRT) { assertTrue(Math.abs(level - next) <= 1); }
+            }
+        }
+        assertTrue(world.getTile(9, ground - 1) == BlockType.WATER && world.getTile(11, ground - 1) == BlockType.WATER);
+    }
+
+    /**
+     * Test of update method, of class LiquidSimulation.
+     * Settled lake is not updated, digging its wall lets the liquid out.
+     */
+    @Test
+    public void testUpdate2() {
+        LiquidSimulation instance = world.getLiquids();
+        for (int x = 0; x < 20; x++) {
+            for (int y = ground - 3; y < ground; y++) {
+                world.setTile(x, y, BlockType.WATER);
+            }
+        }
+        updateUntilSettled(instance, 100);
+        assertEquals(0, instance.getActiveCount());
+        instance.update();
+        assertEquals(0, instance.getUpdatedCount());
+        int amount = countLiquid();
+        assertEquals(20*3*LiquidSimulation.MAX_LEVEL, amount);
+        
+        world.setTile(20, ground - 1, null);
+        assertTrue(instance.getActiveCount() > 0);
+        updateUntilSettled(instance, 10000);
+        assertEquals(0, instance.getActiveCount());
+        assertEquals(amount, countLiquid());
+        assertEquals(BlockType.WATER, world.getTile(21, ground - 1));
+    }
+
+    /**
+     * Test of update method, of class LiquidSimulation.
+     * One update changes at most the given number of tiles, the rest waits.
+     */
+    @Test
+    public void testUpdate3() {
+        LiquidSimulation instance = new LiquidSimulation(world, 4, 1);
+        for (int x = 0; x < 20; x++) {
+            world.setTile(x, ground - 10, BlockType.WATER);
+            instance.activate(x, ground - 10);
+        }
+        assertEquals(20, instance.getActiveCount());
+        instance.update();
+        assertEquals(4, instance.getUpdatedCount());
+        assertEquals(4, instance.getChangedCount());
+        updateUntilSettled(instance, 10000);
+        assertEquals(0, instance.getActiveCount());
+        assertEquals(20*LiquidSimulation.MAX_LEVEL, countLiquid());
+    }
+
+    /**
+     * Test of tick method, of class LiquidSimulation.
+     */
+    @Test
+    public void testTick() {
+        LiquidSimulation instance = new LiquidSimulation(world, 256, 4);
+        world.setTile(10, ground - 10, BlockType.WATER);
+        instance.activate(10, ground - 10);
+        for (int i = 0; i < 3; i++) {
+            instance.tick();
+            assertEquals(BlockType.WATER, world.getTile(10, ground - 10));
+        }
+        instance.tick();
+        assertEquals(BlockType.WATER, world.getTile(10, ground - 9));
+        assertNull(world.getTile(10, ground - 10));
+    }
+    
+}
@@ -0,0 +1,169 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 Michal-jr.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package cz.cvut.fel.pjv.blocks;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * MappedTileStore unit tests.
+ *
+ * @author Michal-jr
+ * @version 1.1
+ */
+public class MappedTileStoreTest {
+    
+    private static final int WIDTH = 100;
+    private static final int HEIGHT = 70;
+    
+    private File file;
+    private MappedTileStore instance;
+    
+    /**
+     * Create a store in a temporary file.
+     *
+     * @throws java.io.IOException
+     */
+    @Before
+    public void setUp() throws IOException {
+        file = File.createTempFile("world", ".tiles");
+        instance = new MappedTileStore(file, WIDTH, HEIGHT);
+    }
+    
+    /**
+     * Delete the temporary file when the tests end, the file can not be deleted while it is mapped on some systems.
+     */
+    @After
+    public void tearDown() {
+        file.deleteOnExit();
+    }
+
+    /**
+     * Test of setTile method, of class MappedTileStore.
+     */
+    @Test
+    public void testSetTile() {
+        instance.setTile(99, 69, BlockType.STONE);
+        instance.setTile(40, 35, BlockType.WATER);
+        instance.setState(40, 35, 5);
+        assertEquals(BlockType.STONE, instance.getTile(99, 69));
+        assertEquals(BlockType.WATER, instance.getTile(40, 35));
+        assertEquals(5, instance.getState(40, 35));
+        assertNull(instance.getTile(41, 35));
+        assertEquals(2, instance.getBlockCount());
+        assertTrue(instance.hasTilesInChunk(33, 33, TileQuery.LIQUID));
+        assertFalse(instance.hasTilesInChunk(33, 33, TileQuery.SOLID));
+        instance.setTile(40, 35, null);
+        assertNull(instance.getTile(40, 35));
+        assertEquals(0, instance.getState(40, 35));
+        assertEquals(1, instance.getBlockCount());
+    }
+
+    /**
+     * Test of getTopSolidY method, of class MappedTileStore.
+     */
+    @Test
+    public void testGetTopSolidY() {
+        instance.setTile(7, 60, BlockType.DIRT);
+        instance.setTile(7, 10, BlockType.STONE);
+        assertEquals(10, instance.getTopSolidY(7));
+        instance.setTile(7, 10, null);
+        assertEquals(60, instance.getTopSolidY(7));
+        assertEquals(HEIGHT, instance.getTopLiquidY(7));
+    }
+
+    /**
+     * Test of serialization of class MappedTileStore.
+     * Tiles are read from the snapshot of the save, not from the serialized object.
+     * Changes made after the save do not get into the loaded store.
+     *
+     * @throws java.lang.Exception
+     */
+    @Test
+    public void testSerialization() throws Exception {
+        instance.setTile(50, 20, BlockType.DIAMOND_ORE);
+        instance.setTile(50, 40, BlockType.WATER);
+        File snapshot = File.createTempFile("save", ".tiles");
+        snapshot.deleteOnExit();
+        instance.save(snapshot);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream oos = new ObjectOutputStream(bytes)) {
+            oos.writeObject(instance);
+        }
+        assertTrue(bytes.size() < 1000);
+        instance.setTile(50, 20, BlockType.STONE);
+        MappedTileStore result;
+        try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            result = (MappedTileStore) ois.readObject();
+        }
+        assertNotEquals(file, result.getFile());
+        assertEquals(BlockType.DIAMOND_ORE, result.getTile(50, 20));
+        assertEquals(2, result.getBlockCount());
+        assertEquals(20, result.getTopSolidY(50));
+        assertEquals(40, result.getTopLiquidY(50));
+        //the loaded store writes into its own file
+        result.setTile(50, 20, null);
+        assertEquals(BlockType.STONE, instance.getTile(50, 20));
+        result.close();
+        assertFalse(result.getFile().exists());
+        assertTrue(snapshot.isFile());
+    }
+    
+    /**
+     * Test of serialization of class MappedTileStore.
+     * Store that was not saved can not be serialized.
+     *
+     * @throws java.lang.Exception
+     */
+    @Test(expected = NotSerializableException.class)
+    public void testSerialization2() throws Exception {
+        try (ObjectOutputStream oos = new ObjectOutputStream(new ByteArrayOutputStream())) {
+            oos.writeObject(instance);
+        }
+    }
+
+    /**
+     * Test of clear method, of class MappedTileStore.
+     */
+    @Test
+    public void testClear() {
+        instance.setTile(3, 3, BlockType.DIRT);
+        instance.clear();
+        assertNull(instance.getTile(3, 3));
+        assertEquals(0, instance.getBlockCount());
+        assertEquals(HEIGHT, instance.getTopSolidY(3));
+        instance.setTile(3, 3, BlockType.STONE);
+        assertEquals(BlockType.STONE, instance.getTile(3, 3));
+    }
+    
+}
@@ -33,7 +33,7 @@ import org.junit.runners.Suite;
  * @version 1.0
  */
 @RunWith(Suite.class)
-@Suite.SuiteClasses({EnemyTest.class, InventoryTest.class})
+@Suite.SuiteClasses({CreatureStoreTest.class, EnemyTest.class, InventoryTest.class})
 public class CreaturePackageTestSuite {
     
 }
@@ -0,0 +1,154 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 Michal-jr.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package cz.cvut.fel.pjv.creatures;
+
+import cz.cvut.fel.pjv.World;
+import cz.cvut.fel.pjv.blocks.Block;
+import cz.cvut.fel.pjv.blocks.BlockType;
+import cz.cvut.fel.pjv.blocks.SolidBlock;
+import java.io.IOException;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * CreatureStore unit tests.
+ *
+ * @author Michal-jr
+ * @version 1.0
+ */
+public class CreatureStoreTest {
+    
+    private static World testWorld;
+    private static double ground;
+    
+    /**
+     * Create the world instance with flat ground that will be used in tests.
+     *
+     * @throws IOException
+     */
+    @BeforeClass
+    public static void setUpClass() throws IOException {
+        testWorld = new World();
+        testWorld.getTiles().clear();
+        testWorld.getItems().clear();
+        testWorld.getNpcs().clear();
+        ground = testWorld.getTilePixelY(testWorld.getWorldMap().getHEIGHT()/2);
+        for (int i = -10; i < 10; i++) {
+            testWorld.placeBlock(new SolidBlock(i*Block.block_width, ground, BlockType.DIRT));
+        }
+    }
+    
+    /**
+     * Delete the world instance.
+     */
+    @AfterClass
+    public static void tearDownClass() {
+        testWorld = null;
+    }
+
+    /**
+     * Test of add and remove methods, of class CreatureStore.
+     * The state of the creature moves with it between stores.
+     */
+    @Test
+    public void testAddRemove() {
+        CreatureStore<NPC> store = new CreatureStore<>(1);
+        Friend first = new Friend(10, 20, CreatureType.MONK);
+        Friend second = new Friend(30, 40, CreatureType.MONK);
+        second.setHp(3);
+        second.setLeft(true);
+        store.add(first);
+        store.add(second);
+        assertEquals(2, store.size());
+        assertSame(second, store.get(1));
+        assertEquals(30, second.getX(), 0);
+        assertEquals(3, second.getHp());
+        assertTrue(store.hasFlag(1, CreatureStore.LEFT));
+        
+        store.remove(0);
+        assertEquals(1, store.size());
+        assertSame(second, store.get(0));
+        assertEquals(40, second.getY(), 0);
+        //removed creature keeps its state
+        first.setX(50);
+        assertEquals(50, first.getX(), 0);
+        assertEquals(20, first.getY(), 0);
+        assertEquals(30, second.getX(), 0);
+    }
+
+    /**
+     * Test of removeKilled method, of class CreatureStore.
+     */
+    @Test
+    public void testRemoveKilled() {
+        CreatureStore<NPC> store = new CreatureStore<>(4);
+        Friend[] friends = new Friend[5];
+        for (int i = 0; i < friends.length; i++) {
+            friends[i] = new Friend(i, 0, CreatureType.MONK);
+            store.add(friends[i]);
+        }
+        friends[1].die();
+        friends[3].die();
+        assertEquals(2, store.removeKilled());
+        assertEquals(3, store.size());
+        assertSame(friends[0], store.get(0));
+        assertSame(friends[2], store.get(1));
+        assertSame(friends[4], store.get(2));
+        assertEquals(4, friends[4].getX(), 0);
+        assertEquals(3, friends[3].getX(), 0);
+        assertTrue(friends[3].isKilled());
+    }
+
+    /**
+     * Test of moveAll method, of class CreatureStore.
+     * Updating NPCs by the world gives the same result as updating them one by one.
+     */
+    @Test
+    public void testUpdateNPCs() {
+        Player player = new Player(0, 0);
+        Friend[] serial = new Friend[3];
+        for (int i = 0; i < serial.length; i++) {
+            serial[i] = new Friend(i*Block.block_width, ground - 100, CreatureType.MONK);
+            testWorld.getNpcs().add(new Friend(i*Block.block_width, ground - 100, CreatureType.MONK));
+        }
+        for (int tick = 0; tick < 100; tick++) {
+            for (Friend npc : serial) {
+                npc.update(testWorld, player);
+            }
+            testWorld.updateNPCs(player);
+        }
+        for (int i = 0; i < serial.length; i++) {
+            NPC npc = testWorld.getNpcs().get(i);
+            assertEquals(serial[i].getX(), npc.getX(), 0);
+            assertEquals(serial[i].getY(), npc.getY(), 0);
+            assertEquals(serial[i].getVelocityY(), npc.getVelocityY(), 0);
+            assertEquals(serial[i].getSpriteX(), npc.getSpriteX(), 0);
+            assertEquals(serial[i].getHp(), npc.getHp());
+        }
+        testWorld.getNpcs().clear();
+    }
+    
+}
@@ -31,11 +31,7 @@ import cz.cvut.fel.pjv.blocks.SolidBlock;
 import cz.cvut.fel.pjv.items.Item;
 import cz.cvut.fel.pjv.items.ItemType;
 import cz.cvut.fel.pjv.items.StoredBlock;
-import cz.cvut.fel.pjv.testJavaFXApp;
 import java.io.IOException;
-import static java.lang.Thread.sleep;
-import javafx.application.Application;
-import javafx.application.Platform;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -51,49 +47,36 @@ import static org.mockito.Mockito.*;
  */
 public class EnemyTest {
     
-    private static Thread javaFXBGThread;
     private static World testWorld;
+    private static double ground;
     
     /**
-     * Start test JavaFX application needed for internal graphics initialization.
      * Create the world instance that will be used in tests.
      *
      * @throws IOException
-     * @throws java.lang.InterruptedException
      */
     @BeforeClass
-    public static void setUpClass() throws IOException, InterruptedException {
-        javaFXBGThread = new Thread() {
-            @Override
-            public void run() {
-                try {
-                    Application.launch(testJavaFXApp.class, new String[1]);
-                } catch (IllegalStateException e) {}
-            }
-        };
-        javaFXBGThread.start();
-        sleep(1000); //wait 1 second for JavaFX Toolkit to properly initialize
-        
+    public static void setUpClass() throws IOException {
         testWorld = new World();
-        testWorld.getBlocks().removeAll(testWorld.getBlocks());
+        testWorld.getTiles().clear();
+        //build the test blocks in the middle of the world, so the blocks above the ground fit into the world
+        ground = testWorld.getTilePixelY(testWorld.getWorldMap().getHEIGHT()/2);
         testWorld.getItems().removeAll(testWorld.getItems());
         testWorld.getNpcs().removeAll(testWorld.getNpcs());
         for (int i = 0; i < 10; i++) {
-            testWorld.getBlocks().add(new SolidBlock(i*Block.block_width, 0, BlockType.DIRT));
+            testWorld.placeBlock(new SolidBlock(i*Block.block_width, ground, BlockType.DIRT));
         }
-        testWorld.getBlocks().add(new SolidBlock(9*Block.block_width, -Block.block_height, BlockType.DIRT));
-        testWorld.getBlocks().add(new LiquidBlock(0*Block.block_width, -Block.block_height, BlockType.WATER));
-        testWorld.getItems().add(new StoredBlock(0, 0, ItemType.DIRT));
+        testWorld.placeBlock(new SolidBlock(9*Block.block_width, ground-Block.block_height, BlockType.DIRT));
+        testWorld.placeBlock(new LiquidBlock(0*Block.block_width, ground-Block.block_height, BlockType.WATER));
+        testWorld.getItems().add(new StoredBlock(0, ground, ItemType.DIRT));
     }
     
     /**
-     * Delete the world instance and shut down the JavaFX application.
+     * Delete the world instance.
      */
     @AfterClass
     public static void tearDownClass() {
         testWorld = null;
-        Platform.exit();
-        javaFXBGThread = null;
     }
 
     /**
@@ -137,6 +120,19 @@ public class EnemyTest {
         assertEquals(expectedPlayerHpAfterAttack, player.getHp());
     }
 
+    /**
+     * Test of attack method, of class Enemy.
+     * The world is looping, the enemy attacks the player over the world edge.
+     */
+    @Test
+    public void testAttack3() {
+        Player player = new Player(0, 0);
+        int expectedPlayerHpAfterAttack = player.getHp() - 1;
+        Enemy instance = new Enemy(testWorld.getWIDTH()*Block.block_width, 0, CreatureType.BOSS, testWorld);
+        instance.attack(player);
+        assertEquals(expectedPlayerHpAfterAttack, player.getHp());
+    }
+
     /**
      * Test of die method, of class Enemy.
      */
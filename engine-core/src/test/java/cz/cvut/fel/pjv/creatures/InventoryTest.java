@@ -27,12 +27,6 @@ import cz.cvut.fel.pjv.items.Item;
 import cz.cvut.fel.pjv.items.ItemType;
 import cz.cvut.fel.pjv.items.StoredBlock;
 import cz.cvut.fel.pjv.items.Tool;
-import cz.cvut.fel.pjv.testJavaFXApp;
-import static java.lang.Thread.sleep;
-import javafx.application.Application;
-import javafx.application.Platform;
-import org.junit.AfterClass;
-import org.junit.BeforeClass;
 import org.junit.Test;
 import static org.junit.Assert.*;
 import org.mockito.ArgumentCaptor;
@@ -46,36 +40,7 @@ import static org.mockito.Mockito.*;
  */
 public class InventoryTest {
     
-    private static Thread javaFXBGThread;
     
-    /**
-     * Start test JavaFX application needed for internal graphics initialization.
-     * 
-     * @throws java.lang.InterruptedException
-     */
-    @BeforeClass
-    public static void setUpClass() throws InterruptedException {
-        javaFXBGThread = new Thread() {
-            @Override
-            public void run() {
-                try {
-                    Application.launch(testJavaFXApp.class, new String[1]);
-                } catch (IllegalStateException e) {}
-            }
-        };
-        javaFXBGThread.start();
-        sleep(1000); //wait 1 second for JavaFX Toolkit to properly initialize
-    }
-    
-    /**
-     * Shut down the JavaFX application.
-     */
-    @AfterClass
-    public static void tearDownClass() {
-        Platform.exit();
-        javaFXBGThread = null;
-    }
-
     /**
      * Test of add method, of class Inventory.
      */
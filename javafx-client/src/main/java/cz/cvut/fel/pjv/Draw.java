@@ -0,0 +1,276 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2019 Michal-jr.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package cz.cvut.fel.pjv;
+
+import cz.cvut.fel.pjv.RenderSnapshot.Sprites;
+import cz.cvut.fel.pjv.blocks.Block;
+import cz.cvut.fel.pjv.blocks.BlockType;
+import cz.cvut.fel.pjv.blocks.LiquidSimulation;
+import cz.cvut.fel.pjv.blocks.TileQuery;
+import cz.cvut.fel.pjv.creatures.Friend;
+import cz.cvut.fel.pjv.items.Item;
+import cz.cvut.fel.pjv.items.StoredBlock;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import javafx.scene.text.TextAlignment;
+
+/**
+ * Class for drawing and transforming the world.
+ *
+ * @author Michal-jr
+ * @version 1.9
+ */
+public class Draw {
+    
+    private final double WIDTH;
+    private final double HEIGHT;
+    private double zoomScale;
+    private final double MIN_ZOOM_SCALE = 0.5;
+    private final double MAX_ZOOM_SCALE = 2;
+    private int textShowCounter = 0;
+    private RenderSnapshot lastSnapshot;
+
+    /**
+     * Set width, height and zoom parameters for drawing.
+     *
+     * @param WIDTH width of the canvas in pixels
+     * @param HEIGHT height of the canvas in pixels
+     * @param zoomScale starting zoom scale
+     * @since 1.4
+     */
+    public Draw(double WIDTH, double HEIGHT, double zoomScale) {
+        this.WIDTH = WIDTH;
+        this.HEIGHT = HEIGHT;
+        this.zoomScale = zoomScale;
+    }
+    
+    /**
+     * Scale the view of the world and center the camera on the drawn player.
+     * Only the camera is changed, the world keeps its coordinates.
+     * Before the first frame is drawn the camera follows the player from the next frame.
+     * 
+     * @param game instance of the game
+     * @since 1.0
+     */
+    public void zoom(Game game) {
+        Camera camera = game.getCamera();
+        camera.setScale(zoomScale);
+        //the player may be changed by the simulation right now, the drawn player is used
+        if (lastSnapshot == null) { return; }
+        Sprites creatures = lastSnapshot.getCreatures();
+        camera.centerOn(creatures.getX(0, 1), creatures.getY(0, 1));
+    }
+    
+    /**
+     * @return width in pixels of the part of the world visible on the canvas with the smallest zoom
+     * @since 1.7
+     */
+    public double getMaxViewWidth() {
+        return WIDTH / MIN_ZOOM_SCALE;
+    }
+    
+    /**
+     * @return height in pixels of the part of the world visible on the canvas with the smallest zoom
+     * @since 1.7
+     */
+    public double getMaxViewHeight() {
+        return HEIGHT / MIN_ZOOM_SCALE;
+    }
+    
+    private void drawTiles(GraphicsContext g, World world, Camera camera, TileQuery visibleTiles) {
+        for (int i = 0; i < visibleTiles.getSize(); i++) {
+            BlockType type = visibleTiles.getType(i);
+            //liquid fills only the bottom part of the tile by its level
+            double fill = 1;
+            if (type.isLiquid()) {
+                g.setGlobalAlpha(0.5);
+                fill = LiquidSimulation.getLevel(visibleTiles.getState(i)) / (double) LiquidSimulation.MAX_LEVEL;
+            }
+            g.drawImage(SpriteImages.get(Block.getSpritesheet()), type.getSpritesheetX(), type.getSpritesheetY() + type.getSpriteHeight()*(1-fill), 
+                    type.getSpriteWidth(), type.getSpriteHeight()*fill, 
+                    camera.toScreenX(world.getTilePixelX(visibleTiles.getTileX(i))), camera.toScreenY(world.getTilePixelY(visibleTiles.getTileY(i)) + Block.block_height*(1-fill)), 
+                    Block.block_width*camera.getScale(), Block.block_height*fill*camera.getScale());
+            g.setGlobalAlpha(1);
+        }
+    }
+    
+    private void drawSprites(GraphicsContext g, Sprites sprites, Camera camera, double alpha) {
+        double scale = camera.getScale();
+        for (int i = 0; i < sprites.getSize(); i++) {
+            g.drawImage(SpriteImages.get(sprites.getSpritesheet(i)), sprites.getImageX(i), sprites.getImageY(i), sprites.getImageWidth(i), sprites.getImageHeight(i), 
+                    camera.toScreenX(sprites.getX(i, alpha)), camera.toScreenY(sprites.getY(i, alpha)), 
+                    sprites.getWidth(i)*scale, sprites.getHeight(i)*scale);
+        }
+    }
+    
+    private void drawInventory(GraphicsContext g, RenderSnapshot snapshot) {
+        final double INV_HOTBAR_ITEMS_COUNT = 10;
+        final double INV_HEIGHT = 50; //size of one hotbar cell in pixels
+        final double STROKE_WIDTH = 5;
+        final double ITEM_SIZE = 40; //hotbar item size in pixels
+        final double INV_START_X = 0+STROKE_WIDTH;
+        final double INV_START_Y = 0+STROKE_WIDTH;
+        
+        double x = 0;
+        for (int i = 0; i < INV_HOTBAR_ITEMS_COUNT; i++) {
+            //draw the background
+            g.setFill(Color.WHITE);
+            g.setStroke(Color.RED);
+            g.setLineWidth(STROKE_WIDTH);
+            g.fillRect(INV_START_X+x, INV_START_Y, INV_HEIGHT, INV_HEIGHT);
+            g.strokeRect(INV_START_X+x, INV_START_Y, INV_HEIGHT, INV_HEIGHT);
+            //draw the item
+            if (snapshot.getHotbarItem(i) != null) {
+                Item item = snapshot.getHotbarItem(i);
+                g.drawImage(SpriteImages.get(item.getSpritesheet()), item.getIMAGE_X(), item.getIMAGE_Y(), item.getIMAGE_WIDTH(), item.getIMAGE_HEIGHT(), 
+                        INV_START_X+x+INV_HEIGHT/2-ITEM_SIZE/2, 
+                        INV_START_Y+INV_HEIGHT/2-ITEM_SIZE/2, 
+                        ITEM_SIZE, ITEM_SIZE);
+                if (item instanceof StoredBlock && snapshot.getHotbarQuantity(i) > 1) {
+                    g.setFill(Color.BLACK);
+                    g.fillText(String.valueOf(snapshot.getHotbarQuantity(i)), x+15, INV_HEIGHT-5);
+                }
+            }
+            x += INV_HEIGHT;
+        }
+        //highlight active item
+        g.setStroke(Color.GOLD);
+        g.strokeRect(INV_START_X+INV_HEIGHT*snapshot.getActiveItemIndex(), INV_START_Y, INV_HEIGHT, INV_HEIGHT);
+    }
+    
+    private void drawBars(GraphicsContext g, int hp) {
+        final Image HEARTH = new Image("hearts.png");
+        double x = WIDTH - 160;
+        for (int i = 0; i < hp; i++) {
+            g.drawImage(HEARTH, x, 10, 15, 15);
+            x += 15;
+        }
+    }
+    
+    private void drawText(GraphicsContext g, Game game, final Friend npc, String message) {
+        if (npc != null) {
+            textShowCounter++;
+            if (textShowCounter < 500) {
+                g.setGlobalAlpha(0.75);
+                g.setFill(Color.BLACK);
+                g.fillRect(0, HEIGHT*3/4, WIDTH, HEIGHT/4);
+                g.setGlobalAlpha(1);
+                g.setFill(Color.WHITE);
+                g.setFont(Font.font("Arial", FontWeight.BOLD, 20));
+                g.setTextAlign(TextAlignment.CENTER);
+                g.fillText(message, WIDTH/2, HEIGHT-HEIGHT/8);
+                g.setFont(Font.getDefault());
+            } else {
+                textShowCounter = 0;
+                //the NPC belongs to the simulation
+                game.post(new Runnable() {
+                    @Override
+                    public void run() {
+                        npc.setSomethingToSay(null);
+                    }
+                });
+            }
+        }
+    }
+
+    /**
+     * Draw the world and entities in it as they were copied from the game after the last tick.
+     * Creatures are drawn between their positions before and after the last tick.
+     * 
+     * @param g a canvas 2D rendering context
+     * @param game instance of the game
+     * @param snapshot state of the game after the last tick
+     * @param alpha part of the next tick that has already passed, from 0 to 1
+     * @since 1.7
+     */
+    public void render(GraphicsContext g, Game game, RenderSnapshot snapshot, double alpha) {
+        lastSnapshot = snapshot;
+        //clear the canvas
+        g.clearRect(0, 0, WIDTH, HEIGHT);
+        //draw
+        Camera camera = game.getCamera();
+        drawSprites(g, snapshot.getCreatures(), camera, alpha);
+        drawTiles(g, game.getWorld(), camera, snapshot.getTiles());
+        drawSprites(g, snapshot.getItems(), camera, alpha);
+        drawInventory(g, snapshot);
+        drawBars(g, snapshot.getPlayerHp());
+        drawText(g, game, snapshot.getTalkingNPC(), snapshot.getMessage());
+    }
+    
+    /**
+     * Draw background of the pause menu and text with seed. Paused game is still visible a bit.
+     *
+     * @param g a canvas 2D rendering context
+     * @param game instance of the game
+     * @since 1.1
+     */
+    public void drawPauseMenu(GraphicsContext g, Game game) {
+        g.setGlobalAlpha(0.75);
+        g.setFill(Color.BLACK);
+        g.fillRect(0, 0, WIDTH, HEIGHT);
+        g.setGlobalAlpha(1);
+        g.setFill(Color.WHITE);
+        g.setFont(Font.font("Arial", FontWeight.BOLD, 20));
+        g.fillText("Seed: "+game.getWorld().getWorldMap().getSeed(), WIDTH-300, HEIGHT-30);
+        g.setFont(Font.getDefault());
+    }
+
+    /**
+     * @return actual zoom scale of the world
+     * @since 1.0
+     */
+    public double getZoomScale() {
+        return zoomScale;
+    }
+
+    /**
+     * Set new zoom scale of the world.
+     *
+     * @param zoomScale
+     * @since 1.0
+     */
+    public void setZoomScale(double zoomScale) {
+        this.zoomScale = zoomScale;
+    }
+
+    /**
+     * @return minimal zoom scale
+     * @since 1.0
+     */
+    public double getMIN_ZOOM_SCALE() {
+        return MIN_ZOOM_SCALE;
+    }
+
+    /**
+     * @return maximal zoom scale
+     * @since 1.0
+     */
+    public double getMAX_ZOOM_SCALE() {
+        return MAX_ZOOM_SCALE;
+    }
+
+}
@@ -25,7 +25,6 @@ package cz.cvut.fel.pjv;
 
 import cz.cvut.fel.pjv.blocks.Block;
 import cz.cvut.fel.pjv.blocks.BlockType;
-import cz.cvut.fel.pjv.blocks.LiquidBlock;
 import cz.cvut.fel.pjv.creatures.Player;
 import cz.cvut.fel.pjv.items.ItemType;
 import cz.cvut.fel.pjv.items.StoredBlock;
@@ -41,9 +40,10 @@ import javafx.scene.input.ScrollEvent;
 
 /**
  * Class for initializing the event handlers for keyboard and mouse events.
+ * The game runs on the simulation thread, so the handlers only post commands changing it.
  *
  * @author Michal-jr
- * @version 1.0
+ * @version 1.2
  */
 public class EventHandlers {
     private final Scene gameScreen;
@@ -88,14 +88,17 @@ public class EventHandlers {
             @Override
             public void handle(KeyEvent event) {
                 if (timer.isRunning()) {
-                    switch (event.getCode()) {
-                        case W:     player.setUp(true); break;
-                        case A:     player.setLeft(true); break;
-                        case S:     player.setDown(true); break;
-                        case D:     player.setRight(true); break;
-                        case SHIFT: player.run(true); break;
-                        case Q:     player.changeActiveItem(-1); break;
-                        case E:     player.changeActiveItem(1); break;
+                    final KeyCode code = event.getCode();
+                    switch (code) {
+                        case W: case A: case S: case D: case SHIFT: case Q: case E: {
+                            game.post(new Runnable() {
+                                @Override
+                                public void run() {
+                                    keyPressed(code);
+                                }
+                            });
+                            break;
+                        }
                         case C:     draw.zoom(game); break;
                         case ESCAPE: {
                             timer.stop();
@@ -117,33 +120,61 @@ public class EventHandlers {
             @Override
             public void handle(KeyEvent event) {
                 if (timer.isRunning()) {
-                    switch (event.getCode()) {
-                        case W:     player.setUp(false); break;
-                        case A:     player.setLeft(false); break;
-                        case S:     player.setDown(false); break;
-                        case D:     player.setRight(false); break;
-                        case SHIFT: player.run(false); break;
-                    }
+                    final KeyCode code = event.getCode();
+                    game.post(new Runnable() {
+                        @Override
+                        public void run() {
+                            keyReleased(code);
+                        }
+                    });
                 }
             }
         });
     }
     
+    private void keyPressed(KeyCode code) {
+        switch (code) {
+            case W:     player.setUp(true); break;
+            case A:     player.setLeft(true); break;
+            case S:     player.setDown(true); break;
+            case D:     player.setRight(true); break;
+            case SHIFT: player.run(true); break;
+            case Q:     player.changeActiveItem(-1); break;
+            case E:     player.changeActiveItem(1); break;
+        }
+    }
+    
+    private void keyReleased(KeyCode code) {
+        switch (code) {
+            case W:     player.setUp(false); break;
+            case A:     player.setLeft(false); break;
+            case S:     player.setDown(false); break;
+            case D:     player.setRight(false); break;
+            case SHIFT: player.run(false); break;
+        }
+    }
+    
     private void createMouseHandler() {
         gameScreen.setOnMouseClicked(new EventHandler<MouseEvent>() {
             @Override
             public void handle(MouseEvent event) {
                 if (timer.isRunning()) {
-                    MouseButton button = event.getButton();
-                    double clickX = event.getSceneX();
-                    double clickY = event.getSceneY();
+                    final MouseButton button = event.getButton();
+                    //map the click from the canvas to the world
+                    final double clickX = game.getCamera().toWorldX(event.getSceneX());
+                    final double clickY = game.getCamera().toWorldY(event.getSceneY());
 
-                    if (button == MouseButton.PRIMARY) {
-                        createLeftMouseClickHandler(clickX, clickY);
-                    }
-                    else if (button == MouseButton.SECONDARY) {
-                        createRightMouseClickHandler(clickX, clickY);
-                    }
+                    game.post(new Runnable() {
+                        @Override
+                        public void run() {
+                            if (button == MouseButton.PRIMARY) {
+                                createLeftMouseClickHandler(clickX, clickY);
+                            }
+                            else if (button == MouseButton.SECONDARY) {
+                                createRightMouseClickHandler(clickX, clickY);
+                            }
+                        }
+                    });
                 }
             }
         });
@@ -168,23 +199,15 @@ public class EventHandlers {
             if (player.getInventory().getActiveItem() instanceof Tool) {
                 Tool tool = (Tool) player.getInventory().getActiveItem();
                 if (tool.isPickaxe()) {
-                    for (Block block : world.getBlocks()) {
-                        if (block.isDestroyed()) { continue; }
-                        if (Collision.collides(clickX, clickY, block)) {
-                            if (
-                                // Bedrock is indestructible. Water cannot be digged.
-                                block.getBlockType() != BlockType.BEDROCK && block.getBlockType() != BlockType.WATER &&
-                                // Stone bricks can be digged only with golden pickaxe.
-                                (block.getBlockType() != BlockType.STONE_BRICKS || 
-                                    (block.getBlockType() == BlockType.STONE_BRICKS && tool.isGoldenPickaxe()))
-                            ) {
-                                block.destroy();
-                                ItemType blockType = ItemType.valueOf(block.getBlockType().name());
-                                player.getInventory().add(new StoredBlock(0, 0, blockType));
-                            }
-                        }
+                    int tileX = world.getTileX(clickX);
+                    int tileY = world.getTileY(clickY);
+                    BlockType type = world.getTile(tileX, tileY);
+                    //hardness of the block type decides which pickaxe can dig it
+                    if (type != null && type.canBeDugWith(tool.getPower())) {
+                        world.setTile(tileX, tileY, null);
+                        ItemType blockType = ItemType.valueOf(type.name());
+                        player.getInventory().add(new StoredBlock(0, 0, blockType));
                     }
-                    world.updateLiquids(player);
                 }
             }
         }
@@ -199,23 +222,13 @@ public class EventHandlers {
         ) {
             //build block
             if (player.getInventory().getActiveItem() instanceof StoredBlock) {
-                boolean canBuild = true;
-                for (Block block : world.getBlocks()) {
-                    if (Collision.collides(clickX, clickY, block)) {
-                        if (block instanceof LiquidBlock) {
-                            block.destroy();
-                        } else {
-                            canBuild = false;
-                        }
-                    }
-                }
-                if (canBuild) {
+                int tileX = world.getTileX(clickX);
+                int tileY = world.getTileY(clickY);
+                BlockType type = world.getTile(tileX, tileY);
+                //liquid is replaced by the new block
+                if (type == null || type.isLiquid()) {
                     StoredBlock item = (StoredBlock) player.getInventory().getActiveItem();
-                    double blockX = clickX - (clickX - draw.getCameraOffsetX()) % Block.block_width;
-                    double blockY = clickY - (clickY - draw.getCameraOffsetY()) % Block.block_height;
-                    if (clickX < draw.getCameraOffsetX()) { blockX = draw.getCameraOffsetX() - Block.block_width; }
-                    if (clickY < draw.getCameraOffsetY()) { blockY = draw.getCameraOffsetY() - Block.block_height; }
-                    world.getBlocks().add(item.place(blockX, blockY));
+                    world.placeBlock(item.place(world.getTilePixelX(tileX), world.getTilePixelY(tileY)));
                     player.getInventory().remove(item);
                 }
             }
@@ -23,28 +23,34 @@
  */
 package cz.cvut.fel.pjv;
 
-import cz.cvut.fel.pjv.creatures.Player;
+import cz.cvut.fel.pjv.RenderSnapshot.Sprites;
+import cz.cvut.fel.pjv.maps.MapConfig;
+import cz.cvut.fel.pjv.maps.WorldMap;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.stage.Stage;
 
 /**
  * Game loop. Timer extends AnimationTimer and has methods for check its status.
+ * The simulation runs in fixed ticks on its own thread, the timer draws its newest snapshot once per frame.
  *
  * @author Michal-jr
- * @version 1.0
+ * @version 1.3
  */
 public class GameAnimationTimer extends AnimationTimer {
+    private static final int DEFAULT_TICK_RATE = 60;
+    private static final int DEFAULT_MAX_TICKS_PER_FRAME = 5;
+    
     private volatile boolean running;
-    private long lastUpdate = 0;
+    private final FixedTimestep clock;
+    private final SimulationThread simulation;
     private final Stage stage;
     private final Draw draw;
     private final GraphicsContext gc;
     private final Game game;
-    private final Player player;
-    private final World world;
 
     /**
      * Create new animation timer used as game loop.
@@ -60,29 +66,58 @@ public class GameAnimationTimer extends AnimationTimer {
         this.draw = draw;
         this.gc = gc;
         this.game = game;
-        this.player = game.getPlayer();
-        this.world = game.getWorld();
+        MapConfig mapConfig = WorldMap.getMapConfig();
+        if (mapConfig != null && mapConfig.tickRate > 0) {
+            clock = new FixedTimestep(mapConfig.tickRate, mapConfig.maxTicksPerFrame);
+        } else {
+            clock = new FixedTimestep(DEFAULT_TICK_RATE, DEFAULT_MAX_TICKS_PER_FRAME);
+        }
+        simulation = new SimulationThread(game, clock, draw.getMaxViewWidth(), draw.getMaxViewHeight());
     }
     
     @Override
     public void handle(long now) {
-        if (now - lastUpdate >= 17_000_000) { //update each 17 miliseconds
-            player.update(world);
-            world.updateNPCs(player);
-            world.updateLayingItems();
-            draw.shiftCamera(game);
-            draw.render(gc, game);
-            lastUpdate = now;
-            if (player.isKilled()) {
-                stop();
-                Main.saveGame(game);
-                stage.setScene(Main.respawnMenu);
-            }
+        //the snapshot taken after a finished simulation is seen is its last one
+        boolean finished = simulation.isFinished();
+        RenderSnapshot snapshot = simulation.takeSnapshot();
+        if (snapshot == null) {
+            //the simulation failed before its first tick
+            if (finished) { fail(); }
+            return;
         }
+        //part of the next tick that passed since the snapshot was taken
+        double alpha = Math.max(0, Math.min(1, (double) (System.nanoTime() - snapshot.getTime()) / clock.getTickNanos()));
+        Sprites creatures = snapshot.getCreatures();
+        game.getCamera().follow(creatures.getX(0, alpha), creatures.getY(0, alpha), creatures.getWidth(0), creatures.getHeight(0));
+        draw.render(gc, game, snapshot, alpha);
+        if (snapshot.isPlayerKilled()) {
+            stop();
+            Main.saveGame(game);
+            stage.setScene(Main.respawnMenu);
+        } else if (finished) {
+            fail();
+        }
+    }
+    
+    /**
+     * The simulation failed, the game can not go on. The failed game is not saved,
+     * the player is taken back to the start menu.
+     */
+    private void fail() {
+        stop();
+        //dialogs can not wait during an animation pulse
+        Platform.runLater(new Runnable() {
+            @Override
+            public void run() {
+                UIControls.createErrorAlert("The game failed and can not go on. Saved games can still be loaded.");
+                Main.showGameMenu(stage);
+            }
+        });
     }
     
     @Override
     public void start() {
+        simulation.resume();
         super.start();
         running = true;
         Logger.getLogger(Logger.GLOBAL_LOGGER_NAME).log(Level.INFO, "Game started.");
@@ -91,6 +126,8 @@ public class GameAnimationTimer extends AnimationTimer {
     @Override
     public void stop() {
         super.stop();
+        //the game must not change while the pause menu is open or the game is saved
+        simulation.pause();
         running = false;
         Logger.getLogger(Logger.GLOBAL_LOGGER_NAME).log(Level.INFO, "Game paused.");
     }
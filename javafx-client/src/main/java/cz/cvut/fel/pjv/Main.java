@@ -40,7 +40,7 @@ import javafx.stage.Stage;
  * Main class, starts the game.
  * 
  * @author Michal-jr
- * @version 1.1
+ * @version 1.3
  */
 public class Main extends Application {
     
@@ -82,6 +82,16 @@ public class Main extends Application {
         stage.show();
     }
     
+    /**
+     * Release files of the played game when the application ends, the game saved to a file is kept.
+     *
+     * @since 1.2
+     */
+    @Override
+    public void stop() {
+        if (savedGame != null) { savedGame.close(); }
+    }
+    
     /**
      * Starts the game.
      *
@@ -94,15 +104,14 @@ public class Main extends Application {
         final Stage stage = givenStage;
         final Game game;
         if (savedGame == null) {
-            game = new Game(WIDTH);
+            game = new Game(WIDTH, HEIGHT);
             saveGame(game);
         } else {
             game = savedGame;
         }
-        final World world = game.getWorld();
         final Player player = game.getPlayer();
         
-        final Draw draw = new Draw(WIDTH, HEIGHT, world.getWIDTH(), game.getZoomScale(), game.getSavedCameraOffsetX(), game.getSavedCameraOffsetY());
+        final Draw draw = new Draw(WIDTH, HEIGHT, game.getCamera().getScale());
         Canvas gameCanvas = (Canvas) gameScreen.getRoot().getChildrenUnmodifiable().get(0);
         final GraphicsContext gc = gameCanvas.getGraphicsContext2D();
 
@@ -112,18 +121,35 @@ public class Main extends Application {
         eventHandlers.create();
         
         stage.setScene(gameScreen);
-        draw.zoom(game); //center camera to player
+        draw.zoom(game);
+        //the simulation is not running yet, the player can be read
+        game.getCamera().centerOn(player);
         
         timer.start();
     }
     
+    /**
+     * Show the start menu again, the loading label shown while a game is loaded is hidden.
+     *
+     * @param stage instance of javafx stage (window)
+     * @since 1.3
+     */
+    public static void showGameMenu(Stage stage) {
+        gameMenu.getRoot().getChildrenUnmodifiable().get(0).setVisible(true);
+        gameMenu.getRoot().getChildrenUnmodifiable().get(1).setVisible(true);
+        gameMenu.getRoot().getChildrenUnmodifiable().get(2).setVisible(false);
+        stage.setScene(gameMenu);
+    }
+    
     /**
      * Save the game temporarily. This is not saving game to file.
+     * The game saved before is closed if it is replaced by another one.
      *
      * @param gameToSave instance of game to be temporarily saved
      * @since 1.1
      */
     public static void saveGame(Game gameToSave) {
+        if (savedGame != null && savedGame != gameToSave) { savedGame.close(); }
         savedGame = gameToSave;
     }
 }
@@ -1,7 +1,7 @@
 /*
  * The MIT License
  *
- * Copyright 2019 Zdenek.
+ * Copyright 2019 Michal-jr.
  *
  * Permission is hereby granted, free of charge, to any person obtaining a copy
  * of this software and associated documentation files (the "Software"), to deal
@@ -21,45 +21,35 @@
  * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
  * THE SOFTWARE.
  */
-package cz.cvut.fel.pjv.maps;
+package cz.cvut.fel.pjv;
 
-import cz.cvut.fel.pjv.blocks.BlockType;
-import java.io.Serializable;
-import java.util.List;
+import java.util.EnumMap;
 import java.util.Map;
+import javafx.scene.image.Image;
 
 /**
- * Object representation of the JSON configuration file.
- * 
- * @author Zdenek
+ * Images of spritesheets for drawing. Each image is loaded once, when it is drawn for the first time.
+ * Use only from the JavaFX Application Thread.
+ *
+ * @author Michal-jr
  * @version 1.0
  */
-public class MapConfig implements Serializable {
-    
-    public List<List<BlockType>> completeMap;
-    
-    public Map<String, List<List<BlockType>>> structureBlueprints;
-    
-    public int playerStartingX;
-    public int playerStartingY;
-    
-    public int width;
-    public int height;
+public class SpriteImages {
     
-    public double amplitudeCoefficientMultiplicator;
-    public double periodCoefficientMultiplicator;
-    
-    public double ampMin;
-    public double ampMax;
-    public double perMin;
-    public double perMax;
-    
-    public double flatLandProbability;
-    public double diamondProbability;
-    public double caveProbability;
-    
-    public String seed;
+    private static final Map<Spritesheet, Image> IMAGES = new EnumMap<>(Spritesheet.class);
 
-    public MapConfig() {
+    /**
+     * @param spritesheet id of the spritesheet
+     * @return image of the spritesheet
+     * @since 1.0
+     */
+    public static Image get(Spritesheet spritesheet) {
+        Image image = IMAGES.get(spritesheet);
+        if (image == null) {
+            image = new Image(spritesheet.getFileName());
+            IMAGES.put(spritesheet, image);
+        }
+        return image;
     }
+    
 }
@@ -26,7 +26,10 @@ package cz.cvut.fel.pjv;
 import cz.cvut.fel.pjv.fileio.GameSaver;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.text.DateFormat;
+import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.Optional;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -57,7 +60,7 @@ import javafx.stage.Stage;
  * Class for creating forms, alerts and other UI controls.
  *
  * @author Michal-jr
- * @version 1.0
+ * @version 1.1
  */
 public class UIControls {
     private final double WIDTH;
@@ -137,7 +140,7 @@ public class UIControls {
                             Platform.runLater(new Runnable() {
                                 @Override
                                 public void run() {
-                                    Main.savedGame = GameSaver.loadSavedGame(fileName);
+                                    Main.saveGame(loadGame(fileName));
                                     try {
                                         Main.startGame(stage, Main.savedGame);
                                     } catch (FileNotFoundException ex) {
@@ -202,7 +205,7 @@ public class UIControls {
                         Platform.runLater(new Runnable() {
                             @Override
                             public void run() {
-                                GameSaver.saveGame(Main.savedGame);
+                                saveGame(Main.savedGame);
                                 Main.gameScreen.getRoot().getChildrenUnmodifiable().get(2).setDisable(false);
                                 Main.gameScreen.getRoot().getChildrenUnmodifiable().get(3).setVisible(false);
                             }
@@ -337,6 +340,47 @@ public class UIControls {
         return result.get();
     }
     
+    /**
+     * Ask for the name of the file and save the game to it.
+     *
+     * @param gameToSaveToFile instance of the game to be saved in file
+     * @since 1.1
+     */
+    public static void saveGame(Game gameToSaveToFile) {
+        DateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss");
+        Date date = new Date();
+        String fileName = createInputDialog("save_"+dateFormat.format(date), "Save as", "Please enter the name of the file:");
+        if (fileName != null) {
+            try {
+                GameSaver.saveGame(gameToSaveToFile, fileName);
+                createAlert(AlertType.INFORMATION, "Success", null, "The game was saved successfully!");
+            } catch (IOException ex) {
+                createErrorAlert("An error occured during file saving.");
+                Logger.getLogger(Logger.GLOBAL_LOGGER_NAME).log(Level.SEVERE, "An error occured during file saving.", ex);
+            }
+        }
+    }
+
+    /**
+     * Load saved game from file, errors are shown to the user.
+     *
+     * @param fileName name of the file in which the game is saved
+     * @return instance of the loaded game, null if it could not be loaded
+     * @since 1.1
+     */
+    public static Game loadGame(String fileName) {
+        try {
+            return GameSaver.loadSavedGame(fileName);
+        } catch (ClassNotFoundException ex) {
+            createErrorAlert("Game could not be loaded. Loaded file doesn't contain game object.");
+            Logger.getLogger(Logger.GLOBAL_LOGGER_NAME).log(Level.SEVERE, "Game could not be loaded. Loaded file doesn't contain game object.", ex);
+        } catch (IOException ex) {
+            createErrorAlert("An error occured during file loading.");
+            Logger.getLogger(Logger.GLOBAL_LOGGER_NAME).log(Level.SEVERE, "An error occured during file loading.", ex);
+        }
+        return null;
+    }
+
     /**
      * Show save button when game is paused.
      *